@@ -6,6 +6,7 @@ import fr.groupe4.clientprojet.display.dialog.firstrundialog.view.FirstRunDialog
 import fr.groupe4.clientprojet.display.mainwindow.view.MainWindow;
 import fr.groupe4.clientprojet.logger.Logger;
 import fr.groupe4.clientprojet.model.parameters.Parameters;
+import fr.groupe4.clientprojet.utils.profiling.Profiling;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -19,12 +20,16 @@ public class Main {
      */
     public static void main(@NotNull String[] args) {
         Logger.init();
+        Profiling.init();
         Parameters.init();
 
         if (Parameters.isFirstRun()) {
             new FirstRunDialog();
         }
 
+        // Connexion au serveur ouverte pendant la saisie des identifiants
+        Communication.prewarm();
+
         if (!Communication.isConnected()) {
             new ConnectionDialog();
         }
@@ -39,6 +44,7 @@ public class Main {
     public static void exit() {
         Communication.exit();
         Parameters.exit();
+        Profiling.stop();
         Logger.exit();
     }
 
@@ -4,6 +4,8 @@ import fr.groupe4.clientprojet.communication.enums.*;
 import fr.groupe4.clientprojet.logger.Logger;
 import fr.groupe4.clientprojet.logger.enums.LoggerOption;
 import fr.groupe4.clientprojet.model.parameters.Parameters;
+import fr.groupe4.clientprojet.utils.profiling.CommunicationEvent;
+import fr.groupe4.clientprojet.utils.profiling.DecodeEvent;
 import org.jetbrains.annotations.Async;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -13,20 +15,36 @@ import org.json.simple.parser.ParseException;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
-import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 
 /**
  * Communication, effectue les appels API.
@@ -54,28 +72,28 @@ import java.util.concurrent.atomic.AtomicReference;
  * comm.getMessage(); // Authentication successful and JWT generated. <br>
  * comm.getHtmlCode(); // 200 <br>
  * Communication.isConnected(); // true </code><br>
+ * <br>
+ * Exemple asynchrone, sans bloquer le thread courant : <br><code>
+ * Communication.builder() <br>
+ * .getProjectList() <br>
+ * .buildAsync() <br>
+ * .thenAccept(c -&gt; afficher(c.getResult())); </code><br>
  *
  * @author Romain
  */
 @SuppressWarnings("unused")
 public final class Communication implements Runnable {
     /**
-     * Client HTTP pour les requètes
-     */
-    @NotNull
-    private static final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
-
-    /**
-     * Temps avant de timeout
+     * Exécuteur partagé par toutes les communications <br>
+     * Les threads sont réutilisés d'une requête à l'autre et ne bloquent pas la fermeture de l'application
      */
     @NotNull
-    private static final Duration TIMEOUT_DELAY = Duration.ofSeconds(30);
+    private static final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactory());
 
     /**
-     * Temps avant d'actualiser
+     * Durée de validité minimale (en secondes) pour qu'un token de requête soit encore utilisé
      */
-    @NotNull
-    private static final Duration UPDATE_DELAY = Duration.ofMillis(10);
+    static final long TOKEN_MIN_VALIDITY = CommunicationLatency.MAX_TIMEOUT.toSeconds() * 2;
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -91,11 +109,23 @@ public final class Communication implements Runnable {
     @NotNull
     private static volatile AtomicReference<String> renewToken = new AtomicReference<>("");
 
+    /**
+     * Date d'expiration du token de requête, en secondes depuis l'epoch <br>
+     * Décodée une seule fois à la réception du token, 0 si pas de token
+     */
+    private static volatile long requestTokenExpiration = 0;
+
     /**
      * Si les threads ont le droit de communiquer ou non
      */
     private static volatile boolean communicationAllowed = true;
 
+    /**
+     * Communications lancées et pas encore terminées, annulées à la sortie
+     */
+    @NotNull
+    private static final Set<Communication> pendingCommunications = ConcurrentHashMap.newKeySet();
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     /**
@@ -105,7 +135,7 @@ public final class Communication implements Runnable {
      * @return Token
      */
     @NotNull
-    static synchronized String getRequestToken(@NotNull Object editor) {
+    static String getRequestToken(@NotNull Object editor) {
         if (editor instanceof CommunicationBuilder || editor instanceof JsonTreatment) {
             return requestToken.get();
         } else {
@@ -123,7 +153,12 @@ public final class Communication implements Runnable {
     @SuppressWarnings("SameParameterValue")
     static synchronized void setRequestToken(@NotNull Object editor, @NotNull String token) {
         if (editor instanceof JsonTreatment) {
+            long expiration = decodeExpiration(token);
+
+            requestTokenExpiration = expiration;
             requestToken.set(token);
+
+            CommunicationTokenRenewer.schedule(expiration);
         } else {
             Logger.error("Accès au token non autorisé");
         }
@@ -136,7 +171,7 @@ public final class Communication implements Runnable {
      * @return Token
      */
     @NotNull
-    static synchronized String getRenewToken(@NotNull Object editor) {
+    static String getRenewToken(@NotNull Object editor) {
         if (editor instanceof CommunicationBuilder || editor instanceof JsonTreatment) {
             return renewToken.get();
         } else {
@@ -164,75 +199,164 @@ public final class Communication implements Runnable {
         }
     }
 
+    /**
+     * Indique si un token de renouvellement est disponible
+     *
+     * @return Token de renew présent ou non
+     */
+    static boolean hasRenewToken() {
+        return !renewToken.get().isEmpty();
+    }
+
     /**
      * Vérifie l'état de la connexion
      *
      * @return Connecté ou non
      */
     public static boolean isConnected() {
-        checkTokenValidity();
-        return !requestToken.get().isEmpty();
+        return checkTokenValidity();
     }
 
     /**
-     * Vérifie la validité d'un token
+     * Vérifie la validité du token de requête <br>
+     * Simple comparaison avec l'expiration déjà décodée, appelée avant chaque requête
+     *
+     * @return Token présent et encore valide assez longtemps
      */
-    private static synchronized void checkTokenValidity() {
-        if (!requestToken.get().isEmpty()) {
-            String[] splitString = requestToken.get().split("\\.");
+    static boolean checkTokenValidity() {
+        long remainingTime = requestTokenExpiration - System.currentTimeMillis() / 1000L;
+
+        return !requestToken.get().isEmpty() && remainingTime >= TOKEN_MIN_VALIDITY;
+    }
+
+    /**
+     * Décode la date d'expiration d'un token JWT
+     *
+     * @param token Token
+     * @return Expiration en secondes depuis l'epoch, 0 si token vide ou invalide
+     */
+    private static long decodeExpiration(@NotNull String token) {
+        if (token.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            String[] splitString = token.split("\\.");
             Base64.Decoder decoder = Base64.getUrlDecoder();
-            String tokenBody = new String(decoder.decode(splitString[1]));
+            String tokenBody = new String(decoder.decode(splitString[1]), StandardCharsets.UTF_8);
 
             JSONParser parser = new JSONParser();
+            JSONObject parsedResponse = (JSONObject) parser.parse(tokenBody);
 
-            try {
-                JSONObject parsedResponse = (JSONObject) parser.parse(tokenBody);
+            return (long) parsedResponse.get("exp");
+        } catch (ParseException | RuntimeException e) {
+            Logger.error("Vérification de token invalide");
+            return 0;
+        }
+    }
 
-                long currentTime = System.currentTimeMillis() / 1000L;
+    /**
+     * Active ou non la compression gzip des corps de requête volumineux <br>
+     * À n'activer que si le serveur accepte les requêtes compressées
+     *
+     * @param enabled Activée ou non
+     */
+    public static void setRequestCompression(boolean enabled) {
+        CommunicationEncoding.setRequestCompression(enabled);
+    }
 
-                long expirationTime = (long) parsedResponse.get("exp");
+    /**
+     * Ouvre en arrière-plan les connexions au serveur, pour que la première requête ne paie pas leur établissement <br>
+     * À appeler au démarrage, une fois l'URL du serveur connue
+     */
+    public static void prewarm() {
+        CommunicationClients.prewarm();
+    }
 
-                // long totalTime = expirationTime - (long) parsedResponse.get("iat");
+    /**
+     * Active ou non le doublement des requêtes en lecture seule qui dépassent leur latence p95 habituelle <br>
+     * Activé par défaut
+     *
+     * @param enabled Activé ou non
+     */
+    public static void setHedging(boolean enabled) {
+        CommunicationLatency.setHedging(enabled);
+    }
 
-                long remainingTime = expirationTime - currentTime;
+    /**
+     * Time out actuel d'un type de communication, adapté à sa latence observée
+     *
+     * @param type Type de communication
+     * @return Time out
+     */
+    @NotNull
+    public static Duration getTimeout(@NotNull CommunicationType type) {
+        return CommunicationLatency.timeout(type);
+    }
 
-                if (remainingTime < TIMEOUT_DELAY.toSeconds() * 2) {
-                    requestToken.set("");
-                }
-            } catch (ParseException e) {
-                Logger.error("Vérification de token invalide");
-            }
-        }
+    /**
+     * État du disjoncteur de l'endpoint d'un type de communication
+     *
+     * @param type Type de communication
+     * @return État, CIRCUIT_OPEN si les requêtes échouent immédiatement
+     */
+    @NotNull
+    public static CommunicationCircuitState getCircuitState(@NotNull CommunicationType type) {
+        return CommunicationCircuitBreaker.getState(type.getUrl());
+    }
+
+    /**
+     * Active ou désactive les lignes de trace des communications dans le fichier de log <br>
+     * Activées par défaut
+     *
+     * @param enabled Écriture ou non
+     * @see CommunicationTrace
+     */
+    public static void setTracing(boolean enabled) {
+        CommunicationTrace.setEnabled(enabled);
+    }
+
+    /**
+     * Change le format des corps de requête, et des réponses si le serveur le permet <br>
+     * Formulaire par défaut, le seul que l'API historique comprenne
+     *
+     * @param format Format d'échange
+     */
+    public static void setWireFormat(@NotNull CommunicationFormat format) {
+        CommunicationCodec.setFormat(format);
     }
 
     /**
      * Quitte tous les threads
      */
     public static void exit() {
+        // Les modifications en attente partent avant que les communications soient coupées
+        CommunicationOutbox.close();
         communicationAllowed = false;
+
+        CommunicationTokenRenewer.stop();
+        CommunicationSubscription.stopAll();
+        CommunicationRetry.stop();
+        CommunicationLatency.stop();
+        CommunicationClients.stop();
+        CommunicationStore.close();
+        CommunicationMetrics.stop();
+
+        for (Communication comm : pendingCommunications) {
+            comm.abort();
+        }
+
+        executor.shutdown();
     }
 
     /**
-     * Transforme une HashMap en formulaire pour POST <br>
-     * Source : <a href="https://mkyong.com/java/how-to-send-http-request-getpost-in-java/">mkyong.com</a>
+     * Retourne l'exécuteur partagé des communications
      *
-     * @param data Data en entrée
-     * @return Formulaire pour POST
+     * @return Exécuteur
      */
     @NotNull
-    private static HttpRequest.BodyPublisher buildFormDataFromMap(@NotNull HashMap<String, Object> data) {
-        StringBuilder builder = new StringBuilder();
-
-        for (Map.Entry<String, Object> entry : data.entrySet()) {
-            if (builder.length() > 0) {
-                builder.append("&");
-            }
-            builder.append(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8));
-            builder.append("=");
-            builder.append(URLEncoder.encode(entry.getValue().toString(), StandardCharsets.UTF_8));
-        }
-
-        return HttpRequest.BodyPublishers.ofString(builder.toString());
+    static ExecutorService getExecutor() {
+        return executor;
     }
 
     /**
@@ -245,18 +369,38 @@ public final class Communication implements Runnable {
         return new CommunicationBuilder();
     }
 
-    // TODO
-    public static Communication getInstance(CommunicationKeepAlive type) {
-        return singletons.get(type);
-    }
+    /**
+     * Abonnements partagés, créés à la première demande
+     */
+    @NotNull
+    private static final EnumMap<CommunicationKeepAlive, CommunicationSubscription> subscriptions =
+            new EnumMap<>(CommunicationKeepAlive.class);
 
-    // TODO
-    private static HashMap<CommunicationKeepAlive, Communication> singletons;
+    /**
+     * Retourne l'abonnement partagé d'un flux <br>
+     * L'abonnement n'interroge le serveur qu'une fois démarré avec start()
+     *
+     * @param type Flux à suivre
+     * @return Abonnement
+     */
+    @NotNull
+    public static synchronized CommunicationSubscription getInstance(@NotNull CommunicationKeepAlive type) {
+        CommunicationSubscription subscription = subscriptions.get(type);
 
-    // TODO
-    static {
-        singletons = new HashMap<>();
-        // singletons.put(KEEP_ALIVE_LIST_MESSAGE, Communication.builder().getUserMessageList(0).startNow().build());
+        if (subscription == null) {
+            switch (type) {
+                case KEEP_ALIVE_LIST_MESSAGE:
+                    subscription = builder().getUserMessageList(0).subscribe();
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("Pas d'abonnement pour " + type);
+            }
+
+            subscriptions.put(type, subscription);
+        }
+
+        return subscription;
     }
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -280,30 +424,42 @@ public final class Communication implements Runnable {
     Object communicationResult;
 
     /**
-     * Maintient la connexion en vie ou non
+     * Cherche la réponse dans le cache avant de l'envoyer ou non
      */
-    private final boolean keepAlive;
+    private final boolean useCache;
 
     /**
      * Requête autorisée ou non
      */
-    private boolean requestAllowed;
+    private volatile boolean requestAllowed;
 
     /**
-     * Temps entre deux requêtes
+     * Client ayant finit son chargement ou non
+     */
+    private volatile boolean loadingFinished;
+
+    /**
+     * Communication lancée ou non
+     */
+    private volatile boolean started;
+
+    /**
+     * Complétée avec cette communication lorsqu'elle est terminée, quel que soit son résultat
      */
     @NotNull
-    private final Duration timeBetweenRequests;
+    private final CompletableFuture<Communication> completion;
 
     /**
-     * Client ayant finit son chargement ou non
+     * Échange HTTP en cours, null s'il n'a pas encore été envoyé
      */
-    private boolean loadingFinished;
+    @Nullable
+    private volatile CompletableFuture<HttpResponse<InputStream>> requestSent;
 
     /**
-     * Thread lancé ou non
+     * Validateurs envoyés avec la requête, pour reprendre la réponse précédente en cas de 304
      */
-    private boolean started;
+    @Nullable
+    private CommunicationValidators.Entry validators;
 
     /**
      * Type de communication
@@ -311,6 +467,23 @@ public final class Communication implements Runnable {
     @NotNull
     final CommunicationType typeOfCommunication;
 
+    /**
+     * Clé identifiant la requête (type et données hors token et curseur), calculée au lancement
+     */
+    @Nullable
+    private String requestKey;
+
+    /**
+     * Priorité de la communication dans l'ordonnanceur
+     */
+    @NotNull
+    final CommunicationPriority priority;
+
+    /**
+     * Passe par l'ordonnanceur et n'y a pas encore libéré sa place
+     */
+    private volatile boolean scheduled;
+
     /**
      * Statut de la requête, comme "success" ou "error"
      */
@@ -321,7 +494,7 @@ public final class Communication implements Runnable {
      * Code de l'API, par exemple "ERROR_INVALID_USER_CREDENTIALS" ou "SUCCESS_AUTHENTICATED"
      */
     @NotNull
-    private APICode code;
+    APICode code;
 
     /**
      * Code HTML de la requête, comme un code 200 (OK) ou 404 (Not Found)
@@ -333,7 +506,122 @@ public final class Communication implements Runnable {
      * Message associé à la requête
      */
     @NotNull
-    private String message;
+    String message;
+
+    /**
+     * Empreinte du corps de la réponse, pour savoir si le contenu a changé d'une requête à l'autre
+     */
+    int responseChecksum;
+
+    /**
+     * Contenu de la réponse lu mais pas encore traité
+     */
+    @Nullable
+    private Object responseContent;
+
+    /**
+     * Octets envoyés dans le corps de la requête, après compression éventuelle
+     */
+    private long bytesSent;
+
+    /**
+     * Octets reçus dans le corps de la réponse, avant décompression
+     */
+    private long bytesReceived;
+
+    /**
+     * Octets du corps de la réponse une fois décompressé
+     */
+    private long bytesDecoded;
+
+    /**
+     * Nombre d'envois faits, nouvelles tentatives comprises
+     */
+    private int attempts;
+
+    /**
+     * Nouvelle tentative programmée, null si aucune
+     */
+    @Nullable
+    private volatile ScheduledFuture<?> pendingRetry;
+
+    /**
+     * Portée d'annulation, null si aucune
+     */
+    @Nullable
+    private final CommunicationScope scope;
+
+    /**
+     * Étape de la trace, identifiant envoyé au serveur et durées des phases
+     */
+    @NotNull
+    final CommunicationTrace trace;
+
+    /**
+     * Clé d'idempotence envoyée au serveur, null pour aucune
+     */
+    @Nullable
+    private final String idempotencyKey;
+
+    /**
+     * Événement JFR de l'échange en cours, null en dehors d'un échange
+     */
+    @Nullable
+    private CommunicationEvent sendEvent;
+
+    /**
+     * Flux de la réponse en cours de lecture, null en dehors de la lecture
+     */
+    @Nullable
+    private volatile InputStream responseBody;
+
+    /**
+     * En attente d'une requête identique en cours, sans échange HTTP propre
+     */
+    @NotNull
+    private final AtomicBoolean following;
+
+    /**
+     * Corps de la réponse gardé pour le stockage local, null si le type n'est pas stocké
+     */
+    @Nullable
+    private CommunicationStore.Stored storedBody;
+
+    /**
+     * Résultat venant du stockage local plutôt que du serveur
+     */
+    private boolean fromStore;
+
+    /**
+     * Instant du lancement, en nanosecondes (métriques)
+     */
+    private long startTime;
+
+    /**
+     * Génération des invalidations du cache au lancement : une réponse rendue obsolète par une modification
+     * faite pendant l'échange n'est pas mise en cache
+     */
+    long cacheGeneration;
+
+    /**
+     * Demande seulement les changements depuis la dernière liste reçue, si le type le permet
+     */
+    final boolean incremental;
+
+    /**
+     * Curseur envoyé dans "since", null pour une demande de liste complète
+     *
+     * @see CommunicationSync
+     */
+    @Nullable
+    String syncCursor;
+
+    /**
+     * Changements reçus sans liste à fusionner : la liste complète doit être redemandée
+     *
+     * @see CommunicationSync
+     */
+    boolean syncMissed;
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -344,16 +632,31 @@ public final class Communication implements Runnable {
      */
     Communication(@NotNull CommunicationBuilder builder) {
         started = false;
-        keepAlive = builder.keepAlive;
+        completion = new CompletableFuture<>();
         requestData = builder.requestData;
         communicationResult = null;
         typeOfCommunication = builder.typeOfCommunication;
+        priority = builder.priority;
+        useCache = builder.useCache;
+        scheduled = false;
         status = CommunicationStatus.STATUS_DEFAULT;
         code = APICode.NOT_FINISHED;
         requestAllowed = true;
         httpCode = HTTPCode.HTTP_CUSTOM_DEFAULT_ERROR;
         message = "";
-        timeBetweenRequests = Duration.ofSeconds(10);
+        attempts = 0;
+        pendingRetry = null;
+        scope = builder.scope;
+        trace = CommunicationTrace.of(builder.trace);
+        idempotencyKey = builder.idempotencyKey;
+        sendEvent = null;
+        responseBody = null;
+        following = new AtomicBoolean(false);
+        storedBody = null;
+        fromStore = false;
+        incremental = builder.incremental;
+        syncCursor = null;
+        syncMissed = false;
 
         if (builder.startNow) {
             start();
@@ -427,6 +730,33 @@ public final class Communication implements Runnable {
         return communicationResult;
     }
 
+    /**
+     * Renvoie le nombre d'octets envoyés, après compression éventuelle
+     *
+     * @return Octets envoyés
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * Renvoie le nombre d'octets reçus, avant décompression
+     *
+     * @return Octets reçus
+     */
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * Renvoie la taille de la réponse une fois décompressée
+     *
+     * @return Octets décodés
+     */
+    public long getBytesDecoded() {
+        return bytesDecoded;
+    }
+
     /**
      * Requête terminée ou non
      *
@@ -446,15 +776,65 @@ public final class Communication implements Runnable {
     }
 
     /**
-     * Annule la requête
+     * Retourne un futur complété avec cette communication lorsqu'elle est terminée <br>
+     * Le futur n'est jamais complété exceptionnellement : les erreurs sont visibles via getHTTPCode()
+     *
+     * @return Futur de la communication
+     */
+    @NotNull
+    public CompletableFuture<Communication> getFuture() {
+        return completion.copy();
+    }
+
+    /**
+     * Annule la requête, sans attendre : l'échange HTTP est interrompu et la réponse n'est pas décodée <br>
+     * Pour attendre la fin de la communication, utiliser getFuture()
      */
     public void cancelRequest() {
+        abort();
+    }
+
+    /**
+     * Interdit la requête et interrompt l'échange HTTP en cours, sans attendre
+     */
+    private void abort() {
         requestAllowed = false;
 
-        while (!loadingFinished) {
+        if (CommunicationScheduler.cancel(this)) {
+            // Encore dans la file d'attente : jamais envoyée
+            scheduled = false;
+            httpCode = HTTPCode.HTTP_CUSTOM_CANCEL;
+            finish();
+        }
+
+        if (following.compareAndSet(true, false)) {
+            // Rattachée à une requête identique, qui continue pour les autres
+            httpCode = HTTPCode.HTTP_CUSTOM_CANCEL;
+            finish();
+        }
+
+        ScheduledFuture<?> retry = pendingRetry;
+
+        if (retry != null && retry.cancel(false)) {
+            // En attente d'une nouvelle tentative
+            httpCode = HTTPCode.HTTP_CUSTOM_CANCEL;
+            finish();
+        }
+
+        CompletableFuture<HttpResponse<InputStream>> sent = requestSent;
+
+        if (sent != null) {
+            sent.cancel(true);
+        }
+
+        InputStream body = responseBody;
+
+        if (body != null) {
+            // Réponse en cours de lecture : le décodage s'arrête à la prochaine lecture
             try {
-                Thread.sleep(UPDATE_DELAY.toMillis() / 10);
-            } catch (InterruptedException ignored) {
+                body.close();
+            } catch (IOException e) {
+                Logger.warning("Fermeture de la réponse impossible :", e);
             }
         }
     }
@@ -479,161 +859,729 @@ public final class Communication implements Runnable {
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     /**
-     * Lance le Thread
+     * Lance la communication <br>
+     * Elle est placée dans la file de l'ordonnanceur, sauf les requêtes d'authentification qui partent directement
+     *
+     * @see CommunicationScheduler
      */
+    @Async.Schedule
     public void start() {
         if (!started) {
             started = true;
-            Thread t = new Thread(this);
-            t.start();
+            startTime = System.nanoTime();
+            cacheGeneration = CommunicationCache.generation();
+            trace.started();
+            pendingCommunications.add(this);
+            CommunicationMetrics.started(this);
+
+            if (scope != null) {
+                scope.register(this);
+            }
+
+            if (!communicationAllowed) {
+                httpCode = HTTPCode.HTTP_CUSTOM_CANCEL;
+                finish();
+            } else if (useCache && CommunicationCache.lookup(this)) {
+                finish();
+            } else if (useCache && CommunicationStore.lookup(this)) {
+                // Réponse stockée, mise à jour en tâche de fond
+                finish();
+            } else {
+                coalesceOrDispatch();
+            }
         }
     }
 
     /**
-     * Méthode pour connecter l'instance à son URL
+     * Rattache la communication à une requête identique en cours, ou l'envoie s'il n'y en a pas
+     */
+    private void coalesceOrDispatch() {
+        // Marquée avant le rattachement : la requête de référence peut se terminer tout de suite
+        following.set(true);
+
+        if (!CommunicationCoalescer.attach(this)) {
+            following.set(false);
+            dispatch();
+        }
+    }
+
+    /**
+     * Envoie la communication à l'ordonnanceur, ou directement à l'exécuteur pour l'authentification
+     */
+    private void dispatch() {
+        trace.dispatched();
+
+        if (typeOfCommunication.checkConnection()) {
+            scheduled = true;
+            CommunicationScheduler.submit(this);
+        } else {
+            executor.execute(this);
+        }
+    }
+
+    /**
+     * Termine cette communication avec le résultat d'une requête identique
+     *
+     * @param leader Communication identique qui a fait l'échange HTTP
+     * @see CommunicationCoalescer
+     */
+    void follow(@NotNull Communication leader) {
+        if (!following.compareAndSet(true, false)) {
+            // Annulée entre-temps, déjà terminée
+            return;
+        }
+
+        if (leader.httpCode == HTTPCode.HTTP_CUSTOM_CANCEL && requestAllowed && communicationAllowed) {
+            // Requête de référence annulée par son propriétaire, celle-ci ne l'est pas : on l'envoie
+            coalesceOrDispatch();
+        } else {
+            copyResultFrom(leader);
+            finish();
+        }
+    }
+
+    /**
+     * Recopie le résultat d'une autre communication <br>
+     * Les listes sont copiées pour que chaque appelant puisse modifier la sienne
+     *
+     * @param other Communication terminée
+     */
+    void copyResultFrom(@NotNull Communication other) {
+        status = other.status;
+        code = other.code;
+        httpCode = other.httpCode;
+        message = other.message;
+        responseChecksum = other.responseChecksum;
+        communicationResult = copyResult(other.communicationResult);
+    }
+
+    /**
+     * Copie un résultat pour qu'il puisse être partagé : les listes sont copiées, le reste est immuable
+     *
+     * @param result Résultat
+     * @return Copie
+     */
+    @Nullable
+    static Object copyResult(@Nullable Object result) {
+        return result instanceof ArrayList ? ((ArrayList<?>) result).clone() : result;
+    }
+
+    /**
+     * Retourne une donnée de la requête
+     *
+     * @param key Nom de la donnée
+     * @return Valeur, null si absente
+     */
+    @Nullable
+    Object getRequestValue(@NotNull String key) {
+        return requestData.get(key);
+    }
+
+    /**
+     * Copie les données de la requête
+     *
+     * @return Copie des données
+     */
+    @NotNull
+    HashMap<String, Object> copyRequestData() {
+        return new HashMap<>(requestData);
+    }
+
+    /**
+     * Retourne la clé identifiant la requête : deux requêtes de même clé renvoient le même résultat
+     *
+     * @return Clé de la requête
+     */
+    @NotNull
+    String getRequestKey() {
+        if (requestKey == null) {
+            TreeMap<String, Object> data = new TreeMap<>(requestData);
+            data.remove("token");
+            data.remove("since");
+            requestKey = typeOfCommunication + data.toString();
+        }
+
+        return requestKey;
+    }
+
+    /**
+     * Libère la place occupée dans l'ordonnanceur, une seule fois
+     */
+    private void releaseSlot() {
+        if (scheduled) {
+            scheduled = false;
+            CommunicationScheduler.release(this);
+        }
+    }
+
+    /**
+     * Méthode pour connecter l'instance à son URL <br>
+     * L'échange est asynchrone : la réponse est traitée par finish() dès qu'elle arrive
      */
-    @Async.Execute
     private void send() {
+        attempts++;
+
         // Requête API
-        HttpRequest request = HttpRequest.newBuilder()
-                .POST(buildFormDataFromMap(requestData))
+        HashMap<String, Object> data = requestData;
+
+        if (typeOfCommunication.checkConnection() && data.containsKey("token")) {
+            // Le token a pu être renouvelé depuis la construction de la requête
+            data = new HashMap<>(requestData);
+            data.put("token", requestToken.get());
+        }
+
+        data = CommunicationSync.withCursor(this, data);
+
+        CommunicationFormat format = CommunicationCodec.getFormat();
+        byte[] body = CommunicationCodec.encode(format, data);
+
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
                 .uri(URI.create(Parameters.getServerUrl() + typeOfCommunication.getUrl()))
                 .setHeader("User-Agent", "Java 11 HttpClient Bot")
-                .header("Content-Type", "application/x-www-form-urlencoded")
-                .timeout(TIMEOUT_DELAY)
-                .build();
-
-        // Réponse de l'API en cours
-        CompletableFuture<HttpResponse<String>> requestSent = httpClient.sendAsync(
-                request,
-                HttpResponse.BodyHandlers.ofString()
+                .header("Content-Type", format.getContentType())
+                .header("Accept", CommunicationCodec.accept(format))
+                .header("Accept-Encoding", CommunicationEncoding.ACCEPT_ENCODING)
+                .header("X-Correlation-Id", trace.id)
+                .timeout(CommunicationLatency.timeout(typeOfCommunication));
+
+        if (idempotencyKey != null) {
+            requestBuilder.header("Idempotency-Key", idempotencyKey);
+        }
+
+        if (CommunicationEncoding.shouldCompress(body.length)) {
+            body = CommunicationEncoding.gzip(body);
+            requestBuilder.header("Content-Encoding", "gzip");
+        }
+
+        bytesSent = body.length;
+        requestBuilder.POST(HttpRequest.BodyPublishers.ofByteArray(body));
+
+        // Une demande de changements n'a pas de réponse précédente à revalider
+        validators = syncCursor == null ? CommunicationValidators.lookup(this) : null;
+
+        if (validators != null) {
+            // Réponse déjà reçue : le serveur peut répondre 304 si elle n'a pas changé
+            validators.addConditionalHeaders(requestBuilder);
+        }
+
+        HttpRequest request = requestBuilder.build();
+        HttpClient client = CommunicationClients.client(CommunicationClients.profileOf(this));
+        trace.sending();
+
+        sendEvent = new CommunicationEvent();
+        sendEvent.begin();
+
+        // Réponse de l'API en cours, doublée si elle tarde
+        CompletableFuture<HttpResponse<InputStream>> sent = CommunicationLatency.send(
+                typeOfCommunication,
+                () -> client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
         );
 
-        // Vraie réponse
-        HttpResponse<String> response = null;
+        requestSent = sent;
+        CommunicationMetrics.sending(this);
 
-        try {
-            while (!requestSent.isDone()) {
-                if (communicationAllowed && requestAllowed) {
-                    // Mise en pause du thread jusqu'à ce que la requête soit validée
-                    Thread.sleep(UPDATE_DELAY.toMillis());
-                } else {
-                    requestSent.cancel(true);
-                }
-            }
+        if (!communicationAllowed || !requestAllowed) {
+            // Annulée pendant la préparation de la requête
+            sent.cancel(true);
+        }
 
-            response = requestSent.get();
-        } catch (InterruptedException e) {
-            Logger.error("Erreur inconnue :", e, toString());
-        } catch (ExecutionException e) {
+        sent.whenCompleteAsync(this::receive, executor);
+    }
+
+    /**
+     * Traite la réponse de l'API, ou l'erreur survenue pendant l'échange
+     *
+     * @param response  Réponse, null en cas d'erreur
+     * @param throwable Erreur, null en cas de succès
+     */
+    private void receive(@Nullable HttpResponse<InputStream> response, @Nullable Throwable throwable) {
+        CommunicationMetrics.received(this);
+        trace.received();
+
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+
+        if (throwable instanceof CancellationException && !requestAllowed) {
+            // Annulation voulue, par exemple par la vue qui attendait la réponse
+            httpCode = HTTPCode.HTTP_CUSTOM_CANCEL;
+            Logger.debug("Requête annulée :", toString(), LoggerOption.LOG_FILE_ONLY);
+        } else if (throwable instanceof CancellationException) {
+            httpCode = HTTPCode.HTTP_CUSTOM_CANCEL;
+            Logger.error("Requête annulée :", throwable, toString());
+        } else if (throwable != null) {
+            CommunicationClients.failed(throwable);
             httpCode = HTTPCode.HTTP_CUSTOM_TIMEOUT;
-            Logger.error("Requête time out :", e, toString());
-        } catch (CancellationException e) {
+            Logger.error("Requête time out :", throwable, toString());
+        }
+
+        boolean notModified = response != null && validators != null
+                && response.statusCode() == HTTPCode.HTTP_NOT_MODIFIED.getCode();
+
+        if (response != null && !notModified) {
+            httpCode = httpCodeOf(response.statusCode());
+        }
+
+        if (httpCode == HTTPCode.HTTP_CUSTOM_CANCEL) {
+            CommunicationCircuitBreaker.release(this);
+        } else {
+            CommunicationCircuitBreaker.record(this, !CommunicationRetry.isFailure(httpCode));
+        }
+
+        if (CommunicationRetry.isFailure(httpCode) && retry(response)) {
+            commitSendEvent(response);
+            return;
+        }
+
+        if (response != null && !requestAllowed) {
+            // Annulée par sa vue pendant l'échange : la réponse n'est pas décodée
+            closeResponse(response);
+            response = null;
             httpCode = HTTPCode.HTTP_CUSTOM_CANCEL;
-            Logger.error("Requête annulée :", e, toString());
         }
 
+        if (CommunicationRetry.isFailure(httpCode) && requestAllowed && CommunicationStore.fallback(this)) {
+            // Serveur injoignable, la dernière réponse stockée a été utilisée
+            if (response != null) {
+                closeResponse(response);
+            }
+
+            commitSendEvent(response);
+            finish();
+            return;
+        }
+
+        boolean responseRead = false;
+
         if (response != null) {
-            httpCode = HTTPCode.fromInt(response.statusCode());
+            long readStart = System.nanoTime();
+            responseRead = readResponse(response) && !notModified;
+            trace.read(System.nanoTime() - readStart);
+        }
 
-            JSONParser parser = new JSONParser();
-            Object parsedResponse = null;
+        commitSendEvent(response);
 
-            try {
-                parsedResponse = parser.parse(response.body());
-            } catch (ParseException e) {
-                Logger.error(
-                        "Réponse invalide, erreur serveur ? Réponse serveur :",
-                        response.body(),
-                        toString()
-                );
+        // L'échange est terminé : la place est libérée avant le traitement, qui peut lancer d'autres requêtes
+        releaseSlot();
+
+        if (!requestAllowed) {
+            // Annulée pendant la lecture, le contenu est incomplet
+            httpCode = HTTPCode.HTTP_CUSTOM_CANCEL;
+            responseContent = null;
+        } else if (notModified) {
+            // Contenu inchangé, on reprend le résultat déjà décodé
+            validators.restore(this);
+        } else if (responseRead) {
+            Object content = responseContent;
+            responseContent = null;
+
+            if (httpCode != HTTPCode.HTTP_OK) {
+                Logger.debug("Code NOK :", toString(), LoggerOption.LOG_FILE_ONLY);
             }
 
-            if (parsedResponse != null) {
-                JSONObject jsonMain = (JSONObject) parsedResponse;
+            treat(content);
 
-                status = CommunicationStatus.fromString((String) jsonMain.get("status"));
-                code = APICode.fromString((String) jsonMain.get("code"));
-                message = (String) jsonMain.get("message");
+            if (syncMissed && requestAllowed) {
+                // Liste oubliée pendant l'échange : sans curseur, la requête suivante demande la liste complète
+                Logger.warning("Changements reçus sans liste à fusionner, liste complète redemandée :", toString());
+                syncMissed = false;
+                httpCode = HTTPCode.HTTP_CUSTOM_DEFAULT_ERROR;
+                communicationResult = null;
+                dispatch();
+                return;
+            }
 
-                Object jsonObject = jsonMain.get("content");
+            if (syncCursor == null) {
+                CommunicationValidators.update(this, response);
+            }
+        }
 
-                if (httpCode != HTTPCode.HTTP_OK) {
-                    Logger.debug("Code NOK :", toString(), LoggerOption.LOG_FILE_ONLY);
-                }
+        finish();
+    }
+
+    /**
+     * Termine l'événement JFR de l'échange, enregistré seulement si JFR enregistre
+     *
+     * @param response Réponse, null en cas d'erreur
+     */
+    private void commitSendEvent(@Nullable HttpResponse<InputStream> response) {
+        CommunicationEvent event = sendEvent;
+        sendEvent = null;
+
+        if (event == null) {
+            return;
+        }
+
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.type = typeOfCommunication.name();
+            event.url = typeOfCommunication.getUrl();
+            event.status = response != null ? response.statusCode() : httpCode.getCode();
+            event.bytesSent = bytesSent;
+            event.bytesReceived = bytesReceived;
+            event.attempt = attempts;
+            event.commit();
+        }
+    }
+
+    /**
+     * Traite le contenu décodé d'une réponse
+     *
+     * @param content Contenu
+     */
+    private void treat(@Nullable Object content) {
+        // Les requêtes lancées par le traitement héritent de la portée et de la trace de celle-ci
+        CommunicationScope previous = CommunicationScope.enter(scope);
+        CommunicationTrace previousTrace = CommunicationTrace.enter(trace);
+        boolean streamed = JsonStreamTreatment.isStreamed(typeOfCommunication);
+        DecodeEvent event = new DecodeEvent();
+        long start = System.nanoTime();
+        event.begin();
 
-                JsonTreatment.doSomethingWithData(this, jsonObject);
+        try {
+            if (streamed) {
+                JsonStreamTreatment.doSomethingWithContent(this, content);
+            } else {
+                JsonTreatment.doSomethingWithData(this, content);
+            }
+        } finally {
+            event.end();
+            trace.decoded(System.nanoTime() - start);
+
+            if (event.shouldCommit()) {
+                event.type = typeOfCommunication.name();
+                event.rows = communicationResult instanceof Collection ? ((Collection<?>) communicationResult).size()
+                        : communicationResult != null ? 1 : 0;
+                event.streamed = streamed;
+                event.commit();
             }
+
+            CommunicationTrace.exit(previousTrace);
+            CommunicationScope.exit(previous);
         }
     }
 
     /**
-     * Met en pause le thread actuel le temps que la requête soit effectuée
+     * Reprend une réponse stockée localement, comme si elle venait d'être reçue
+     *
+     * @param body        Corps décompressé de la réponse
+     * @param contentType Valeur de l'en-tête Content-Type, null si absent
+     * @return Réponse lue et traitée ou non
+     * @see CommunicationStore
      */
-    public void sleepUntilFinished() {
-        if (!started) {
-            Logger.warning("sleepUntilFinished sur Thread non commencé");
+    boolean restore(@NotNull byte[] body, @Nullable String contentType) {
+        CRC32 checksum = new CRC32();
+
+        try {
+            readEnvelope(new CheckedInputStream(new ByteArrayInputStream(body), checksum), contentType);
+        } catch (IOException | IllegalArgumentException e) {
+            Logger.warning("Réponse stockée invalide :", e, toString());
+            responseContent = null;
+            return false;
         }
 
-        while (started && !loadingFinished && communicationAllowed) {
+        Object content = responseContent;
+        responseContent = null;
+
+        fromStore = true;
+        httpCode = HTTPCode.HTTP_OK;
+        bytesDecoded = body.length;
+        responseChecksum = (int) checksum.getValue();
+
+        treat(content);
+        return true;
+    }
+
+    /**
+     * Programme une nouvelle tentative après un échec, si la communication peut être rejouée
+     *
+     * @param response Réponse en erreur, null si l'échange n'a pas abouti
+     * @return Nouvelle tentative programmée ou non
+     */
+    private boolean retry(@Nullable HttpResponse<InputStream> response) {
+        if (!communicationAllowed || !requestAllowed || !CommunicationRetry.canRetry(this, attempts)) {
+            return false;
+        }
+
+        pendingRetry = CommunicationRetry.schedule(this::redispatch, attempts);
+
+        if (pendingRetry == null) {
+            return false;
+        }
+
+        Logger.warning("Nouvelle tentative", attempts + 1, "/", CommunicationRetry.MAX_ATTEMPTS, ":", toString());
+
+        if (response != null) {
+            closeResponse(response);
+        }
+
+        // La place est rendue pendant l'attente
+        releaseSlot();
+
+        return true;
+    }
+
+    /**
+     * Libère le flux d'une réponse qui ne sera pas lue
+     *
+     * @param response Réponse HTTP
+     */
+    private static void closeResponse(@NotNull HttpResponse<InputStream> response) {
+        try {
+            response.body().close();
+        } catch (IOException e) {
+            Logger.warning("Fermeture de la réponse impossible :", e);
+        }
+    }
+
+    /**
+     * Renvoie la communication après l'attente d'une nouvelle tentative
+     */
+    private void redispatch() {
+        pendingRetry = null;
+        httpCode = HTTPCode.HTTP_CUSTOM_DEFAULT_ERROR;
+        dispatch();
+    }
+
+    /**
+     * Convertit un code HTTP reçu, y compris un code que l'enum ne connait pas
+     *
+     * @param statusCode Code reçu
+     * @return Code, erreur serveur générique pour un 5xx inconnu
+     */
+    @NotNull
+    private static HTTPCode httpCodeOf(int statusCode) {
+        try {
+            return HTTPCode.fromInt(statusCode);
+        } catch (IllegalArgumentException e) {
+            return statusCode >= 500 && statusCode < 600
+                    ? HTTPCode.HTTP_INTERNAL_SERVER_ERROR
+                    : HTTPCode.HTTP_CUSTOM_DEFAULT_ERROR;
+        }
+    }
+
+    /**
+     * Lit la réponse en flux : décompression, lecture de l'enveloppe (status, code, message)
+     * et décodage du contenu au fil de l'arrivée des données, en JSON ou MessagePack selon le Content-Type
+     *
+     * @param response Réponse HTTP
+     * @return Réponse lue ou non
+     */
+    private boolean readResponse(@NotNull HttpResponse<InputStream> response) {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("identity");
+        String contentType = response.headers().firstValue("Content-Type").orElse(null);
+        CommunicationEncoding.CountingInputStream wire = new CommunicationEncoding.CountingInputStream(trace.timed(response.body()));
+        CRC32 checksum = new CRC32();
+        CommunicationEncoding.CountingInputStream decoded = null;
+
+        if (response.statusCode() == HTTPCode.HTTP_NOT_MODIFIED.getCode()) {
+            // Pas de corps, le flux est seulement libéré
             try {
-                Thread.sleep(UPDATE_DELAY.toMillis());
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+                wire.close();
+            } catch (IOException e) {
+                Logger.warning("Fermeture de la réponse impossible :", e);
+            }
+
+            return true;
+        }
+
+        responseBody = wire;
+
+        if (!requestAllowed) {
+            // Annulée entre-temps, sans que abort() ait vu le flux
+            responseBody = null;
+            closeResponse(response);
+            return false;
+        }
+
+        // Seules les listes complètes sont stockées, pas les changements
+        ByteArrayOutputStream copy = CommunicationStore.isStored(typeOfCommunication) && syncCursor == null
+                ? new ByteArrayOutputStream()
+                : null;
+
+        try (InputStream in = CommunicationEncoding.decode(wire, encoding)) {
+            decoded = new CommunicationEncoding.CountingInputStream(new CheckedInputStream(in, checksum));
+            readEnvelope(copy != null ? CommunicationStore.record(decoded, copy) : decoded, contentType);
+
+            if (copy != null) {
+                storedBody = new CommunicationStore.Stored(contentType, copy.toByteArray());
+            }
+
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            if (requestAllowed) {
+                Logger.error("Réponse invalide, erreur serveur ?", e, toString());
+            }
+
+            return false;
+        } finally {
+            responseBody = null;
+            bytesReceived = wire.getCount();
+
+            if (decoded != null) {
+                bytesDecoded = decoded.getCount();
+                responseChecksum = (int) checksum.getValue();
             }
         }
     }
 
     /**
-     * Lance le thread de connexion à l'API
+     * Lit l'enveloppe d'une réponse (status, code, message) et décode son contenu au fil de la lecture
+     *
+     * @param in          Flux décompressé
+     * @param contentType Valeur de l'en-tête Content-Type, null si absent
+     * @throws IOException Réponse illisible ou interrompue
      */
-    @Override
-    @Async.Execute
-    public void run() {
-        started = true;
+    private void readEnvelope(@NotNull InputStream in, @Nullable String contentType) throws IOException {
+        ContentReader reader = CommunicationCodec.reader(in, contentType);
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "status":
+                    status = CommunicationStatus.fromString(String.valueOf(reader.nextString()));
+                    break;
+
+                case "code":
+                    code = APICode.fromString(String.valueOf(reader.nextString()));
+                    break;
+
+                case "message":
+                    String text = reader.nextString();
+                    message = text != null ? text : "";
+                    break;
+
+                case "content":
+                    if (JsonStreamTreatment.isStreamed(typeOfCommunication)) {
+                        responseContent = JsonStreamTreatment.readContent(typeOfCommunication, reader);
+                    } else {
+                        responseContent = reader.readValue();
+                    }
+                    break;
 
-        if (typeOfCommunication.checkConnection()) {
-            checkTokenValidity();
+                default:
+                    reader.skipValue();
+            }
+        }
 
-            if (requestToken.get().isEmpty()) {
-                // Si le token est périmé on le recrée
+        reader.endObject();
+    }
 
-                new CommunicationBuilder()
-                        .startNow()
-                        .sleepUntilFinished()
-                        .updateConnection()
-                        .build();
+    /**
+     * Termine la communication : prévient les listeners et complète le futur
+     */
+    private void finish() {
+        if (loadingFinished) {
+            return;
+        }
 
-                if (requestToken.get().isEmpty()) {
-                    // S'il n'est pas recréé, euh oups
-                    Logger.error("Token invalide une 2nde fois", toString());
-                } else {
-                    // Si jeton recréé, on reprend
+        releaseSlot();
 
-                    if (requestData.get("token") != null) {
-                        requestData.remove("token");
-                        requestData.put("token", requestToken);
-                    }
-                }
+        if (requestSent != null && !fromStore) {
+            // Réponse venant du serveur, pas du cache ni d'une requête identique
+            CommunicationCache.update(this);
+            CommunicationStore.update(this, storedBody);
+            storedBody = null;
+        }
+
+        if (typeOfCommunication.isReadOnly() && httpCode == HTTPCode.HTTP_OK) {
+            // Créations pas encore envoyées, visibles tout de suite dans les listes qu'elles concernent
+            CommunicationOutbox.Overlay overlay = CommunicationOutbox.overlay(
+                    typeOfCommunication, requestData, communicationResult, responseChecksum);
+
+            if (overlay != null) {
+                communicationResult = overlay.result;
+                responseChecksum = overlay.checksum;
             }
         }
 
-        send();
+        boolean network = requestSent != null && !fromStore;
+        CommunicationMetrics.finished(this, network, System.nanoTime() - startTime);
 
         loadingFinished = true;
+        pendingCommunications.remove(this);
+
+        if (scope != null) {
+            scope.unregister(this);
+        }
+
+        CommunicationCoalescer.detach(this);
+
+        long dispatchStart = System.nanoTime();
+
         propertyChangeSupport.firePropertyChange(
                 CommunicationPropertyName.COMMUNICATION_LOADING_FINISHED.toString(),
                 false,
                 true
         );
 
-        if (keepAlive && communicationAllowed) {
-            try {
-                Thread.sleep(timeBetweenRequests.toMillis());
+        completion.complete(this);
 
-            } catch (InterruptedException e) {
-                Logger.error("Erreur pour keepAlive :", toString());
+        trace.log(this, network ? "network" : fromStore ? "store" : "local", System.nanoTime() - dispatchStart);
+    }
+
+    /**
+     * Met en pause le thread actuel le temps que la requête soit effectuée
+     */
+    public void sleepUntilFinished() {
+        if (!started) {
+            Logger.warning("sleepUntilFinished sur Thread non commencé");
+            return;
+        }
+
+        try {
+            completion.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Logger.error("Attente interrompue :", toString());
+        } catch (ExecutionException e) {
+            Logger.error("Erreur inconnue :", e, toString());
+        }
+    }
+
+    /**
+     * Prépare la requête puis l'envoie, exécuté par l'exécuteur partagé
+     */
+    @Override
+    @Async.Execute
+    public void run() {
+        started = true;
+        trace.running();
+
+        try {
+            if (!communicationAllowed || !requestAllowed) {
+                httpCode = HTTPCode.HTTP_CUSTOM_CANCEL;
+                finish();
+                return;
+            }
+
+            if (!CommunicationCircuitBreaker.allow(this)) {
+                // Serveur en panne : échec immédiat plutôt qu'un time out
+                httpCode = HTTPCode.HTTP_CUSTOM_CIRCUIT_OPEN;
+                Logger.debug("Disjoncteur ouvert :", toString(), LoggerOption.LOG_FILE_ONLY);
+                CommunicationStore.fallback(this);
+                finish();
+                return;
+            }
+
+            if (typeOfCommunication.checkConnection() && !checkTokenValidity()) {
+                // Le renouvellement en arrière-plan n'a pas eu lieu à temps, on attend le renouvellement en cours
+                CommunicationMetrics.waitedForRenewal();
+                CommunicationTokenRenewer.renew().join();
+
+                if (!checkTokenValidity()) {
+                    // S'il n'est pas recréé, euh oups
+                    Logger.error("Token invalide une 2nde fois", toString());
+                }
             }
+
+            send();
+        } catch (RuntimeException e) {
+            Logger.error("Erreur lors de l'envoi :", e, toString());
+            CommunicationCircuitBreaker.release(this);
+            finish();
         }
     }
 
@@ -662,4 +1610,31 @@ public final class Communication implements Runnable {
     public void removePropertyChangeListener(@NotNull PropertyChangeListener listener) {
         propertyChangeSupport.removePropertyChangeListener(listener);
     }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Fabrique des threads de l'exécuteur : threads démons nommés
+     */
+    private static final class ThreadFactory implements java.util.concurrent.ThreadFactory {
+        /**
+         * Numéro du prochain thread
+         */
+        @NotNull
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        /**
+         * Crée un thread
+         *
+         * @param runnable Tâche à exécuter
+         * @return Thread démon
+         */
+        @Override
+        @NotNull
+        public Thread newThread(@NotNull Runnable runnable) {
+            Thread thread = new Thread(runnable, "communication-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
\ No newline at end of file
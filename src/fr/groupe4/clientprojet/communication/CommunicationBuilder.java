@@ -1,5 +1,6 @@
 package fr.groupe4.clientprojet.communication;
 
+import fr.groupe4.clientprojet.communication.enums.CommunicationPriority;
 import fr.groupe4.clientprojet.communication.enums.CommunicationType;
 import fr.groupe4.clientprojet.logger.Logger;
 import fr.groupe4.clientprojet.model.message.enums.MessageResource;
@@ -14,8 +15,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.Temporal;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Builder de la communication <br>
@@ -58,6 +62,23 @@ public final class CommunicationBuilder {
         return sec;
     }
 
+    /**
+     * Transforme une liste d'ids en chaine pour l'API, par exemple "1,4,12"
+     *
+     * @param ids Ids
+     * @return Ids séparés par des virgules
+     */
+    @NotNull
+    private static String joinIds(@NotNull Collection<Long> ids) {
+        StringJoiner joiner = new StringJoiner(",");
+
+        for (long id : ids) {
+            joiner.add(Long.toString(id));
+        }
+
+        return joiner.toString();
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     /**
@@ -66,15 +87,26 @@ public final class CommunicationBuilder {
     @NotNull
     CommunicationType typeOfCommunication;
 
+    /**
+     * Priorité dans la file d'attente, interactive par défaut
+     */
+    @NotNull
+    CommunicationPriority priority;
+
     /**
      * Se lance tout de suite après le constructeur ou nécessite un comm.start()
      */
     boolean startNow;
 
     /**
-     * Laisse tourner en daemon
+     * Cherche la réponse dans le cache avant d'envoyer la requête
+     */
+    boolean useCache;
+
+    /**
+     * Demande seulement les changements depuis la dernière liste reçue, pour les listes synchronisables
      */
-    boolean keepAlive;
+    boolean incremental;
 
     /**
      * Attend que la requête soit terminée et bloque le thread <br>
@@ -88,6 +120,25 @@ public final class CommunicationBuilder {
     @NotNull
     HashMap<String, Object> requestData;
 
+    /**
+     * Portée d'annulation, la portée courante du thread par défaut
+     */
+    @Nullable
+    CommunicationScope scope;
+
+    /**
+     * Trace parente, la trace courante du thread par défaut
+     */
+    @Nullable
+    CommunicationTrace trace;
+
+    /**
+     * Clé d'idempotence envoyée au serveur, qui répond au renvoi d'une modification déjà appliquée
+     * sans l'appliquer une deuxième fois, null pour aucune
+     */
+    @Nullable
+    String idempotencyKey;
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     /**
@@ -95,10 +146,33 @@ public final class CommunicationBuilder {
      */
     public CommunicationBuilder() {
         startNow = false;
-        keepAlive = false;
         sleepUntilFinished = false;
+        useCache = true;
+        incremental = true;
         requestData = new HashMap<>();
         typeOfCommunication = CommunicationType.DEFAULT;
+        priority = CommunicationPriority.PRIORITY_INTERACTIVE;
+        scope = CommunicationScope.current();
+        trace = CommunicationTrace.current();
+    }
+
+    /**
+     * Constructeur par copie, pour relancer plusieurs fois la même requête <br>
+     * Les données sont copiées, le lancement immédiat et l'attente ne le sont pas
+     *
+     * @param other Builder à copier
+     */
+    CommunicationBuilder(@NotNull CommunicationBuilder other) {
+        startNow = false;
+        sleepUntilFinished = false;
+        useCache = other.useCache;
+        incremental = other.incremental;
+        requestData = new HashMap<>(other.requestData);
+        typeOfCommunication = other.typeOfCommunication;
+        priority = other.priority;
+        scope = other.scope;
+        trace = other.trace;
+        idempotencyKey = other.idempotencyKey;
     }
 
     /**
@@ -112,12 +186,60 @@ public final class CommunicationBuilder {
     }
 
     /**
-     * Reste actif ou non
+     * Crée un abonnement qui relance régulièrement cette requête <br>
+     * L'abonnement prévient ses listeners seulement quand le contenu change
+     *
+     * @return Abonnement, à démarrer avec start()
+     */
+    @NotNull
+    public CommunicationSubscription subscribe() {
+        return new CommunicationSubscription(this);
+    }
+
+    /**
+     * Passe la communication en tâche de fond : elle laisse passer les requêtes interactives <br>
+     * À utiliser pour les actualisations et préchargements
+     *
+     * @return Reste du builder
+     */
+    public CommunicationBuilder background() {
+        priority = CommunicationPriority.PRIORITY_BACKGROUND;
+        return this;
+    }
+
+    /**
+     * Ignore le cache : la requête est envoyée au serveur, sa réponse mettra le cache à jour <br>
+     * À utiliser quand l'utilisateur demande explicitement une actualisation
      *
      * @return Reste du builder
      */
-    CommunicationBuilder keepAlive() {
-        keepAlive = true;
+    public CommunicationBuilder noCache() {
+        useCache = false;
+        return this;
+    }
+
+    /**
+     * Choisit entre la liste complète et les seuls changements depuis la dernière liste reçue (curseur "since") <br>
+     * Concerne les projets, tâches, créneaux et messages : les changements sont fusionnés dans la liste précédente,
+     * le résultat est toujours la liste entière. Activé par défaut
+     *
+     * @param incremental Changements seulement, ou liste complète
+     * @return Reste du builder
+     */
+    public CommunicationBuilder incremental(boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
+    /**
+     * Rattache la communication à une portée d'annulation, en général celle de la vue qui l'affichera <br>
+     * Annuler la portée interrompt la communication
+     *
+     * @param scope Portée, null pour aucune
+     * @return Reste du builder
+     */
+    public CommunicationBuilder scope(@Nullable CommunicationScope scope) {
+        this.scope = scope;
         return this;
     }
 
@@ -140,6 +262,33 @@ public final class CommunicationBuilder {
         return new Communication(this);
     }
 
+    /**
+     * Builder final, lance la communication sans bloquer le thread courant
+     *
+     * @return Futur complété avec la communication une fois terminée
+     * @see Communication#getFuture()
+     */
+    @NotNull
+    public CompletableFuture<Communication> buildAsync() {
+        sleepUntilFinished = false;
+        startNow = true;
+        return build().getFuture();
+    }
+
+    /**
+     * Builder final pour les modifications : la modification est mise dans la file d'envoi, sans attendre le serveur <br>
+     * Elle est gardée sur disque, visible aussitôt dans les listes concernées, puis envoyée en tâche de fond.
+     * Pour les messages, créneaux, tâches et allocations
+     *
+     * @return Futur complété avec la communication une fois la modification acceptée ou refusée par le serveur
+     * @throws IllegalArgumentException Modification qui ne passe pas par la file d'envoi
+     * @see CommunicationOutbox
+     */
+    @NotNull
+    public CompletableFuture<Communication> enqueue() {
+        return CommunicationOutbox.enqueue(this);
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     /**
@@ -406,6 +555,19 @@ public final class CommunicationBuilder {
         return this;
     }
 
+    /**
+     * Récupère plusieurs ressources humaines en une seule requête
+     *
+     * @param ids Ids des ressources humaines
+     * @return Builder non terminé avec URL
+     */
+    public CommunicationBuilder getHumanResources(@NotNull Collection<Long> ids) {
+        typeOfCommunication = CommunicationType.GET_HUMAN_RESOURCE_BATCH;
+        requestData.put("token", Communication.getRequestToken(this));
+        requestData.put("ids", joinIds(ids));
+        return this;
+    }
+
     /**
      * Récupère la liste des ressources humaines
      *
@@ -447,6 +609,19 @@ public final class CommunicationBuilder {
         return this;
     }
 
+    /**
+     * Récupère plusieurs ressources matérielles en une seule requête
+     *
+     * @param ids Ids des ressources matérielles
+     * @return Builder non terminé avec URL
+     */
+    public CommunicationBuilder getMaterialResources(@NotNull Collection<Long> ids) {
+        typeOfCommunication = CommunicationType.GET_MATERIAL_RESOURCE_BATCH;
+        requestData.put("token", Communication.getRequestToken(this));
+        requestData.put("ids", joinIds(ids));
+        return this;
+    }
+
     /**
      * Liste les ressources matérielle
      *
@@ -0,0 +1,426 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.APICode;
+import fr.groupe4.clientprojet.communication.enums.CommunicationStatus;
+import fr.groupe4.clientprojet.communication.enums.CommunicationType;
+import fr.groupe4.clientprojet.communication.enums.HTTPCode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache mémoire des réponses de l'API <br>
+ * <br>
+ * Seuls les types de communication ayant une durée de vie sont mis en cache. <br>
+ * Le cache est borné : au-delà de MAX_ENTRIES, l'entrée la moins récemment utilisée est supprimée. <br>
+ * Les communications qui modifient des données côté serveur invalident les entrées qu'elles rendent obsolètes,
+ * par exemple CREATE_PROJECT invalide LIST_PROJECTS. <br>
+ * Une lecture en cours pendant une invalidation qui la concerne n'est pas mise en cache à sa fin :
+ * sa réponse peut précéder la modification.
+ *
+ * @see #affects(CommunicationType, Map, CommunicationType, Map)
+ */
+final class CommunicationCache {
+    /**
+     * Nombre maximal d'entrées
+     */
+    private static final int MAX_ENTRIES = 256;
+
+    /**
+     * Nombre d'invalidations récentes gardées pour vérifier les lectures en cours
+     */
+    private static final int MAX_RECENT_MUTATIONS = 64;
+
+    /**
+     * Durée de vie des entrées, par type de communication
+     */
+    @NotNull
+    private static final EnumMap<CommunicationType, Duration> timeToLive = new EnumMap<>(CommunicationType.class);
+
+    static {
+        timeToLive.put(CommunicationType.LIST_PROJECTS, Duration.ofSeconds(30));
+        timeToLive.put(CommunicationType.GET_PROJECT, Duration.ofSeconds(60));
+        timeToLive.put(CommunicationType.GET_HUMAN_RESOURCE, Duration.ofMinutes(5));
+        timeToLive.put(CommunicationType.LIST_HUMAN_RESOURCE, Duration.ofMinutes(2));
+        timeToLive.put(CommunicationType.GET_MATERIAL_RESOURCE, Duration.ofMinutes(5));
+        timeToLive.put(CommunicationType.LIST_MATERIAL_RESOURCE, Duration.ofMinutes(2));
+        timeToLive.put(CommunicationType.GET_TASK_LIST, Duration.ofSeconds(30));
+        timeToLive.put(CommunicationType.GET_TIME_SLOT_LIST, Duration.ofSeconds(30));
+    }
+
+    /**
+     * Entrées du cache par clé de requête, dans l'ordre d'accès (LRU)
+     */
+    @NotNull
+    private static final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Invalidations récentes, de la plus ancienne à la plus récente
+     */
+    @NotNull
+    private static final ArrayDeque<Mutation> recentMutations = new ArrayDeque<>();
+
+    /**
+     * Génération des invalidations, augmentée à chaque invalidation
+     */
+    private static long generation = 0;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private CommunicationCache() {
+    }
+
+    /**
+     * Cherche une réponse en cache pour une communication et la lui recopie
+     *
+     * @param comm Communication pas encore lancée
+     * @return Réponse trouvée et recopiée ou non
+     */
+    static boolean lookup(@NotNull Communication comm) {
+        if (!timeToLive.containsKey(comm.typeOfCommunication)) {
+            return false;
+        }
+
+        Entry entry;
+
+        synchronized (entries) {
+            entry = entries.get(comm.getRequestKey());
+
+            if (entry != null && entry.expiresAt - System.nanoTime() < 0) {
+                entries.remove(comm.getRequestKey());
+                entry = null;
+            }
+        }
+
+        if (entry != null) {
+            comm.status = entry.status;
+            comm.code = entry.code;
+            comm.httpCode = entry.httpCode;
+            comm.message = entry.message;
+            comm.communicationResult = Communication.copyResult(entry.result);
+        }
+
+        return entry != null;
+    }
+
+    /**
+     * Met à jour le cache avec une communication terminée : <br>
+     * les entrées qu'elle rend obsolètes sont invalidées, puis sa réponse est enregistrée si elle est valide
+     *
+     * @param comm Communication terminée
+     */
+    static void update(@NotNull Communication comm) {
+        if (!comm.typeOfCommunication.isReadOnly()) {
+            invalidate(comm);
+        }
+
+        Duration ttl = timeToLive.get(comm.typeOfCommunication);
+
+        if (ttl != null
+                && comm.httpCode == HTTPCode.HTTP_OK
+                && comm.status == CommunicationStatus.STATUS_SUCCESS
+                && comm.communicationResult != null) {
+
+            Entry entry = new Entry(comm, System.nanoTime() + ttl.toNanos());
+
+            synchronized (entries) {
+                if (!invalidatedSince(comm)) {
+                    entries.put(comm.getRequestKey(), entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Génération actuelle des invalidations, à noter au lancement d'une lecture
+     *
+     * @return Génération
+     */
+    static long generation() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    /**
+     * Vide le cache
+     */
+    static void clear() {
+        synchronized (entries) {
+            entries.clear();
+            // Comme une connexion : toutes les lectures en cours sont obsolètes
+            record(CommunicationType.LOGIN, new HashMap<>());
+        }
+    }
+
+    /**
+     * Invalide les entrées rendues obsolètes par une communication
+     *
+     * @param mutation Communication qui modifie des données
+     */
+    private static void invalidate(@NotNull Communication mutation) {
+        HashMap<String, Object> mutationData = mutation.copyRequestData();
+
+        synchronized (entries) {
+            record(mutation.typeOfCommunication, mutationData);
+
+            Iterator<Entry> iterator = entries.values().iterator();
+
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+
+                if (affects(mutation.typeOfCommunication, mutationData, entry.type, entry.requestData)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Garde une invalidation pour les lectures en cours, à appeler sous le verrou
+     *
+     * @param type Type de la communication qui modifie des données
+     * @param data Données de sa requête
+     */
+    private static void record(@NotNull CommunicationType type, @NotNull HashMap<String, Object> data) {
+        generation++;
+        recentMutations.addLast(new Mutation(generation, type, data));
+
+        if (recentMutations.size() > MAX_RECENT_MUTATIONS) {
+            recentMutations.removeFirst();
+        }
+    }
+
+    /**
+     * Une invalidation faite depuis le lancement d'une lecture la concerne-t-elle ? À appeler sous le verrou
+     *
+     * @param comm Lecture terminée
+     * @return Réponse peut-être obsolète : oui si une invalidation la concerne,
+     * ou si les invalidations depuis son lancement ne sont plus toutes gardées
+     */
+    private static boolean invalidatedSince(@NotNull Communication comm) {
+        if (comm.cacheGeneration == generation) {
+            return false;
+        }
+
+        Mutation oldest = recentMutations.peekFirst();
+
+        if (oldest == null || oldest.generation > comm.cacheGeneration + 1) {
+            return true;
+        }
+
+        HashMap<String, Object> requestData = comm.copyRequestData();
+
+        for (Mutation mutation : recentMutations) {
+            if (mutation.generation > comm.cacheGeneration
+                    && affects(mutation.type, mutation.data, comm.typeOfCommunication, requestData)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Une communication rend-elle une réponse obsolète ? <br>
+     * Partagé avec le stockage local et la file d'envoi, qui suivent les mêmes règles
+     *
+     * @param mutationType Type de la communication qui modifie des données
+     * @param mutationData Données de sa requête
+     * @param type         Type de la communication de la réponse
+     * @param requestData  Données de la requête de la réponse
+     * @return Réponse obsolète ou non
+     */
+    static boolean affects(@NotNull CommunicationType mutationType,
+                           @NotNull Map<String, Object> mutationData,
+                           @NotNull CommunicationType type,
+                           @NotNull Map<String, Object> requestData) {
+        switch (mutationType) {
+            case LOGIN:
+                // Nouvel utilisateur : plus rien n'est valable
+                return true;
+
+            case CREATE_PROJECT:
+                return type == CommunicationType.LIST_PROJECTS;
+
+            case ADD_RESOURCE_TO_PROJECT:
+            case REMOVE_RESOURCE_FROM_PROJECT:
+                return (type == CommunicationType.LIST_USERS_FROM_PROJECT
+                        || type == CommunicationType.LIST_MATERIAL_FROM_PROJECT)
+                        && sameValue(mutationData, requestData, "project");
+
+            case CREATE_MATERIAL_RESOURCE:
+                return type == CommunicationType.LIST_MATERIAL_RESOURCE;
+
+            case CREATE_TASK:
+                return type == CommunicationType.GET_TASK_LIST
+                        && sameValue(mutationData, requestData, "project");
+
+            case ADD_TIME_SLOT:
+                // Seules les plages qui chevauchent le nouveau créneau sont invalidées
+                return type == CommunicationType.GET_TIME_SLOT_LIST
+                        && toLong(requestData.get("from")) <= toLong(mutationData.get("end"))
+                        && toLong(mutationData.get("start")) <= toLong(requestData.get("to"));
+
+            case SEND_MESSAGE:
+                return type == CommunicationType.LIST_MESSAGES;
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Compare une donnée de la requête d'une communication et d'une réponse
+     *
+     * @param mutationData Données de la requête de la communication
+     * @param requestData  Données de la requête de la réponse
+     * @param key          Nom de la donnée
+     * @return Même valeur ou non
+     */
+    private static boolean sameValue(@NotNull Map<String, Object> mutationData,
+                                     @NotNull Map<String, Object> requestData,
+                                     @NotNull String key) {
+        return Objects.equals(
+                String.valueOf(mutationData.get(key)),
+                String.valueOf(requestData.get(key)));
+    }
+
+    /**
+     * Convertit une donnée de requête en long
+     *
+     * @param value Donnée (Number ou String)
+     * @return Valeur, 0 si absente
+     */
+    static long toLong(@Nullable Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else if (value != null) {
+            return Long.parseLong(value.toString());
+        } else {
+            return 0;
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Entrée du cache : copie de la réponse d'une communication
+     */
+    private static final class Entry {
+        /**
+         * Type de communication
+         */
+        @NotNull
+        private final CommunicationType type;
+
+        /**
+         * Données de la requête, pour l'invalidation
+         */
+        @NotNull
+        private final HashMap<String, Object> requestData;
+
+        /**
+         * Statut de la réponse
+         */
+        @NotNull
+        private final CommunicationStatus status;
+
+        /**
+         * Code API de la réponse
+         */
+        @NotNull
+        private final APICode code;
+
+        /**
+         * Code HTTP de la réponse
+         */
+        @NotNull
+        private final HTTPCode httpCode;
+
+        /**
+         * Message de la réponse
+         */
+        @NotNull
+        private final String message;
+
+        /**
+         * Résultat décodé, copié pour ne pas être modifié par l'appelant
+         */
+        @Nullable
+        private final Object result;
+
+        /**
+         * Date d'expiration, en nanosecondes (System.nanoTime)
+         */
+        private final long expiresAt;
+
+        /**
+         * Constructeur
+         *
+         * @param comm      Communication terminée
+         * @param expiresAt Date d'expiration
+         */
+        private Entry(@NotNull Communication comm, long expiresAt) {
+            type = comm.typeOfCommunication;
+            requestData = comm.copyRequestData();
+            status = comm.status;
+            code = comm.code;
+            httpCode = comm.httpCode;
+            message = comm.message;
+            result = Communication.copyResult(comm.communicationResult);
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Invalidation récente
+     */
+    private static final class Mutation {
+        /**
+         * Génération de l'invalidation
+         */
+        private final long generation;
+
+        /**
+         * Type de la communication qui modifie des données
+         */
+        @NotNull
+        private final CommunicationType type;
+
+        /**
+         * Données de sa requête
+         */
+        @NotNull
+        private final HashMap<String, Object> data;
+
+        /**
+         * Constructeur
+         *
+         * @param generation Génération de l'invalidation
+         * @param type       Type de la communication qui modifie des données
+         * @param data       Données de sa requête
+         */
+        private Mutation(long generation, @NotNull CommunicationType type, @NotNull HashMap<String, Object> data) {
+            this.generation = generation;
+            this.type = type;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.CommunicationCircuitState;
+import fr.groupe4.clientprojet.logger.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Disjoncteurs des endpoints de l'API <br>
+ * <br>
+ * Après plusieurs échecs consécutifs (time out, erreur 5xx) sur un endpoint, le disjoncteur s'ouvre :
+ * les requêtes vers cet endpoint échouent immédiatement avec HTTP_CUSTOM_CIRCUIT_OPEN, au lieu d'attendre
+ * chacune leur time out. <br>
+ * Une fois le délai d'ouverture écoulé, une seule requête d'essai est envoyée (semi-ouvert) : si elle réussit
+ * le disjoncteur se referme, sinon il se rouvre pour un délai deux fois plus long. <br>
+ * Chaque changement d'état est loggé.
+ *
+ * @see CommunicationCircuitState
+ * @see CommunicationRetry
+ */
+final class CommunicationCircuitBreaker {
+    /**
+     * Nombre d'échecs consécutifs qui ouvrent le disjoncteur
+     */
+    private static final int FAILURE_THRESHOLD = 5;
+
+    /**
+     * Délai d'ouverture initial, en millisecondes
+     */
+    private static final long MIN_OPEN_DURATION = 5_000;
+
+    /**
+     * Délai d'ouverture maximal, en millisecondes
+     */
+    private static final long MAX_OPEN_DURATION = 60_000;
+
+    /**
+     * Disjoncteurs par URL d'endpoint
+     */
+    @NotNull
+    private static final ConcurrentHashMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private CommunicationCircuitBreaker() {
+    }
+
+    /**
+     * Indique si une requête peut être envoyée <br>
+     * Une requête autorisée doit ensuite appeler record() ou release()
+     *
+     * @param comm Communication sur le point d'être envoyée
+     * @return Envoi autorisé, false si le disjoncteur de l'endpoint est ouvert
+     */
+    static boolean allow(@NotNull Communication comm) {
+        return circuit(comm).allow();
+    }
+
+    /**
+     * Enregistre le résultat d'un échange
+     *
+     * @param comm    Communication dont l'échange est terminé
+     * @param success Serveur joignable et sans erreur 5xx
+     */
+    static void record(@NotNull Communication comm, boolean success) {
+        circuit(comm).record(success);
+    }
+
+    /**
+     * Libère la place de requête d'essai sans résultat, si l'échange a été annulé
+     *
+     * @param comm Communication annulée
+     */
+    static void release(@NotNull Communication comm) {
+        circuit(comm).release();
+    }
+
+    /**
+     * État actuel du disjoncteur d'un endpoint
+     *
+     * @param url URL de l'endpoint
+     * @return État
+     */
+    @NotNull
+    static CommunicationCircuitState getState(@NotNull String url) {
+        Circuit circuit = circuits.get(url);
+        return circuit != null ? circuit.getState() : CommunicationCircuitState.CIRCUIT_CLOSED;
+    }
+
+    /**
+     * Disjoncteur de l'endpoint d'une communication
+     *
+     * @param comm Communication
+     * @return Disjoncteur, créé au premier appel
+     */
+    @NotNull
+    private static Circuit circuit(@NotNull Communication comm) {
+        return circuits.computeIfAbsent(comm.typeOfCommunication.getUrl(), Circuit::new);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Disjoncteur d'un endpoint
+     */
+    private static final class Circuit {
+        /**
+         * URL de l'endpoint, pour les logs
+         */
+        @NotNull
+        private final String url;
+
+        /**
+         * État actuel
+         */
+        @NotNull
+        private CommunicationCircuitState state;
+
+        /**
+         * Échecs consécutifs
+         */
+        private int failures;
+
+        /**
+         * Délai de la prochaine ouverture, en millisecondes
+         */
+        private long openDuration;
+
+        /**
+         * Fin de l'ouverture, en millisecondes (System.currentTimeMillis)
+         */
+        private long openUntil;
+
+        /**
+         * Requête d'essai en cours, en semi-ouvert
+         */
+        private boolean probeInFlight;
+
+        /**
+         * Constructeur
+         *
+         * @param url URL de l'endpoint
+         */
+        private Circuit(@NotNull String url) {
+            this.url = url;
+            state = CommunicationCircuitState.CIRCUIT_CLOSED;
+            failures = 0;
+            openDuration = MIN_OPEN_DURATION;
+            openUntil = 0;
+            probeInFlight = false;
+        }
+
+        /**
+         * État actuel
+         *
+         * @return État
+         */
+        @NotNull
+        private synchronized CommunicationCircuitState getState() {
+            return state;
+        }
+
+        /**
+         * Indique si une requête peut être envoyée
+         *
+         * @return Envoi autorisé ou non
+         */
+        private synchronized boolean allow() {
+            switch (state) {
+                case CIRCUIT_OPEN:
+                    if (System.currentTimeMillis() < openUntil) {
+                        return false;
+                    }
+
+                    state = CommunicationCircuitState.CIRCUIT_HALF_OPEN;
+                    Logger.info("Disjoncteur semi-ouvert, requête d'essai :", url);
+                    probeInFlight = true;
+                    return true;
+
+                case CIRCUIT_HALF_OPEN:
+                    if (probeInFlight) {
+                        return false;
+                    }
+
+                    probeInFlight = true;
+                    return true;
+
+                case CIRCUIT_CLOSED:
+                default:
+                    return true;
+            }
+        }
+
+        /**
+         * Enregistre le résultat d'un échange
+         *
+         * @param success Succès ou échec
+         */
+        private synchronized void record(boolean success) {
+            probeInFlight = false;
+
+            if (success) {
+                if (state != CommunicationCircuitState.CIRCUIT_CLOSED) {
+                    Logger.success("Disjoncteur fermé, serveur rétabli :", url);
+                }
+
+                state = CommunicationCircuitState.CIRCUIT_CLOSED;
+                failures = 0;
+                openDuration = MIN_OPEN_DURATION;
+                return;
+            }
+
+            failures++;
+
+            switch (state) {
+                case CIRCUIT_HALF_OPEN:
+                    // Requête d'essai en échec : le serveur est encore en panne
+                    openDuration = Math.min(openDuration * 2, MAX_OPEN_DURATION);
+                    open();
+                    break;
+
+                case CIRCUIT_CLOSED:
+                    if (failures >= FAILURE_THRESHOLD) {
+                        open();
+                    }
+                    break;
+
+                case CIRCUIT_OPEN:
+                default:
+                    // Requête envoyée avant l'ouverture
+                    break;
+            }
+        }
+
+        /**
+         * Libère la place de requête d'essai
+         */
+        private synchronized void release() {
+            probeInFlight = false;
+        }
+
+        /**
+         * Ouvre le disjoncteur pour openDuration
+         */
+        private void open() {
+            state = CommunicationCircuitState.CIRCUIT_OPEN;
+            openUntil = System.currentTimeMillis() + openDuration;
+
+            Logger.warning("Disjoncteur ouvert pour", openDuration / 1000.0, "s après", failures, "échecs :", url);
+        }
+    }
+}
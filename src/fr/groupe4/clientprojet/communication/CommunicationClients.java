@@ -0,0 +1,227 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.CommunicationClientProfile;
+import fr.groupe4.clientprojet.communication.enums.CommunicationPriority;
+import fr.groupe4.clientprojet.logger.Logger;
+import fr.groupe4.clientprojet.logger.enums.LoggerOption;
+import fr.groupe4.clientprojet.model.parameters.Parameters;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.ProtocolException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Clients HTTP des communications, un par profil <br>
+ * <br>
+ * Chaque profil a son exécuteur et son time out de connexion.
+ * Les clients demandent HTTP/2, et le client HTTP repasse en HTTP/1.1 avec un serveur qui ne le propose pas.
+ * Si un échange échoue sur une erreur de protocole HTTP/2, tous les profils passent à des clients HTTP/1.1. <br>
+ * <br>
+ * prewarm() ouvre les connexions au serveur en arrière-plan dès le démarrage (DNS, TLS, HTTP/2) :
+ * le premier écran ne paie pas leur établissement.
+ *
+ * @see CommunicationClientProfile
+ */
+final class CommunicationClients {
+    /**
+     * Time out des requêtes d'ouverture de connexion
+     */
+    @NotNull
+    private static final Duration PREWARM_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * Exécuteurs par profil
+     */
+    @NotNull
+    private static final EnumMap<CommunicationClientProfile, ExecutorService> executors =
+            new EnumMap<>(CommunicationClientProfile.class);
+
+    /**
+     * Clients par profil, selon la version du protocole
+     */
+    @NotNull
+    private static final EnumMap<CommunicationClientProfile, HttpClient> http2Clients =
+            new EnumMap<>(CommunicationClientProfile.class);
+
+    /**
+     * Clients HTTP/1.1 par profil, créés au repli
+     */
+    @NotNull
+    private static final EnumMap<CommunicationClientProfile, HttpClient> http1Clients =
+            new EnumMap<>(CommunicationClientProfile.class);
+
+    /**
+     * HTTP/2 utilisable avec le serveur, jusqu'à preuve du contraire
+     */
+    private static volatile boolean http2 = true;
+
+    static {
+        for (CommunicationClientProfile profile : CommunicationClientProfile.values()) {
+            ExecutorService executor = profile.getThreads() > 0
+                    ? Executors.newFixedThreadPool(profile.getThreads(), threadFactory(profile))
+                    : Executors.newCachedThreadPool(threadFactory(profile));
+
+            executors.put(profile, executor);
+            http2Clients.put(profile, build(profile, HttpClient.Version.HTTP_2));
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private CommunicationClients() {
+    }
+
+    /**
+     * Profil d'une communication
+     *
+     * @param comm Communication
+     * @return Authentification, interactif ou tâche de fond
+     */
+    @NotNull
+    static CommunicationClientProfile profileOf(@NotNull Communication comm) {
+        if (!comm.typeOfCommunication.checkConnection()) {
+            return CommunicationClientProfile.PROFILE_AUTH;
+        }
+
+        return comm.priority == CommunicationPriority.PRIORITY_BACKGROUND
+                ? CommunicationClientProfile.PROFILE_BACKGROUND
+                : CommunicationClientProfile.PROFILE_INTERACTIVE;
+    }
+
+    /**
+     * Client HTTP d'un profil
+     *
+     * @param profile Profil
+     * @return Client HTTP/2, ou HTTP/1.1 après un repli
+     */
+    @NotNull
+    static HttpClient client(@NotNull CommunicationClientProfile profile) {
+        if (http2) {
+            return http2Clients.get(profile);
+        }
+
+        synchronized (http1Clients) {
+            return http1Clients.computeIfAbsent(profile, key -> build(key, HttpClient.Version.HTTP_1_1));
+        }
+    }
+
+    /**
+     * Signale l'échec d'un échange : une erreur de protocole HTTP/2 fait passer les clients en HTTP/1.1
+     *
+     * @param throwable Erreur de l'échange
+     */
+    static void failed(@Nullable Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+
+        if (http2 && isHttp2Failure(cause)) {
+            http2 = false;
+            Logger.warning("HTTP/2 indisponible, repli sur HTTP/1.1 :", cause);
+        }
+    }
+
+    /**
+     * Ouvre en arrière-plan les connexions de chaque profil vers le serveur
+     */
+    static void prewarm() {
+        URI uri;
+
+        try {
+            uri = URI.create(Parameters.getServerUrl() + "/");
+        } catch (IllegalArgumentException e) {
+            Logger.warning("Préchauffage impossible, URL du serveur invalide :", e);
+            return;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .setHeader("User-Agent", "Java 11 HttpClient Bot")
+                .timeout(PREWARM_TIMEOUT)
+                .build();
+
+        for (CommunicationClientProfile profile : CommunicationClientProfile.values()) {
+            long start = System.nanoTime();
+
+            client(profile).sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, throwable) -> {
+                        if (response != null) {
+                            Logger.debug("Connexion préchauffée", profile, response.version(),
+                                    "en", (System.nanoTime() - start) / 1_000_000, "ms", LoggerOption.LOG_FILE_ONLY);
+                        } else {
+                            failed(throwable);
+                            Logger.debug("Préchauffage échoué", profile, throwable, LoggerOption.LOG_FILE_ONLY);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Arrête les exécuteurs, à la fermeture de l'application
+     */
+    static void stop() {
+        for (ExecutorService executor : executors.values()) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Crée le client HTTP d'un profil
+     *
+     * @param profile Profil
+     * @param version Version du protocole demandée
+     * @return Client
+     */
+    @NotNull
+    private static HttpClient build(@NotNull CommunicationClientProfile profile, @NotNull HttpClient.Version version) {
+        return HttpClient.newBuilder()
+                .version(version)
+                .executor(executors.get(profile))
+                .connectTimeout(profile.getConnectTimeout())
+                .build();
+    }
+
+    /**
+     * Indique si une erreur vient du protocole HTTP/2 plutôt que du réseau ou du serveur
+     *
+     * @param cause Erreur
+     * @return Erreur de protocole HTTP/2
+     */
+    private static boolean isHttp2Failure(@Nullable Throwable cause) {
+        if (cause instanceof ProtocolException) {
+            return true;
+        }
+
+        String message = cause != null ? cause.getMessage() : null;
+        return message != null && (message.contains("HTTP/2") || message.contains("GOAWAY"));
+    }
+
+    /**
+     * Fabrique de threads démons d'un profil
+     *
+     * @param profile Profil
+     * @return Fabrique
+     */
+    @NotNull
+    private static ThreadFactory threadFactory(@NotNull CommunicationClientProfile profile) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, profile.getThreadName() + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package fr.groupe4.clientprojet.communication;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Regroupe les requêtes identiques en cours <br>
+ * <br>
+ * Si une communication en lecture seule est lancée alors qu'une communication de même type
+ * et avec les mêmes données est déjà en cours, elle ne fait pas de nouvel échange HTTP :
+ * elle attend la première et en recopie le résultat.
+ *
+ * @see fr.groupe4.clientprojet.communication.enums.CommunicationType#isReadOnly()
+ */
+final class CommunicationCoalescer {
+    /**
+     * Communications en cours, par clé de requête
+     */
+    @NotNull
+    private static final ConcurrentHashMap<String, Communication> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private CommunicationCoalescer() {
+    }
+
+    /**
+     * Rattache une communication à une requête identique déjà en cours <br>
+     * S'il n'y en a pas, la communication devient la requête de référence pour sa clé
+     *
+     * @param comm Communication à lancer
+     * @return La communication a été rattachée (true) ou doit être envoyée (false)
+     */
+    static boolean attach(@NotNull Communication comm) {
+        if (!comm.typeOfCommunication.isReadOnly()) {
+            return false;
+        }
+
+        Communication leader = inFlight.putIfAbsent(comm.getRequestKey(), comm);
+
+        if (leader == null) {
+            return false;
+        }
+
+        leader.getFuture().thenAccept(comm::follow);
+        return true;
+    }
+
+    /**
+     * Retire une communication terminée des requêtes en cours
+     *
+     * @param comm Communication terminée
+     */
+    static void detach(@NotNull Communication comm) {
+        if (comm.typeOfCommunication.isReadOnly()) {
+            inFlight.remove(comm.getRequestKey(), comm);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.CommunicationFormat;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.simple.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Encodage des requêtes et décodage des réponses selon le format d'échange <br>
+ * <br>
+ * La requête est envoyée dans le format choisi (Content-Type), et l'en-tête Accept indique au serveur
+ * les formats de réponse acceptés. La réponse est lue selon son propre Content-Type : un serveur qui ne connait
+ * pas MessagePack peut toujours répondre en JSON.
+ *
+ * @see CommunicationFormat
+ */
+final class CommunicationCodec {
+    /**
+     * Format des requêtes, formulaire par défaut
+     */
+    @NotNull
+    private static volatile CommunicationFormat format = CommunicationFormat.FORMAT_FORM;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private CommunicationCodec() {
+    }
+
+    /**
+     * Change le format des requêtes
+     *
+     * @param newFormat Nouveau format
+     */
+    static void setFormat(@NotNull CommunicationFormat newFormat) {
+        format = newFormat;
+    }
+
+    /**
+     * Format des requêtes
+     *
+     * @return Format actuel
+     */
+    @NotNull
+    static CommunicationFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Valeur de l'en-tête Accept pour un format de requête
+     *
+     * @param requestFormat Format de la requête
+     * @return Formats de réponse acceptés, par préférence
+     */
+    @NotNull
+    static String accept(@NotNull CommunicationFormat requestFormat) {
+        switch (requestFormat) {
+            case FORMAT_MESSAGE_PACK:
+                return CommunicationFormat.FORMAT_MESSAGE_PACK.getContentType()
+                        + ", " + CommunicationFormat.FORMAT_JSON.getContentType() + ";q=0.5";
+
+            case FORMAT_FORM:
+            case FORMAT_JSON:
+            default:
+                return CommunicationFormat.FORMAT_JSON.getContentType();
+        }
+    }
+
+    /**
+     * Encode les données d'une requête
+     *
+     * @param requestFormat Format de la requête
+     * @param data          Données
+     * @return Corps de la requête
+     */
+    @NotNull
+    static byte[] encode(@NotNull CommunicationFormat requestFormat, @NotNull Map<String, Object> data) {
+        switch (requestFormat) {
+            case FORMAT_JSON:
+                return JSONObject.toJSONString(data).getBytes(StandardCharsets.UTF_8);
+
+            case FORMAT_MESSAGE_PACK:
+                ByteArrayOutputStream out = new ByteArrayOutputStream(64 + data.size() * 16);
+
+                try {
+                    new MessagePackWriter(out).writeValue(data);
+                } catch (IOException e) {
+                    // Impossible en mémoire
+                    throw new IllegalStateException(e);
+                }
+
+                return out.toByteArray();
+
+            case FORMAT_FORM:
+            default:
+                return buildFormDataFromMap(data).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Crée le lecteur d'une réponse selon son Content-Type <br>
+     * Sans Content-Type reconnu, la réponse est lue en JSON
+     *
+     * @param in          Flux de la réponse, déjà décompressé
+     * @param contentType Valeur de l'en-tête Content-Type, null si absent
+     * @return Lecteur
+     */
+    @NotNull
+    static ContentReader reader(@NotNull InputStream in, @Nullable String contentType) {
+        if (CommunicationFormat.FORMAT_MESSAGE_PACK.matches(contentType)) {
+            return new MessagePackReader(in);
+        }
+
+        return new JsonReader(in);
+    }
+
+    /**
+     * Transforme une HashMap en formulaire pour POST <br>
+     * Source : <a href="https://mkyong.com/java/how-to-send-http-request-getpost-in-java/">mkyong.com</a>
+     *
+     * @param data Data en entrée
+     * @return Formulaire pour POST
+     */
+    @NotNull
+    private static String buildFormDataFromMap(@NotNull Map<String, Object> data) {
+        StringBuilder builder = new StringBuilder();
+
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append("&");
+            }
+            builder.append(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8));
+            builder.append("=");
+            builder.append(URLEncoder.encode(entry.getValue().toString(), StandardCharsets.UTF_8));
+        }
+
+        return builder.toString();
+    }
+}
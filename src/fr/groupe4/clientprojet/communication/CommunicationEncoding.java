@@ -0,0 +1,165 @@
+package fr.groupe4.clientprojet.communication;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression des échanges HTTP <br>
+ * <br>
+ * Les réponses sont demandées en gzip ou deflate et décompressées à la lecture, sans passer par un
+ * tableau intermédiaire. Les corps de requête volumineux peuvent être envoyés en gzip, si le serveur l'accepte.
+ */
+final class CommunicationEncoding {
+    /**
+     * Valeur de l'en-tête Accept-Encoding
+     */
+    @NotNull
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    /**
+     * Taille minimale (en octets) d'un corps de requête pour qu'il soit compressé
+     */
+    static final int MIN_COMPRESSED_SIZE = 1024;
+
+    /**
+     * Compression des corps de requête activée ou non, désactivée par défaut
+     */
+    private static volatile boolean requestCompression = false;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private CommunicationEncoding() {
+    }
+
+    /**
+     * Active ou non la compression des corps de requête
+     *
+     * @param enabled Activée ou non
+     */
+    static void setRequestCompression(boolean enabled) {
+        requestCompression = enabled;
+    }
+
+    /**
+     * Indique si un corps de requête doit être compressé
+     *
+     * @param size Taille du corps en octets
+     * @return À compresser ou non
+     */
+    static boolean shouldCompress(int size) {
+        return requestCompression && size >= MIN_COMPRESSED_SIZE;
+    }
+
+    /**
+     * Compresse un corps de requête en gzip
+     *
+     * @param data Corps de la requête
+     * @return Corps compressé
+     */
+    @NotNull
+    static byte[] gzip(@NotNull byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            // Impossible en mémoire
+            throw new IllegalStateException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Décompresse un flux de réponse selon son Content-Encoding
+     *
+     * @param in       Flux reçu
+     * @param encoding Valeur de l'en-tête Content-Encoding
+     * @return Flux décompressé
+     * @throws IOException Si l'en-tête gzip est invalide
+     */
+    @NotNull
+    static InputStream decode(@NotNull InputStream in, @NotNull String encoding) throws IOException {
+        switch (encoding.trim().toLowerCase()) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(in);
+
+            case "deflate":
+                return new InflaterInputStream(in);
+
+            default:
+                return in;
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Flux qui compte les octets lus
+     */
+    static final class CountingInputStream extends FilterInputStream {
+        /**
+         * Octets lus
+         */
+        private long count;
+
+        /**
+         * Constructeur
+         *
+         * @param in Flux à compter
+         */
+        CountingInputStream(@NotNull InputStream in) {
+            super(in);
+            count = 0;
+        }
+
+        /**
+         * Octets lus jusqu'ici
+         *
+         * @return Nombre d'octets
+         */
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+
+            if (b >= 0) {
+                count++;
+            }
+
+            return b;
+        }
+
+        @Override
+        public int read(@NotNull byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+
+            if (n > 0) {
+                count += n;
+            }
+
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
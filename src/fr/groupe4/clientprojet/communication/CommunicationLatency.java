@@ -0,0 +1,355 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.CommunicationType;
+import fr.groupe4.clientprojet.logger.Logger;
+import fr.groupe4.clientprojet.logger.enums.LoggerOption;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Time out adaptatif et requêtes doublées (hedging), d'après les latences observées par type de communication <br>
+ * <br>
+ * La latence de chaque envoi (jusqu'aux en-têtes de la réponse) est gardée dans une fenêtre glissante.
+ * Le time out d'un type en lecture seule vaut trois fois sa latence p99, entre 2 et 30 secondes :
+ * une recherche rapide n'attend plus 30 secondes un serveur qui ne répond pas. <br>
+ * Un time out compte comme une latence égale au time out, pour que le suivant s'élargisse. <br>
+ * Les modifications gardent le time out maximal : abandonnée trop tôt,
+ * une création déjà appliquée par le serveur serait signalée comme un échec. <br>
+ * <br>
+ * Pour les requêtes en lecture seule, si le premier envoi dépasse la latence p95 de son type,
+ * un second envoi identique part et la première réponse arrivée est gardée, l'autre est libérée. <br>
+ * Le second envoi prend une place dans l'ordonnanceur ; s'il n'y en a pas, la requête n'est pas doublée. <br>
+ * Sans assez de mesures, le time out est le maximum et aucune requête n'est doublée.
+ *
+ * @see CommunicationRetry
+ */
+final class CommunicationLatency {
+    /**
+     * Nombre de latences gardées par type
+     */
+    private static final int WINDOW_SIZE = 128;
+
+    /**
+     * Nombre de latences nécessaires avant d'adapter le time out
+     */
+    private static final int MIN_SAMPLES = 20;
+
+    /**
+     * Time out minimal
+     */
+    @NotNull
+    private static final Duration MIN_TIMEOUT = Duration.ofSeconds(2);
+
+    /**
+     * Time out maximal, et time out sans mesure
+     */
+    @NotNull
+    static final Duration MAX_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Multiplicateur de la latence p99 pour obtenir le time out
+     */
+    private static final int TIMEOUT_FACTOR = 3;
+
+    /**
+     * Latences par type de communication
+     */
+    @NotNull
+    private static final ConcurrentHashMap<CommunicationType, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Thread de programmation des envois doublés
+     */
+    @NotNull
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "communication-hedge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Envois doublés activés ou non
+     */
+    private static volatile boolean hedging = true;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private CommunicationLatency() {
+    }
+
+    /**
+     * Active ou non les envois doublés
+     *
+     * @param enabled Activés ou non
+     */
+    static void setHedging(boolean enabled) {
+        hedging = enabled;
+    }
+
+    /**
+     * Time out d'un type de communication
+     *
+     * @param type Type de communication
+     * @return Trois fois la latence p99, entre MIN_TIMEOUT et MAX_TIMEOUT, MAX_TIMEOUT pour une modification
+     */
+    @NotNull
+    static Duration timeout(@NotNull CommunicationType type) {
+        if (!type.isReadOnly()) {
+            return MAX_TIMEOUT;
+        }
+
+        Window window = windows.get(type);
+        long p99 = window != null ? window.percentile(99) : -1;
+
+        if (p99 < 0) {
+            return MAX_TIMEOUT;
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(p99) * TIMEOUT_FACTOR;
+        return Duration.ofMillis(Math.max(MIN_TIMEOUT.toMillis(), Math.min(millis, MAX_TIMEOUT.toMillis())));
+    }
+
+    /**
+     * Latence d'un type de communication
+     *
+     * @param type       Type de communication
+     * @param percentile Percentile, entre 0 et 100
+     * @return Latence en nanosecondes, -1 sans assez de mesures
+     */
+    static long percentile(@NotNull CommunicationType type, int percentile) {
+        Window window = windows.get(type);
+        return window != null ? window.percentile(percentile) : -1;
+    }
+
+    /**
+     * Envoie une requête en mesurant sa latence, et la double si elle tarde et peut être rejouée
+     *
+     * @param type    Type de communication
+     * @param sending Envoi HTTP, appelé une ou deux fois
+     * @param <T>     Type du corps de réponse
+     * @return Première réponse reçue, ou erreur si tous les envois ont échoué
+     */
+    @NotNull
+    static <T> CompletableFuture<HttpResponse<T>> send(@NotNull CommunicationType type,
+                                                       @NotNull Supplier<CompletableFuture<HttpResponse<T>>> sending) {
+        long hedgeDelay = hedging && type.isReadOnly() ? percentile(type, 95) : -1;
+
+        if (hedgeDelay < 0) {
+            return measure(type, sending);
+        }
+
+        CompletableFuture<HttpResponse<T>> winner = new CompletableFuture<>();
+        // Le second envoi est écrit par le thread de programmation et lu à la fin de la course
+        AtomicReferenceArray<CompletableFuture<?>> attempts = new AtomicReferenceArray<>(2);
+        AtomicInteger pending = new AtomicInteger(1);
+
+        attempts.set(0, race(winner, pending, measure(type, sending)));
+
+        ScheduledFuture<?> hedge;
+
+        try {
+            hedge = timer.schedule(() -> {
+                if (winner.isDone()) {
+                    return;
+                }
+
+                if (!CommunicationScheduler.tryAcquire(type)) {
+                    // Limites de l'ordonnanceur atteintes : doubler chargerait encore un serveur déjà lent
+                    Logger.debug("Requête non doublée, ordonnanceur occupé :", type, LoggerOption.LOG_FILE_ONLY);
+                    return;
+                }
+
+                Logger.debug("Requête doublée après", hedgeDelay / 1_000_000, "ms :", type, LoggerOption.LOG_FILE_ONLY);
+
+                CompletableFuture<HttpResponse<T>> attempt;
+
+                try {
+                    attempt = measure(type, sending);
+                } catch (RuntimeException e) {
+                    // Le premier envoi reste seul en course
+                    CommunicationScheduler.release(type);
+                    Logger.warning("Envoi doublé impossible :", e);
+                    return;
+                }
+
+                attempt.whenComplete((response, throwable) -> CommunicationScheduler.release(type));
+                pending.incrementAndGet();
+                attempts.set(1, race(winner, pending, attempt));
+
+                if (winner.isDone()) {
+                    // Course terminée pendant le lancement : l'annulation de fin de course a pu ne pas le voir
+                    attempt.cancel(true);
+                }
+            }, hedgeDelay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Application en cours de fermeture
+            hedge = null;
+        }
+
+        ScheduledFuture<?> scheduled = hedge;
+
+        winner.whenComplete((response, throwable) -> {
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+
+            // Réponse gardée ou annulation : l'autre envoi n'est plus utile
+            for (int i = 0; i < attempts.length(); i++) {
+                CompletableFuture<?> attempt = attempts.get(i);
+
+                if (attempt != null) {
+                    attempt.cancel(true);
+                }
+            }
+        });
+
+        return winner;
+    }
+
+    /**
+     * Arrête les envois doublés, à la fermeture de l'application
+     */
+    static void stop() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Envoie une requête et enregistre sa latence
+     *
+     * @param type    Type de communication
+     * @param sending Envoi HTTP
+     * @param <T>     Type du corps de réponse
+     * @return Réponse
+     */
+    @NotNull
+    private static <T> CompletableFuture<HttpResponse<T>> measure(@NotNull CommunicationType type,
+                                                                  @NotNull Supplier<CompletableFuture<HttpResponse<T>>> sending) {
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<T>> attempt = sending.get();
+
+        // Le futur de l'envoi est renvoyé tel quel : l'annuler interrompt l'échange
+        attempt.whenComplete((response, throwable) -> {
+            Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+
+            if (response != null || cause instanceof HttpTimeoutException) {
+                long duration = System.nanoTime() - start;
+
+                windows.computeIfAbsent(type, key -> new Window()).add(duration);
+                CommunicationMetrics.exchanged(type, duration);
+            }
+        });
+
+        return attempt;
+    }
+
+    /**
+     * Fait participer un envoi à la course : la première réponse gagne, les suivantes sont libérées
+     *
+     * @param winner  Futur de la première réponse
+     * @param pending Envois sans résultat
+     * @param attempt Envoi
+     * @param <T>     Type du corps de réponse
+     * @return Envoi
+     */
+    @NotNull
+    private static <T> CompletableFuture<HttpResponse<T>> race(@NotNull CompletableFuture<HttpResponse<T>> winner,
+                                                               @NotNull AtomicInteger pending,
+                                                               @NotNull CompletableFuture<HttpResponse<T>> attempt) {
+        attempt.whenComplete((response, throwable) -> {
+            if (response != null) {
+                if (!winner.complete(response)) {
+                    discard(response);
+                }
+            } else if (pending.decrementAndGet() == 0) {
+                // Tous les envois lancés ont échoué
+                winner.completeExceptionally(throwable);
+            }
+        });
+
+        return attempt;
+    }
+
+    /**
+     * Libère le corps d'une réponse arrivée trop tard
+     *
+     * @param response Réponse
+     */
+    private static void discard(@NotNull HttpResponse<?> response) {
+        if (response.body() instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) response.body()).close();
+            } catch (Exception e) {
+                Logger.warning("Fermeture de la réponse impossible :", e);
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Fenêtre glissante des dernières latences d'un type
+     */
+    private static final class Window {
+        /**
+         * Latences en nanosecondes, tampon circulaire
+         */
+        @NotNull
+        private final long[] samples = new long[WINDOW_SIZE];
+
+        /**
+         * Nombre total de latences reçues
+         */
+        private long count = 0;
+
+        /**
+         * Ajoute une latence, en remplaçant la plus ancienne si la fenêtre est pleine
+         *
+         * @param nanos Latence en nanosecondes
+         */
+        private synchronized void add(long nanos) {
+            samples[(int) (count % WINDOW_SIZE)] = nanos;
+            count++;
+        }
+
+        /**
+         * Percentile des latences de la fenêtre
+         *
+         * @param percentile Percentile, entre 0 et 100
+         * @return Latence en nanosecondes, -1 sans assez de mesures
+         */
+        private long percentile(int percentile) {
+            long[] sorted;
+
+            synchronized (this) {
+                if (count < MIN_SAMPLES) {
+                    return -1;
+                }
+
+                sorted = Arrays.copyOf(samples, (int) Math.min(count, WINDOW_SIZE));
+            }
+
+            Arrays.sort(sorted);
+
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+}
@@ -0,0 +1,542 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.APICode;
+import fr.groupe4.clientprojet.communication.enums.CommunicationStatus;
+import fr.groupe4.clientprojet.communication.enums.CommunicationType;
+import fr.groupe4.clientprojet.communication.enums.HTTPCode;
+import fr.groupe4.clientprojet.logger.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.json.simple.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métriques des communications, par type de communication <br>
+ * <br>
+ * Alimentées par Communication à chaque étape : requêtes lancées, échanges en cours, octets envoyés et reçus,
+ * latences (de bout en bout, et de l'échange HTTP seul), codes HTTP et codes API en erreur,
+ * renouvellements du token. <br>
+ * Les latences sont gardées dans des histogrammes à échelle logarithmique (4 intervalles par puissance de 2,
+ * soit 25 % de précision au plus), sans garder chaque mesure. <br>
+ * <br>
+ * Un instantané JSON est ajouté toutes les minutes à un fichier .jsonl du dossier des logs.
+ * Chaque instantané couvre la période écoulée depuis le précédent : les compteurs sont remis à zéro,
+ * sauf le nombre d'échanges en cours. Les périodes sans activité ne sont pas écrites.
+ *
+ * @see CommunicationLatency
+ */
+final class CommunicationMetrics {
+    /**
+     * Période des instantanés, en secondes
+     */
+    private static final long SNAPSHOT_PERIOD = 60;
+
+    /**
+     * Fichier des instantanés, à côté des logs
+     */
+    @NotNull
+    private static final Path file = Paths.get("logs", "fr-groupe4-clientprojet_metrics_"
+            + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd@HH-mm-ss")) + ".jsonl");
+
+    /**
+     * Métriques par type de communication
+     */
+    @NotNull
+    private static final EnumMap<CommunicationType, Endpoint> endpoints = new EnumMap<>(CommunicationType.class);
+
+    /**
+     * Renouvellements du token réussis
+     */
+    @NotNull
+    private static final LongAdder renewals = new LongAdder();
+
+    /**
+     * Renouvellements du token échoués
+     */
+    @NotNull
+    private static final LongAdder failedRenewals = new LongAdder();
+
+    /**
+     * Requêtes qui ont dû attendre un renouvellement du token avant de partir
+     */
+    @NotNull
+    private static final LongAdder renewalWaits = new LongAdder();
+
+    /**
+     * Début de la période en cours
+     */
+    @NotNull
+    private static LocalDateTime periodStart = LocalDateTime.now();
+
+    /**
+     * Thread d'écriture des instantanés
+     */
+    @NotNull
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "communication-metrics");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        for (CommunicationType type : CommunicationType.values()) {
+            endpoints.put(type, new Endpoint());
+        }
+
+        try {
+            timer.scheduleAtFixedRate(CommunicationMetrics::writeSnapshot,
+                    SNAPSHOT_PERIOD, SNAPSHOT_PERIOD, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            Logger.warning("Instantanés des métriques désactivés :", e);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private CommunicationMetrics() {
+    }
+
+    /**
+     * Communication lancée
+     *
+     * @param comm Communication
+     */
+    static void started(@NotNull Communication comm) {
+        endpoints.get(comm.typeOfCommunication).requests.increment();
+    }
+
+    /**
+     * Échange HTTP parti
+     *
+     * @param comm Communication
+     */
+    static void sending(@NotNull Communication comm) {
+        Endpoint endpoint = endpoints.get(comm.typeOfCommunication);
+        endpoint.exchanges.increment();
+        endpoint.inFlight.incrementAndGet();
+        endpoint.bytesSent.add(comm.getBytesSent());
+    }
+
+    /**
+     * Échange HTTP terminé, réponse reçue ou non
+     *
+     * @param comm Communication
+     */
+    static void received(@NotNull Communication comm) {
+        endpoints.get(comm.typeOfCommunication).inFlight.decrementAndGet();
+    }
+
+    /**
+     * Latence d'un envoi, jusqu'aux en-têtes de la réponse
+     *
+     * @param type  Type de communication
+     * @param nanos Durée en nanosecondes
+     */
+    static void exchanged(@NotNull CommunicationType type, long nanos) {
+        endpoints.get(type).exchangeLatency.add(nanos);
+    }
+
+    /**
+     * Communication terminée
+     *
+     * @param comm    Communication
+     * @param network Réponse venue du serveur, pas du cache, du stockage local ni d'une requête identique
+     * @param nanos   Durée depuis le lancement, en nanosecondes
+     */
+    static void finished(@NotNull Communication comm, boolean network, long nanos) {
+        Endpoint endpoint = endpoints.get(comm.typeOfCommunication);
+
+        endpoint.latency.add(nanos);
+        endpoint.httpCodes.incrementAndGet(comm.httpCode.ordinal());
+
+        if (!network) {
+            endpoint.local.increment();
+        } else {
+            endpoint.bytesReceived.add(comm.getBytesReceived());
+            endpoint.bytesDecoded.add(comm.getBytesDecoded());
+        }
+
+        if (comm.httpCode == HTTPCode.HTTP_OK && comm.status != CommunicationStatus.STATUS_SUCCESS) {
+            endpoint.apiErrors.incrementAndGet(comm.code.ordinal());
+        }
+    }
+
+    /**
+     * Renouvellement du token terminé
+     *
+     * @param success Réussi ou non
+     */
+    static void renewed(boolean success) {
+        (success ? renewals : failedRenewals).increment();
+    }
+
+    /**
+     * Requête en attente d'un renouvellement du token
+     */
+    static void waitedForRenewal() {
+        renewalWaits.increment();
+    }
+
+    /**
+     * Arrête les instantanés et écrit le dernier, à la fermeture de l'application
+     */
+    static void stop() {
+        timer.shutdownNow();
+        writeSnapshot();
+    }
+
+    /**
+     * Instantané des métriques de la période écoulée, les compteurs sont remis à zéro
+     *
+     * @return Instantané, null si rien ne s'est passé pendant la période
+     */
+    @SuppressWarnings("unchecked")
+    static synchronized JSONObject snapshot() {
+        LocalDateTime now = LocalDateTime.now();
+        JSONObject json = new JSONObject();
+        JSONObject types = new JSONObject();
+
+        for (CommunicationType type : CommunicationType.values()) {
+            JSONObject endpoint = endpoints.get(type).snapshot();
+
+            if (endpoint != null) {
+                types.put(type.name(), endpoint);
+            }
+        }
+
+        JSONObject token = new JSONObject();
+        token.put("renewals", renewals.sumThenReset());
+        token.put("failed", failedRenewals.sumThenReset());
+        token.put("waits", renewalWaits.sumThenReset());
+
+        json.put("from", periodStart.toString());
+        json.put("to", now.toString());
+        json.put("token", token);
+        json.put("types", types);
+
+        periodStart = now;
+
+        boolean idle = types.isEmpty() && (long) token.get("renewals") == 0 && (long) token.get("failed") == 0;
+        return idle ? null : json;
+    }
+
+    /**
+     * Ajoute l'instantané de la période écoulée au fichier
+     */
+    private static void writeSnapshot() {
+        JSONObject json = snapshot();
+
+        if (json == null) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(file.getParent());
+
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(json.toJSONString());
+                out.newLine();
+            }
+        } catch (IOException e) {
+            Logger.error("Écriture des métriques impossible :", e);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Métriques d'un type de communication
+     */
+    private static final class Endpoint {
+        /**
+         * Communications lancées
+         */
+        @NotNull
+        private final LongAdder requests = new LongAdder();
+
+        /**
+         * Communications servies sans échange HTTP propre : cache, stockage local ou requête identique
+         */
+        @NotNull
+        private final LongAdder local = new LongAdder();
+
+        /**
+         * Échanges HTTP partis, nouvelles tentatives comprises
+         */
+        @NotNull
+        private final LongAdder exchanges = new LongAdder();
+
+        /**
+         * Échanges HTTP en cours, jamais remis à zéro
+         */
+        @NotNull
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        /**
+         * Octets envoyés, après compression
+         */
+        @NotNull
+        private final LongAdder bytesSent = new LongAdder();
+
+        /**
+         * Octets reçus, avant décompression
+         */
+        @NotNull
+        private final LongAdder bytesReceived = new LongAdder();
+
+        /**
+         * Octets reçus, après décompression
+         */
+        @NotNull
+        private final LongAdder bytesDecoded = new LongAdder();
+
+        /**
+         * Latence de bout en bout, du lancement à la fin du traitement
+         */
+        @NotNull
+        private final Histogram latency = new Histogram();
+
+        /**
+         * Latence de chaque envoi, jusqu'aux en-têtes de la réponse
+         */
+        @NotNull
+        private final Histogram exchangeLatency = new Histogram();
+
+        /**
+         * Communications terminées par code HTTP (codes custom compris : time out, annulation...)
+         */
+        @NotNull
+        private final AtomicLongArray httpCodes = new AtomicLongArray(HTTPCode.values().length);
+
+        /**
+         * Réponses en erreur par code API
+         */
+        @NotNull
+        private final AtomicLongArray apiErrors = new AtomicLongArray(APICode.values().length);
+
+        /**
+         * Instantané de la période, les compteurs sont remis à zéro
+         *
+         * @return Instantané, null si rien ne s'est passé pendant la période
+         */
+        @SuppressWarnings("unchecked")
+        private JSONObject snapshot() {
+            long requestCount = requests.sumThenReset();
+            long exchangeCount = exchanges.sumThenReset();
+            int inFlightCount = inFlight.get();
+            JSONObject latencySnapshot = latency.snapshot();
+            JSONObject exchangeSnapshot = exchangeLatency.snapshot();
+            JSONObject httpSnapshot = counts(httpCodes, HTTPCode.values());
+            JSONObject apiSnapshot = counts(apiErrors, APICode.values());
+
+            JSONObject json = new JSONObject();
+            json.put("requests", requestCount);
+            json.put("local", local.sumThenReset());
+            json.put("exchanges", exchangeCount);
+            json.put("inFlight", inFlightCount);
+            json.put("bytesSent", bytesSent.sumThenReset());
+            json.put("bytesReceived", bytesReceived.sumThenReset());
+            json.put("bytesDecoded", bytesDecoded.sumThenReset());
+            json.put("latency", latencySnapshot);
+            json.put("exchangeLatency", exchangeSnapshot);
+            json.put("httpCodes", httpSnapshot);
+            json.put("apiErrors", apiSnapshot);
+
+            boolean idle = requestCount == 0 && exchangeCount == 0 && inFlightCount == 0 && httpSnapshot.isEmpty();
+            return idle ? null : json;
+        }
+
+        /**
+         * Compteurs non nuls par valeur d'enum, remis à zéro
+         *
+         * @param counters Compteurs, par ordinal
+         * @param values   Valeurs de l'enum
+         * @return Compteurs par nom
+         */
+        @NotNull
+        @SuppressWarnings("unchecked")
+        private static JSONObject counts(@NotNull AtomicLongArray counters, @NotNull Enum<?>[] values) {
+            JSONObject json = new JSONObject();
+
+            for (int i = 0; i < counters.length(); i++) {
+                long count = counters.getAndSet(i, 0);
+
+                if (count > 0) {
+                    json.put(values[i].name(), count);
+                }
+            }
+
+            return json;
+        }
+    }
+
+    /**
+     * Histogramme de latences à échelle logarithmique, en microsecondes <br>
+     * Chaque puissance de 2 est découpée en 32 intervalles
+     */
+    private static final class Histogram {
+        /**
+         * Bits de précision par puissance de 2 : 32 intervalles, soit environ 3 % d'erreur
+         */
+        private static final int SUB_BITS = 5;
+
+        /**
+         * Intervalles par puissance de 2
+         */
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+        /**
+         * Nombre d'intervalles : jusqu'à 2^40 µs, bien au-delà du time out maximal
+         */
+        private static final int BUCKETS = (40 - SUB_BITS + 2) * SUB_BUCKETS;
+
+        /**
+         * Nombre de mesures par intervalle
+         */
+        @NotNull
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        /**
+         * Latence maximale, en microsecondes
+         */
+        @NotNull
+        private final AtomicLong max = new AtomicLong();
+
+        /**
+         * Ajoute une mesure
+         *
+         * @param nanos Durée en nanosecondes
+         */
+        private void add(long nanos) {
+            long micros = Math.max(1, nanos / 1_000);
+
+            buckets.incrementAndGet(index(micros));
+            max.accumulateAndGet(micros, Math::max);
+        }
+
+        /**
+         * Instantané des percentiles de la période, l'histogramme est remis à zéro
+         *
+         * @return Nombre de mesures, p50, p95, p99 et max en millisecondes
+         */
+        @NotNull
+        @SuppressWarnings("unchecked")
+        private JSONObject snapshot() {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.getAndSet(i, 0);
+                total += counts[i];
+            }
+
+            long maxMicros = max.getAndSet(0);
+
+            JSONObject json = new JSONObject();
+            json.put("count", total);
+
+            if (total > 0) {
+                json.put("p50", percentile(counts, total, 50, maxMicros));
+                json.put("p95", percentile(counts, total, 95, maxMicros));
+                json.put("p99", percentile(counts, total, 99, maxMicros));
+                json.put("max", maxMicros / 1000.0);
+            }
+
+            return json;
+        }
+
+        /**
+         * Intervalle d'une mesure : exact sous SUB_BUCKETS µs, puis SUB_BUCKETS intervalles par puissance de 2
+         *
+         * @param micros Durée en microsecondes, au moins 1
+         * @return Index de l'intervalle
+         */
+        private static int index(long micros) {
+            int power = 63 - Long.numberOfLeadingZeros(micros);
+
+            if (power < SUB_BITS) {
+                return (int) micros;
+            }
+
+            int sub = (int) ((micros >>> (power - SUB_BITS)) & (SUB_BUCKETS - 1));
+            return Math.min((power - SUB_BITS + 1) * SUB_BUCKETS + sub, BUCKETS - 1);
+        }
+
+        /**
+         * Borne basse d'un intervalle
+         *
+         * @param index Index de l'intervalle
+         * @return Durée en microsecondes
+         */
+        private static long lowerBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+
+            int power = index / SUB_BUCKETS + SUB_BITS - 1;
+            return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (power - SUB_BITS);
+        }
+
+        /**
+         * Largeur d'un intervalle
+         *
+         * @param index Index de l'intervalle
+         * @return Durée en microsecondes
+         */
+        private static long width(int index) {
+            if (index < SUB_BUCKETS) {
+                return 1;
+            }
+
+            return 1L << (index / SUB_BUCKETS - 1);
+        }
+
+        /**
+         * Percentile d'un histogramme, interpolé dans son intervalle
+         *
+         * @param counts     Mesures par intervalle
+         * @param total      Nombre de mesures
+         * @param percentile Percentile, entre 0 et 100
+         * @param maxMicros  Latence maximale
+         * @return Percentile en millisecondes
+         */
+        private static double percentile(@NotNull long[] counts, long total, int percentile, long maxMicros) {
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            long seen = 0;
+
+            for (int i = 0; i < counts.length; i++) {
+                if (seen + counts[i] >= rank) {
+                    // Les mesures sont supposées réparties uniformément dans l'intervalle
+                    double fraction = (double) (rank - seen) / counts[i];
+                    double micros = lowerBound(i) + width(i) * fraction;
+                    return Math.min(micros, maxMicros) / 1000.0;
+                }
+
+                seen += counts[i];
+            }
+
+            return maxMicros / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,909 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.CommunicationStatus;
+import fr.groupe4.clientprojet.communication.enums.CommunicationType;
+import fr.groupe4.clientprojet.communication.enums.HTTPCode;
+import fr.groupe4.clientprojet.logger.Logger;
+import fr.groupe4.clientprojet.logger.enums.LoggerOption;
+import fr.groupe4.clientprojet.model.message.Message;
+import fr.groupe4.clientprojet.model.resource.human.User;
+import fr.groupe4.clientprojet.model.task.Task;
+import fr.groupe4.clientprojet.model.timeslot.TimeSlot;
+import fr.groupe4.clientprojet.utils.Location;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * File d'envoi persistante des modifications : messages, créneaux, tâches et allocations <br>
+ * <br>
+ * Une modification mise en file est écrite dans un journal sous Location.getDataPath(), et la main est rendue
+ * tout de suite : l'interface n'attend pas le serveur. Les modifications sont envoyées en tâche de fond,
+ * une à la fois et dans l'ordre. Un échec réseau ou serveur est retenté plus tard, avec un délai croissant ;
+ * un refus du serveur retire la modification de la file. <br>
+ * Chaque modification porte une clé d'idempotence (en-tête Idempotency-Key) qui ne change pas entre les envois :
+ * si la réponse d'un envoi s'est perdue alors que le serveur l'avait appliqué, le renvoi reçoit la même réponse
+ * au lieu de créer un doublon. <br>
+ * Une modification que le serveur n'accepte toujours pas après MAX_SERVER_FAILURES erreurs (5xx, time out),
+ * ou encore en attente après MAX_AGE, est mise de côté dans un journal à part, pour ne plus bloquer les suivantes. <br>
+ * <br>
+ * Tant qu'une création n'est pas confirmée, elle apparaît dans les listes qu'elle concerne avec un id provisoire
+ * négatif. L'id renvoyé par le serveur remplace ensuite l'id provisoire dans les modifications suivantes,
+ * par exemple pour un créneau ajouté à une tâche encore en attente. <br>
+ * La file appartient à un utilisateur sur un serveur. Elle est reprise à sa prochaine connexion,
+ * et vidée autant que possible à la fermeture de l'application.
+ *
+ * @see CommunicationBuilder#enqueue()
+ */
+final class CommunicationOutbox {
+    /**
+     * Types de communication qui passent par la file
+     */
+    @NotNull
+    private static final EnumSet<CommunicationType> queuedTypes = EnumSet.of(
+            CommunicationType.SEND_MESSAGE,
+            CommunicationType.ADD_TIME_SLOT,
+            CommunicationType.CREATE_TASK,
+            CommunicationType.ADD_RESOURCE_TO_PROJECT,
+            CommunicationType.REMOVE_RESOURCE_FROM_PROJECT
+    );
+
+    /**
+     * Données de requête qui peuvent désigner un élément créé par une modification précédente
+     */
+    @NotNull
+    private static final String[] references = {"task", "project"};
+
+    /**
+     * Délai avant de retenter un envoi en échec
+     */
+    private static final long MIN_RETRY_DELAY = 1_000;
+
+    /**
+     * Délai maximal entre deux tentatives
+     */
+    private static final long MAX_RETRY_DELAY = 60_000;
+
+    /**
+     * Nombre d'erreurs du serveur (5xx, time out) après lequel une modification est mise de côté <br>
+     * Les erreurs de connexion ne comptent pas : hors ligne, la modification attend le réseau
+     */
+    private static final int MAX_SERVER_FAILURES = 10;
+
+    /**
+     * Âge après lequel une modification encore en attente est mise de côté
+     */
+    @NotNull
+    private static final Duration MAX_AGE = Duration.ofDays(7);
+
+    /**
+     * Temps laissé à la file pour se vider à la fermeture
+     */
+    @NotNull
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * Modifications en attente, dans l'ordre d'envoi
+     */
+    @NotNull
+    private static final ArrayDeque<Item> queue = new ArrayDeque<>();
+
+    /**
+     * Ids attribués par le serveur, par id provisoire
+     */
+    @NotNull
+    private static final HashMap<Long, Long> resolvedIds = new HashMap<>();
+
+    /**
+     * Thread d'envoi des modifications
+     */
+    @NotNull
+    private static final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "communication-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Propriétaire de la file (utilisateur et serveur), null tant que personne n'est connecté
+     */
+    @Nullable
+    private static String owner = null;
+
+    /**
+     * Identifiant aléatoire du journal, préfixe des clés d'idempotence de ses modifications
+     */
+    @Nullable
+    private static String journalId = null;
+
+    /**
+     * Numéro de la prochaine modification
+     */
+    private static long nextSequence = 1;
+
+    /**
+     * Prochain id provisoire
+     */
+    private static long nextTemporaryId = -1;
+
+    /**
+     * Nombre de lignes du journal
+     */
+    private static int lines = 0;
+
+    /**
+     * Un envoi est programmé
+     */
+    private static boolean scheduled = false;
+
+    /**
+     * Délai avant la prochaine tentative après un échec
+     */
+    private static long retryDelay = MIN_RETRY_DELAY;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private CommunicationOutbox() {
+    }
+
+    /**
+     * Indique si un type de modification peut passer par la file
+     *
+     * @param type Type de communication
+     * @return Mis en file ou non
+     */
+    static boolean isQueued(@NotNull CommunicationType type) {
+        return queuedTypes.contains(type);
+    }
+
+    /**
+     * Met une modification dans la file, sans attendre son envoi
+     *
+     * @param builder Builder de la modification
+     * @return Futur complété avec la communication une fois la modification acceptée ou refusée
+     * @throws IllegalArgumentException Type de communication qui ne passe pas par la file
+     */
+    @NotNull
+    static CompletableFuture<Communication> enqueue(@NotNull CommunicationBuilder builder) {
+        if (!isQueued(builder.typeOfCommunication)) {
+            throw new IllegalArgumentException("Pas de file d'envoi pour " + builder.typeOfCommunication);
+        }
+
+        // Le token est celui du moment de l'envoi
+        HashMap<String, Object> data = new HashMap<>(builder.requestData);
+        data.remove("token");
+
+        Item item;
+
+        synchronized (queue) {
+            item = new Item(nextSequence++, builder.typeOfCommunication, data,
+                    nextTemporaryId--, System.currentTimeMillis() / 1000);
+
+            queue.add(item);
+            append(item.toLine());
+        }
+
+        CommunicationSubscription.outboxChanged(item.type, item.data, false);
+        schedule(0);
+
+        return item.done;
+    }
+
+    /**
+     * Ouvre la file d'un utilisateur, à la connexion : ses modifications en attente sont reprises
+     *
+     * @param newOwner Utilisateur et serveur
+     */
+    static void open(@NotNull String newOwner) {
+        synchronized (queue) {
+            if (newOwner.equals(owner)) {
+                return;
+            }
+
+            // Les modifications de l'utilisateur précédent restent dans son journal
+            queue.clear();
+            resolvedIds.clear();
+            owner = newOwner;
+
+            load();
+
+            if (journalId == null) {
+                // Nouveau journal, ou journal écrit avant les clés d'idempotence
+                journalId = UUID.randomUUID().toString();
+                compact();
+            } else if (lines != queue.size() + 1) {
+                compact();
+            }
+
+            if (!queue.isEmpty()) {
+                Logger.info(queue.size(), "modification(s) en attente reprise(s)");
+            }
+        }
+
+        schedule(0);
+    }
+
+    /**
+     * Envoie les modifications en attente avant la fermeture de l'application <br>
+     * Celles qui n'ont pas pu partir à temps restent dans le journal
+     */
+    static void close() {
+        try {
+            Future<?> drain = sender.submit(CommunicationOutbox::sendAll);
+            drain.get(DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Déjà fermée
+            return;
+        } catch (TimeoutException e) {
+            Logger.warning("Modifications pas encore envoyées, reprises à la prochaine connexion");
+        } catch (ExecutionException e) {
+            Logger.error("Erreur pendant l'envoi des modifications :", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        sender.shutdownNow();
+
+        synchronized (queue) {
+            if (owner != null && lines > queue.size() + 1) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Ajoute à une liste les créations en attente qui la concernent, avec leur id provisoire
+     *
+     * @param type        Type de communication de la liste
+     * @param requestData Données de la requête de la liste
+     * @param result      Liste reçue
+     * @param checksum    Empreinte de la liste reçue
+     * @return Nouvelle liste et son empreinte, null si aucune création ne la concerne
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    static Overlay overlay(@NotNull CommunicationType type,
+                           @NotNull Map<String, Object> requestData,
+                           @Nullable Object result,
+                           int checksum) {
+        if (!(result instanceof ArrayList) || !CommunicationSync.isSynchronized(type)) {
+            return null;
+        }
+
+        ArrayList<Item> pending;
+
+        synchronized (queue) {
+            if (queue.isEmpty()) {
+                return null;
+            }
+
+            pending = new ArrayList<>(queue);
+        }
+
+        ArrayList<?> received = (ArrayList<?>) result;
+        ArrayList<Object> list = null;
+
+        for (Item item : pending) {
+            if (!targets(item, type, requestData) || contains(type, received, item.temporaryId)) {
+                continue;
+            }
+
+            Object element = item.element();
+
+            if (element != null) {
+                if (list == null) {
+                    list = (ArrayList<Object>) received.clone();
+                }
+
+                list.add(element);
+                checksum = 31 * checksum + Long.hashCode(item.temporaryId);
+            }
+        }
+
+        return list != null ? new Overlay(list, checksum) : null;
+    }
+
+    /**
+     * Programme l'envoi des modifications en attente
+     *
+     * @param delay Délai en millisecondes
+     */
+    private static void schedule(long delay) {
+        synchronized (queue) {
+            if (scheduled || queue.isEmpty()) {
+                return;
+            }
+
+            scheduled = true;
+        }
+
+        try {
+            sender.schedule(CommunicationOutbox::sendPending, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Application en cours de fermeture
+            synchronized (queue) {
+                scheduled = false;
+            }
+        }
+    }
+
+    /**
+     * Envoie les modifications en attente, et reprogramme un envoi après un échec
+     */
+    private static void sendPending() {
+        synchronized (queue) {
+            scheduled = false;
+        }
+
+        sendAll();
+
+        boolean failed;
+
+        synchronized (queue) {
+            failed = !queue.isEmpty();
+        }
+
+        if (failed) {
+            long delay = retryDelay;
+            retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY);
+            schedule(delay);
+        } else {
+            retryDelay = MIN_RETRY_DELAY;
+        }
+    }
+
+    /**
+     * Envoie les modifications dans l'ordre, jusqu'à la fin de la file ou au premier échec
+     */
+    private static void sendAll() {
+        while (sendNext()) {
+            retryDelay = MIN_RETRY_DELAY;
+        }
+    }
+
+    /**
+     * Envoie la première modification de la file
+     *
+     * @return Modification traitée (acceptée ou refusée), false si la file est vide ou l'envoi a échoué
+     */
+    private static boolean sendNext() {
+        Item item;
+
+        synchronized (queue) {
+            item = queue.peek();
+        }
+
+        if (item == null) {
+            return false;
+        }
+
+        CommunicationBuilder builder = new CommunicationBuilder().background().scope(null);
+        builder.typeOfCommunication = item.type;
+        builder.requestData = new HashMap<>(item.data);
+
+        if (!resolveReferences(builder.requestData)) {
+            Logger.warning("Modification abandonnée, elle dépend d'une création refusée :", item.type, item.data);
+            complete(item, builder.build(), null);
+            return true;
+        }
+
+        builder.requestData.put("token", Communication.getRequestToken(builder));
+
+        synchronized (queue) {
+            builder.idempotencyKey = journalId + "-" + item.sequence;
+        }
+
+        Communication comm = builder.startNow().sleepUntilFinished().build();
+        HTTPCode httpCode = comm.getHTTPCode();
+
+        if (httpCode == HTTPCode.HTTP_OK && comm.getStatus() == CommunicationStatus.STATUS_SUCCESS) {
+            complete(item, comm, comm.getResult() instanceof Long ? (Long) comm.getResult() : null);
+            return true;
+        }
+
+        if (CommunicationRetry.isFailure(httpCode)
+                || httpCode.getCode() < 0
+                || httpCode == HTTPCode.HTTP_UNAUTHORIZED) {
+
+            if (CommunicationRetry.isFailure(httpCode)) {
+                item.serverFailures++;
+            }
+
+            if (item.serverFailures >= MAX_SERVER_FAILURES
+                    || System.currentTimeMillis() / 1000 - item.time > MAX_AGE.toSeconds()) {
+
+                park(item, comm);
+                return true;
+            }
+
+            // Serveur injoignable, envoi annulé ou token à renouveler : la modification reste en tête de file
+            Logger.debug("Envoi de la modification reporté :", comm, LoggerOption.LOG_FILE_ONLY);
+            return false;
+        }
+
+        Logger.warning("Modification refusée par le serveur :", comm);
+        complete(item, comm, null);
+        return true;
+    }
+
+    /**
+     * Met de côté une modification qui bloque la file : elle est retirée de la file et copiée
+     * dans le journal des modifications abandonnées, pour être reprise à la main si besoin
+     *
+     * @param item Modification
+     * @param comm Dernier envoi, en échec
+     */
+    private static void park(@NotNull Item item, @NotNull Communication comm) {
+        Path parked;
+
+        synchronized (queue) {
+            parked = path().resolveSibling(path().getFileName().toString().replace(".jsonl", ".parked.jsonl"));
+
+            try (BufferedWriter out = Files.newBufferedWriter(parked, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(item.toLine());
+                out.newLine();
+            } catch (IOException e) {
+                Logger.error("Écriture du journal des modifications abandonnées impossible :", e);
+            }
+        }
+
+        Logger.error("Modification abandonnée après", item.serverFailures, "erreur(s) du serveur, copiée dans",
+                parked, ":", item.type, item.data, comm);
+        complete(item, comm, null);
+    }
+
+    /**
+     * Remplace les ids provisoires des données d'une requête par les ids attribués par le serveur
+     *
+     * @param data Données de la requête
+     * @return Tous les ids remplacés, false si une création dont dépend la requête a été refusée
+     */
+    private static boolean resolveReferences(@NotNull HashMap<String, Object> data) {
+        for (String key : references) {
+            Object value = data.get(key);
+
+            if (value instanceof Number && ((Number) value).longValue() < 0) {
+                Long id;
+
+                synchronized (queue) {
+                    id = resolvedIds.get(((Number) value).longValue());
+                }
+
+                if (id == null) {
+                    return false;
+                }
+
+                data.put(key, id);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Retire de la file une modification traitée par le serveur
+     *
+     * @param item Modification
+     * @param comm Communication envoyée
+     * @param id   Id attribué par le serveur, null si aucun
+     */
+    private static void complete(@NotNull Item item, @NotNull Communication comm, @Nullable Long id) {
+        synchronized (queue) {
+            // La file a pu changer de propriétaire pendant l'envoi
+            if (queue.remove(item)) {
+                if (id != null) {
+                    resolvedIds.put(item.temporaryId, id);
+                }
+
+                append(item.toDoneLine(id));
+            }
+        }
+
+        CommunicationSubscription.outboxChanged(item.type, item.data, true);
+        item.done.complete(comm);
+    }
+
+    /**
+     * Une création en attente doit-elle apparaître dans une liste ?
+     *
+     * @param item        Modification en attente
+     * @param type        Type de communication de la liste
+     * @param requestData Données de la requête de la liste
+     * @return Concernée ou non
+     */
+    private static boolean targets(@NotNull Item item,
+                                   @NotNull CommunicationType type,
+                                   @NotNull Map<String, Object> requestData) {
+        if (!CommunicationCache.affects(item.type, item.data, type, requestData)) {
+            return false;
+        }
+
+        if (item.type == CommunicationType.SEND_MESSAGE) {
+            // Seulement la conversation du destinataire
+            return Objects.equals(String.valueOf(item.data.get("destination")), String.valueOf(requestData.get("origin")))
+                    && Objects.equals(String.valueOf(item.data.get("id")), String.valueOf(requestData.get("id")));
+        }
+
+        return true;
+    }
+
+    /**
+     * Une liste contient-elle déjà un élément ?
+     *
+     * @param type Type de communication de la liste
+     * @param list Liste
+     * @param id   Id de l'élément
+     * @return Contenu ou non
+     */
+    private static boolean contains(@NotNull CommunicationType type, @NotNull ArrayList<?> list, long id) {
+        for (Object element : list) {
+            if (CommunicationSync.idOf(type, element) == id) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Chemin du journal du propriétaire actuel
+     *
+     * @return Chemin
+     */
+    @NotNull
+    private static Path path() {
+        return Paths.get(Location.getDataPath(), "outbox-" + Integer.toHexString(Objects.hashCode(owner)) + ".jsonl");
+    }
+
+    /**
+     * Charge le journal dans la file, appelé avec le verrou de queue
+     */
+    private static void load() {
+        Path path = path();
+
+        lines = 0;
+        nextSequence = 1;
+        nextTemporaryId = -1;
+        journalId = null;
+
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        JSONParser parser = new JSONParser();
+        LinkedHashMap<Long, Item> items = new LinkedHashMap<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lines++;
+
+                try {
+                    JSONObject json = (JSONObject) parser.parse(line);
+
+                    if (json.containsKey("owner")) {
+                        if (!String.valueOf(json.get("owner")).equals(owner)) {
+                            Logger.warning("Journal d'envoi d'un autre utilisateur ignoré :", path);
+                            lines = 0;
+                            return;
+                        }
+
+                        journalId = (String) json.get("journal");
+                    } else if (json.containsKey("done")) {
+                        items.remove(CommunicationCache.toLong(json.get("seq")));
+
+                        if (json.get("id") != null) {
+                            resolvedIds.put(CommunicationCache.toLong(json.get("temp")),
+                                    CommunicationCache.toLong(json.get("id")));
+                        }
+                    } else {
+                        Item item = Item.fromLine(json);
+                        items.put(item.sequence, item);
+                        nextSequence = Math.max(nextSequence, item.sequence + 1);
+                        nextTemporaryId = Math.min(nextTemporaryId, item.temporaryId - 1);
+                    }
+                } catch (ParseException | RuntimeException e) {
+                    // Ligne tronquée par un arrêt brutal : les suivantes restent lisibles
+                    Logger.warning("Ligne du journal d'envoi ignorée :", e);
+                }
+            }
+        } catch (IOException e) {
+            Logger.error("Lecture du journal d'envoi impossible :", e);
+        }
+
+        queue.addAll(items.values());
+    }
+
+    /**
+     * Réécrit le journal avec seulement les modifications en attente, appelé avec le verrou de queue <br>
+     * Les ids provisoires déjà attribués par le serveur y sont remplacés
+     */
+    @SuppressWarnings("unchecked")
+    private static void compact() {
+        ArrayList<String> content = new ArrayList<>(queue.size() + 1);
+        JSONObject header = new JSONObject();
+        header.put("owner", owner);
+        header.put("journal", journalId);
+        content.add(header.toJSONString());
+
+        for (Item item : queue) {
+            for (String key : references) {
+                Object value = item.data.get(key);
+                Long id = value instanceof Number ? resolvedIds.get(((Number) value).longValue()) : null;
+
+                if (id != null) {
+                    item.data.put(key, id);
+                }
+            }
+
+            content.add(item.toLine());
+        }
+
+        Path path = path();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try {
+            Files.createDirectories(path.getParent());
+            Files.write(temporary, content, StandardCharsets.UTF_8);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lines = content.size();
+        } catch (IOException e) {
+            Logger.error("Écriture du journal d'envoi impossible :", e);
+        }
+    }
+
+    /**
+     * Ajoute une ligne au journal avant de rendre la main, appelé avec le verrou de queue
+     *
+     * @param line Ligne JSON
+     */
+    private static void append(@NotNull String line) {
+        if (owner == null) {
+            // Personne n'est connecté, la modification reste en mémoire
+            return;
+        }
+
+        try (BufferedWriter out = Files.newBufferedWriter(path(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(line);
+            out.newLine();
+            lines++;
+        } catch (IOException e) {
+            Logger.error("Écriture du journal d'envoi impossible :", e);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Liste complétée par les créations en attente
+     */
+    static final class Overlay {
+        /**
+         * Liste
+         */
+        @NotNull
+        final Object result;
+
+        /**
+         * Empreinte de la liste
+         */
+        final int checksum;
+
+        /**
+         * Constructeur
+         *
+         * @param result   Liste
+         * @param checksum Empreinte de la liste
+         */
+        private Overlay(@NotNull Object result, int checksum) {
+            this.result = result;
+            this.checksum = checksum;
+        }
+    }
+
+    /**
+     * Modification en attente
+     */
+    private static final class Item {
+        /**
+         * Numéro d'ordre
+         */
+        private final long sequence;
+
+        /**
+         * Type de communication
+         */
+        @NotNull
+        private final CommunicationType type;
+
+        /**
+         * Données de la requête, sans token
+         */
+        @NotNull
+        private final HashMap<String, Object> data;
+
+        /**
+         * Id provisoire de l'élément créé
+         */
+        private final long temporaryId;
+
+        /**
+         * Date de mise en file, en secondes
+         */
+        private final long time;
+
+        /**
+         * Complété une fois la modification acceptée ou refusée, dans cette session seulement
+         */
+        @NotNull
+        private final CompletableFuture<Communication> done = new CompletableFuture<>();
+
+        /**
+         * Élément affiché en attendant la confirmation, construit au premier affichage
+         */
+        @Nullable
+        private volatile Object element = null;
+
+        /**
+         * Erreurs du serveur depuis le lancement de l'application, pour cette modification
+         */
+        private int serverFailures = 0;
+
+        /**
+         * Constructeur
+         *
+         * @param sequence    Numéro d'ordre
+         * @param type        Type de communication
+         * @param data        Données de la requête, sans token
+         * @param temporaryId Id provisoire
+         * @param time        Date de mise en file, en secondes
+         */
+        private Item(long sequence,
+                     @NotNull CommunicationType type,
+                     @NotNull HashMap<String, Object> data,
+                     long temporaryId,
+                     long time) {
+            this.sequence = sequence;
+            this.type = type;
+            this.data = data;
+            this.temporaryId = temporaryId;
+            this.time = time;
+        }
+
+        /**
+         * Élément créé par la modification, tel qu'il sera renvoyé par le serveur
+         *
+         * @return Message, tâche ou créneau, null pour les allocations
+         */
+        @Nullable
+        private Object element() {
+            if (element == null) {
+                switch (type) {
+                    case SEND_MESSAGE:
+                        element = new Message(
+                                User.getUser(),
+                                temporaryId,
+                                time,
+                                CommunicationCache.toLong(data.get("id")),
+                                String.valueOf(data.get("destination")),
+                                String.valueOf(data.get("content"))
+                        );
+                        break;
+
+                    case CREATE_TASK:
+                        element = new Task(
+                                temporaryId,
+                                String.valueOf(data.get("name")),
+                                String.valueOf(data.get("description")),
+                                String.valueOf(data.get("status")),
+                                CommunicationCache.toLong(data.get("deadline")),
+                                CommunicationCache.toLong(data.get("project"))
+                        );
+                        break;
+
+                    case ADD_TIME_SLOT:
+                        element = new TimeSlot(
+                                temporaryId,
+                                CommunicationCache.toLong(data.get("start")),
+                                CommunicationCache.toLong(data.get("end")),
+                                CommunicationCache.toLong(data.get("task")),
+                                CommunicationCache.toLong(data.get("room"))
+                        );
+                        break;
+
+                    default:
+                        break;
+                }
+            }
+
+            return element;
+        }
+
+        /**
+         * Ligne du journal de la modification
+         *
+         * @return Ligne JSON
+         */
+        @NotNull
+        @SuppressWarnings("unchecked")
+        private String toLine() {
+            JSONObject json = new JSONObject();
+            json.put("seq", sequence);
+            json.put("type", type.name());
+            json.put("temp", temporaryId);
+            json.put("time", time);
+            json.put("data", new JSONObject(data));
+            return json.toJSONString();
+        }
+
+        /**
+         * Ligne du journal indiquant que la modification a été traitée
+         *
+         * @param id Id attribué par le serveur, null si aucun
+         * @return Ligne JSON
+         */
+        @NotNull
+        @SuppressWarnings("unchecked")
+        private String toDoneLine(@Nullable Long id) {
+            JSONObject json = new JSONObject();
+            json.put("seq", sequence);
+            json.put("done", true);
+            json.put("temp", temporaryId);
+            json.put("id", id);
+            return json.toJSONString();
+        }
+
+        /**
+         * Lit une modification du journal
+         *
+         * @param json Ligne JSON
+         * @return Modification
+         */
+        @NotNull
+        @SuppressWarnings("unchecked")
+        private static Item fromLine(@NotNull JSONObject json) {
+            return new Item(
+                    CommunicationCache.toLong(json.get("seq")),
+                    CommunicationType.valueOf(String.valueOf(json.get("type"))),
+                    new HashMap<>((Map<String, Object>) json.get("data")),
+                    CommunicationCache.toLong(json.get("temp")),
+                    CommunicationCache.toLong(json.get("time"))
+            );
+        }
+    }
+}
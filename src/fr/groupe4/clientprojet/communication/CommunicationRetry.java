@@ -0,0 +1,114 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.HTTPCode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Politique de nouvelle tentative des communications <br>
+ * <br>
+ * Seules les requêtes en lecture seule, qui peuvent être rejouées sans effet de bord, sont retentées,
+ * après un time out, une erreur de connexion ou une erreur 5xx. <br>
+ * Le délai avant chaque tentative double (backoff exponentiel) et est tiré au hasard entre 0 et ce plafond
+ * (full jitter) : les panels qui ont échoué ensemble ne reviennent pas tous en même temps. <br>
+ * Pendant l'attente, la communication libère sa place dans l'ordonnanceur.
+ *
+ * @see CommunicationCircuitBreaker
+ */
+final class CommunicationRetry {
+    /**
+     * Nombre maximal d'envois d'une même communication, premier envoi compris
+     */
+    static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * Plafond du délai avant la première nouvelle tentative, en millisecondes
+     */
+    private static final long BASE_DELAY = 250;
+
+    /**
+     * Plafond maximal du délai, en millisecondes
+     */
+    private static final long MAX_DELAY = 4_000;
+
+    /**
+     * Thread de programmation des nouvelles tentatives
+     */
+    @NotNull
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "communication-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private CommunicationRetry() {
+    }
+
+    /**
+     * Indique si l'échange a échoué à cause du serveur ou du réseau
+     *
+     * @param httpCode Code de la réponse, ou code d'erreur custom
+     * @return Time out, erreur de connexion ou erreur 5xx
+     */
+    static boolean isFailure(@NotNull HTTPCode httpCode) {
+        return httpCode == HTTPCode.HTTP_CUSTOM_TIMEOUT || httpCode.isServerError();
+    }
+
+    /**
+     * Indique si une communication en échec peut être retentée
+     *
+     * @param comm     Communication en échec
+     * @param attempts Nombre d'envois déjà faits
+     * @return Nouvelle tentative possible ou non
+     */
+    static boolean canRetry(@NotNull Communication comm, int attempts) {
+        return comm.typeOfCommunication.isReadOnly() && attempts < MAX_ATTEMPTS;
+    }
+
+    /**
+     * Programme une nouvelle tentative
+     *
+     * @param task     Renvoi de la communication
+     * @param attempts Nombre d'envois déjà faits
+     * @return Tentative programmée, null si l'application se ferme
+     */
+    @Nullable
+    static ScheduledFuture<?> schedule(@NotNull Runnable task, int attempts) {
+        try {
+            return timer.schedule(task, delay(attempts), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Application en cours de fermeture
+            return null;
+        }
+    }
+
+    /**
+     * Arrête les nouvelles tentatives, à la fermeture de l'application
+     */
+    static void stop() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Délai avant une nouvelle tentative : aléatoire entre 0 et un plafond qui double à chaque tentative
+     *
+     * @param attempts Nombre d'envois déjà faits, au moins 1
+     * @return Délai en millisecondes
+     */
+    private static long delay(int attempts) {
+        long ceiling = Math.min(BASE_DELAY << Math.min(attempts - 1, 16), MAX_DELAY);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
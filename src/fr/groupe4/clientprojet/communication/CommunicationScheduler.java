@@ -0,0 +1,325 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.CommunicationPriority;
+import fr.groupe4.clientprojet.communication.enums.CommunicationType;
+import fr.groupe4.clientprojet.logger.Logger;
+import fr.groupe4.clientprojet.logger.enums.LoggerOption;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ordonnanceur des communications <br>
+ * <br>
+ * Toutes les communications lancées par Communication.start() passent par ici avant d'être envoyées. <br>
+ * L'ordonnanceur limite : <br>
+ * - le nombre total de requêtes simultanées, <br>
+ * - le nombre de requêtes simultanées par type de communication, <br>
+ * - le débit de requêtes (seau à jetons). <br>
+ * <br>
+ * Les requêtes interactives sont toujours envoyées avant les requêtes de fond. <br>
+ * Les requêtes d'authentification ne passent pas par l'ordonnanceur,
+ * sinon une requête en attente de renouvellement de token pourrait bloquer ce renouvellement.
+ *
+ * @see CommunicationPriority
+ */
+final class CommunicationScheduler {
+    /**
+     * Nombre maximal de requêtes simultanées, tous types confondus
+     */
+    private static final int MAX_CONCURRENT = 12;
+
+    /**
+     * Nombre maximal de requêtes simultanées pour un type sans limite spécifique
+     */
+    private static final int DEFAULT_MAX_CONCURRENT_PER_TYPE = 4;
+
+    /**
+     * Nombre de requêtes autorisées par seconde
+     */
+    private static final double RATE_PER_SECOND = 50;
+
+    /**
+     * Nombre de requêtes pouvant partir d'un coup quand le seau est plein
+     */
+    private static final double BURST = 20;
+
+    /**
+     * Taille de file à partir de laquelle un message est loggé
+     */
+    private static final int QUEUE_WARNING_SIZE = 100;
+
+    /**
+     * Limites spécifiques par type de communication
+     */
+    @NotNull
+    private static final EnumMap<CommunicationType, Integer> maxConcurrentPerType =
+            new EnumMap<>(CommunicationType.class);
+
+    static {
+        maxConcurrentPerType.put(CommunicationType.GET_HUMAN_RESOURCE, 8);
+        maxConcurrentPerType.put(CommunicationType.GET_MATERIAL_RESOURCE, 8);
+        maxConcurrentPerType.put(CommunicationType.ADD_RESOURCE_TO_PROJECT, 4);
+        maxConcurrentPerType.put(CommunicationType.REMOVE_RESOURCE_FROM_PROJECT, 4);
+        maxConcurrentPerType.put(CommunicationType.SEND_MESSAGE, 2);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Verrou protégeant l'état de l'ordonnanceur
+     */
+    @NotNull
+    private static final Object lock = new Object();
+
+    /**
+     * File des requêtes interactives
+     */
+    @NotNull
+    private static final ArrayDeque<Communication> interactiveQueue = new ArrayDeque<>();
+
+    /**
+     * File des requêtes de fond
+     */
+    @NotNull
+    private static final ArrayDeque<Communication> backgroundQueue = new ArrayDeque<>();
+
+    /**
+     * Nombre de requêtes en cours par type
+     */
+    @NotNull
+    private static final EnumMap<CommunicationType, Integer> runningPerType = new EnumMap<>(CommunicationType.class);
+
+    /**
+     * Nombre total de requêtes en cours
+     */
+    private static int running = 0;
+
+    /**
+     * Jetons disponibles pour la limite de débit
+     */
+    private static double tokens = BURST;
+
+    /**
+     * Dernier remplissage du seau, en nanosecondes
+     */
+    private static long lastRefill = System.nanoTime();
+
+    /**
+     * Un réveil est déjà programmé pour attendre des jetons
+     */
+    private static boolean wakeUpScheduled = false;
+
+    /**
+     * Minuteur utilisé pour attendre des jetons sans bloquer de thread
+     */
+    @NotNull
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "communication-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private CommunicationScheduler() {
+    }
+
+    /**
+     * Ajoute une communication dans la file et l'envoie dès que possible
+     *
+     * @param comm Communication à ordonnancer
+     */
+    static void submit(@NotNull Communication comm) {
+        int queued;
+
+        synchronized (lock) {
+            getQueue(comm.priority).add(comm);
+            queued = interactiveQueue.size() + backgroundQueue.size();
+        }
+
+        if (queued == QUEUE_WARNING_SIZE) {
+            Logger.debug("File de communications chargée :", queued, "requêtes en attente", LoggerOption.LOG_FILE_ONLY);
+        }
+
+        dispatch();
+    }
+
+    /**
+     * Retire une communication de la file si elle n'a pas encore été envoyée
+     *
+     * @param comm Communication
+     * @return Retirée ou non (false si déjà envoyée)
+     */
+    static boolean cancel(@NotNull Communication comm) {
+        synchronized (lock) {
+            return interactiveQueue.remove(comm) || backgroundQueue.remove(comm);
+        }
+    }
+
+    /**
+     * Libère la place occupée par une communication envoyée
+     *
+     * @param comm Communication dont l'échange HTTP est terminé
+     */
+    static void release(@NotNull Communication comm) {
+        release(comm.typeOfCommunication);
+    }
+
+    /**
+     * Réserve une place pour un envoi doublé, sans attendre <br>
+     * L'envoi compte dans les limites comme une communication ordinaire,
+     * et n'en prend une que si aucune communication n'attend dans les files
+     *
+     * @param type Type de communication
+     * @return Place réservée ou non, à libérer avec release(type)
+     * @see CommunicationLatency
+     */
+    static boolean tryAcquire(@NotNull CommunicationType type) {
+        synchronized (lock) {
+            refill();
+
+            if (!interactiveQueue.isEmpty() || !backgroundQueue.isEmpty()
+                    || running >= MAX_CONCURRENT || tokens < 1
+                    || runningPerType.getOrDefault(type, 0) >= maxConcurrentPerType.getOrDefault(type, DEFAULT_MAX_CONCURRENT_PER_TYPE)) {
+                return false;
+            }
+
+            running++;
+            runningPerType.merge(type, 1, Integer::sum);
+            tokens--;
+            return true;
+        }
+    }
+
+    /**
+     * Libère une place occupée
+     *
+     * @param type Type de la communication ou de l'envoi doublé terminé
+     */
+    static void release(@NotNull CommunicationType type) {
+        synchronized (lock) {
+            running--;
+            runningPerType.merge(type, -1, Integer::sum);
+        }
+
+        dispatch();
+    }
+
+    /**
+     * Envoie toutes les communications qui peuvent l'être
+     */
+    private static void dispatch() {
+        ArrayList<Communication> toRun = new ArrayList<>();
+
+        synchronized (lock) {
+            refill();
+
+            Communication next;
+
+            while (running < MAX_CONCURRENT && tokens >= 1 && (next = pollEligible()) != null) {
+                running++;
+                runningPerType.merge(next.typeOfCommunication, 1, Integer::sum);
+                tokens--;
+                toRun.add(next);
+            }
+
+            if (tokens < 1 && !wakeUpScheduled && !(interactiveQueue.isEmpty() && backgroundQueue.isEmpty())) {
+                // Limite de débit atteinte : on revient quand un jeton sera disponible
+                wakeUpScheduled = true;
+                long delay = (long) Math.ceil((1 - tokens) * 1_000_000 / RATE_PER_SECOND);
+                timer.schedule(CommunicationScheduler::wakeUp, delay, TimeUnit.MICROSECONDS);
+            }
+        }
+
+        for (Communication comm : toRun) {
+            try {
+                Communication.getExecutor().execute(comm);
+            } catch (RejectedExecutionException e) {
+                // Exécuteur arrêté à la sortie, la communication s'annule d'elle-même
+                comm.run();
+            }
+        }
+    }
+
+    /**
+     * Réveil après attente de jetons
+     */
+    private static void wakeUp() {
+        synchronized (lock) {
+            wakeUpScheduled = false;
+        }
+
+        dispatch();
+    }
+
+    /**
+     * Remplit le seau de jetons selon le temps écoulé
+     */
+    private static void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(BURST, tokens + (now - lastRefill) * RATE_PER_SECOND / 1_000_000_000d);
+        lastRefill = now;
+    }
+
+    /**
+     * Récupère la prochaine communication pouvant partir, interactive en priorité
+     *
+     * @return Communication, null si aucune ne peut partir
+     */
+    @Nullable
+    private static Communication pollEligible() {
+        Communication comm = pollEligible(interactiveQueue);
+
+        if (comm == null) {
+            comm = pollEligible(backgroundQueue);
+        }
+
+        return comm;
+    }
+
+    /**
+     * Récupère la première communication d'une file dont le type n'a pas atteint sa limite
+     *
+     * @param queue File
+     * @return Communication, null si aucune ne peut partir
+     */
+    @Nullable
+    private static Communication pollEligible(@NotNull ArrayDeque<Communication> queue) {
+        Iterator<Communication> iterator = queue.iterator();
+
+        while (iterator.hasNext()) {
+            Communication comm = iterator.next();
+            CommunicationType type = comm.typeOfCommunication;
+
+            if (runningPerType.getOrDefault(type, 0) < maxConcurrentPerType.getOrDefault(type, DEFAULT_MAX_CONCURRENT_PER_TYPE)) {
+                iterator.remove();
+                return comm;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Retourne la file associée à une priorité
+     *
+     * @param priority Priorité
+     * @return File
+     */
+    @NotNull
+    private static ArrayDeque<Communication> getQueue(@NotNull CommunicationPriority priority) {
+        return priority == CommunicationPriority.PRIORITY_BACKGROUND ? backgroundQueue : interactiveQueue;
+    }
+}
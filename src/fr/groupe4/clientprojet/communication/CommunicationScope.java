@@ -0,0 +1,114 @@
+package fr.groupe4.clientprojet.communication;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Portée d'annulation des communications, liée à une vue <br>
+ * <br>
+ * Une communication construite avec une portée s'y inscrit au lancement et s'en retire une fois terminée.
+ * Quand la vue est redessinée ou retirée de la fenêtre, cancel() interrompt les échanges HTTP en cours
+ * et le décodage de leur réponse, et retire de la file celles qui n'ont pas encore été envoyées. <br>
+ * La portée reste utilisable après cancel() : la vue peut relancer ses chargements. <br>
+ * <br>
+ * Pendant qu'une vue dessine son contenu, et pendant le traitement d'une réponse,
+ * la portée est la portée courante du thread : les requêtes lancées à ce moment en héritent sans la préciser.
+ *
+ * @see CommunicationBuilder#scope(CommunicationScope)
+ */
+public final class CommunicationScope {
+    /**
+     * Portée courante de chaque thread
+     */
+    @NotNull
+    private static final ThreadLocal<CommunicationScope> current = new ThreadLocal<>();
+
+    /**
+     * Communications lancées et pas encore terminées
+     */
+    @NotNull
+    private final Set<Communication> communications = ConcurrentHashMap.newKeySet();
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Portée courante du thread
+     *
+     * @return Portée, null si aucune
+     */
+    @Nullable
+    public static CommunicationScope current() {
+        return current.get();
+    }
+
+    /**
+     * Rend une portée courante pour le thread actuel, à refermer avec exit() dans un finally
+     *
+     * @param scope Nouvelle portée courante, null pour aucune
+     * @return Portée courante précédente, à passer à exit()
+     */
+    @Nullable
+    public static CommunicationScope enter(@Nullable CommunicationScope scope) {
+        CommunicationScope previous = current.get();
+
+        if (scope != null) {
+            current.set(scope);
+        } else {
+            current.remove();
+        }
+
+        return previous;
+    }
+
+    /**
+     * Restaure la portée courante d'avant enter()
+     *
+     * @param previous Valeur renvoyée par enter()
+     */
+    public static void exit(@Nullable CommunicationScope previous) {
+        enter(previous);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Annule toutes les communications en cours de cette portée, sans attendre
+     */
+    public void cancel() {
+        // Copie : chaque annulation retire la communication de la portée
+        for (Communication comm : new ArrayList<>(communications)) {
+            comm.cancelRequest();
+        }
+    }
+
+    /**
+     * Nombre de communications en cours
+     *
+     * @return Communications lancées et pas encore terminées
+     */
+    public int size() {
+        return communications.size();
+    }
+
+    /**
+     * Inscrit une communication lancée
+     *
+     * @param comm Communication
+     */
+    void register(@NotNull Communication comm) {
+        communications.add(comm);
+    }
+
+    /**
+     * Retire une communication terminée
+     *
+     * @param comm Communication
+     */
+    void unregister(@NotNull Communication comm) {
+        communications.remove(comm);
+    }
+}
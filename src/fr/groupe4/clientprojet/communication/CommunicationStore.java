@@ -0,0 +1,638 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.CommunicationPriority;
+import fr.groupe4.clientprojet.communication.enums.CommunicationStatus;
+import fr.groupe4.clientprojet.communication.enums.CommunicationType;
+import fr.groupe4.clientprojet.communication.enums.HTTPCode;
+import fr.groupe4.clientprojet.logger.Logger;
+import fr.groupe4.clientprojet.utils.Location;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stockage local persistant des réponses de l'API : projets, tâches, créneaux et allocations <br>
+ * <br>
+ * Les réponses sont gardées telles que reçues (corps décompressé) dans un journal en ajout seul,
+ * une ligne JSON par réponse ou suppression, sous Location.getDataPath(). Un index en mémoire donne
+ * la dernière réponse de chaque requête. Le journal est compacté au chargement et à la fermeture
+ * quand il contient trop de lignes périmées. <br>
+ * <br>
+ * Une requête absente du cache mémoire est servie depuis le stockage sans attendre le réseau,
+ * puis rejouée en tâche de fond pour le mettre à jour (stale-while-revalidate). Si le serveur est injoignable,
+ * la dernière réponse stockée est utilisée : le client reste utilisable hors ligne. <br>
+ * Le stockage appartient à un utilisateur sur un serveur : il est vidé si un autre se connecte.
+ *
+ * @see CommunicationCache
+ */
+final class CommunicationStore {
+    /**
+     * Types de communication stockés
+     */
+    @NotNull
+    private static final EnumSet<CommunicationType> storedTypes = EnumSet.of(
+            CommunicationType.LIST_PROJECTS,
+            CommunicationType.GET_PROJECT,
+            CommunicationType.GET_TASK_LIST,
+            CommunicationType.GET_TIME_SLOT_LIST,
+            CommunicationType.LIST_USERS_FROM_PROJECT,
+            CommunicationType.LIST_MATERIAL_FROM_PROJECT
+    );
+
+    /**
+     * Nombre maximal de réponses stockées
+     */
+    private static final int MAX_ENTRIES = 512;
+
+    /**
+     * Lignes périmées tolérées avant compaction, en plus du nombre de réponses
+     */
+    private static final int COMPACTION_SLACK = 64;
+
+    /**
+     * Réponses par clé de requête, de la moins à la plus récemment utilisée
+     */
+    @NotNull
+    private static final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Clés des requêtes en cours de mise à jour en tâche de fond
+     */
+    @NotNull
+    private static final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Thread d'écriture du journal
+     */
+    @NotNull
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "communication-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Propriétaire du stockage (utilisateur et serveur), null tant que personne n'est connecté
+     */
+    @Nullable
+    private static String owner = null;
+
+    /**
+     * Nombre de lignes du journal
+     */
+    private static int lines = 0;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private CommunicationStore() {
+    }
+
+    /**
+     * Indique si les réponses d'un type sont stockées
+     *
+     * @param type Type de communication
+     * @return Stockées ou non
+     */
+    static boolean isStored(@NotNull CommunicationType type) {
+        return storedTypes.contains(type);
+    }
+
+    /**
+     * Ouvre le stockage d'un utilisateur, à la connexion <br>
+     * Le journal est chargé s'il appartient à cet utilisateur, vidé sinon
+     *
+     * @param newOwner Utilisateur et serveur
+     */
+    static void open(@NotNull String newOwner) {
+        synchronized (entries) {
+            if (newOwner.equals(owner)) {
+                return;
+            }
+
+            entries.clear();
+            lines = 0;
+
+            String fileOwner = load();
+
+            if (!newOwner.equals(fileOwner)) {
+                entries.clear();
+                lines = 0;
+            }
+
+            owner = newOwner;
+
+            if (!newOwner.equals(fileOwner) || lines > entries.size() + COMPACTION_SLACK) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Sert une communication depuis le stockage, et la met à jour en tâche de fond
+     *
+     * @param comm Communication lancée, absente du cache mémoire
+     * @return Servie ou non
+     */
+    static boolean lookup(@NotNull Communication comm) {
+        Entry entry = get(comm);
+
+        if (entry == null || !comm.restore(entry.body, entry.contentType)) {
+            return false;
+        }
+
+        revalidate(comm);
+        return true;
+    }
+
+    /**
+     * Sert une communication depuis le stockage quand le serveur est injoignable
+     *
+     * @param comm Communication en échec
+     * @return Servie ou non
+     */
+    static boolean fallback(@NotNull Communication comm) {
+        Entry entry = get(comm);
+
+        if (entry == null || !comm.restore(entry.body, entry.contentType)) {
+            return false;
+        }
+
+        Logger.warning("Serveur injoignable, dernière réponse connue utilisée :", comm.typeOfCommunication);
+        return true;
+    }
+
+    /**
+     * Met à jour le stockage après un échange : la réponse est gardée,
+     * et les réponses rendues obsolètes par une modification sont supprimées
+     *
+     * @param comm Communication terminée
+     * @param body Corps décompressé de la réponse, null s'il n'a pas été gardé
+     */
+    static void update(@NotNull Communication comm, @Nullable Stored body) {
+        if (!comm.typeOfCommunication.isReadOnly()) {
+            invalidate(comm);
+        }
+
+        if (body == null
+                || !isStored(comm.typeOfCommunication)
+                || comm.httpCode != HTTPCode.HTTP_OK
+                || comm.status != CommunicationStatus.STATUS_SUCCESS) {
+            return;
+        }
+
+        Entry entry = new Entry(comm.typeOfCommunication, requestData(comm), System.currentTimeMillis(),
+                body.contentType, body.bytes);
+
+        synchronized (entries) {
+            if (owner == null) {
+                return;
+            }
+
+            entries.put(comm.getRequestKey(), entry);
+            append(entry.toLine(comm.getRequestKey()));
+
+            if (entries.size() > MAX_ENTRIES) {
+                Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+                append(tombstone(eldest.next().getKey()));
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Ferme le stockage à la sortie : les écritures en attente sont terminées et le journal compacté si besoin
+     */
+    static void close() {
+        synchronized (entries) {
+            if (owner != null && lines > entries.size() + COMPACTION_SLACK) {
+                compact();
+            }
+        }
+
+        writer.shutdown();
+
+        try {
+            if (!writer.awaitTermination(2, TimeUnit.SECONDS)) {
+                Logger.warning("Écriture du stockage local interrompue");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Enveloppe un flux de réponse pour garder une copie de ce qui est lu
+     *
+     * @param in   Flux décompressé
+     * @param copy Copie
+     * @return Flux à lire à la place de in
+     */
+    @NotNull
+    static InputStream record(@NotNull InputStream in, @NotNull ByteArrayOutputStream copy) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+
+                if (b >= 0) {
+                    copy.write(b);
+                }
+
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int count = super.read(buffer, offset, length);
+
+                if (count > 0) {
+                    copy.write(buffer, offset, count);
+                }
+
+                return count;
+            }
+        };
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Dernière réponse stockée d'une communication
+     *
+     * @param comm Communication
+     * @return Réponse, null si absente
+     */
+    @Nullable
+    private static Entry get(@NotNull Communication comm) {
+        if (!isStored(comm.typeOfCommunication)) {
+            return null;
+        }
+
+        synchronized (entries) {
+            return owner != null ? entries.get(comm.getRequestKey()) : null;
+        }
+    }
+
+    /**
+     * Rejoue une requête servie depuis le stockage, en tâche de fond, pour mettre à jour le stockage et le cache
+     *
+     * @param comm Communication servie
+     */
+    private static void revalidate(@NotNull Communication comm) {
+        String key = comm.getRequestKey();
+
+        if (!revalidating.add(key)) {
+            return;
+        }
+
+        CommunicationBuilder builder = new CommunicationBuilder();
+        builder.typeOfCommunication = comm.typeOfCommunication;
+        builder.requestData = comm.copyRequestData();
+        builder.priority = CommunicationPriority.PRIORITY_BACKGROUND;
+        builder.useCache = false;
+        // Indépendante de la vue qui a demandé la réponse : le stockage doit être mis à jour
+        builder.scope = null;
+
+        builder.buildAsync().whenComplete((result, throwable) -> revalidating.remove(key));
+    }
+
+    /**
+     * Supprime les réponses rendues obsolètes par une modification
+     *
+     * @param mutation Communication qui modifie des données
+     */
+    private static void invalidate(@NotNull Communication mutation) {
+        if (mutation.typeOfCommunication == CommunicationType.LOGIN) {
+            // Le changement d'utilisateur est géré par open()
+            return;
+        }
+
+        HashMap<String, Object> mutationData = mutation.copyRequestData();
+
+        synchronized (entries) {
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> entry = iterator.next();
+
+                if (CommunicationCache.affects(mutation.typeOfCommunication, mutationData,
+                        entry.getValue().type, entry.getValue().requestData)) {
+                    append(tombstone(entry.getKey()));
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Données d'une requête, sans le token
+     *
+     * @param comm Communication
+     * @return Données
+     */
+    @NotNull
+    private static HashMap<String, Object> requestData(@NotNull Communication comm) {
+        HashMap<String, Object> data = comm.copyRequestData();
+        data.remove("token");
+        return data;
+    }
+
+    /**
+     * Chemin du journal
+     *
+     * @return Chemin
+     */
+    @NotNull
+    private static Path path() {
+        return Paths.get(Location.getDataPath(), "store.jsonl");
+    }
+
+    /**
+     * Charge le journal dans l'index, appelé avec le verrou de entries
+     *
+     * @return Propriétaire du journal, null s'il n'existe pas ou est illisible
+     */
+    @Nullable
+    private static String load() {
+        Path path = path();
+
+        if (!Files.exists(path)) {
+            return null;
+        }
+
+        JSONParser parser = new JSONParser();
+        String fileOwner = null;
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lines++;
+
+                try {
+                    JSONObject json = (JSONObject) parser.parse(line);
+
+                    if (json.containsKey("owner")) {
+                        fileOwner = String.valueOf(json.get("owner"));
+                    } else if (json.containsKey("deleted")) {
+                        entries.remove(String.valueOf(json.get("key")));
+                    } else {
+                        entries.put(String.valueOf(json.get("key")), Entry.fromLine(json));
+                    }
+                } catch (ParseException | RuntimeException e) {
+                    // Ligne tronquée par un arrêt brutal : les suivantes restent lisibles
+                    Logger.warning("Ligne du stockage local ignorée :", e);
+                }
+            }
+        } catch (IOException e) {
+            Logger.error("Lecture du stockage local impossible :", e);
+        }
+
+        return fileOwner;
+    }
+
+    /**
+     * Réécrit le journal avec seulement les réponses de l'index, appelé avec le verrou de entries
+     */
+    @SuppressWarnings("unchecked")
+    private static void compact() {
+        ArrayList<String> content = new ArrayList<>(entries.size() + 1);
+        JSONObject header = new JSONObject();
+        header.put("owner", owner);
+        content.add(header.toJSONString());
+
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            content.add(entry.getValue().toLine(entry.getKey()));
+        }
+
+        lines = content.size();
+
+        submit(() -> {
+            Path path = path();
+            Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+            Files.createDirectories(path.getParent());
+            Files.write(temporary, content, StandardCharsets.UTF_8);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        });
+    }
+
+    /**
+     * Ajoute une ligne au journal, appelé avec le verrou de entries
+     *
+     * @param line Ligne JSON
+     */
+    private static void append(@NotNull String line) {
+        lines++;
+
+        submit(() -> {
+            try (BufferedWriter out = Files.newBufferedWriter(path(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(line);
+                out.newLine();
+            }
+        });
+    }
+
+    /**
+     * Ligne de suppression d'une réponse
+     *
+     * @param key Clé de requête
+     * @return Ligne JSON
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private static String tombstone(@NotNull String key) {
+        JSONObject json = new JSONObject();
+        json.put("key", key);
+        json.put("deleted", true);
+        return json.toJSONString();
+    }
+
+    /**
+     * Exécute une écriture sur le thread du journal, dans l'ordre des appels
+     *
+     * @param task Écriture
+     */
+    private static void submit(@NotNull Write task) {
+        try {
+            writer.execute(() -> {
+                try {
+                    task.run();
+                } catch (IOException e) {
+                    Logger.error("Écriture du stockage local impossible :", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Application en cours de fermeture
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Écriture dans le journal
+     */
+    @FunctionalInterface
+    private interface Write {
+        /**
+         * Écrit
+         *
+         * @throws IOException Erreur d'écriture
+         */
+        void run() throws IOException;
+    }
+
+    /**
+     * Corps d'une réponse gardé pour le stockage
+     */
+    static final class Stored {
+        /**
+         * Valeur de l'en-tête Content-Type, null si absent
+         */
+        @Nullable
+        private final String contentType;
+
+        /**
+         * Corps décompressé
+         */
+        @NotNull
+        private final byte[] bytes;
+
+        /**
+         * Constructeur
+         *
+         * @param contentType Content-Type
+         * @param bytes       Corps décompressé
+         */
+        Stored(@Nullable String contentType, @NotNull byte[] bytes) {
+            this.contentType = contentType;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Réponse stockée
+     */
+    private static final class Entry {
+        /**
+         * Type de communication
+         */
+        @NotNull
+        private final CommunicationType type;
+
+        /**
+         * Données de la requête, pour l'invalidation
+         */
+        @NotNull
+        private final HashMap<String, Object> requestData;
+
+        /**
+         * Date de réception, en millisecondes
+         */
+        private final long time;
+
+        /**
+         * Valeur de l'en-tête Content-Type, null si absent
+         */
+        @Nullable
+        private final String contentType;
+
+        /**
+         * Corps décompressé
+         */
+        @NotNull
+        private final byte[] body;
+
+        /**
+         * Constructeur
+         *
+         * @param type        Type de communication
+         * @param requestData Données de la requête
+         * @param time        Date de réception
+         * @param contentType Content-Type
+         * @param body        Corps décompressé
+         */
+        private Entry(@NotNull CommunicationType type,
+                      @NotNull HashMap<String, Object> requestData,
+                      long time,
+                      @Nullable String contentType,
+                      @NotNull byte[] body) {
+            this.type = type;
+            this.requestData = requestData;
+            this.time = time;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        /**
+         * Lit une réponse depuis une ligne du journal
+         *
+         * @param json Ligne décodée
+         * @return Réponse
+         */
+        @NotNull
+        @SuppressWarnings("unchecked")
+        private static Entry fromLine(@NotNull JSONObject json) {
+            Object contentType = json.get("contentType");
+
+            return new Entry(
+                    CommunicationType.valueOf(String.valueOf(json.get("type"))),
+                    new HashMap<>((Map<String, Object>) json.get("data")),
+                    ((Number) json.get("time")).longValue(),
+                    contentType != null ? contentType.toString() : null,
+                    Base64.getDecoder().decode(String.valueOf(json.get("body")))
+            );
+        }
+
+        /**
+         * Écrit la réponse en une ligne du journal
+         *
+         * @param key Clé de requête
+         * @return Ligne JSON
+         */
+        @NotNull
+        @SuppressWarnings("unchecked")
+        private String toLine(@NotNull String key) {
+            JSONObject json = new JSONObject();
+            json.put("key", key);
+            json.put("type", type.name());
+            json.put("data", new JSONObject(requestData));
+            json.put("time", time);
+            json.put("contentType", contentType);
+            json.put("body", Base64.getEncoder().encodeToString(body));
+            return json.toJSONString();
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.CommunicationPropertyName;
+import fr.groupe4.clientprojet.communication.enums.CommunicationType;
+import fr.groupe4.clientprojet.communication.enums.HTTPCode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abonnement à un flux du serveur, comme la liste des messages <br>
+ * <br>
+ * La requête est relancée régulièrement en tâche de fond. L'intervalle s'allonge tant que rien ne change
+ * et revient au minimum dès que le contenu change. Les listeners reçoivent un event
+ * COMMUNICATION_NEWS_CHANGED, avec le nouveau résultat, seulement quand le contenu a changé. <br>
+ * <br>
+ * Exemple : <br><code>
+ * CommunicationSubscription sub = Communication.builder().getProjectMessageList(0, id).subscribe(); <br>
+ * sub.addPropertyChangeListener(evt -&gt; afficher(evt.getNewValue())); <br>
+ * sub.start(); <br>
+ * ... <br>
+ * sub.stop(); </code>
+ *
+ * @see Communication#getInstance(fr.groupe4.clientprojet.communication.enums.CommunicationKeepAlive)
+ */
+public final class CommunicationSubscription {
+    /**
+     * Intervalle minimal entre deux requêtes, en millisecondes
+     */
+    private static final long MIN_INTERVAL = 2_000;
+
+    /**
+     * Intervalle maximal entre deux requêtes, en millisecondes
+     */
+    private static final long MAX_INTERVAL = 60_000;
+
+    /**
+     * Facteur d'allongement de l'intervalle quand rien ne change
+     */
+    private static final double BACKOFF_FACTOR = 1.5;
+
+    /**
+     * Thread de programmation des requêtes, partagé par tous les abonnements
+     */
+    @NotNull
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "communication-subscription");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Abonnements démarrés
+     */
+    @NotNull
+    private static final Set<CommunicationSubscription> running = ConcurrentHashMap.newKeySet();
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Requête à relancer
+     */
+    @NotNull
+    private final CommunicationBuilder template;
+
+    /**
+     * Utile pour pattern Observer/Observable
+     */
+    @NotNull
+    private final PropertyChangeSupport propertyChangeSupport = new PropertyChangeSupport(this);
+
+    /**
+     * Intervalle actuel entre deux requêtes, en millisecondes
+     */
+    private long interval;
+
+    /**
+     * Abonnement démarré ou non
+     */
+    private boolean active;
+
+    /**
+     * Prochaine requête programmée, null si aucune
+     */
+    @Nullable
+    private ScheduledFuture<?> nextPoll;
+
+    /**
+     * Dernière requête lancée, null si aucune
+     */
+    @Nullable
+    private CompletableFuture<Communication> pendingPoll;
+
+    /**
+     * Empreinte du dernier contenu reçu, null si rien reçu
+     */
+    @Nullable
+    private Integer checksum;
+
+    /**
+     * Dernier résultat reçu
+     */
+    @Nullable
+    private Object result;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur, voir CommunicationBuilder.subscribe()
+     *
+     * @param builder Requête à relancer, copiée
+     */
+    CommunicationSubscription(@NotNull CommunicationBuilder builder) {
+        template = new CommunicationBuilder(builder).noCache();
+        interval = MIN_INTERVAL;
+        active = false;
+        nextPoll = null;
+        pendingPoll = null;
+        checksum = null;
+        result = null;
+    }
+
+    /**
+     * Arrête tous les abonnements, à la fermeture de l'application
+     */
+    static void stopAll() {
+        timer.shutdownNow();
+        running.clear();
+    }
+
+    /**
+     * Prévient les abonnements démarrés concernés par une modification de la file d'envoi
+     *
+     * @param mutationType Type de la modification
+     * @param mutationData Données de sa requête
+     * @param sent         Modification traitée par le serveur, ou seulement mise en file
+     * @see CommunicationOutbox
+     */
+    static void outboxChanged(@NotNull CommunicationType mutationType,
+                              @NotNull Map<String, Object> mutationData,
+                              boolean sent) {
+        for (CommunicationSubscription subscription : running) {
+            if (CommunicationCache.affects(mutationType, mutationData,
+                    subscription.template.typeOfCommunication, subscription.template.requestData)) {
+
+                subscription.outboxChanged(sent);
+            }
+        }
+    }
+
+    /**
+     * Démarre l'abonnement <br>
+     * La première requête est lancée tout de suite si rien n'a encore été reçu
+     */
+    public synchronized void start() {
+        if (!active) {
+            active = true;
+            running.add(this);
+
+            if (checksum == null) {
+                poll();
+            } else {
+                scheduleNextPoll();
+            }
+        }
+    }
+
+    /**
+     * Arrête l'abonnement, il peut être redémarré plus tard
+     */
+    public synchronized void stop() {
+        active = false;
+        running.remove(this);
+
+        if (nextPoll != null) {
+            nextPoll.cancel(false);
+            nextPoll = null;
+        }
+    }
+
+    /**
+     * Lance une requête tout de suite, par exemple après l'envoi d'un message <br>
+     * Si une requête est déjà en cours, retourne celle-ci
+     *
+     * @return Future complétée avec la communication une fois la réponse traitée
+     */
+    @NotNull
+    public synchronized CompletableFuture<Communication> poll() {
+        if (pendingPoll == null || pendingPoll.isDone()) {
+            if (nextPoll != null) {
+                nextPoll.cancel(false);
+                nextPoll = null;
+            }
+
+            CommunicationBuilder builder = new CommunicationBuilder(template);
+
+            if (checksum != null) {
+                // La première requête est attendue par l'affichage, les suivantes passent en tâche de fond
+                builder.background();
+            }
+
+            pendingPoll = builder.buildAsync().thenApply(this::handleResponse);
+        }
+
+        return pendingPoll.copy();
+    }
+
+    /**
+     * Dernier résultat reçu
+     *
+     * @return Résultat, null si rien reçu
+     */
+    @Nullable
+    public synchronized Object getResult() {
+        return Communication.copyResult(result);
+    }
+
+    /**
+     * Ajoute un listener pour le pattern observer <br>
+     * Les events peuvent arriver depuis n'importe quel thread
+     *
+     * @param listener Listener
+     */
+    public void addPropertyChangeListener(@NotNull PropertyChangeListener listener) {
+        propertyChangeSupport.addPropertyChangeListener(listener);
+    }
+
+    /**
+     * Supprime un listener pour le pattern observer
+     *
+     * @param listener Listener
+     */
+    public void removePropertyChangeListener(@NotNull PropertyChangeListener listener) {
+        propertyChangeSupport.removePropertyChangeListener(listener);
+    }
+
+    /**
+     * Modification de la file d'envoi qui concerne cet abonnement <br>
+     * Une modification mise en file est ajoutée tout de suite au dernier résultat, sans attendre le serveur.
+     * Une fois traitée par le serveur, la requête est relancée pour avoir le résultat définitif
+     *
+     * @param sent Modification traitée par le serveur, ou seulement mise en file
+     */
+    private void outboxChanged(boolean sent) {
+        Object oldResult = null;
+        Object newResult = null;
+
+        synchronized (this) {
+            if (sent) {
+                if (pendingPoll != null && !pendingPoll.isDone()) {
+                    // La requête en cours a pu partir avant la modification
+                    pendingPoll.thenRun(this::poll);
+                } else {
+                    poll();
+                }
+            } else if (checksum != null) {
+                CommunicationOutbox.Overlay overlay = CommunicationOutbox.overlay(
+                        template.typeOfCommunication, template.requestData, result, checksum);
+
+                if (overlay != null) {
+                    oldResult = result;
+                    newResult = overlay.result;
+                    result = newResult;
+                    checksum = overlay.checksum;
+                }
+            }
+        }
+
+        if (newResult != null) {
+            propertyChangeSupport.firePropertyChange(
+                    CommunicationPropertyName.COMMUNICATION_NEWS_CHANGED.toString(),
+                    oldResult,
+                    Communication.copyResult(newResult)
+            );
+        }
+    }
+
+    /**
+     * Traite la réponse d'une requête : adapte l'intervalle et prévient les listeners si le contenu a changé
+     *
+     * @param comm Communication terminée
+     * @return La même communication
+     */
+    @NotNull
+    private Communication handleResponse(@NotNull Communication comm) {
+        Object oldResult = null;
+        Object newResult = null;
+        boolean changed = false;
+
+        synchronized (this) {
+            if (comm.getHTTPCode() == HTTPCode.HTTP_OK) {
+                changed = checksum == null || checksum != comm.responseChecksum;
+            }
+
+            if (changed) {
+                oldResult = result;
+                newResult = comm.getResult();
+                result = newResult;
+                checksum = comm.responseChecksum;
+                interval = MIN_INTERVAL;
+            } else {
+                // Rien de neuf ou erreur, on espace les requêtes
+                interval = Math.min((long) (interval * BACKOFF_FACTOR), MAX_INTERVAL);
+            }
+
+            if (active) {
+                scheduleNextPoll();
+            }
+        }
+
+        if (changed) {
+            propertyChangeSupport.firePropertyChange(
+                    CommunicationPropertyName.COMMUNICATION_NEWS_CHANGED.toString(),
+                    oldResult,
+                    Communication.copyResult(newResult)
+            );
+        }
+
+        return comm;
+    }
+
+    /**
+     * Programme la prochaine requête après l'intervalle actuel
+     */
+    private synchronized void scheduleNextPoll() {
+        if (nextPoll != null) {
+            nextPoll.cancel(false);
+        }
+
+        try {
+            nextPoll = timer.schedule(this::poll, interval, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Application en cours de fermeture
+            nextPoll = null;
+        }
+    }
+}
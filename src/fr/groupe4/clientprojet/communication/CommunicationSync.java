@@ -0,0 +1,296 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.CommunicationType;
+import fr.groupe4.clientprojet.logger.Logger;
+import fr.groupe4.clientprojet.logger.enums.LoggerOption;
+import fr.groupe4.clientprojet.model.message.Message;
+import fr.groupe4.clientprojet.model.project.Project;
+import fr.groupe4.clientprojet.model.task.Task;
+import fr.groupe4.clientprojet.model.timeslot.TimeSlot;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Synchronisation incrémentale des listes (curseur "since") <br>
+ * <br>
+ * Une réponse de liste peut porter un curseur à côté des éléments :
+ * {"tasks": [...], "cursor": "...", "deleted": [id, ...]}. <br>
+ * La requête suivante envoie ce curseur dans "since", et le serveur ne renvoie que les éléments
+ * créés ou modifiés depuis, avec les identifiants supprimés. Ces changements sont fusionnés
+ * dans la liste déjà reçue, par identifiant, au lieu de la remplacer. <br>
+ * Le serveur peut répondre "full": true pour renvoyer la liste entière (curseur trop ancien).
+ * Sans curseur dans la réponse, le serveur ne gère pas la synchronisation : la liste est remplacée. <br>
+ * <br>
+ * Une fusion sans changement garde l'empreinte de la liste précédente :
+ * les abonnements ne voient pas de changement.
+ *
+ * @see CommunicationBuilder#incremental(boolean)
+ */
+final class CommunicationSync {
+    /**
+     * Nombre maximal de listes suivies
+     */
+    private static final int MAX_ENTRIES = 64;
+
+    /**
+     * Identifiant d'un élément, par type de communication synchronisable
+     */
+    @NotNull
+    private static final EnumMap<CommunicationType, ToLongFunction<Object>> ids =
+            new EnumMap<>(CommunicationType.class);
+
+    /**
+     * Dernière liste reçue par clé de requête, dans l'ordre d'accès (LRU)
+     */
+    @NotNull
+    private static final LinkedHashMap<String, State> states = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, State> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    static {
+        ids.put(CommunicationType.LIST_PROJECTS, element -> ((Project) element).getId());
+        ids.put(CommunicationType.GET_TASK_LIST, element -> ((Task) element).getId());
+        ids.put(CommunicationType.GET_TIME_SLOT_LIST, element -> ((TimeSlot) element).getId());
+        ids.put(CommunicationType.LIST_MESSAGES, element -> ((Message) element).getId());
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private CommunicationSync() {
+    }
+
+    /**
+     * Le type de communication peut-il être synchronisé par curseur ?
+     *
+     * @param type Type de communication
+     * @return Synchronisable ou non
+     */
+    static boolean isSynchronized(@NotNull CommunicationType type) {
+        return ids.containsKey(type);
+    }
+
+    /**
+     * Identifiant d'un élément d'une liste synchronisable
+     *
+     * @param type    Type de communication de la liste
+     * @param element Élément
+     * @return Identifiant
+     */
+    static long idOf(@NotNull CommunicationType type, @NotNull Object element) {
+        return ids.get(type).applyAsLong(element);
+    }
+
+    /**
+     * Ajoute aux données envoyées le curseur de la dernière liste reçue pour cette requête
+     *
+     * @param comm Communication sur le point d'être envoyée
+     * @param data Données de la requête
+     * @return Données avec "since", ou données inchangées pour une demande de liste complète
+     */
+    @NotNull
+    static HashMap<String, Object> withCursor(@NotNull Communication comm, @NotNull HashMap<String, Object> data) {
+        comm.syncCursor = null;
+
+        if (!comm.incremental || !isSynchronized(comm.typeOfCommunication)) {
+            return data;
+        }
+
+        State state;
+
+        synchronized (states) {
+            state = states.get(comm.getRequestKey());
+        }
+
+        if (state == null) {
+            return data;
+        }
+
+        HashMap<String, Object> copy = new HashMap<>(data);
+        copy.put("since", state.cursor);
+        comm.syncCursor = state.cursor;
+
+        return copy;
+    }
+
+    /**
+     * Fusionne les changements reçus dans la dernière liste connue <br>
+     * Appelé une fois le contenu traité : le résultat de la communication contient les éléments reçus,
+     * il est remplacé par la liste fusionnée
+     *
+     * @param comm  Communication dont la réponse vient d'être traitée
+     * @param delta Curseur et suppressions lus avec la liste
+     */
+    static void merge(@NotNull Communication comm, @NotNull Delta delta) {
+        if (!(comm.communicationResult instanceof ArrayList)) {
+            return;
+        }
+
+        ArrayList<?> received = (ArrayList<?>) comm.communicationResult;
+        String key = comm.getRequestKey();
+
+        synchronized (states) {
+            if (delta.cursor == null) {
+                // Serveur sans synchronisation, la liste reçue est complète
+                states.remove(key);
+                return;
+            }
+
+            State state = states.get(key);
+
+            if (comm.syncCursor == null || delta.full) {
+                states.put(key, new State(delta.cursor, (ArrayList<?>) received.clone(), comm.responseChecksum));
+                return;
+            }
+
+            if (state == null) {
+                // Liste oubliée pendant l'échange (LRU, déconnexion) : les changements seuls ne sont pas la liste,
+                // le résultat est inutilisable et la requête est renvoyée sans curseur
+                comm.syncMissed = true;
+                comm.communicationResult = null;
+                return;
+            }
+
+            if (!received.isEmpty() || !delta.deleted.isEmpty()) {
+                state.list = apply(comm.typeOfCommunication, state.list, received, delta.deleted);
+                state.checksum = 31 * state.checksum + comm.responseChecksum;
+            }
+
+            Logger.debug("Synchronisation", comm.typeOfCommunication, ":", received.size(), "modifiés,",
+                    delta.deleted.size(), "supprimés,", state.list.size(), "au total", LoggerOption.LOG_FILE_ONLY);
+
+            state.cursor = delta.cursor;
+            comm.responseChecksum = state.checksum;
+            comm.communicationResult = state.list.clone();
+        }
+    }
+
+    /**
+     * Oublie toutes les listes suivies, au changement d'utilisateur
+     */
+    static void clear() {
+        synchronized (states) {
+            states.clear();
+        }
+    }
+
+    /**
+     * Applique des changements à une liste
+     *
+     * @param type     Type de communication
+     * @param list     Liste précédente, non modifiée
+     * @param received Éléments créés ou modifiés
+     * @param deleted  Identifiants supprimés
+     * @return Nouvelle liste, de la même classe que la précédente
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private static ArrayList<?> apply(@NotNull CommunicationType type,
+                                      @NotNull ArrayList<?> list,
+                                      @NotNull ArrayList<?> received,
+                                      @NotNull HashSet<Long> deleted) {
+        ToLongFunction<Object> id = ids.get(type);
+        ArrayList<Object> merged = (ArrayList<Object>) list.clone();
+        HashMap<Long, Integer> positions = new HashMap<>(merged.size() * 2);
+
+        for (int i = 0; i < merged.size(); i++) {
+            positions.put(id.applyAsLong(merged.get(i)), i);
+        }
+
+        // Un élément modifié garde sa place, un nouvel élément est ajouté à la fin
+        for (Object element : received) {
+            Integer position = positions.get(id.applyAsLong(element));
+
+            if (position != null) {
+                merged.set(position, element);
+            } else {
+                positions.put(id.applyAsLong(element), merged.size());
+                merged.add(element);
+            }
+        }
+
+        if (!deleted.isEmpty()) {
+            merged.removeIf(element -> deleted.contains(id.applyAsLong(element)));
+        }
+
+        return merged;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Informations de synchronisation lues à côté d'une liste
+     */
+    static final class Delta {
+        /**
+         * Éléments lus, null si le contenu n'a pas la forme d'une liste
+         */
+        @Nullable
+        ArrayList<?> list = null;
+
+        /**
+         * Curseur à renvoyer dans "since", null si le serveur n'en donne pas
+         */
+        @Nullable
+        String cursor = null;
+
+        /**
+         * Identifiants supprimés depuis le curseur envoyé
+         */
+        @NotNull
+        final HashSet<Long> deleted = new HashSet<>();
+
+        /**
+         * Le serveur a renvoyé la liste complète malgré le curseur
+         */
+        boolean full = false;
+    }
+
+    /**
+     * Dernière liste reçue pour une requête
+     */
+    private static final class State {
+        /**
+         * Curseur de la liste
+         */
+        @NotNull
+        private String cursor;
+
+        /**
+         * Liste fusionnée, jamais modifiée en place
+         */
+        @NotNull
+        private ArrayList<?> list;
+
+        /**
+         * Empreinte de la liste
+         */
+        private int checksum;
+
+        /**
+         * Constructeur
+         *
+         * @param cursor   Curseur de la liste
+         * @param list     Liste complète
+         * @param checksum Empreinte de la réponse
+         */
+        private State(@NotNull String cursor, @NotNull ArrayList<?> list, int checksum) {
+            this.cursor = cursor;
+            this.list = list;
+            this.checksum = checksum;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package fr.groupe4.clientprojet.communication;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renouvelle le token de requête en arrière-plan <br>
+ * <br>
+ * Le renouvellement est programmé dès la réception d'un token, un peu avant que celui-ci ne devienne
+ * trop court pour être utilisé : les requêtes n'ont ainsi normalement jamais à attendre un renouvellement.
+ * Un seul renouvellement est en cours à la fois, toutes les requêtes qui en ont besoin attendent le même.
+ */
+final class CommunicationTokenRenewer {
+    /**
+     * Avance (en secondes) du renouvellement sur le seuil de validité du token
+     */
+    private static final long RENEW_MARGIN = 60;
+
+    /**
+     * Délai minimal (en secondes) entre deux renouvellements programmés
+     */
+    private static final long MIN_RENEW_DELAY = 10;
+
+    /**
+     * Thread de programmation des renouvellements
+     */
+    @NotNull
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "communication-token");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Prochain renouvellement programmé, null si aucun
+     */
+    @Nullable
+    private static ScheduledFuture<?> scheduledRenewal = null;
+
+    /**
+     * Renouvellement en cours, null si aucun
+     */
+    @Nullable
+    private static CompletableFuture<Void> pendingRenewal = null;
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private CommunicationTokenRenewer() {
+    }
+
+    /**
+     * Programme le renouvellement d'un nouveau token de requête <br>
+     * Remplace le renouvellement programmé pour le token précédent
+     *
+     * @param expiration Expiration du token en secondes depuis l'epoch, 0 si pas de token
+     */
+    static synchronized void schedule(long expiration) {
+        if (scheduledRenewal != null) {
+            scheduledRenewal.cancel(false);
+            scheduledRenewal = null;
+        }
+
+        if (expiration > 0 && !timer.isShutdown()) {
+            long remainingTime = expiration - System.currentTimeMillis() / 1000L
+                    - Communication.TOKEN_MIN_VALIDITY;
+
+            long delay = remainingTime - RENEW_MARGIN;
+
+            if (delay < MIN_RENEW_DELAY) {
+                // Token à courte durée de vie, on le renouvelle à mi-parcours
+                delay = Math.max(remainingTime / 2, MIN_RENEW_DELAY);
+            }
+
+            scheduledRenewal = timer.schedule(CommunicationTokenRenewer::renewInBackground, delay, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Lance un renouvellement, ou retourne celui déjà en cours
+     *
+     * @return Future complétée une fois le renouvellement terminé, réussi ou non
+     */
+    @NotNull
+    static CompletableFuture<Void> renew() {
+        CompletableFuture<Void> renewal;
+
+        synchronized (CommunicationTokenRenewer.class) {
+            if (pendingRenewal != null) {
+                return pendingRenewal;
+            }
+
+            if (!Communication.hasRenewToken()) {
+                // Pas connecté, rien à renouveler
+                return CompletableFuture.completedFuture(null);
+            }
+
+            renewal = new CompletableFuture<>();
+            pendingRenewal = renewal;
+        }
+
+        new CommunicationBuilder()
+                .updateConnection()
+                .buildAsync()
+                .whenComplete((comm, e) -> {
+                    synchronized (CommunicationTokenRenewer.class) {
+                        if (pendingRenewal == renewal) {
+                            pendingRenewal = null;
+                        }
+                    }
+
+                    CommunicationMetrics.renewed(comm != null && comm.isSuccessful());
+                    renewal.complete(null);
+                });
+
+        return renewal;
+    }
+
+    /**
+     * Arrête les renouvellements, à la fermeture de l'application
+     */
+    static synchronized void stop() {
+        if (scheduledRenewal != null) {
+            scheduledRenewal.cancel(false);
+            scheduledRenewal = null;
+        }
+
+        timer.shutdownNow();
+    }
+
+    /**
+     * Renouvellement programmé <br>
+     * En cas d'échec, un nouvel essai est programmé tant que le token de renew existe
+     */
+    private static void renewInBackground() {
+        synchronized (CommunicationTokenRenewer.class) {
+            scheduledRenewal = null;
+        }
+
+        renew().thenRun(() -> {
+            synchronized (CommunicationTokenRenewer.class) {
+                // Un nouveau token reprogramme lui-même son renouvellement
+                if (scheduledRenewal == null && Communication.hasRenewToken() && !timer.isShutdown()) {
+                    scheduledRenewal = timer.schedule(
+                            CommunicationTokenRenewer::renewInBackground,
+                            MIN_RENEW_DELAY,
+                            TimeUnit.SECONDS
+                    );
+                }
+            }
+        });
+    }
+}
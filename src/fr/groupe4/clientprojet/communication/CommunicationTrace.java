@@ -0,0 +1,351 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.logger.Logger;
+import fr.groupe4.clientprojet.logger.enums.LoggerOption;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Trace des communications, pour reconstituer la cascade des requêtes d'un chargement <br>
+ * <br>
+ * Chaque communication est une étape (span) d'une trace. Son identifiant de trace est envoyé au serveur
+ * dans l'en-tête X-Correlation-Id. Les requêtes lancées pendant le traitement d'une réponse
+ * (par exemple les ressources humaines des auteurs d'une liste de messages) sont des étapes filles de la même trace,
+ * de même que les requêtes lancées pendant le dessin d'une vue, qui ouvre une trace à son nom. <br>
+ * <br>
+ * À la fin de chaque communication, une ligne "trace" est écrite dans le fichier de log, avec ses phases
+ * en millisecondes : <br>
+ * - queue : attente dans l'ordonnanceur <br>
+ * - prepare : préparation de l'envoi (attente du token, encodage) <br>
+ * - ttfb : envoi jusqu'aux en-têtes de la réponse, établissement de la connexion compris <br>
+ * - body : attente des données du corps sur le réseau <br>
+ * - parse : lecture du contenu, décodage des modèles compris pour les listes lues au fil de l'eau <br>
+ * - decode : traitement du contenu, requêtes filles comprises <br>
+ * - dispatch : listeners et futurs de fin <br>
+ * offset situe le lancement par rapport au début de la trace.
+ *
+ * @see Communication#setTracing(boolean)
+ */
+public final class CommunicationTrace {
+    /**
+     * Trace courante de chaque thread
+     */
+    @NotNull
+    private static final ThreadLocal<CommunicationTrace> current = new ThreadLocal<>();
+
+    /**
+     * Lignes de trace écrites ou non
+     */
+    private static volatile boolean enabled = true;
+
+    /**
+     * Identifiant de la trace, commun à toutes ses étapes
+     */
+    @NotNull
+    final String id;
+
+    /**
+     * Nom de la trace (vue qui l'a ouverte), null pour une requête isolée
+     */
+    @Nullable
+    private final String name;
+
+    /**
+     * Début de la trace, en nanosecondes
+     */
+    private final long origin;
+
+    /**
+     * Compteur des étapes de la trace
+     */
+    @NotNull
+    private final AtomicInteger spans;
+
+    /**
+     * Numéro de l'étape
+     */
+    private final int span;
+
+    /**
+     * Numéro de l'étape parente, -1 pour la racine
+     */
+    private final int parent;
+
+    /**
+     * Instants des phases, en nanosecondes, 0 si la phase n'a pas eu lieu
+     */
+    private long started, dispatched, running, sending, received;
+
+    /**
+     * Durées des phases, en nanosecondes, -1 si la phase n'a pas eu lieu
+     */
+    private long read = -1, body = -1, decode = -1;
+
+    /**
+     * Nombre d'envois HTTP
+     */
+    private int attempts;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Ouvre une trace
+     *
+     * @param name Nom de la trace, par exemple la vue qui se charge
+     */
+    public CommunicationTrace(@Nullable String name) {
+        this.id = Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+        this.name = name;
+        this.origin = System.nanoTime();
+        this.spans = new AtomicInteger();
+        this.span = 0;
+        this.parent = -1;
+    }
+
+    /**
+     * Constructeur d'une étape fille
+     *
+     * @param parent Étape parente
+     */
+    private CommunicationTrace(@NotNull CommunicationTrace parent) {
+        this.id = parent.id;
+        this.name = parent.name;
+        this.origin = parent.origin;
+        this.spans = parent.spans;
+        this.span = spans.incrementAndGet();
+        this.parent = parent.span;
+    }
+
+    /**
+     * Trace courante du thread
+     *
+     * @return Trace, null si aucune
+     */
+    @Nullable
+    public static CommunicationTrace current() {
+        return current.get();
+    }
+
+    /**
+     * Rend une trace courante pour le thread actuel, à refermer avec exit() dans un finally
+     *
+     * @param trace Nouvelle trace courante, null pour aucune
+     * @return Trace courante précédente, à passer à exit()
+     */
+    @Nullable
+    public static CommunicationTrace enter(@Nullable CommunicationTrace trace) {
+        CommunicationTrace previous = current.get();
+
+        if (trace != null) {
+            current.set(trace);
+        } else {
+            current.remove();
+        }
+
+        return previous;
+    }
+
+    /**
+     * Restaure la trace courante d'avant enter()
+     *
+     * @param previous Valeur renvoyée par enter()
+     */
+    public static void exit(@Nullable CommunicationTrace previous) {
+        enter(previous);
+    }
+
+    /**
+     * Active ou désactive l'écriture des lignes de trace
+     *
+     * @param enabled Écriture ou non
+     */
+    static void setEnabled(boolean enabled) {
+        CommunicationTrace.enabled = enabled;
+    }
+
+    /**
+     * Étape d'une nouvelle communication, fille de la trace donnée ou racine d'une nouvelle trace
+     *
+     * @param parent Trace courante à la construction de la requête, null si aucune
+     * @return Étape
+     */
+    @NotNull
+    static CommunicationTrace of(@Nullable CommunicationTrace parent) {
+        return parent != null ? new CommunicationTrace(parent) : new CommunicationTrace((String) null);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Communication lancée
+     */
+    void started() {
+        started = System.nanoTime();
+    }
+
+    /**
+     * Communication placée dans la file, à chaque tentative
+     */
+    void dispatched() {
+        dispatched = System.nanoTime();
+    }
+
+    /**
+     * Communication sortie de la file
+     */
+    void running() {
+        running = System.nanoTime();
+    }
+
+    /**
+     * Requête HTTP partie
+     */
+    void sending() {
+        sending = System.nanoTime();
+        attempts++;
+        read = -1;
+        body = -1;
+    }
+
+    /**
+     * En-têtes de la réponse reçus, ou échange en erreur
+     */
+    void received() {
+        received = System.nanoTime();
+    }
+
+    /**
+     * Lecture de la réponse terminée
+     *
+     * @param nanos Durée de la lecture, attente du réseau comprise
+     */
+    void read(long nanos) {
+        read = nanos;
+    }
+
+    /**
+     * Traitement du contenu terminé
+     *
+     * @param nanos Durée du traitement
+     */
+    void decoded(long nanos) {
+        decode = nanos;
+    }
+
+    /**
+     * Mesure le temps passé à attendre les données d'un flux
+     *
+     * @param in Flux du corps de la réponse
+     * @return Flux mesuré
+     */
+    @NotNull
+    InputStream timed(@NotNull InputStream in) {
+        body = 0;
+        return new TimedInputStream(in);
+    }
+
+    /**
+     * Écrit la ligne de trace d'une communication terminée
+     *
+     * @param comm     Communication
+     * @param origin   Provenance de la réponse : network, store ou local
+     * @param dispatch Durée des listeners de fin, en nanosecondes
+     */
+    void log(@NotNull Communication comm, @NotNull String origin, long dispatch) {
+        if (!enabled) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        StringBuilder line = new StringBuilder("trace=").append(id)
+                .append(" span=").append(span)
+                .append(" parent=").append(parent);
+
+        if (name != null) {
+            line.append(" root=").append(name);
+        }
+
+        line.append(" type=").append(comm.typeOfCommunication)
+                .append(" http=").append(comm.httpCode.getCode())
+                .append(" code=").append(comm.code)
+                .append(" origin=").append(origin)
+                .append(" attempts=").append(attempts)
+                .append(" bytes=").append(comm.getBytesReceived());
+
+        append(line, "offset", started - this.origin);
+        append(line, "queue", dispatched != 0 && running >= dispatched ? running - dispatched : -1);
+        append(line, "prepare", sending != 0 ? sending - running : -1);
+        append(line, "ttfb", received >= sending && sending != 0 ? received - sending : -1);
+        append(line, "body", body);
+        append(line, "parse", read >= 0 && body >= 0 ? read - body : -1);
+        append(line, "decode", decode);
+        append(line, "dispatch", dispatch);
+        append(line, "total", now - started);
+
+        Logger.stats(line, LoggerOption.LOG_FILE_ONLY);
+    }
+
+    /**
+     * Ajoute une phase à la ligne de trace, en millisecondes
+     *
+     * @param line  Ligne
+     * @param name  Nom de la phase
+     * @param nanos Durée en nanosecondes, négative si la phase n'a pas eu lieu
+     */
+    private static void append(@NotNull StringBuilder line, @NotNull String name, long nanos) {
+        if (nanos >= 0) {
+            line.append(' ').append(name).append('=').append(String.format(Locale.ROOT, "%.3f", nanos / 1e6));
+        }
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        return id + "/" + span;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Flux qui cumule le temps passé à attendre les données
+     */
+    private final class TimedInputStream extends FilterInputStream {
+        /**
+         * Constructeur
+         *
+         * @param in Flux à mesurer
+         */
+        private TimedInputStream(@NotNull InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+
+            try {
+                return super.read();
+            } finally {
+                body += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public int read(@NotNull byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+
+            try {
+                return super.read(b, off, len);
+            } finally {
+                body += System.nanoTime() - start;
+            }
+        }
+    }
+}
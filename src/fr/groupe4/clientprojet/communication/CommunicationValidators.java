@@ -0,0 +1,203 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.APICode;
+import fr.groupe4.clientprojet.communication.enums.CommunicationStatus;
+import fr.groupe4.clientprojet.communication.enums.HTTPCode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Validateurs HTTP (ETag / Last-Modified) des dernières réponses, par clé de requête <br>
+ * <br>
+ * Une requête en lecture seule déjà reçue est renvoyée avec If-None-Match / If-Modified-Since. <br>
+ * Si le serveur répond 304 Not Modified, le résultat déjà décodé est repris tel quel :
+ * la réponse n'est ni parsée ni traitée par JsonTreatment. <br>
+ * Contrairement au cache, les entrées n'expirent pas : c'est le serveur qui décide si elles sont à jour.
+ *
+ * @see CommunicationCache
+ */
+final class CommunicationValidators {
+    /**
+     * Nombre maximal d'entrées
+     */
+    private static final int MAX_ENTRIES = 256;
+
+    /**
+     * Entrées par clé de requête, dans l'ordre d'accès (LRU)
+     */
+    @NotNull
+    private static final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private CommunicationValidators() {
+    }
+
+    /**
+     * Cherche les validateurs de la dernière réponse à une requête
+     *
+     * @param comm Communication sur le point d'être envoyée
+     * @return Entrée, null si la requête n'est pas revalidable
+     */
+    @Nullable
+    static Entry lookup(@NotNull Communication comm) {
+        if (!comm.typeOfCommunication.isReadOnly()) {
+            return null;
+        }
+
+        synchronized (entries) {
+            return entries.get(comm.getRequestKey());
+        }
+    }
+
+    /**
+     * Enregistre les validateurs d'une réponse complète, avec le résultat décodé
+     *
+     * @param comm     Communication dont la réponse vient d'être traitée
+     * @param response Réponse HTTP
+     */
+    static void update(@NotNull Communication comm, @NotNull HttpResponse<?> response) {
+        if (!comm.typeOfCommunication.isReadOnly()) {
+            return;
+        }
+
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+
+        synchronized (entries) {
+            if ((etag != null || lastModified != null)
+                    && comm.httpCode == HTTPCode.HTTP_OK
+                    && comm.status == CommunicationStatus.STATUS_SUCCESS
+                    && comm.communicationResult != null) {
+
+                entries.put(comm.getRequestKey(), new Entry(comm, etag, lastModified));
+            } else {
+                // Plus de validateur ou réponse en erreur, l'ancienne entrée ne doit plus servir
+                entries.remove(comm.getRequestKey());
+            }
+        }
+    }
+
+    /**
+     * Oublie tous les validateurs
+     */
+    static void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Validateurs et réponse décodée d'une communication
+     */
+    static final class Entry {
+        /**
+         * Valeur de l'en-tête ETag, null si absent
+         */
+        @Nullable
+        private final String etag;
+
+        /**
+         * Valeur de l'en-tête Last-Modified, null si absent
+         */
+        @Nullable
+        private final String lastModified;
+
+        /**
+         * Statut de la réponse
+         */
+        @NotNull
+        private final CommunicationStatus status;
+
+        /**
+         * Code API de la réponse
+         */
+        @NotNull
+        private final APICode code;
+
+        /**
+         * Code HTTP de la réponse
+         */
+        @NotNull
+        private final HTTPCode httpCode;
+
+        /**
+         * Message de la réponse
+         */
+        @NotNull
+        private final String message;
+
+        /**
+         * Empreinte du corps de la réponse
+         */
+        private final int responseChecksum;
+
+        /**
+         * Résultat décodé, copié pour ne pas être modifié par l'appelant
+         */
+        @Nullable
+        private final Object result;
+
+        /**
+         * Constructeur
+         *
+         * @param comm         Communication terminée
+         * @param etag         ETag de la réponse
+         * @param lastModified Last-Modified de la réponse
+         */
+        private Entry(@NotNull Communication comm, @Nullable String etag, @Nullable String lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            status = comm.status;
+            code = comm.code;
+            httpCode = comm.httpCode;
+            message = comm.message;
+            responseChecksum = comm.responseChecksum;
+            result = Communication.copyResult(comm.communicationResult);
+        }
+
+        /**
+         * Ajoute les en-têtes conditionnels à une requête
+         *
+         * @param builder Requête en construction
+         */
+        void addConditionalHeaders(@NotNull HttpRequest.Builder builder) {
+            if (etag != null) {
+                builder.header("If-None-Match", etag);
+            }
+
+            if (lastModified != null) {
+                builder.header("If-Modified-Since", lastModified);
+            }
+        }
+
+        /**
+         * Recopie la réponse enregistrée dans une communication, après un 304
+         *
+         * @param comm Communication revalidée
+         */
+        void restore(@NotNull Communication comm) {
+            comm.status = status;
+            comm.code = code;
+            comm.httpCode = httpCode;
+            comm.message = message;
+            comm.responseChecksum = responseChecksum;
+            comm.communicationResult = Communication.copyResult(result);
+        }
+    }
+}
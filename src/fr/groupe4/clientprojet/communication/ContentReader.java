@@ -0,0 +1,138 @@
+package fr.groupe4.clientprojet.communication;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Lecteur en flux (pull parser) du corps d'une réponse, quel que soit son format <br>
+ * <br>
+ * Les décodeurs de JsonStreamTreatment ne dépendent que de cette classe : le même décodeur lit
+ * une réponse JSON ou MessagePack.
+ *
+ * @see JsonReader
+ * @see MessagePackReader
+ * @see CommunicationCodec
+ */
+abstract class ContentReader implements Closeable {
+    /**
+     * Éléments du contenu
+     */
+    enum Token {
+        BEGIN_OBJECT,
+        END_OBJECT,
+        BEGIN_ARRAY,
+        END_ARRAY,
+        NAME,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        NULL,
+        END_DOCUMENT
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Retourne le type du prochain élément, sans le consommer
+     *
+     * @return Prochain élément
+     * @throws IOException Contenu invalide ou erreur de lecture
+     */
+    @NotNull
+    abstract Token peek() throws IOException;
+
+    /**
+     * Entre dans un objet
+     *
+     * @throws IOException Pas d'objet à cet endroit
+     */
+    abstract void beginObject() throws IOException;
+
+    /**
+     * Sort de l'objet courant
+     *
+     * @throws IOException L'objet n'est pas terminé
+     */
+    abstract void endObject() throws IOException;
+
+    /**
+     * Entre dans un tableau
+     *
+     * @throws IOException Pas de tableau à cet endroit
+     */
+    abstract void beginArray() throws IOException;
+
+    /**
+     * Sort du tableau courant
+     *
+     * @throws IOException Le tableau n'est pas terminé
+     */
+    abstract void endArray() throws IOException;
+
+    /**
+     * Lit le nom du prochain champ de l'objet courant
+     *
+     * @return Nom
+     * @throws IOException Pas de nom à cet endroit
+     */
+    @NotNull
+    abstract String nextName() throws IOException;
+
+    /**
+     * Lit une chaine <br>
+     * Les nombres sont acceptés et renvoyés sous forme de chaine
+     *
+     * @return Chaine, null si la valeur est null
+     * @throws IOException Pas de chaine à cet endroit
+     */
+    @Nullable
+    abstract String nextString() throws IOException;
+
+    /**
+     * Lit un nombre entier <br>
+     * Les chaines numériques sont acceptées, comme "12", et les décimaux sont tronqués
+     *
+     * @return Nombre, 0 si la valeur est null
+     * @throws IOException Pas de nombre à cet endroit
+     */
+    abstract long nextLong() throws IOException;
+
+    /**
+     * Lit un booléen
+     *
+     * @return Booléen
+     * @throws IOException Pas de booléen à cet endroit
+     */
+    abstract boolean nextBoolean() throws IOException;
+
+    /**
+     * Saute la prochaine valeur, objets et tableaux compris
+     *
+     * @throws IOException Contenu invalide ou erreur de lecture
+     */
+    abstract void skipValue() throws IOException;
+
+    /**
+     * Lit la prochaine valeur sous forme d'arbre json-simple <br>
+     * Sert aux contenus qui n'ont pas de décodage en flux
+     *
+     * @return JSONObject, JSONArray, String, Long, Double, Boolean ou null
+     * @throws IOException Contenu invalide ou erreur de lecture
+     */
+    @Nullable
+    abstract Object readValue() throws IOException;
+
+    /**
+     * Indique s'il reste des éléments dans l'objet ou le tableau courant
+     *
+     * @return Élément suivant présent ou non
+     * @throws IOException Contenu invalide ou erreur de lecture
+     */
+    boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+}
@@ -0,0 +1,768 @@
+package fr.groupe4.clientprojet.communication;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Lecteur JSON en flux (pull parser) <br>
+ * <br>
+ * Le JSON est lu au fur et à mesure depuis le flux de la réponse, sans construire d'arbre :
+ * l'appelant demande les éléments dans l'ordre où ils arrivent. <br>
+ * <br>
+ * Exemple, pour {"id": 1, "name": "P1"} : <br><code>
+ * reader.beginObject(); <br>
+ * while (reader.hasNext()) { <br>
+ * &nbsp; switch (reader.nextName()) { <br>
+ * &nbsp; &nbsp; case "id": id = reader.nextLong(); break; <br>
+ * &nbsp; &nbsp; default: reader.skipValue(); <br>
+ * &nbsp; } <br>
+ * } <br>
+ * reader.endObject(); </code>
+ *
+ * @see MessagePackReader
+ */
+final class JsonReader extends ContentReader {
+    /**
+     * Contextes de lecture, empilés à chaque objet ou tableau
+     */
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    /**
+     * Taille du tampon de lecture
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Flux lu
+     */
+    @NotNull
+    private final Reader in;
+
+    /**
+     * Tampon de lecture
+     */
+    @NotNull
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    /**
+     * Position dans le tampon
+     */
+    private int pos = 0;
+
+    /**
+     * Fin des données valides du tampon
+     */
+    private int limit = 0;
+
+    /**
+     * Pile des contextes
+     */
+    @NotNull
+    private int[] stack = new int[32];
+
+    /**
+     * Taille de la pile
+     */
+    private int stackSize = 0;
+
+    /**
+     * Prochain élément déjà identifié, null si pas encore lu
+     */
+    @Nullable
+    private Token peeked = null;
+
+    /**
+     * Tampon réutilisé pour les chaines
+     */
+    @NotNull
+    private final StringBuilder stringBuilder = new StringBuilder();
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur
+     *
+     * @param in Flux UTF-8 à lire
+     */
+    JsonReader(@NotNull InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Constructeur
+     *
+     * @param in Flux de caractères à lire
+     */
+    JsonReader(@NotNull Reader in) {
+        this.in = in;
+        push(EMPTY_DOCUMENT);
+    }
+
+    /**
+     * Ferme le flux lu
+     *
+     * @throws IOException Erreur à la fermeture
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Retourne le type du prochain élément, sans le consommer
+     *
+     * @return Prochain élément
+     * @throws IOException JSON invalide ou erreur de lecture
+     */
+    @Override
+    @NotNull
+    Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+
+        int c;
+
+        switch (stack[stackSize - 1]) {
+            case EMPTY_ARRAY:
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                c = nextNonWhitespace();
+
+                if (c == ']') {
+                    return peeked = Token.END_ARRAY;
+                }
+
+                pos--;
+                break;
+
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+
+                if (c == ']') {
+                    return peeked = Token.END_ARRAY;
+                } else if (c != ',') {
+                    throw syntaxError("',' ou ']' attendu");
+                }
+                break;
+
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                boolean empty = stack[stackSize - 1] == EMPTY_OBJECT;
+                stack[stackSize - 1] = DANGLING_NAME;
+                c = nextNonWhitespace();
+
+                if (c == '}') {
+                    return peeked = Token.END_OBJECT;
+                }
+
+                if (!empty) {
+                    if (c != ',') {
+                        throw syntaxError("',' ou '}' attendu");
+                    }
+
+                    c = nextNonWhitespace();
+                }
+
+                if (c != '"') {
+                    throw syntaxError("nom entre guillemets attendu");
+                }
+
+                return peeked = Token.NAME;
+
+            case DANGLING_NAME:
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+
+                if (nextNonWhitespace() != ':') {
+                    throw syntaxError("':' attendu");
+                }
+                break;
+
+            case EMPTY_DOCUMENT:
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                break;
+
+            case NONEMPTY_DOCUMENT:
+                if (fillIfNeeded() && skipWhitespace()) {
+                    throw syntaxError("contenu après la fin du document");
+                }
+
+                return peeked = Token.END_DOCUMENT;
+
+            default:
+                throw new IllegalStateException("Contexte JSON inconnu");
+        }
+
+        c = nextNonWhitespace();
+
+        switch (c) {
+            case '{':
+                return peeked = Token.BEGIN_OBJECT;
+
+            case '[':
+                return peeked = Token.BEGIN_ARRAY;
+
+            case '"':
+                return peeked = Token.STRING;
+
+            case 't':
+            case 'f':
+                pos--;
+                return peeked = Token.BOOLEAN;
+
+            case 'n':
+                pos--;
+                return peeked = Token.NULL;
+
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    pos--;
+                    return peeked = Token.NUMBER;
+                }
+
+                throw syntaxError("valeur attendue");
+        }
+    }
+
+    /**
+     * Entre dans un objet
+     *
+     * @throws IOException Pas d'objet à cet endroit
+     */
+    @Override
+    void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    /**
+     * Sort de l'objet courant
+     *
+     * @throws IOException L'objet n'est pas terminé
+     */
+    @Override
+    void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        stackSize--;
+    }
+
+    /**
+     * Entre dans un tableau
+     *
+     * @throws IOException Pas de tableau à cet endroit
+     */
+    @Override
+    void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    /**
+     * Sort du tableau courant
+     *
+     * @throws IOException Le tableau n'est pas terminé
+     */
+    @Override
+    void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        stackSize--;
+    }
+
+    /**
+     * Lit le nom du prochain champ de l'objet courant
+     *
+     * @return Nom
+     * @throws IOException Pas de nom à cet endroit
+     */
+    @Override
+    @NotNull
+    String nextName() throws IOException {
+        expect(Token.NAME);
+        return readString();
+    }
+
+    /**
+     * Lit une chaine <br>
+     * Les nombres sont acceptés et renvoyés tels quels
+     *
+     * @return Chaine, null si la valeur est null
+     * @throws IOException Pas de chaine à cet endroit
+     */
+    @Override
+    @Nullable
+    String nextString() throws IOException {
+        Token token = peek();
+        peeked = null;
+
+        switch (token) {
+            case STRING:
+                return readString();
+
+            case NUMBER:
+                return readLiteral();
+
+            case NULL:
+                readNull();
+                return null;
+
+            default:
+                throw syntaxError("chaine attendue, " + token + " trouvé");
+        }
+    }
+
+    /**
+     * Lit un nombre entier <br>
+     * Les chaines numériques sont acceptées, comme "12", et les décimaux sont tronqués
+     *
+     * @return Nombre, 0 si la valeur est null
+     * @throws IOException Pas de nombre à cet endroit
+     */
+    @Override
+    long nextLong() throws IOException {
+        Token token = peek();
+        peeked = null;
+
+        switch (token) {
+            case NUMBER:
+                return parseLong(readLiteral());
+
+            case STRING:
+                return parseLong(readString().trim());
+
+            case NULL:
+                readNull();
+                return 0;
+
+            default:
+                throw syntaxError("nombre attendu, " + token + " trouvé");
+        }
+    }
+
+    /**
+     * Lit un booléen
+     *
+     * @return Booléen
+     * @throws IOException Pas de booléen à cet endroit
+     */
+    @Override
+    boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        String literal = readLiteral();
+
+        if (literal.equals("true")) {
+            return true;
+        } else if (literal.equals("false")) {
+            return false;
+        } else {
+            throw syntaxError("booléen invalide : " + literal);
+        }
+    }
+
+    /**
+     * Saute la prochaine valeur, objets et tableaux compris
+     *
+     * @throws IOException JSON invalide ou erreur de lecture
+     */
+    @Override
+    void skipValue() throws IOException {
+        int depth = 0;
+
+        do {
+            Token token = peek();
+
+            switch (token) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    depth++;
+                    break;
+
+                case BEGIN_ARRAY:
+                    beginArray();
+                    depth++;
+                    break;
+
+                case END_OBJECT:
+                    endObject();
+                    depth--;
+                    break;
+
+                case END_ARRAY:
+                    endArray();
+                    depth--;
+                    break;
+
+                case NAME:
+                    peeked = null;
+                    skipString();
+                    break;
+
+                case STRING:
+                    peeked = null;
+                    skipString();
+                    break;
+
+                case NUMBER:
+                case BOOLEAN:
+                case NULL:
+                    peeked = null;
+                    readLiteral();
+                    break;
+
+                default:
+                    throw syntaxError("valeur attendue");
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Lit la prochaine valeur sous forme d'arbre json-simple <br>
+     * Sert aux contenus qui n'ont pas de décodage en flux
+     *
+     * @return JSONObject, JSONArray, String, Long, Double, Boolean ou null
+     * @throws IOException JSON invalide ou erreur de lecture
+     */
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    Object readValue() throws IOException {
+        Token token = peek();
+
+        switch (token) {
+            case BEGIN_OBJECT:
+                JSONObject object = new JSONObject();
+                beginObject();
+
+                while (hasNext()) {
+                    String name = nextName();
+                    object.put(name, readValue());
+                }
+
+                endObject();
+                return object;
+
+            case BEGIN_ARRAY:
+                JSONArray array = new JSONArray();
+                beginArray();
+
+                while (hasNext()) {
+                    array.add(readValue());
+                }
+
+                endArray();
+                return array;
+
+            case STRING:
+                peeked = null;
+                return readString();
+
+            case NUMBER:
+                peeked = null;
+                String literal = readLiteral();
+
+                if (literal.indexOf('.') >= 0 || literal.indexOf('e') >= 0 || literal.indexOf('E') >= 0) {
+                    return Double.valueOf(literal);
+                }
+
+                return parseLong(literal);
+
+            case BOOLEAN:
+                return nextBoolean();
+
+            case NULL:
+                peeked = null;
+                readNull();
+                return null;
+
+            default:
+                throw syntaxError("valeur attendue, " + token + " trouvé");
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Consomme l'élément attendu
+     *
+     * @param expected Élément attendu
+     * @throws IOException Autre élément trouvé
+     */
+    private void expect(@NotNull Token expected) throws IOException {
+        Token token = peek();
+
+        if (token != expected) {
+            throw syntaxError(expected + " attendu, " + token + " trouvé");
+        }
+
+        peeked = null;
+    }
+
+    /**
+     * Empile un contexte
+     *
+     * @param context Contexte
+     */
+    private void push(int context) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+
+        stack[stackSize++] = context;
+    }
+
+    /**
+     * Remplit le tampon s'il a été entièrement lu
+     *
+     * @return Données disponibles ou non
+     * @throws IOException Erreur de lecture
+     */
+    private boolean fillIfNeeded() throws IOException {
+        if (pos < limit) {
+            return true;
+        }
+
+        int n = in.read(buffer, 0, buffer.length);
+
+        if (n <= 0) {
+            pos = limit = 0;
+            return false;
+        }
+
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    /**
+     * Saute les espaces
+     *
+     * @return Reste-t-il des caractères ?
+     * @throws IOException Erreur de lecture
+     */
+    private boolean skipWhitespace() throws IOException {
+        while (fillIfNeeded()) {
+            char c = buffer[pos];
+
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return true;
+            }
+
+            pos++;
+        }
+
+        return false;
+    }
+
+    /**
+     * Lit le prochain caractère qui n'est pas un espace
+     *
+     * @return Caractère
+     * @throws IOException Fin du flux ou erreur de lecture
+     */
+    private int nextNonWhitespace() throws IOException {
+        if (!skipWhitespace()) {
+            throw syntaxError("fin de flux inattendue");
+        }
+
+        return buffer[pos++];
+    }
+
+    /**
+     * Lit une chaine, le guillemet ouvrant ayant déjà été consommé
+     *
+     * @return Chaine
+     * @throws IOException Chaine invalide ou non terminée
+     */
+    @NotNull
+    private String readString() throws IOException {
+        stringBuilder.setLength(0);
+
+        while (true) {
+            if (!fillIfNeeded()) {
+                throw syntaxError("chaine non terminée");
+            }
+
+            int start = pos;
+
+            while (pos < limit) {
+                char c = buffer[pos++];
+
+                if (c == '"') {
+                    stringBuilder.append(buffer, start, pos - start - 1);
+                    return stringBuilder.toString();
+                } else if (c == '\\') {
+                    stringBuilder.append(buffer, start, pos - start - 1);
+                    stringBuilder.append(readEscape());
+                    start = pos;
+                }
+            }
+
+            stringBuilder.append(buffer, start, pos - start);
+        }
+    }
+
+    /**
+     * Saute une chaine, le guillemet ouvrant ayant déjà été consommé
+     *
+     * @throws IOException Chaine non terminée
+     */
+    private void skipString() throws IOException {
+        while (fillIfNeeded()) {
+            char c = buffer[pos++];
+
+            if (c == '"') {
+                return;
+            } else if (c == '\\') {
+                readEscape();
+            }
+        }
+
+        throw syntaxError("chaine non terminée");
+    }
+
+    /**
+     * Lit une séquence d'échappement, l'antislash ayant déjà été consommé
+     *
+     * @return Caractère échappé
+     * @throws IOException Séquence invalide
+     */
+    private char readEscape() throws IOException {
+        if (!fillIfNeeded()) {
+            throw syntaxError("échappement non terminé");
+        }
+
+        char c = buffer[pos++];
+
+        switch (c) {
+            case 'u':
+                int value = 0;
+
+                for (int i = 0; i < 4; i++) {
+                    if (!fillIfNeeded()) {
+                        throw syntaxError("échappement non terminé");
+                    }
+
+                    int digit = Character.digit(buffer[pos++], 16);
+
+                    if (digit < 0) {
+                        throw syntaxError("échappement unicode invalide");
+                    }
+
+                    value = (value << 4) | digit;
+                }
+
+                return (char) value;
+
+            case 'b':
+                return '\b';
+
+            case 'f':
+                return '\f';
+
+            case 'n':
+                return '\n';
+
+            case 'r':
+                return '\r';
+
+            case 't':
+                return '\t';
+
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+
+            default:
+                throw syntaxError("échappement invalide : \\" + c);
+        }
+    }
+
+    /**
+     * Lit un littéral non entre guillemets : nombre, true, false ou null
+     *
+     * @return Littéral
+     * @throws IOException Erreur de lecture
+     */
+    @NotNull
+    private String readLiteral() throws IOException {
+        stringBuilder.setLength(0);
+
+        while (fillIfNeeded()) {
+            char c = buffer[pos];
+
+            if (c == ',' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == ':') {
+                break;
+            }
+
+            stringBuilder.append(c);
+            pos++;
+        }
+
+        if (stringBuilder.length() == 0) {
+            throw syntaxError("littéral vide");
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Lit le littéral null
+     *
+     * @throws IOException Autre littéral trouvé
+     */
+    private void readNull() throws IOException {
+        String literal = readLiteral();
+
+        if (!literal.equals("null")) {
+            throw syntaxError("null attendu : " + literal);
+        }
+    }
+
+    /**
+     * Convertit un nombre en long, en tronquant les décimaux
+     *
+     * @param literal Nombre
+     * @return Valeur
+     * @throws IOException Nombre invalide
+     */
+    private long parseLong(@NotNull String literal) throws IOException {
+        try {
+            return Long.parseLong(literal);
+        } catch (NumberFormatException e) {
+            try {
+                return (long) Double.parseDouble(literal);
+            } catch (NumberFormatException e2) {
+                throw syntaxError("nombre invalide : " + literal);
+            }
+        }
+    }
+
+    /**
+     * Crée une erreur de syntaxe
+     *
+     * @param message Description
+     * @return Erreur
+     */
+    @NotNull
+    private IOException syntaxError(@NotNull String message) {
+        return new IOException("JSON invalide : " + message);
+    }
+}
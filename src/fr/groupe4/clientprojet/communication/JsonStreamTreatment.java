@@ -0,0 +1,996 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.CommunicationStatus;
+import fr.groupe4.clientprojet.communication.enums.CommunicationType;
+import fr.groupe4.clientprojet.logger.Logger;
+import fr.groupe4.clientprojet.model.message.Message;
+import fr.groupe4.clientprojet.model.message.MessageList;
+import fr.groupe4.clientprojet.model.project.Project;
+import fr.groupe4.clientprojet.model.project.ProjectList;
+import fr.groupe4.clientprojet.model.resource.ResourceRegistry;
+import fr.groupe4.clientprojet.model.resource.human.HumanResource;
+import fr.groupe4.clientprojet.model.resource.human.HumanResourceList;
+import fr.groupe4.clientprojet.model.resource.human.HumanResourceProject;
+import fr.groupe4.clientprojet.model.resource.human.HumanResourceProjectList;
+import fr.groupe4.clientprojet.model.resource.material.MaterialResource;
+import fr.groupe4.clientprojet.model.resource.material.MaterialResourceList;
+import fr.groupe4.clientprojet.model.resource.material.MaterialResourceProject;
+import fr.groupe4.clientprojet.model.resource.material.MaterialResourceProjectList;
+import fr.groupe4.clientprojet.model.task.Task;
+import fr.groupe4.clientprojet.model.task.TaskList;
+import fr.groupe4.clientprojet.model.timeslot.TimeSlot;
+import fr.groupe4.clientprojet.model.timeslot.TimeSlotList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+
+/**
+ * Décodeurs typés du contenu des réponses, par type de communication <br>
+ * <br>
+ * Les objets du modèle sont construits au fil de la lecture du flux, les nombres sont lus directement
+ * en long, sans passer par un arbre JSONObject ni par des Long. <br>
+ * Le statut de la réponse n'étant pas forcément lu avant le contenu, le décodage se fait en deux temps :
+ * readContent() pendant la lecture, puis doSomethingWithContent() une fois toute la réponse lue. <br>
+ * <br>
+ * Les types sans décodeur enregistré passent par l'arbre json-simple et JsonTreatment.
+ *
+ * @see JsonTreatment
+ */
+final class JsonStreamTreatment {
+    /**
+     * Décodeurs enregistrés
+     */
+    @NotNull
+    private static final EnumMap<CommunicationType, Decoder> decoders = new EnumMap<>(CommunicationType.class);
+
+    static {
+        register(CommunicationType.GET_PROJECT,
+                reader -> readField(reader, "project", JsonStreamTreatment::readProject),
+                JsonStreamTreatment::setResult);
+
+        register(CommunicationType.LIST_PROJECTS,
+                reader -> readSynced(reader, "projects", new ProjectList(), JsonStreamTreatment::readProject),
+                synced(JsonStreamTreatment::setResult));
+
+        register(CommunicationType.LIST_USERS_FROM_PROJECT,
+                reader -> readList(reader, "HUMAN", new ArrayList<>(), JsonStreamTreatment::readAllocation),
+                JsonStreamTreatment::resolveHumanAllocations);
+
+        register(CommunicationType.LIST_MATERIAL_FROM_PROJECT,
+                reader -> readList(reader, "MATERIAL", new ArrayList<>(), JsonStreamTreatment::readAllocation),
+                JsonStreamTreatment::resolveMaterialAllocations);
+
+        register(CommunicationType.GET_HUMAN_RESOURCE,
+                JsonStreamTreatment::readHumanResource,
+                JsonStreamTreatment::registerHumanResources);
+
+        register(CommunicationType.GET_HUMAN_RESOURCE_BATCH,
+                reader -> readList(reader, "h_resources", new HumanResourceList(), JsonStreamTreatment::readHumanResource),
+                JsonStreamTreatment::registerHumanResources);
+
+        register(CommunicationType.LIST_HUMAN_RESOURCE,
+                reader -> readList(reader, "h_ressources", new HumanResourceList(), JsonStreamTreatment::readHumanResource),
+                JsonStreamTreatment::registerHumanResources);
+
+        register(CommunicationType.GET_MATERIAL_RESOURCE,
+                JsonStreamTreatment::readMaterialResource,
+                JsonStreamTreatment::registerMaterialResources);
+
+        register(CommunicationType.GET_MATERIAL_RESOURCE_BATCH,
+                reader -> readList(reader, "m_resources", new MaterialResourceList(), JsonStreamTreatment::readMaterialResource),
+                JsonStreamTreatment::registerMaterialResources);
+
+        register(CommunicationType.LIST_MATERIAL_RESOURCE,
+                reader -> readList(reader, "m_ressources", new MaterialResourceList(), JsonStreamTreatment::readMaterialResource),
+                JsonStreamTreatment::registerMaterialResources);
+
+        register(CommunicationType.GET_TASK_LIST,
+                reader -> readSynced(reader, "tasks", new TaskList(), JsonStreamTreatment::readTask),
+                synced(JsonStreamTreatment::setResult));
+
+        register(CommunicationType.GET_TIME_SLOT_LIST,
+                reader -> readSynced(reader, "timeslots", new TimeSlotList(), JsonStreamTreatment::readTimeSlot),
+                synced(JsonStreamTreatment::setResult));
+
+        register(CommunicationType.LIST_MESSAGES,
+                reader -> readSynced(reader, "messages", new ArrayList<>(), JsonStreamTreatment::readMessage),
+                synced(JsonStreamTreatment::resolveMessages));
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private JsonStreamTreatment() {
+    }
+
+    /**
+     * Enregistre le décodeur d'un type de communication
+     *
+     * @param type      Type de communication
+     * @param reader    Lecture du contenu, pendant la lecture du flux
+     * @param treatment Traitement du contenu lu, si la réponse est un succès
+     */
+    private static void register(@NotNull CommunicationType type,
+                                 @NotNull ElementReader<?> reader,
+                                 @NotNull ContentTreatment treatment) {
+        decoders.put(type, new Decoder(reader, treatment));
+    }
+
+    /**
+     * Un décodeur typé est-il enregistré pour ce type de communication ?
+     *
+     * @param type Type de communication
+     * @return Décodé en flux ou par JsonTreatment
+     */
+    static boolean isStreamed(@NotNull CommunicationType type) {
+        return decoders.containsKey(type);
+    }
+
+    /**
+     * Lit le contenu de la réponse, pendant la lecture du flux
+     *
+     * @param type   Type de communication
+     * @param reader Lecteur placé sur le contenu
+     * @return Contenu décodé, null s'il n'a pas la forme attendue (réponse d'erreur)
+     * @throws IOException JSON invalide ou erreur de lecture
+     */
+    @Nullable
+    static Object readContent(@NotNull CommunicationType type, @NotNull ContentReader reader) throws IOException {
+        Decoder decoder = decoders.get(type);
+
+        if (decoder == null) {
+            throw new IllegalArgumentException("Pas de décodeur pour " + type);
+        }
+
+        if (reader.peek() != ContentReader.Token.BEGIN_OBJECT) {
+            // Contenu d'erreur, comme un tableau vide
+            reader.skipValue();
+            return null;
+        }
+
+        return decoder.reader.read(reader);
+    }
+
+    /**
+     * Termine le traitement du contenu, une fois la réponse entièrement lue
+     *
+     * @param comm    Communication à traiter
+     * @param content Contenu lu par readContent()
+     */
+    static void doSomethingWithContent(@NotNull Communication comm, @Nullable Object content) {
+        Decoder decoder = decoders.get(comm.typeOfCommunication);
+
+        if (decoder != null && content != null && comm.status == CommunicationStatus.STATUS_SUCCESS) {
+            decoder.treatment.apply(comm, content);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Lecture d'un élément JSON
+     *
+     * @param <T> Type de l'élément
+     */
+    @FunctionalInterface
+    interface ElementReader<T> {
+        /**
+         * Lit un élément
+         *
+         * @param reader Lecteur placé sur l'élément
+         * @return Élément, null s'il n'a pas la forme attendue
+         * @throws IOException JSON invalide ou erreur de lecture
+         */
+        @Nullable
+        T read(@NotNull ContentReader reader) throws IOException;
+    }
+
+    /**
+     * Traitement d'un contenu lu, une fois le statut de la réponse connu
+     */
+    @FunctionalInterface
+    private interface ContentTreatment {
+        /**
+         * Traite le contenu
+         *
+         * @param comm    Communication à traiter
+         * @param content Contenu lu
+         */
+        void apply(@NotNull Communication comm, @NotNull Object content);
+    }
+
+    /**
+     * Décodeur d'un type de communication
+     */
+    private static final class Decoder {
+        /**
+         * Lecture du contenu
+         */
+        @NotNull
+        private final ElementReader<?> reader;
+
+        /**
+         * Traitement du contenu lu
+         */
+        @NotNull
+        private final ContentTreatment treatment;
+
+        /**
+         * Constructeur
+         *
+         * @param reader    Lecture du contenu
+         * @param treatment Traitement du contenu lu
+         */
+        private Decoder(@NotNull ElementReader<?> reader, @NotNull ContentTreatment treatment) {
+            this.reader = reader;
+            this.treatment = treatment;
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Lit une liste de la forme {"nom": [élément, ...]}
+     *
+     * @param reader        Lecteur placé sur le contenu
+     * @param name          Nom du tableau
+     * @param list          Liste à remplir
+     * @param elementReader Lecture d'un élément
+     * @param <T>           Type des éléments
+     * @param <L>           Type de la liste
+     * @return Liste remplie, null si le contenu n'a pas cette forme
+     * @throws IOException JSON invalide ou erreur de lecture
+     */
+    @Nullable
+    private static <T, L extends ArrayList<T>> L readList(@NotNull ContentReader reader,
+                                                         @NotNull String name,
+                                                         @NotNull L list,
+                                                         @NotNull ElementReader<T> elementReader) throws IOException {
+        return readList(reader, name, list, elementReader, null);
+    }
+
+    /**
+     * Lit une liste synchronisable de la forme {"nom": [élément, ...], "cursor": "...", "deleted": [id, ...]}
+     *
+     * @param reader        Lecteur placé sur le contenu
+     * @param name          Nom du tableau
+     * @param list          Liste à remplir
+     * @param elementReader Lecture d'un élément
+     * @param <T>           Type des éléments
+     * @param <L>           Type de la liste
+     * @return Liste et informations de synchronisation, null si le contenu n'a pas cette forme
+     * @throws IOException JSON invalide ou erreur de lecture
+     * @see CommunicationSync
+     */
+    @Nullable
+    private static <T, L extends ArrayList<T>> CommunicationSync.Delta readSynced(@NotNull ContentReader reader,
+                                                                               @NotNull String name,
+                                                                               @NotNull L list,
+                                                                               @NotNull ElementReader<T> elementReader)
+            throws IOException {
+        CommunicationSync.Delta delta = new CommunicationSync.Delta();
+        delta.list = readList(reader, name, list, elementReader, delta);
+
+        return delta.list != null ? delta : null;
+    }
+
+    /**
+     * Lit une liste, et les informations de synchronisation qui l'accompagnent
+     *
+     * @param reader        Lecteur placé sur le contenu
+     * @param name          Nom du tableau
+     * @param list          Liste à remplir
+     * @param elementReader Lecture d'un élément
+     * @param delta         Informations de synchronisation à remplir, null pour les ignorer
+     * @param <T>           Type des éléments
+     * @param <L>           Type de la liste
+     * @return Liste remplie, null si le contenu n'a pas cette forme
+     * @throws IOException JSON invalide ou erreur de lecture
+     */
+    @Nullable
+    private static <T, L extends ArrayList<T>> L readList(@NotNull ContentReader reader,
+                                                         @NotNull String name,
+                                                         @NotNull L list,
+                                                         @NotNull ElementReader<T> elementReader,
+                                                         @Nullable CommunicationSync.Delta delta) throws IOException {
+        boolean found = false;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+
+            if (delta != null && field.equals("cursor") && reader.peek() == ContentReader.Token.STRING) {
+                delta.cursor = reader.nextString();
+            } else if (delta != null && field.equals("full") && reader.peek() == ContentReader.Token.BOOLEAN) {
+                delta.full = reader.nextBoolean();
+            } else if (delta != null && field.equals("deleted") && reader.peek() == ContentReader.Token.BEGIN_ARRAY) {
+                reader.beginArray();
+
+                while (reader.hasNext()) {
+                    delta.deleted.add(reader.nextLong());
+                }
+
+                reader.endArray();
+            } else if (field.equals(name) && reader.peek() == ContentReader.Token.BEGIN_ARRAY) {
+                found = true;
+                reader.beginArray();
+
+                while (reader.hasNext()) {
+                    T element = elementReader.read(reader);
+
+                    if (element != null) {
+                        list.add(element);
+                    }
+                }
+
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return found ? list : null;
+    }
+
+    /**
+     * Lit un objet de la forme {"nom": {...}}
+     *
+     * @param reader        Lecteur placé sur le contenu
+     * @param name          Nom du champ
+     * @param elementReader Lecture de l'objet
+     * @param <T>           Type de l'objet
+     * @return Objet, null si le contenu n'a pas cette forme
+     * @throws IOException JSON invalide ou erreur de lecture
+     */
+    @Nullable
+    private static <T> T readField(@NotNull ContentReader reader,
+                                   @NotNull String name,
+                                   @NotNull ElementReader<T> elementReader) throws IOException {
+        T result = null;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            if (reader.nextName().equals(name) && reader.peek() == ContentReader.Token.BEGIN_OBJECT) {
+                result = elementReader.read(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return result;
+    }
+
+    /**
+     * Lit un projet, éventuellement englobé comme {"0": {...}}
+     *
+     * @param reader Lecteur
+     * @return Projet
+     * @throws IOException JSON invalide ou erreur de lecture
+     */
+    @NotNull
+    static Project readProject(@NotNull ContentReader reader) throws IOException {
+        Project wrapped = null;
+        long id = 0;
+        String name = null;
+        String description = null;
+        long deadline = 0;
+        String status = null;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+
+            if (reader.peek() == ContentReader.Token.BEGIN_OBJECT) {
+                wrapped = readProject(reader);
+                continue;
+            }
+
+            switch (field) {
+                case "id":
+                    id = reader.nextLong();
+                    break;
+                case "name":
+                    name = reader.nextString();
+                    break;
+                case "description":
+                    description = reader.nextString();
+                    break;
+                case "deadline":
+                    deadline = reader.nextLong();
+                    break;
+                case "status":
+                    status = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return wrapped != null ? wrapped : new Project(id, name, description, deadline, status);
+    }
+
+    /**
+     * Lit une tâche, éventuellement englobée comme {"0": {...}}
+     *
+     * @param reader Lecteur
+     * @return Tâche
+     * @throws IOException JSON invalide ou erreur de lecture
+     */
+    @NotNull
+    private static Task readTask(@NotNull ContentReader reader) throws IOException {
+        Task wrapped = null;
+        long id = 0;
+        String name = null;
+        String description = null;
+        String status = null;
+        long deadline = 0;
+        long project = 0;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+
+            if (reader.peek() == ContentReader.Token.BEGIN_OBJECT) {
+                wrapped = readTask(reader);
+                continue;
+            }
+
+            switch (field) {
+                case "id":
+                    id = reader.nextLong();
+                    break;
+                case "name":
+                    name = reader.nextString();
+                    break;
+                case "description":
+                    description = reader.nextString();
+                    break;
+                case "status":
+                    status = reader.nextString();
+                    break;
+                case "deadline":
+                    deadline = reader.nextLong();
+                    break;
+                case "project":
+                    project = reader.nextLong();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return wrapped != null ? wrapped : new Task(id, name, description, status, deadline, project);
+    }
+
+    /**
+     * Lit un créneau, éventuellement englobé comme {"0": {...}}
+     *
+     * @param reader Lecteur
+     * @return Créneau
+     * @throws IOException JSON invalide ou erreur de lecture
+     */
+    @NotNull
+    private static TimeSlot readTimeSlot(@NotNull ContentReader reader) throws IOException {
+        TimeSlot wrapped = null;
+        long id = 0;
+        long start = 0;
+        long end = 0;
+        long task = 0;
+        long room = 0;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+
+            if (reader.peek() == ContentReader.Token.BEGIN_OBJECT) {
+                wrapped = readTimeSlot(reader);
+                continue;
+            }
+
+            switch (field) {
+                case "id":
+                    id = reader.nextLong();
+                    break;
+                case "start":
+                    start = reader.nextLong();
+                    break;
+                case "end":
+                    end = reader.nextLong();
+                    break;
+                case "task":
+                    task = reader.nextLong();
+                    break;
+                case "room":
+                    room = reader.nextLong();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return wrapped != null ? wrapped : new TimeSlot(id, start, end, task, room);
+    }
+
+    /**
+     * Lit une ressource humaine, éventuellement englobée comme {"0": {...}}
+     *
+     * @param reader Lecteur
+     * @return Ressource humaine, pas encore enregistrée
+     * @throws IOException JSON invalide ou erreur de lecture
+     */
+    @NotNull
+    private static HumanResource readHumanResource(@NotNull ContentReader reader) throws IOException {
+        HumanResource wrapped = null;
+        long id = 0;
+        String firstname = null;
+        String lastname = null;
+        String job = null;
+        String role = null;
+        String description = null;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+
+            if (reader.peek() == ContentReader.Token.BEGIN_OBJECT) {
+                wrapped = readHumanResource(reader);
+                continue;
+            }
+
+            switch (field) {
+                case "id":
+                    id = reader.nextLong();
+                    break;
+                case "firstname":
+                    firstname = reader.nextString();
+                    break;
+                case "lastname":
+                    lastname = reader.nextString();
+                    break;
+                case "job":
+                    job = reader.nextString();
+                    break;
+                case "role":
+                    role = reader.nextString();
+                    break;
+                case "description":
+                    description = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return wrapped != null ? wrapped : new HumanResource(id, firstname, lastname, job, role, description);
+    }
+
+    /**
+     * Lit une ressource matérielle, éventuellement englobée comme {"0": {...}}
+     *
+     * @param reader Lecteur
+     * @return Ressource matérielle, pas encore enregistrée
+     * @throws IOException JSON invalide ou erreur de lecture
+     */
+    @NotNull
+    private static MaterialResource readMaterialResource(@NotNull ContentReader reader) throws IOException {
+        MaterialResource wrapped = null;
+        long id = 0;
+        String name = null;
+        String description = null;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+
+            if (reader.peek() == ContentReader.Token.BEGIN_OBJECT) {
+                wrapped = readMaterialResource(reader);
+                continue;
+            }
+
+            switch (field) {
+                case "id":
+                    id = reader.nextLong();
+                    break;
+                case "name":
+                    name = reader.nextString();
+                    break;
+                case "description":
+                    description = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return wrapped != null ? wrapped : new MaterialResource(id, name, description);
+    }
+
+    /**
+     * Lit une allocation de ressource à un projet <br>
+     * Les ids arrivent en chaines et sont lus directement en long
+     *
+     * @param reader Lecteur
+     * @return Allocation dont la ressource n'est pas encore résolue
+     * @throws IOException JSON invalide ou erreur de lecture
+     */
+    @NotNull
+    private static PendingAllocation readAllocation(@NotNull ContentReader reader) throws IOException {
+        PendingAllocation allocation = new PendingAllocation();
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    allocation.id = reader.nextLong();
+                    break;
+                case "id_resource":
+                    allocation.resourceId = reader.nextLong();
+                    break;
+                case "id_project":
+                    allocation.projectId = reader.nextLong();
+                    break;
+                case "date_start":
+                    allocation.dateStart = reader.nextLong();
+                    break;
+                case "date_end":
+                    allocation.dateEnd = reader.nextLong();
+                    break;
+                case "id_issuer":
+                    allocation.issuerId = reader.nextLong();
+                    break;
+                case "status":
+                    allocation.status = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return allocation;
+    }
+
+    /**
+     * Lit un message, éventuellement englobé comme {"0": {...}} <br>
+     * L'auteur n'est pas encore résolu : il le sera pour tous les messages à la fois
+     *
+     * @param reader Lecteur
+     * @return Message sans auteur
+     * @throws IOException JSON invalide ou erreur de lecture
+     */
+    @NotNull
+    private static PendingMessage readMessage(@NotNull ContentReader reader) throws IOException {
+        PendingMessage wrapped = null;
+        PendingMessage message = new PendingMessage();
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+
+            if (reader.peek() == ContentReader.Token.BEGIN_OBJECT) {
+                wrapped = readMessage(reader);
+                continue;
+            }
+
+            switch (field) {
+                case "id":
+                    message.id = reader.nextLong();
+                    break;
+                case "date":
+                    message.date = reader.nextLong();
+                    break;
+                case "sourceId":
+                    message.sourceId = reader.nextLong();
+                    break;
+                case "destinationId":
+                    message.destinationId = reader.nextLong();
+                    break;
+                case "destination":
+                    message.destination = reader.nextString();
+                    break;
+                case "content":
+                    message.content = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return wrapped != null ? wrapped : message;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Le contenu lu est directement le résultat
+     *
+     * @param comm    Communication à traiter
+     * @param content Contenu lu
+     */
+    private static void setResult(@NotNull Communication comm, @NotNull Object content) {
+        comm.communicationResult = content;
+    }
+
+    /**
+     * Traitement d'une liste synchronisable : la liste lue est traitée, puis fusionnée avec la précédente
+     *
+     * @param treatment Traitement de la liste lue
+     * @return Traitement du contenu lu par readSynced()
+     * @see CommunicationSync
+     */
+    @NotNull
+    private static ContentTreatment synced(@NotNull ContentTreatment treatment) {
+        return (comm, content) -> {
+            CommunicationSync.Delta delta = (CommunicationSync.Delta) content;
+
+            if (delta.list != null) {
+                treatment.apply(comm, delta.list);
+                CommunicationSync.merge(comm, delta);
+            }
+        };
+    }
+
+    /**
+     * Remplace les ressources humaines lues par leurs instances partagées
+     *
+     * @param comm    Communication à traiter
+     * @param content Ressource ou liste de ressources lue
+     */
+    private static void registerHumanResources(@NotNull Communication comm, @NotNull Object content) {
+        if (content instanceof HumanResourceList) {
+            HumanResourceList resources = (HumanResourceList) content;
+            resources.replaceAll(ResourceRegistry::register);
+            comm.communicationResult = resources;
+        } else {
+            comm.communicationResult = ResourceRegistry.register((HumanResource) content);
+        }
+    }
+
+    /**
+     * Remplace les ressources matérielles lues par leurs instances partagées
+     *
+     * @param comm    Communication à traiter
+     * @param content Ressource ou liste de ressources lue
+     */
+    private static void registerMaterialResources(@NotNull Communication comm, @NotNull Object content) {
+        if (content instanceof MaterialResourceList) {
+            MaterialResourceList resources = (MaterialResourceList) content;
+            resources.replaceAll(ResourceRegistry::register);
+            comm.communicationResult = resources;
+        } else {
+            comm.communicationResult = ResourceRegistry.register((MaterialResource) content);
+        }
+    }
+
+    /**
+     * Construit les allocations de ressources humaines une fois les ressources connues
+     *
+     * @param comm    Communication à traiter
+     * @param content Allocations lues
+     */
+    private static void resolveHumanAllocations(@NotNull Communication comm, @NotNull Object content) {
+        ArrayList<?> pending = (ArrayList<?>) content;
+        ArrayList<Long> ids = new ArrayList<>(pending.size());
+
+        for (Object object : pending) {
+            ids.add(((PendingAllocation) object).resourceId);
+        }
+
+        HashMap<Long, HumanResource> humanResources = ResourceRegistry.getHumanResources(ids);
+
+        HumanResourceProjectList humanList = new HumanResourceProjectList();
+
+        for (Object object : pending) {
+            PendingAllocation allocation = (PendingAllocation) object;
+            HumanResource humanResource = humanResources.get(allocation.resourceId);
+
+            if (humanResource == null) {
+                Logger.error("Ressource humaine nulle");
+            } else {
+                humanList.add(new HumanResourceProject(
+                        humanResource,
+                        allocation.projectId,
+                        allocation.dateStart,
+                        allocation.dateEnd,
+                        allocation.issuerId,
+                        allocation.status,
+                        allocation.id
+                ));
+            }
+        }
+
+        comm.communicationResult = humanList;
+    }
+
+    /**
+     * Construit les allocations de ressources matérielles une fois les ressources connues
+     *
+     * @param comm    Communication à traiter
+     * @param content Allocations lues
+     */
+    private static void resolveMaterialAllocations(@NotNull Communication comm, @NotNull Object content) {
+        ArrayList<?> pending = (ArrayList<?>) content;
+        ArrayList<Long> ids = new ArrayList<>(pending.size());
+
+        for (Object object : pending) {
+            ids.add(((PendingAllocation) object).resourceId);
+        }
+
+        HashMap<Long, MaterialResource> materialResources = ResourceRegistry.getMaterialResources(ids);
+
+        MaterialResourceProjectList materialList = new MaterialResourceProjectList();
+
+        for (Object object : pending) {
+            PendingAllocation allocation = (PendingAllocation) object;
+            MaterialResource materialResource = materialResources.get(allocation.resourceId);
+
+            if (materialResource == null) {
+                Logger.error("Ressource matérielle nulle");
+            } else {
+                materialList.add(new MaterialResourceProject(
+                        materialResource,
+                        allocation.projectId,
+                        allocation.dateStart,
+                        allocation.dateEnd,
+                        allocation.issuerId,
+                        allocation.status,
+                        allocation.id
+                ));
+            }
+        }
+
+        comm.communicationResult = materialList;
+    }
+
+    /**
+     * Construit les messages une fois leurs auteurs connus
+     *
+     * @param comm    Communication à traiter
+     * @param content Messages lus
+     */
+    private static void resolveMessages(@NotNull Communication comm, @NotNull Object content) {
+        ArrayList<?> pending = (ArrayList<?>) content;
+        ArrayList<Long> sourceIds = new ArrayList<>(pending.size());
+
+        for (Object object : pending) {
+            sourceIds.add(((PendingMessage) object).sourceId);
+        }
+
+        // Une seule instance par auteur, et une seule requête par auteur inconnu
+        HashMap<Long, HumanResource> authors = ResourceRegistry.getHumanResources(sourceIds);
+
+        MessageList messages = new MessageList();
+
+        for (Object object : pending) {
+            PendingMessage pendingMessage = (PendingMessage) object;
+            HumanResource humanResource = authors.get(pendingMessage.sourceId);
+
+            if (humanResource == null) {
+                Logger.error("humanResource null ??", comm);
+            } else {
+                messages.add(new Message(
+                        humanResource,
+                        pendingMessage.id,
+                        pendingMessage.date,
+                        pendingMessage.destinationId,
+                        pendingMessage.destination,
+                        pendingMessage.content
+                ));
+            }
+        }
+
+        comm.communicationResult = messages;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Allocation lue dont la ressource n'est pas encore résolue
+     */
+    private static final class PendingAllocation {
+        /**
+         * Id de l'allocation
+         */
+        private long id;
+
+        /**
+         * Id de la ressource allouée
+         */
+        private long resourceId;
+
+        /**
+         * Id du projet
+         */
+        private long projectId;
+
+        /**
+         * Début de l'allocation, en secondes depuis l'epoch
+         */
+        private long dateStart;
+
+        /**
+         * Fin de l'allocation, en secondes depuis l'epoch
+         */
+        private long dateEnd;
+
+        /**
+         * Id de l'utilisateur à l'origine de l'allocation
+         */
+        private long issuerId;
+
+        /**
+         * Statut de l'allocation
+         */
+        @Nullable
+        private String status;
+    }
+
+    /**
+     * Message lu dont l'auteur n'est pas encore résolu
+     */
+    private static final class PendingMessage {
+        /**
+         * Id du message
+         */
+        private long id;
+
+        /**
+         * Date d'envoi, en secondes depuis l'epoch
+         */
+        private long date;
+
+        /**
+         * Id de la ressource humaine auteur
+         */
+        private long sourceId;
+
+        /**
+         * Id du destinataire
+         */
+        private long destinationId;
+
+        /**
+         * Type de destinataire
+         */
+        @Nullable
+        private String destination;
+
+        /**
+         * Contenu du message
+         */
+        @Nullable
+        private String content;
+    }
+}
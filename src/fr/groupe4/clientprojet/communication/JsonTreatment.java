@@ -5,9 +5,11 @@ import fr.groupe4.clientprojet.communication.enums.CommunicationStatus;
 import fr.groupe4.clientprojet.communication.enums.HTTPCode;
 import fr.groupe4.clientprojet.logger.Logger;
 import fr.groupe4.clientprojet.model.message.Message;
+import fr.groupe4.clientprojet.model.parameters.Parameters;
 import fr.groupe4.clientprojet.model.message.MessageList;
 import fr.groupe4.clientprojet.model.project.Project;
 import fr.groupe4.clientprojet.model.project.ProjectList;
+import fr.groupe4.clientprojet.model.resource.ResourceRegistry;
 import fr.groupe4.clientprojet.model.resource.human.*;
 import fr.groupe4.clientprojet.model.resource.material.MaterialResource;
 import fr.groupe4.clientprojet.model.resource.material.MaterialResourceList;
@@ -20,8 +22,16 @@ import fr.groupe4.clientprojet.model.timeslot.TimeSlotList;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+
 /**
- * Traite le JSON de la classe Communication
+ * Traite le JSON de la classe Communication <br>
+ * <br>
+ * Les types de communication qui ont un décodeur typé sont lus en flux par JsonStreamTreatment,
+ * les autres passent par l'arbre json-simple et sont traités ici.
+ *
+ * @see JsonStreamTreatment
  */
 @SuppressWarnings("unused")
 final class JsonTreatment {
@@ -86,6 +96,9 @@ final class JsonTreatment {
             case GET_HUMAN_RESOURCE:
                 getHumanResource(comm, jsonObject);
                 break;
+            case GET_HUMAN_RESOURCE_BATCH:
+                getHumanResourceBatch(comm, jsonObject);
+                break;
             case LIST_HUMAN_RESOURCE:
                 listHumanResource(comm, jsonObject);
                 break;
@@ -96,26 +109,29 @@ final class JsonTreatment {
             case GET_MATERIAL_RESOURCE:
                 getMaterialResource(comm, jsonObject);
                 break;
+            case GET_MATERIAL_RESOURCE_BATCH:
+                getMaterialResourceBatch(comm, jsonObject);
+                break;
             case LIST_MATERIAL_RESOURCE:
                 listMaterialResource(comm, jsonObject);
                 break;
 
             case CREATE_TASK:
-                debugError(comm, jsonObject);
+                created(comm, jsonObject);
                 break;
             case GET_TASK_LIST:
                 getTaskList(comm, jsonObject);
                 break;
 
             case ADD_TIME_SLOT:
-                debugError(comm, jsonObject);
+                created(comm, jsonObject);
                 break;
             case GET_TIME_SLOT_LIST:
                 getTimeSlotList(comm, jsonObject);
                 break;
 
             case SEND_MESSAGE:
-                debugError(comm, jsonObject);
+                created(comm, jsonObject);
                 break;
             case LIST_MESSAGES:
                 listMessages(comm, jsonObject);
@@ -140,6 +156,44 @@ final class JsonTreatment {
         }
     }
 
+    /**
+     * Création d'un élément : l'id attribué par le serveur, s'il est renvoyé, devient le résultat <br>
+     * Sert à la file d'envoi pour remplacer l'id provisoire de l'élément
+     *
+     * @param comm       Communication à traiter
+     * @param jsonObject Contenu à traiter
+     */
+    private static void created(Communication comm, Object jsonObject) {
+        debugError(comm, jsonObject);
+
+        if (comm.status == CommunicationStatus.STATUS_SUCCESS && jsonObject instanceof JSONObject) {
+            Object id = ((JSONObject) jsonObject).get("id");
+
+            if (id instanceof Number) {
+                comm.communicationResult = ((Number) id).longValue();
+            }
+        }
+    }
+
+    /**
+     * Retire l'objet englobant d'un élément de liste <br>
+     * L'API renvoie souvent les éléments sous la forme {"0": {...}}, parfois directement {...}
+     *
+     * @param jsonElement Élément de liste
+     * @return Objet contenu dans l'élément
+     */
+    private static JSONObject unwrap(JSONObject jsonElement) {
+        if (jsonElement.size() == 1) {
+            Object inner = jsonElement.values().iterator().next();
+
+            if (inner instanceof JSONObject) {
+                return (JSONObject) inner;
+            }
+        }
+
+        return jsonElement;
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     /**
@@ -158,6 +212,14 @@ final class JsonTreatment {
             JSONObject jsonRenewToken = (JSONObject) jsonContent.get("renew-token");
             Communication.setRenewToken(singleton, (String) jsonRenewToken.get("value"));
 
+            // Nouvel utilisateur, les ressources et réponses connues ne sont peut-être plus visibles
+            ResourceRegistry.clear();
+            CommunicationValidators.clear();
+            CommunicationSync.clear();
+            String owner = comm.getRequestValue("username") + "@" + Parameters.getServerUrl();
+            CommunicationStore.open(owner);
+            CommunicationOutbox.open(owner);
+
             Communication.builder().getUserInfos().startNow().sleepUntilFinished().build();
         }
     }
@@ -264,26 +326,17 @@ final class JsonTreatment {
 
             HumanResourceProjectList humanList = new HumanResourceProjectList();
 
-            Communication[] comms = new Communication[jsonArrayHuman.size()];
+            ArrayList<Long> ids = new ArrayList<>();
 
-            for (int i = 0; i < jsonArrayHuman.size(); i++) {
-                JSONObject jsonHuman = (JSONObject) jsonArrayHuman.get(i);
-
-                comms[i] = Communication.builder()
-                        .startNow()
-                        .getHumanResource(Long.parseLong((String) jsonHuman.get("id_resource")))
-                        .build();
+            for (Object humanObject : jsonArrayHuman) {
+                ids.add(Long.parseLong((String) ((JSONObject) humanObject).get("id_resource")));
             }
 
+            HashMap<Long, HumanResource> humanResources = ResourceRegistry.getHumanResources(ids);
+
             for (int i = 0; i < jsonArrayHuman.size(); i++) {
                 JSONObject jsonHuman = (JSONObject) jsonArrayHuman.get(i);
-                Communication c = comms[i];
-
-                if (!c.isFinished()) {
-                    c.sleepUntilFinished();
-                }
-
-                HumanResource humanResource = (HumanResource) c.getResult();
+                HumanResource humanResource = humanResources.get(ids.get(i));
 
                 if (humanResource == null) {
                     Logger.error("Ressource humaine nulle");
@@ -319,26 +372,17 @@ final class JsonTreatment {
 
             MaterialResourceProjectList materialList = new MaterialResourceProjectList();
 
-            Communication[] comms = new Communication[jsonArrayMaterial.size()];
-
-            for (int i = 0; i < jsonArrayMaterial.size(); i++) {
-                JSONObject jsonMaterial = (JSONObject) jsonArrayMaterial.get(i);
+            ArrayList<Long> ids = new ArrayList<>();
 
-                comms[i] = Communication.builder()
-                        .startNow()
-                        .getMaterialResource(Long.parseLong((String) jsonMaterial.get("id_resource")))
-                        .build();
+            for (Object materialObject : jsonArrayMaterial) {
+                ids.add(Long.parseLong((String) ((JSONObject) materialObject).get("id_resource")));
             }
 
+            HashMap<Long, MaterialResource> materialResources = ResourceRegistry.getMaterialResources(ids);
+
             for (int i = 0; i < jsonArrayMaterial.size(); i++) {
                 JSONObject jsonMaterial = (JSONObject) jsonArrayMaterial.get(i);
-                Communication c = comms[i];
-
-                if (!c.isFinished()) {
-                    c.sleepUntilFinished();
-                }
-
-                MaterialResource materialResource = (MaterialResource) c.getResult();
+                MaterialResource materialResource = materialResources.get(ids.get(i));
 
                 if (materialResource == null) {
                     Logger.error("Ressource matérielle nulle");
@@ -376,17 +420,10 @@ final class JsonTreatment {
             JSONObject jsonControlContent = (JSONObject) jsonDataContent.get("control");
             JSONObject jsonUserContent = (JSONObject) jsonDataContent.get("user");
 
-            Communication c = Communication
-                    .builder()
-                    .startNow()
-                    .sleepUntilFinished()
-                    .getHumanResource((long) jsonUserContent.get("id_h_resource"))
-                    .build();
-
-            HumanResource humanResource = (HumanResource) c.getResult();
+            HumanResource humanResource = ResourceRegistry.getHumanResource((long) jsonUserContent.get("id_h_resource"));
 
             if (humanResource == null) {
-                Logger.error("humanResource null ??", c);
+                Logger.error("humanResource null ??", comm);
             } else {
                 User.initUser(
                         humanResource,
@@ -413,13 +450,44 @@ final class JsonTreatment {
         if (comm.status == CommunicationStatus.STATUS_SUCCESS) {
             JSONObject jsonContent = (JSONObject) jsonObject;
 
-            comm.communicationResult = new HumanResource(
+            comm.communicationResult = ResourceRegistry.register(new HumanResource(
                     (long) jsonContent.get("id"),
                     (String) jsonContent.get("firstname"),
                     (String) jsonContent.get("lastname"),
                     (String) jsonContent.get("job"),
                     (String) jsonContent.get("role"),
-                    (String) jsonContent.get("description"));
+                    (String) jsonContent.get("description")));
+        }
+    }
+
+    /**
+     * Récupère plusieurs ressources humaines
+     *
+     * @param comm       Communication à traiter
+     * @param jsonObject Contenu à traiter
+     */
+    private static void getHumanResourceBatch(Communication comm, Object jsonObject) {
+        if (comm.status == CommunicationStatus.STATUS_SUCCESS) {
+            JSONObject jsonContent = (JSONObject) jsonObject;
+            JSONArray jsonArray = (JSONArray) jsonContent.get("h_resources");
+
+            HumanResourceList resourceList = new HumanResourceList();
+
+            for (Object humanObject : jsonArray) {
+                JSONObject jsonHuman = unwrap((JSONObject) humanObject);
+
+                HumanResource human = ResourceRegistry.register(new HumanResource(
+                        (long) jsonHuman.get("id"),
+                        (String) jsonHuman.get("firstname"),
+                        (String) jsonHuman.get("lastname"),
+                        (String) jsonHuman.get("job"),
+                        (String) jsonHuman.get("role"),
+                        (String) jsonHuman.get("description")));
+
+                resourceList.add(human);
+            }
+
+            comm.communicationResult = resourceList;
         }
     }
 
@@ -443,13 +511,13 @@ final class JsonTreatment {
 
                 JSONObject jsonHuman = (JSONObject) jsonHumanSet.get(key);
 
-                HumanResource human = new HumanResource(
+                HumanResource human = ResourceRegistry.register(new HumanResource(
                         (long) jsonHuman.get("id"),
                         (String) jsonHuman.get("firstname"),
                         (String) jsonHuman.get("lastname"),
                         (String) jsonHuman.get("job"),
                         (String) jsonHuman.get("role"),
-                        (String) jsonHuman.get("description"));
+                        (String) jsonHuman.get("description")));
 
                 resourceList.add(human);
             }
@@ -472,11 +540,11 @@ final class JsonTreatment {
             JSONObject jsonMaterialElement = (JSONObject) jsonContent.get(0);
             JSONObject jsonMaterial = (JSONObject) jsonMaterialElement.get("m_resource");
 
-            comm.communicationResult = new MaterialResource(
+            comm.communicationResult = ResourceRegistry.register(new MaterialResource(
                     (long) jsonMaterial.get("id"),
                     (String) jsonMaterial.get("name"),
                     (String) jsonMaterial.get("description")
-            );
+            ));
         }
     }
 
@@ -490,11 +558,39 @@ final class JsonTreatment {
         if (comm.status == CommunicationStatus.STATUS_SUCCESS) {
             JSONObject jsonContent = (JSONObject) jsonObject;
 
-            comm.communicationResult = new MaterialResource(
+            comm.communicationResult = ResourceRegistry.register(new MaterialResource(
                     (long) jsonContent.get("id"),
                     (String) jsonContent.get("name"),
                     (String) jsonContent.get("description")
-            );
+            ));
+        }
+    }
+
+    /**
+     * Récupère plusieurs ressources matérielles
+     *
+     * @param comm       Communication à traiter
+     * @param jsonObject Contenu à traiter
+     */
+    private static void getMaterialResourceBatch(Communication comm, Object jsonObject) {
+        if (comm.status == CommunicationStatus.STATUS_SUCCESS) {
+            JSONObject jsonContent = (JSONObject) jsonObject;
+            JSONArray jsonArray = (JSONArray) jsonContent.get("m_resources");
+
+            MaterialResourceList resourceList = new MaterialResourceList();
+
+            for (Object materialObject : jsonArray) {
+                JSONObject jsonMaterial = unwrap((JSONObject) materialObject);
+
+                MaterialResource material = ResourceRegistry.register(new MaterialResource(
+                        (long) jsonMaterial.get("id"),
+                        (String) jsonMaterial.get("name"),
+                        (String) jsonMaterial.get("description")));
+
+                resourceList.add(material);
+            }
+
+            comm.communicationResult = resourceList;
         }
     }
 
@@ -518,10 +614,10 @@ final class JsonTreatment {
 
                 JSONObject jsonMaterial = (JSONObject) jsonMaterialSet.get(key);
 
-                MaterialResource material = new MaterialResource(
+                MaterialResource material = ResourceRegistry.register(new MaterialResource(
                         (long) jsonMaterial.get("id"),
                         (String) jsonMaterial.get("name"),
-                        (String) jsonMaterial.get("description"));
+                        (String) jsonMaterial.get("description")));
 
                 resourceList.add(material);
             }
@@ -622,44 +718,29 @@ final class JsonTreatment {
 
             MessageList messages = new MessageList();
 
-            Communication[] comms = new Communication[jsonMessages.size()];
+            ArrayList<JSONObject> jsonMessageList = new ArrayList<>();
+            ArrayList<Long> sourceIds = new ArrayList<>();
 
-            for (int i = 0; i < jsonMessages.size(); i++) {
-                JSONObject jsonMessageSet = (JSONObject) jsonMessages.get(i);
+            for (Object jsonMessageObject : jsonMessages) {
+                JSONObject jsonMessageSet = (JSONObject) jsonMessageObject;
 
                 Object[] keySet = jsonMessageSet.keySet().toArray();
                 String key = String.valueOf(keySet[0]);
 
                 JSONObject jsonMessage = (JSONObject) jsonMessageSet.get(key);
 
-                long sourceId = (long) jsonMessage.get("sourceId");
-
-                comms[i] = Communication
-                        .builder()
-                        .getHumanResource(sourceId)
-                        .startNow()
-                        .sleepUntilFinished()
-                        .build();
+                jsonMessageList.add(jsonMessage);
+                sourceIds.add((long) jsonMessage.get("sourceId"));
             }
 
-            for (int i = 0; i < jsonMessages.size(); i++) {
-                JSONObject jsonMessageSet = (JSONObject) jsonMessages.get(i);
-
-                Object[] keySet = jsonMessageSet.keySet().toArray();
-                String key = String.valueOf(keySet[0]);
-
-                JSONObject jsonMessage = (JSONObject) jsonMessageSet.get(key);
-
-                Communication c = comms[i];
-
-                if (!c.isFinished()) {
-                    c.sleepUntilFinished();
-                }
+            // Une seule instance par auteur, et une seule requête par auteur inconnu
+            HashMap<Long, HumanResource> authors = ResourceRegistry.getHumanResources(sourceIds);
 
-                HumanResource humanResource = (HumanResource) c.getResult();
+            for (JSONObject jsonMessage : jsonMessageList) {
+                HumanResource humanResource = authors.get((long) jsonMessage.get("sourceId"));
 
                 if (humanResource == null) {
-                    Logger.error("humanResource null ??", c);
+                    Logger.error("humanResource null ??", comm);
                 } else {
                     Message message = new Message(
                             humanResource,
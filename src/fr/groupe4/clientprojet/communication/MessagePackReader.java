@@ -0,0 +1,698 @@
+package fr.groupe4.clientprojet.communication;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Lecteur MessagePack en flux (pull parser) <br>
+ * <br>
+ * Même interface que JsonReader : une map MessagePack est lue comme un objet JSON, ses clés comme des noms. <br>
+ * Les nombres sont lus directement depuis leur représentation binaire, sans passer par une chaine. <br>
+ * Les types bin et ext ne sont pas utilisés par l'API et sont refusés.
+ *
+ * @see <a href="https://github.com/msgpack/msgpack/blob/master/spec.md">Spécification MessagePack</a>
+ * @see JsonReader
+ */
+final class MessagePackReader extends ContentReader {
+    /**
+     * Taille du tampon de lecture
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Flux lu
+     */
+    @NotNull
+    private final InputStream in;
+
+    /**
+     * Tampon de lecture
+     */
+    @NotNull
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    /**
+     * Position dans le tampon
+     */
+    private int pos = 0;
+
+    /**
+     * Fin des données valides du tampon
+     */
+    private int limit = 0;
+
+    /**
+     * Éléments restant à lire dans chaque map ou tableau ouvert <br>
+     * Pour une map, clés et valeurs sont comptées séparément : une clé est attendue quand le reste est pair
+     */
+    @NotNull
+    private long[] remaining = new long[32];
+
+    /**
+     * Map (true) ou tableau (false), pour chaque niveau ouvert
+     */
+    @NotNull
+    private boolean[] isMap = new boolean[32];
+
+    /**
+     * Nombre de niveaux ouverts
+     */
+    private int stackSize = 0;
+
+    /**
+     * Valeur racine déjà lue ou non
+     */
+    private boolean documentRead = false;
+
+    /**
+     * Prochain élément déjà identifié, null si pas encore lu
+     */
+    @Nullable
+    private Token peeked = null;
+
+    /**
+     * Octet de type du prochain élément, lu par peek()
+     */
+    private int peekedType;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur
+     *
+     * @param in Flux à lire
+     */
+    MessagePackReader(@NotNull InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Ferme le flux lu
+     *
+     * @throws IOException Erreur à la fermeture
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @NotNull
+    @Override
+    Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+
+        if (stackSize == 0) {
+            if (documentRead) {
+                if (fillIfNeeded()) {
+                    throw syntaxError("contenu après la fin du document");
+                }
+
+                return peeked = Token.END_DOCUMENT;
+            }
+        } else if (remaining[stackSize - 1] == 0) {
+            return peeked = isMap[stackSize - 1] ? Token.END_OBJECT : Token.END_ARRAY;
+        }
+
+        peekedType = readByte();
+
+        if (stackSize > 0 && isMap[stackSize - 1] && remaining[stackSize - 1] % 2 == 0) {
+            return peeked = Token.NAME;
+        }
+
+        return peeked = tokenOf(peekedType);
+    }
+
+    @Override
+    void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        long size = containerSize(peekedType);
+        consumeValue();
+        push(size * 2, true);
+    }
+
+    @Override
+    void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        stackSize--;
+    }
+
+    @Override
+    void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        long size = containerSize(peekedType);
+        consumeValue();
+        push(size, false);
+    }
+
+    @Override
+    void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        stackSize--;
+    }
+
+    @NotNull
+    @Override
+    String nextName() throws IOException {
+        expect(Token.NAME);
+        String name;
+
+        // Les clés sont normalement des chaines, les entiers sont tolérés
+        switch (tokenOf(peekedType)) {
+            case STRING:
+                name = readString(peekedType);
+                break;
+
+            case NUMBER:
+                name = readNumber(peekedType).toString();
+                break;
+
+            default:
+                throw syntaxError("clé de map invalide");
+        }
+
+        consumeValue();
+        return name;
+    }
+
+    @Nullable
+    @Override
+    String nextString() throws IOException {
+        Token token = peek();
+        String result;
+
+        switch (token) {
+            case STRING:
+                result = readString(peekedType);
+                break;
+
+            case NUMBER:
+                result = readNumber(peekedType).toString();
+                break;
+
+            case NULL:
+                result = null;
+                break;
+
+            default:
+                throw syntaxError("chaine attendue, " + token + " trouvé");
+        }
+
+        peeked = null;
+        consumeValue();
+        return result;
+    }
+
+    @Override
+    long nextLong() throws IOException {
+        Token token = peek();
+        long result;
+
+        switch (token) {
+            case NUMBER:
+                result = readNumber(peekedType).longValue();
+                break;
+
+            case STRING:
+                String literal = readString(peekedType).trim();
+
+                try {
+                    result = Long.parseLong(literal);
+                } catch (NumberFormatException e) {
+                    try {
+                        result = (long) Double.parseDouble(literal);
+                    } catch (NumberFormatException e2) {
+                        throw syntaxError("nombre invalide : " + literal);
+                    }
+                }
+                break;
+
+            case NULL:
+                result = 0;
+                break;
+
+            default:
+                throw syntaxError("nombre attendu, " + token + " trouvé");
+        }
+
+        peeked = null;
+        consumeValue();
+        return result;
+    }
+
+    @Override
+    boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        consumeValue();
+        return peekedType == 0xc3;
+    }
+
+    @Override
+    void skipValue() throws IOException {
+        Token token = peek();
+
+        switch (token) {
+            case BEGIN_OBJECT:
+                beginObject();
+
+                while (hasNext()) {
+                    nextName();
+                    skipValue();
+                }
+
+                endObject();
+                break;
+
+            case BEGIN_ARRAY:
+                beginArray();
+
+                while (hasNext()) {
+                    skipValue();
+                }
+
+                endArray();
+                break;
+
+            case NAME:
+                nextName();
+                break;
+
+            case STRING:
+                peeked = null;
+                skip(stringLength(peekedType));
+                consumeValue();
+                break;
+
+            case NUMBER:
+                peeked = null;
+                readNumber(peekedType);
+                consumeValue();
+                break;
+
+            case BOOLEAN:
+            case NULL:
+                peeked = null;
+                consumeValue();
+                break;
+
+            default:
+                throw syntaxError("valeur attendue, " + token + " trouvé");
+        }
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    Object readValue() throws IOException {
+        Token token = peek();
+
+        switch (token) {
+            case BEGIN_OBJECT:
+                JSONObject object = new JSONObject();
+                beginObject();
+
+                while (hasNext()) {
+                    String name = nextName();
+                    object.put(name, readValue());
+                }
+
+                endObject();
+                return object;
+
+            case BEGIN_ARRAY:
+                JSONArray array = new JSONArray();
+                beginArray();
+
+                while (hasNext()) {
+                    array.add(readValue());
+                }
+
+                endArray();
+                return array;
+
+            case STRING:
+                return nextString();
+
+            case NUMBER:
+                peeked = null;
+                Number number = readNumber(peekedType);
+                consumeValue();
+                return number;
+
+            case BOOLEAN:
+                return nextBoolean();
+
+            case NULL:
+                peeked = null;
+                consumeValue();
+                return null;
+
+            default:
+                throw syntaxError("valeur attendue, " + token + " trouvé");
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Type d'élément correspondant à un octet de type MessagePack
+     *
+     * @param type Octet de type
+     * @return Élément
+     * @throws IOException Type inconnu ou non supporté
+     */
+    @NotNull
+    private Token tokenOf(int type) throws IOException {
+        if (type <= 0x7f || type >= 0xe0) {
+            // positive fixint, negative fixint
+            return Token.NUMBER;
+        } else if (type <= 0x8f) {
+            return Token.BEGIN_OBJECT;
+        } else if (type <= 0x9f) {
+            return Token.BEGIN_ARRAY;
+        } else if (type <= 0xbf) {
+            return Token.STRING;
+        }
+
+        switch (type) {
+            case 0xc0:
+                return Token.NULL;
+
+            case 0xc2:
+            case 0xc3:
+                return Token.BOOLEAN;
+
+            case 0xca:
+            case 0xcb:
+            case 0xcc:
+            case 0xcd:
+            case 0xce:
+            case 0xcf:
+            case 0xd0:
+            case 0xd1:
+            case 0xd2:
+            case 0xd3:
+                return Token.NUMBER;
+
+            case 0xd9:
+            case 0xda:
+            case 0xdb:
+                return Token.STRING;
+
+            case 0xdc:
+            case 0xdd:
+                return Token.BEGIN_ARRAY;
+
+            case 0xde:
+            case 0xdf:
+                return Token.BEGIN_OBJECT;
+
+            default:
+                throw syntaxError(String.format("type 0x%02x non supporté", type));
+        }
+    }
+
+    /**
+     * Lit la taille d'une map ou d'un tableau, après son octet de type
+     *
+     * @param type Octet de type
+     * @return Nombre d'éléments (de paires pour une map)
+     * @throws IOException Erreur de lecture
+     */
+    private long containerSize(int type) throws IOException {
+        switch (type) {
+            case 0xdc:
+            case 0xde:
+                return readUnsigned(2);
+
+            case 0xdd:
+            case 0xdf:
+                return readUnsigned(4);
+
+            default:
+                return type & 0x0f;
+        }
+    }
+
+    /**
+     * Lit la longueur d'une chaine, après son octet de type
+     *
+     * @param type Octet de type
+     * @return Longueur en octets
+     * @throws IOException Erreur de lecture
+     */
+    private int stringLength(int type) throws IOException {
+        long length;
+
+        switch (type) {
+            case 0xd9:
+                length = readUnsigned(1);
+                break;
+
+            case 0xda:
+                length = readUnsigned(2);
+                break;
+
+            case 0xdb:
+                length = readUnsigned(4);
+                break;
+
+            default:
+                length = type & 0x1f;
+        }
+
+        if (length > Integer.MAX_VALUE) {
+            throw syntaxError("chaine trop longue");
+        }
+
+        return (int) length;
+    }
+
+    /**
+     * Lit une chaine UTF-8, après son octet de type
+     *
+     * @param type Octet de type
+     * @return Chaine
+     * @throws IOException Erreur de lecture
+     */
+    @NotNull
+    private String readString(int type) throws IOException {
+        int length = stringLength(type);
+
+        if (length <= limit - pos) {
+            // Cas courant : la chaine est entièrement dans le tampon
+            String result = new String(buffer, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return result;
+        }
+
+        byte[] bytes = new byte[length];
+        int offset = 0;
+
+        while (offset < length) {
+            if (!fillIfNeeded()) {
+                throw syntaxError("fin de flux inattendue");
+            }
+
+            int n = Math.min(length - offset, limit - pos);
+            System.arraycopy(buffer, pos, bytes, offset, n);
+            pos += n;
+            offset += n;
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lit un nombre, après son octet de type
+     *
+     * @param type Octet de type
+     * @return Long, ou Double pour les flottants
+     * @throws IOException Erreur de lecture
+     */
+    @NotNull
+    private Number readNumber(int type) throws IOException {
+        if (type <= 0x7f) {
+            return (long) type;
+        } else if (type >= 0xe0) {
+            return (long) (byte) type;
+        }
+
+        switch (type) {
+            case 0xca:
+                return (double) Float.intBitsToFloat((int) readUnsigned(4));
+
+            case 0xcb:
+                return Double.longBitsToDouble(readUnsigned(8));
+
+            case 0xcc:
+                return readUnsigned(1);
+
+            case 0xcd:
+                return readUnsigned(2);
+
+            case 0xce:
+                return readUnsigned(4);
+
+            case 0xcf:
+                // Au-delà de Long.MAX_VALUE, le nombre déborde : l'API n'en envoie pas
+                return readUnsigned(8);
+
+            case 0xd0:
+                return (long) (byte) readUnsigned(1);
+
+            case 0xd1:
+                return (long) (short) readUnsigned(2);
+
+            case 0xd2:
+                return (long) (int) readUnsigned(4);
+
+            case 0xd3:
+                return readUnsigned(8);
+
+            default:
+                throw syntaxError("nombre attendu");
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Consomme l'élément attendu
+     *
+     * @param expected Élément attendu
+     * @throws IOException Autre élément trouvé
+     */
+    private void expect(@NotNull Token expected) throws IOException {
+        Token token = peek();
+
+        if (token != expected) {
+            throw syntaxError(expected + " attendu, " + token + " trouvé");
+        }
+
+        peeked = null;
+    }
+
+    /**
+     * Compte une valeur (ou une clé) lue dans le niveau courant
+     */
+    private void consumeValue() {
+        if (stackSize == 0) {
+            documentRead = true;
+        } else {
+            remaining[stackSize - 1]--;
+        }
+    }
+
+    /**
+     * Ouvre un niveau
+     *
+     * @param size  Nombre d'éléments à lire
+     * @param map   Map ou tableau
+     */
+    private void push(long size, boolean map) {
+        if (stackSize == remaining.length) {
+            remaining = Arrays.copyOf(remaining, stackSize * 2);
+            isMap = Arrays.copyOf(isMap, stackSize * 2);
+        }
+
+        remaining[stackSize] = size;
+        isMap[stackSize] = map;
+        stackSize++;
+    }
+
+    /**
+     * Remplit le tampon s'il a été entièrement lu
+     *
+     * @return Données disponibles ou non
+     * @throws IOException Erreur de lecture
+     */
+    private boolean fillIfNeeded() throws IOException {
+        if (pos < limit) {
+            return true;
+        }
+
+        int n = in.read(buffer, 0, buffer.length);
+
+        if (n <= 0) {
+            pos = limit = 0;
+            return false;
+        }
+
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    /**
+     * Lit un octet
+     *
+     * @return Octet, entre 0 et 255
+     * @throws IOException Fin du flux ou erreur de lecture
+     */
+    private int readByte() throws IOException {
+        if (!fillIfNeeded()) {
+            throw syntaxError("fin de flux inattendue");
+        }
+
+        return buffer[pos++] & 0xff;
+    }
+
+    /**
+     * Lit un entier non signé big-endian
+     *
+     * @param size Taille en octets, de 1 à 8
+     * @return Valeur
+     * @throws IOException Fin du flux ou erreur de lecture
+     */
+    private long readUnsigned(int size) throws IOException {
+        long value = 0;
+
+        for (int i = 0; i < size; i++) {
+            value = (value << 8) | readByte();
+        }
+
+        return value;
+    }
+
+    /**
+     * Saute des octets
+     *
+     * @param length Nombre d'octets
+     * @throws IOException Fin du flux ou erreur de lecture
+     */
+    private void skip(int length) throws IOException {
+        while (length > 0) {
+            if (!fillIfNeeded()) {
+                throw syntaxError("fin de flux inattendue");
+            }
+
+            int n = Math.min(length, limit - pos);
+            pos += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * Crée une erreur de syntaxe
+     *
+     * @param message Description
+     * @return Erreur
+     */
+    @NotNull
+    private IOException syntaxError(@NotNull String message) {
+        return new IOException("MessagePack invalide : " + message);
+    }
+}
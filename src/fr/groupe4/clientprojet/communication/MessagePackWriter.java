@@ -0,0 +1,220 @@
+package fr.groupe4.clientprojet.communication;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Écriture MessagePack <br>
+ * <br>
+ * Chaque valeur est écrite dans sa forme la plus courte : un id inférieur à 128 tient sur un octet,
+ * une chaine courte n'a qu'un octet d'en-tête.
+ *
+ * @see MessagePackReader
+ */
+final class MessagePackWriter {
+    /**
+     * Flux écrit
+     */
+    @NotNull
+    private final OutputStream out;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur
+     *
+     * @param out Flux à écrire
+     */
+    MessagePackWriter(@NotNull OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Écrit une valeur quelconque : Map, Collection, chaine, nombre, booléen ou null <br>
+     * Les autres objets sont écrits par leur toString(), comme dans un formulaire
+     *
+     * @param value Valeur, les arbres json-simple sont acceptés
+     * @throws IOException Erreur d'écriture
+     */
+    void writeValue(@Nullable Object value) throws IOException {
+        if (value == null) {
+            writeNil();
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            writeMapHeader(map.size());
+
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(String.valueOf(entry.getKey()));
+                writeValue(entry.getValue());
+            }
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            writeArrayHeader(collection.size());
+
+            for (Object element : collection) {
+                writeValue(element);
+            }
+        } else if (value instanceof Double || value instanceof Float) {
+            writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            writeLong(((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            writeBoolean((Boolean) value);
+        } else {
+            writeString(value.toString());
+        }
+    }
+
+    /**
+     * Écrit l'en-tête d'une map, suivie de ses paires clé / valeur
+     *
+     * @param size Nombre de paires
+     * @throws IOException Erreur d'écriture
+     */
+    void writeMapHeader(int size) throws IOException {
+        if (size < 16) {
+            out.write(0x80 | size);
+        } else if (size < 0x10000) {
+            out.write(0xde);
+            writeUnsigned(size, 2);
+        } else {
+            out.write(0xdf);
+            writeUnsigned(size, 4);
+        }
+    }
+
+    /**
+     * Écrit l'en-tête d'un tableau, suivi de ses éléments
+     *
+     * @param size Nombre d'éléments
+     * @throws IOException Erreur d'écriture
+     */
+    void writeArrayHeader(int size) throws IOException {
+        if (size < 16) {
+            out.write(0x90 | size);
+        } else if (size < 0x10000) {
+            out.write(0xdc);
+            writeUnsigned(size, 2);
+        } else {
+            out.write(0xdd);
+            writeUnsigned(size, 4);
+        }
+    }
+
+    /**
+     * Écrit une chaine UTF-8
+     *
+     * @param value Chaine
+     * @throws IOException Erreur d'écriture
+     */
+    void writeString(@NotNull String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+
+        if (length < 32) {
+            out.write(0xa0 | length);
+        } else if (length < 0x100) {
+            out.write(0xd9);
+            writeUnsigned(length, 1);
+        } else if (length < 0x10000) {
+            out.write(0xda);
+            writeUnsigned(length, 2);
+        } else {
+            out.write(0xdb);
+            writeUnsigned(length, 4);
+        }
+
+        out.write(bytes);
+    }
+
+    /**
+     * Écrit un entier
+     *
+     * @param value Entier
+     * @throws IOException Erreur d'écriture
+     */
+    void writeLong(long value) throws IOException {
+        if (value >= 0) {
+            if (value < 0x80) {
+                out.write((int) value);
+            } else if (value < 0x100) {
+                out.write(0xcc);
+                writeUnsigned(value, 1);
+            } else if (value < 0x10000) {
+                out.write(0xcd);
+                writeUnsigned(value, 2);
+            } else if (value < 0x100000000L) {
+                out.write(0xce);
+                writeUnsigned(value, 4);
+            } else {
+                out.write(0xcf);
+                writeUnsigned(value, 8);
+            }
+        } else {
+            if (value >= -32) {
+                out.write((int) value & 0xff);
+            } else if (value >= Byte.MIN_VALUE) {
+                out.write(0xd0);
+                writeUnsigned(value, 1);
+            } else if (value >= Short.MIN_VALUE) {
+                out.write(0xd1);
+                writeUnsigned(value, 2);
+            } else if (value >= Integer.MIN_VALUE) {
+                out.write(0xd2);
+                writeUnsigned(value, 4);
+            } else {
+                out.write(0xd3);
+                writeUnsigned(value, 8);
+            }
+        }
+    }
+
+    /**
+     * Écrit un flottant double précision
+     *
+     * @param value Flottant
+     * @throws IOException Erreur d'écriture
+     */
+    void writeDouble(double value) throws IOException {
+        out.write(0xcb);
+        writeUnsigned(Double.doubleToLongBits(value), 8);
+    }
+
+    /**
+     * Écrit un booléen
+     *
+     * @param value Booléen
+     * @throws IOException Erreur d'écriture
+     */
+    void writeBoolean(boolean value) throws IOException {
+        out.write(value ? 0xc3 : 0xc2);
+    }
+
+    /**
+     * Écrit null
+     *
+     * @throws IOException Erreur d'écriture
+     */
+    void writeNil() throws IOException {
+        out.write(0xc0);
+    }
+
+    /**
+     * Écrit les octets de poids faible d'un entier, en big-endian
+     *
+     * @param value Entier
+     * @param size  Nombre d'octets
+     * @throws IOException Erreur d'écriture
+     */
+    private void writeUnsigned(long value, int size) throws IOException {
+        for (int i = size - 1; i >= 0; i--) {
+            out.write((int) (value >>> (i * 8)) & 0xff);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package fr.groupe4.clientprojet.communication.enums;
+
+/**
+ * État du disjoncteur d'un endpoint de l'API
+ */
+public enum CommunicationCircuitState {
+    /**
+     * Fonctionnement normal, les requêtes passent
+     */
+    CIRCUIT_CLOSED,
+
+    /**
+     * Serveur jugé en panne, les requêtes échouent immédiatement
+     */
+    CIRCUIT_OPEN,
+
+    /**
+     * Délai d'ouverture écoulé, une seule requête d'essai passe pour tester le rétablissement
+     */
+    CIRCUIT_HALF_OPEN
+}
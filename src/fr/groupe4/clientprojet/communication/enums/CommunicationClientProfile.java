@@ -0,0 +1,86 @@
+package fr.groupe4.clientprojet.communication.enums;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Profil du client HTTP utilisé par une communication <br>
+ * Chaque profil a son propre client, donc ses propres connexions, threads et time out de connexion :
+ * un chargement de fond volumineux ne retarde ni la connexion ni l'écran affiché
+ */
+public enum CommunicationClientProfile {
+    /**
+     * Authentification et renouvellement du token
+     */
+    PROFILE_AUTH("communication-auth", Duration.ofSeconds(5), 0),
+
+    /**
+     * Requêtes dont l'utilisateur attend le résultat
+     */
+    PROFILE_INTERACTIVE("communication-http", Duration.ofSeconds(3), 0),
+
+    /**
+     * Actualisations et préchargements, sur peu de threads
+     */
+    PROFILE_BACKGROUND("communication-background", Duration.ofSeconds(10), 2);
+
+    /**
+     * Préfixe du nom des threads
+     */
+    @NotNull
+    private final String threadName;
+
+    /**
+     * Time out d'établissement de la connexion
+     */
+    @NotNull
+    private final Duration connectTimeout;
+
+    /**
+     * Nombre de threads, 0 pour un nombre qui suit la charge
+     */
+    private final int threads;
+
+    /**
+     * Constructeur
+     *
+     * @param threadName     Préfixe du nom des threads
+     * @param connectTimeout Time out de connexion
+     * @param threads        Nombre de threads, 0 pour un nombre qui suit la charge
+     */
+    CommunicationClientProfile(@NotNull String threadName, @NotNull Duration connectTimeout, int threads) {
+        this.threadName = threadName;
+        this.connectTimeout = connectTimeout;
+        this.threads = threads;
+    }
+
+    /**
+     * Retourne le préfixe du nom des threads
+     *
+     * @return Préfixe
+     */
+    @NotNull
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * Retourne le time out d'établissement de la connexion
+     *
+     * @return Time out
+     */
+    @NotNull
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Retourne le nombre de threads
+     *
+     * @return Nombre de threads, 0 pour un nombre qui suit la charge
+     */
+    public int getThreads() {
+        return threads;
+    }
+}
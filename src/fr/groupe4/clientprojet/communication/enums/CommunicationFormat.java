@@ -0,0 +1,79 @@
+package fr.groupe4.clientprojet.communication.enums;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Format des corps de requête et de réponse échangés avec l'API
+ */
+public enum CommunicationFormat {
+    /**
+     * Requête en formulaire, réponse en JSON : format historique de l'API
+     */
+    FORMAT_FORM("application/x-www-form-urlencoded"),
+
+    /**
+     * Requête et réponse en JSON
+     */
+    FORMAT_JSON("application/json"),
+
+    /**
+     * Requête et réponse en MessagePack, format binaire plus compact et plus rapide à lire
+     */
+    FORMAT_MESSAGE_PACK("application/msgpack");
+
+    /**
+     * Type MIME associé
+     */
+    @NotNull
+    private final String contentType;
+
+    /**
+     * Constructeur
+     *
+     * @param contentType Type MIME
+     */
+    CommunicationFormat(@NotNull String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * Retourne le type MIME associé
+     *
+     * @return Type MIME, pour l'en-tête Content-Type
+     */
+    @NotNull
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Indique si un en-tête Content-Type correspond à ce format <br>
+     * Les paramètres comme "; charset=utf-8" sont ignorés
+     *
+     * @param header Valeur de l'en-tête, null si absent
+     * @return Correspond ou non
+     */
+    public boolean matches(@Nullable String header) {
+        if (header == null) {
+            return false;
+        }
+
+        int end = header.indexOf(';');
+        String type = (end >= 0 ? header.substring(0, end) : header).trim();
+
+        return type.equalsIgnoreCase(contentType)
+                || (this == FORMAT_MESSAGE_PACK && type.equalsIgnoreCase("application/x-msgpack"));
+    }
+
+    /**
+     * Vers string
+     *
+     * @return String
+     */
+    @NotNull
+    @Override
+    public String toString() {
+        return contentType;
+    }
+}
@@ -0,0 +1,17 @@
+package fr.groupe4.clientprojet.communication.enums;
+
+/**
+ * Priorité d'une communication dans la file d'attente <br>
+ * Les requêtes interactives passent toujours avant les requêtes de fond
+ */
+public enum CommunicationPriority {
+    /**
+     * Requête attendue par l'utilisateur, comme le chargement d'un panel
+     */
+    PRIORITY_INTERACTIVE,
+
+    /**
+     * Requête de fond, comme une actualisation ou un préchargement
+     */
+    PRIORITY_BACKGROUND
+}
@@ -13,28 +13,30 @@ public enum CommunicationType {
     VERIFY_CONNECTION, // TODO ? -> GET_USER_INFOS
 
     CREATE_PROJECT("/project/create"),
-    GET_PROJECT("/project/get"),
-    LIST_PROJECTS("/project/list"),
+    GET_PROJECT("/project/get", true, true),
+    LIST_PROJECTS("/project/list", true, true),
     ADD_RESOURCE_TO_PROJECT("/project/alloc"),
     REMOVE_RESOURCE_FROM_PROJECT("/project/unalloc"),
-    LIST_USERS_FROM_PROJECT("/project/alloclist"),
-    LIST_MATERIAL_FROM_PROJECT("/project/alloclist"),
+    LIST_USERS_FROM_PROJECT("/project/alloclist", true, true),
+    LIST_MATERIAL_FROM_PROJECT("/project/alloclist", true, true),
 
     CREATE_HUMAN_RESOURCE, // TODO
-    GET_USER_INFOS("/auth/verify"),
-    GET_HUMAN_RESOURCE("/resource/h/get"),
-    LIST_HUMAN_RESOURCE("/resource/h/list"),
+    GET_USER_INFOS("/auth/verify", true, true),
+    GET_HUMAN_RESOURCE("/resource/h/get", true, true),
+    GET_HUMAN_RESOURCE_BATCH("/resource/h/get", true, true),
+    LIST_HUMAN_RESOURCE("/resource/h/list", true, true),
 
     CREATE_MATERIAL_RESOURCE("/resource/m/create"), // TODO
-    GET_MATERIAL_RESOURCE("/resource/m/get"), // TODO
-    LIST_MATERIAL_RESOURCE("/resource/m/list"), // TODO
+    GET_MATERIAL_RESOURCE("/resource/m/get", true, true), // TODO
+    GET_MATERIAL_RESOURCE_BATCH("/resource/m/get", true, true),
+    LIST_MATERIAL_RESOURCE("/resource/m/list", true, true), // TODO
 
     CREATE_TASK("/task/create"), // TODO
     GET_TASK, // TODO
-    GET_TASK_LIST("/task/list"),
+    GET_TASK_LIST("/task/list", true, true),
 
     ADD_TIME_SLOT("/timeslot/create"),
-    GET_TIME_SLOT_LIST("/timeslot/list"),
+    GET_TIME_SLOT_LIST("/timeslot/list", true, true),
     GET_TIME_SLOT, // TODO
     REMOVE_TIME_SLOT, // TODO
 
@@ -43,13 +45,18 @@ public enum CommunicationType {
     LIST_ROOMS, // TODO
 
     SEND_MESSAGE("/message/create"),
-    LIST_MESSAGES("/message/list");
+    LIST_MESSAGES("/message/list", true, true);
 
     /**
      * Doit vérifier la connexion ou non
      */
     private final boolean checkConnection;
 
+    /**
+     * Lecture seule : la requête ne modifie rien côté serveur et peut être rejouée ou partagée
+     */
+    private final boolean readOnly;
+
     /**
      * URL associé
      */
@@ -79,8 +86,20 @@ public enum CommunicationType {
      * @param checkConnection Vérifie la connexion
      */
     CommunicationType(@NotNull String url, boolean checkConnection) {
+        this(url, checkConnection, false);
+    }
+
+    /**
+     * Constructeur
+     *
+     * @param url             URL
+     * @param checkConnection Vérifie la connexion
+     * @param readOnly        Lecture seule
+     */
+    CommunicationType(@NotNull String url, boolean checkConnection, boolean readOnly) {
         this.url = url;
         this.checkConnection = checkConnection;
+        this.readOnly = readOnly;
     }
 
     /**
@@ -101,4 +120,14 @@ public enum CommunicationType {
     public boolean checkConnection() {
         return checkConnection;
     }
+
+    /**
+     * Lecture seule ? <br>
+     * Une requête en lecture seule ne modifie rien côté serveur : elle peut être partagée, mise en cache ou rejouée
+     *
+     * @return Lecture seule
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
 }
@@ -11,13 +11,19 @@ public enum HTTPCode {
     HTTP_CUSTOM_DEFAULT_ERROR(-1),
     HTTP_CUSTOM_TIMEOUT(-2),
     HTTP_CUSTOM_CANCEL(-3),
+    HTTP_CUSTOM_CIRCUIT_OPEN(-4),
     HTTP_OK(200),
+    HTTP_NOT_MODIFIED(304),
     HTTP_BAD_REQUEST(400),
     HTTP_UNAUTHORIZED(401),
     HTTP_FORBIDDEN(403),
     HTTP_NOT_FOUND(404),
     HTTP_TIMEOUT(408),
-    HTTP_TOO_MANY_REQUESTS(429);
+    HTTP_TOO_MANY_REQUESTS(429),
+    HTTP_INTERNAL_SERVER_ERROR(500),
+    HTTP_BAD_GATEWAY(502),
+    HTTP_SERVICE_UNAVAILABLE(503),
+    HTTP_GATEWAY_TIMEOUT(504);
 
     /**
      * Équivalent entier
@@ -42,6 +48,24 @@ public enum HTTPCode {
         return code;
     }
 
+    /**
+     * Erreur côté serveur (5xx) ?
+     *
+     * @return Erreur serveur ou non
+     */
+    public boolean isServerError() {
+        return code >= 500 && code < 600;
+    }
+
+    /**
+     * Requête refusée par le serveur (4xx) ?
+     *
+     * @return Erreur client ou non
+     */
+    public boolean isClientError() {
+        return code >= 400 && code < 500;
+    }
+
     /**
      * Renvoie l'énum associée à un code entier
      *
@@ -46,7 +46,7 @@ public class ConnectionDialog extends DrawDialog {
         setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
         addWindowListener(eventConnectionDialog);
 
-        drawContent();
+        drawInScope();
 
         setVisible(true);
     }
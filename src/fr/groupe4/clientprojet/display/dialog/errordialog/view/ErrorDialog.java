@@ -76,7 +76,7 @@ public class ErrorDialog extends DrawDialog {
         setLocation(dim.width / 2 - getWidth() / 2, dim.height / 2 - getHeight() / 2);
         setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
 
-        drawContent();
+        drawInScope();
 
         setVisible(true);
     }
@@ -38,7 +38,7 @@ public class ExitDialog extends DrawDialog {
         setModal(true);
         eventExitDialog = new EventExitDialog(this); // Le listener du dialog
 
-        drawContent();
+        drawInScope();
 
         setVisible(true);
     }
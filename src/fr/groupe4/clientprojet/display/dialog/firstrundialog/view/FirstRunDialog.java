@@ -36,7 +36,7 @@ public class FirstRunDialog extends DrawDialog {
         eventFirstRunDialog = new EventFirstRunDialog(this);
         addWindowListener(eventFirstRunDialog);
 
-        drawContent();
+        drawInScope();
 
         setVisible(true);
     }
@@ -20,7 +20,7 @@ public class LoadDialog extends DrawDialog {
         comm.addPropertyChangeListener(new EventLoadDialog(this));
         comm.start();
 
-        drawContent();
+        drawInScope();
 
         setVisible(true);
         if (comm.isFinished()) {
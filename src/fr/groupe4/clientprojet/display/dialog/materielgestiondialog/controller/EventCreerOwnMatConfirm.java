@@ -4,12 +4,14 @@ import fr.groupe4.clientprojet.communication.Communication;
 import fr.groupe4.clientprojet.display.dialog.errordialog.view.ErrorDialog;
 import fr.groupe4.clientprojet.display.dialog.materielgestiondialog.view.CreerOwnMatDialog;
 import fr.groupe4.clientprojet.display.view.draw.DrawDialog;
+import fr.groupe4.clientprojet.logger.Logger;
 import fr.groupe4.clientprojet.model.project.Project;
 import fr.groupe4.clientprojet.model.resource.material.MaterialResource;
 import fr.groupe4.clientprojet.model.resource.material.MaterialResourceList;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
+import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
@@ -51,15 +53,29 @@ public class EventCreerOwnMatConfirm implements ActionListener {
     public void actionPerformed(ActionEvent actionEvent) {
         String name = nameTextField.getText();
         String description = descriptionTextArea.getText();
-        Communication comm = Communication.builder()
-                            .createMaterialResource(name, description).startNow().sleepUntilFinished()
-                            .build();
-        MaterialResource m = (MaterialResource) comm.getResult();
-        comm = Communication.builder()
-                            .addMaterialResourceToProject(project.getId(), m.getResourceId(), null, null).startNow().sleepUntilFinished()
-                            .build();
+        Window owner = parent.getOwner();
+
+        // Le matériel est créé en arrière-plan, puis son ajout au projet passe par la file d'envoi
+        Communication.builder()
+                .createMaterialResource(name, description)
+                .startNow()
+                .build()
+                .getFuture()
+                .thenAccept(c -> {
+                    if (c.isSuccessful() && c.getResult() instanceof MaterialResource) {
+                        MaterialResource m = (MaterialResource) c.getResult();
+
+                        Communication.builder()
+                                .addMaterialResourceToProject(project.getId(), m.getResourceId(), null, null)
+                                .enqueue()
+                                .thenAccept(alloc -> SwingUtilities.invokeLater(
+                                        () -> EventGestionMaterialConfirm.treatResponse(alloc, owner)));
+                    } else {
+                        Logger.error("Création du matériel impossible :", c);
+                        SwingUtilities.invokeLater(() -> new ErrorDialog("Matériel non créé : " + c.getMessage(), owner));
+                    }
+                });
 
-        new ErrorDialog("Matériels bien crée et ajouté", "SUCCESS", ErrorDialog.COLOR_OK, parent);
         parent.dispose();
     }
 }
@@ -4,6 +4,7 @@ import fr.groupe4.clientprojet.communication.Communication;
 import fr.groupe4.clientprojet.display.dialog.errordialog.view.ErrorDialog;
 import fr.groupe4.clientprojet.display.dialog.materielgestiondialog.view.MaterielGestionDialog;
 import fr.groupe4.clientprojet.display.view.draw.DrawDialog;
+import fr.groupe4.clientprojet.logger.Logger;
 import fr.groupe4.clientprojet.model.project.Project;
 import fr.groupe4.clientprojet.model.resource.human.HumanResource;
 import fr.groupe4.clientprojet.model.resource.human.HumanResourceList;
@@ -11,9 +12,10 @@ import fr.groupe4.clientprojet.model.resource.material.MaterialResource;
 import fr.groupe4.clientprojet.model.resource.material.MaterialResourceList;
 import org.jetbrains.annotations.NotNull;
 
+import javax.swing.*;
+import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayList;
 
 public class EventGestionMaterialConfirm implements ActionListener {
     /**
@@ -63,32 +65,46 @@ public class EventGestionMaterialConfirm implements ActionListener {
      */
     @Override
     public void actionPerformed(ActionEvent actionEvent) {
-        ArrayList<Communication> comms = new ArrayList<>();
+        Window owner = parent.getOwner();
 
-        for (int i = 0; i < materials.size(); i++) {
+        for (int i = materials.size() - 1; i >= 0; i--) {
             if (chosenMats[i]) {
-                MaterialResource m = materials.get(i);
+                MaterialResource m = materials.remove(i);
 
-                Communication c = Communication.builder()
-                        .startNow()
+                // L'ajout part en arrière-plan : un refus du serveur est signalé à son arrivée
+                Communication.builder()
                         .addMaterialResourceToProject(project.getId(), m.getResourceId(), null, null)
-                        .build();
-
-                comms.add(c);
+                        .enqueue()
+                        .thenAccept(c -> SwingUtilities.invokeLater(() -> treatResponse(c, owner)));
             }
         }
 
-        for (int i = comms.size() - 1; i >= 0; i--) {
-            Communication c = comms.get(i);
+        parent.dispose();
+    }
 
-            if (!c.isFinished()) {
-                c.sleepUntilFinished();
-            }
+    /**
+     * Réponse du serveur à l'ajout d'un matériel
+     *
+     * @param c     Communication terminée
+     * @param owner Fenêtre parente du dialog
+     */
+    static void treatResponse(@NotNull Communication c, Window owner) {
+        switch (c.getHTTPCode()) {
+            case HTTP_OK:
+                // Matériel ajouté
+                Logger.success("Matériel ajouté");
+                break;
 
-            materials.remove(i);
-        }
+            case HTTP_FORBIDDEN:
+                // Pas les permissions d'ajouter un matériel
+                Logger.warning("Pas les permissions");
+                new ErrorDialog("Vous n'avez pas les permissions nécessaires", owner);
+                break;
 
-        new ErrorDialog("Matériels bien ajoutés", "SUCCESS", ErrorDialog.COLOR_OK, parent);
-        parent.dispose();
+            default:
+                Logger.error("Code invalide :", c);
+                new ErrorDialog("Matériel non ajouté : " + c.getMessage(), owner);
+                break;
+        }
     }
 }
@@ -5,11 +5,14 @@ import fr.groupe4.clientprojet.display.dialog.errordialog.view.ErrorDialog;
 import fr.groupe4.clientprojet.display.dialog.materielgestiondialog.view.MaterielGestionDialog;
 import fr.groupe4.clientprojet.display.dialog.usersgestiondialog.view.UsersGestionDialog;
 import fr.groupe4.clientprojet.display.view.draw.DrawDialog;
+import fr.groupe4.clientprojet.logger.Logger;
 import fr.groupe4.clientprojet.model.project.Project;
 import fr.groupe4.clientprojet.model.resource.human.HumanResource;
 import fr.groupe4.clientprojet.model.resource.material.MaterialResource;
 import org.jetbrains.annotations.NotNull;
 
+import javax.swing.*;
+import java.awt.*;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 
@@ -48,10 +51,40 @@ public class EventRemoveMaterial implements ItemListener {
      */
     @Override
     public void itemStateChanged(ItemEvent itemEvent) {
-        Communication comm = Communication.builder().removeMaterialResourceFromProject(project.getId(), material.getResourceId()).startNow().sleepUntilFinished().build();
-        comm.getResult();
-        new ErrorDialog("Matériels bien supprimés", "SUCCESS", ErrorDialog.COLOR_OK, source);
+        Window owner = source.getOwner();
+
+        // Le retrait part en arrière-plan : un refus du serveur est signalé à son arrivée
+        Communication.builder()
+                .removeMaterialResourceFromProject(project.getId(), material.getResourceId())
+                .enqueue()
+                .thenAccept(c -> SwingUtilities.invokeLater(() -> treatResponse(c, owner)));
+
         source.dispose();
+    }
+
+    /**
+     * Réponse du serveur au retrait du matériel
+     *
+     * @param c     Communication terminée
+     * @param owner Fenêtre parente du dialog
+     */
+    private static void treatResponse(@NotNull Communication c, Window owner) {
+        switch (c.getHTTPCode()) {
+            case HTTP_OK:
+                // Matériel retiré
+                Logger.success("Matériel retiré");
+                break;
+
+            case HTTP_FORBIDDEN:
+                // Pas les permissions de retirer un matériel
+                Logger.warning("Pas les permissions");
+                new ErrorDialog("Vous n'avez pas les permissions nécessaires", owner);
+                break;
 
+            default:
+                Logger.error("Code invalide :", c);
+                new ErrorDialog("Matériel non retiré : " + c.getMessage(), owner);
+                break;
+        }
     }
 }
@@ -53,7 +53,7 @@ public class CreerOwnMatDialog extends DrawDialog {
         setModal(true);
         this.setBackground(Theme.FOND.getColor());
 
-        drawContent();
+        drawInScope();
         setVisible(true);
     }
 
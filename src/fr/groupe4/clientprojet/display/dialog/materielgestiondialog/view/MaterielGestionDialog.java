@@ -49,7 +49,7 @@ public class MaterielGestionDialog extends DrawDialog {
         setModal(true);
         this.setBackground(Theme.FOND.getColor());
 
-        drawContent();
+        drawInScope();
         setVisible(true);
     }
 
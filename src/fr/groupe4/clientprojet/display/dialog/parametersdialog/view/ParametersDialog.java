@@ -48,7 +48,7 @@ public class ParametersDialog extends DrawDialog {
         eventParametersDialog = new EventParametersDialog(this);
         addWindowListener(eventParametersDialog);
 
-        drawContent();
+        drawInScope();
 
         setVisible(true);
     }
@@ -59,7 +59,7 @@ public class ProjectCreationDialog extends DrawDialog {
         Dimension dim = Toolkit.getDefaultToolkit().getScreenSize();
         setLocation(dim.width / 2 - getWidth() / 2, dim.height / 2 - getHeight() / 2);
 
-        drawContent();
+        drawInScope();
         setVisible(true);
     }
 
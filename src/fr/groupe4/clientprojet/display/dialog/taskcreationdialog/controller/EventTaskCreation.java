@@ -3,7 +3,6 @@ package fr.groupe4.clientprojet.display.dialog.taskcreationdialog.controller;
 import com.github.lgooddatepicker.components.DatePicker;
 import fr.groupe4.clientprojet.communication.Communication;
 import fr.groupe4.clientprojet.display.dialog.errordialog.view.ErrorDialog;
-import fr.groupe4.clientprojet.display.dialog.loaddialog.view.LoadDialog;
 import fr.groupe4.clientprojet.display.view.draw.DrawDialog;
 import fr.groupe4.clientprojet.logger.Logger;
 import fr.groupe4.clientprojet.model.project.Project;
@@ -12,6 +11,7 @@ import fr.groupe4.clientprojet.model.task.enums.TaskStatus;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
+import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.LocalDate;
@@ -78,39 +78,49 @@ public class EventTaskCreation implements ActionListener {
         String description = descriptionTextArea.getText();
 
         if (!nom.isBlank() && nom.length() >= Task.MIN_NAME_LENGTH && nom.length() < Task.MAX_NAME_LENGTH) {
-            Communication c = Communication.builder()
+            Window owner = parent.getOwner();
+
+            // La tâche est créée en arrière-plan et s'affiche en attente d'envoi : la réponse du serveur est signalée à son arrivée
+            Communication.builder()
                     .createTask(nom, description, TaskStatus.ONGOING, date, project.getId())
-                    .build();
-
-            new LoadDialog(c, parent);
-
-            switch (c.getHTTPCode()) {
-                case HTTP_FORBIDDEN:
-                    // Pas les permissions de créer un projet
-                    Logger.warning("Pas les permissions");
-                    new ErrorDialog("Vous n'avez pas les permissions nécessaires", parent);
-                    break;
-
-                case HTTP_OK:
-                    // Projet créé
-                    Logger.success("Tâche créée");
-                    new ErrorDialog("Tâche créée", "SUCCESS", ErrorDialog.COLOR_OK, parent);
-                    parent.dispose();
-                    break;
-
-                case HTTP_BAD_REQUEST:
-                    Logger.warning("Tâche avec ce nom");
-                    new ErrorDialog("Une tâche avec ce nom existe déjà", parent);
-                    break;
-
-                default:
-                    Logger.error("Code invalide :", c);
-                    break;
-            }
+                    .enqueue()
+                    .thenAccept(c -> SwingUtilities.invokeLater(() -> treatResponse(c, owner)));
+
+            parent.dispose();
         } else {
             // Si le nom n'est pas conforme
             Logger.warning("Nom de tâche invalide");
             new ErrorDialog("Nom de tâche invalide", parent);
         }
     }
+
+    /**
+     * Réponse du serveur à la création de la tâche
+     *
+     * @param c     Communication terminée
+     * @param owner Fenêtre parente du dialog
+     */
+    private static void treatResponse(@NotNull Communication c, Window owner) {
+        switch (c.getHTTPCode()) {
+            case HTTP_FORBIDDEN:
+                // Pas les permissions de créer une tâche
+                Logger.warning("Pas les permissions");
+                new ErrorDialog("Vous n'avez pas les permissions nécessaires", owner);
+                break;
+
+            case HTTP_OK:
+                // Tâche créée
+                Logger.success("Tâche créée");
+                break;
+
+            case HTTP_BAD_REQUEST:
+                Logger.warning("Tâche avec ce nom");
+                new ErrorDialog("Une tâche avec ce nom existe déjà", owner);
+                break;
+
+            default:
+                Logger.error("Code invalide :", c);
+                break;
+        }
+    }
 }
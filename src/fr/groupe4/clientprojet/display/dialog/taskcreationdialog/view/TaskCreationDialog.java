@@ -65,7 +65,7 @@ public class TaskCreationDialog extends DrawDialog {
         setTitle("Fenêtre de création de tâche");
         setModal(true);
 
-        drawContent();
+        drawInScope();
         setVisible(true);
     }
 
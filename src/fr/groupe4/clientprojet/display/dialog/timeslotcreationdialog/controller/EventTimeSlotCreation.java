@@ -4,12 +4,13 @@ import com.github.lgooddatepicker.components.DatePicker;
 import com.github.lgooddatepicker.components.TimePicker;
 import fr.groupe4.clientprojet.communication.Communication;
 import fr.groupe4.clientprojet.display.dialog.errordialog.view.ErrorDialog;
-import fr.groupe4.clientprojet.display.dialog.loaddialog.view.LoadDialog;
 import fr.groupe4.clientprojet.display.view.draw.DrawDialog;
 import fr.groupe4.clientprojet.logger.Logger;
 import fr.groupe4.clientprojet.model.task.Task;
 import org.jetbrains.annotations.NotNull;
 
+import javax.swing.*;
+import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.LocalDateTime;
@@ -83,36 +84,47 @@ public class EventTimeSlotCreation implements ActionListener {
         long roomId = 69;
 
         if (from.isBefore(to)) {
-            Communication c = Communication.builder()
+            Window owner = source.getOwner();
+
+            // Le créneau est réservé en arrière-plan et s'affiche en attente d'envoi : la réponse du serveur est signalée à son arrivée
+            Communication.builder()
                     .addTimeSlot(from, to, task.getId(), roomId)
-                    .build();
-
-            new LoadDialog(c, source);
-
-            switch (c.getHTTPCode()) {
-                case HTTP_FORBIDDEN:
-                    // Pas les permissions de créer un projet
-                    Logger.warning("Pas les permissions", c);
-                    new ErrorDialog("Vous n'avez pas les permissions nécessaires", source);
-                    break;
-
-                case HTTP_OK:
-                    // Projet créé
-                    new ErrorDialog("Créneau ajouté", "SUCCESS", ErrorDialog.COLOR_OK, source);
-                    source.dispose();
-                    break;
-
-                case HTTP_BAD_REQUEST:
-                    Logger.warning("Créneau indisponible");
-                    new ErrorDialog("Ce créneau est indisponible", source);
-                    break;
-
-                default:
-                    Logger.error("Code invalide :", c);
-                    break;
-            }
+                    .enqueue()
+                    .thenAccept(c -> SwingUtilities.invokeLater(() -> treatResponse(c, owner)));
+
+            source.dispose();
         } else {
             new ErrorDialog("Temps invalides : date de début après date de fin", source);
         }
     }
+
+    /**
+     * Réponse du serveur à l'ajout du créneau
+     *
+     * @param c     Communication terminée
+     * @param owner Fenêtre parente du dialog
+     */
+    private static void treatResponse(@NotNull Communication c, Window owner) {
+        switch (c.getHTTPCode()) {
+            case HTTP_FORBIDDEN:
+                // Pas les permissions de créer un créneau
+                Logger.warning("Pas les permissions", c);
+                new ErrorDialog("Vous n'avez pas les permissions nécessaires", owner);
+                break;
+
+            case HTTP_OK:
+                // Créneau créé
+                Logger.success("Créneau ajouté");
+                break;
+
+            case HTTP_BAD_REQUEST:
+                Logger.warning("Créneau indisponible");
+                new ErrorDialog("Ce créneau est indisponible", owner);
+                break;
+
+            default:
+                Logger.error("Code invalide :", c);
+                break;
+        }
+    }
 }
@@ -35,7 +35,7 @@ public class TimeSlotCreationDialog extends DrawDialog {
         setTitle("Fenêtre d'ajout' de créneau");
         setModal(true);
 
-        drawContent();
+        drawInScope();
         setVisible(true);
     }
 
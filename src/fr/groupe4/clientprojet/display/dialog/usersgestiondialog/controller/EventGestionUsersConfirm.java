@@ -3,14 +3,16 @@ package fr.groupe4.clientprojet.display.dialog.usersgestiondialog.controller;
 import fr.groupe4.clientprojet.communication.Communication;
 import fr.groupe4.clientprojet.display.dialog.errordialog.view.ErrorDialog;
 import fr.groupe4.clientprojet.display.view.draw.DrawDialog;
+import fr.groupe4.clientprojet.logger.Logger;
 import fr.groupe4.clientprojet.model.project.Project;
 import fr.groupe4.clientprojet.model.resource.human.HumanResource;
 import fr.groupe4.clientprojet.model.resource.human.HumanResourceList;
 import org.jetbrains.annotations.NotNull;
 
+import javax.swing.*;
+import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayList;
 
 public class EventGestionUsersConfirm implements ActionListener {
     /**
@@ -60,32 +62,46 @@ public class EventGestionUsersConfirm implements ActionListener {
      */
     @Override
     public void actionPerformed(ActionEvent actionEvent) {
-        ArrayList<Communication> comms = new ArrayList<>();
+        Window owner = parent.getOwner();
 
-        for (int i = 0; i < users.size(); i++) {
+        for (int i = users.size() - 1; i >= 0; i--) {
             if (chosenUser[i]) {
-                HumanResource h = users.get(i);
+                HumanResource h = users.remove(i);
 
-                Communication c = Communication.builder()
-                        .startNow()
+                // L'ajout part en arrière-plan : un refus du serveur est signalé à son arrivée
+                Communication.builder()
                         .addHumanResourceToProject(project.getId(), h.getResourceId(), null, null)
-                        .build();
-
-                comms.add(c);
+                        .enqueue()
+                        .thenAccept(c -> SwingUtilities.invokeLater(() -> treatResponse(c, owner)));
             }
         }
 
-        for (int i = comms.size() - 1; i >= 0; i--) {
-            Communication c = comms.get(i);
+        parent.dispose();
+    }
 
-            if (!c.isFinished()) {
-                c.sleepUntilFinished();
-            }
+    /**
+     * Réponse du serveur à l'ajout d'un utilisateur
+     *
+     * @param c     Communication terminée
+     * @param owner Fenêtre parente du dialog
+     */
+    private static void treatResponse(@NotNull Communication c, Window owner) {
+        switch (c.getHTTPCode()) {
+            case HTTP_OK:
+                // Utilisateur ajouté
+                Logger.success("Utilisateur ajouté");
+                break;
 
-            users.remove(i);
-        }
+            case HTTP_FORBIDDEN:
+                // Pas les permissions d'ajouter un utilisateur
+                Logger.warning("Pas les permissions");
+                new ErrorDialog("Vous n'avez pas les permissions nécessaires", owner);
+                break;
 
-        new ErrorDialog("Utilisateurs bien ajoutés", "SUCCESS", ErrorDialog.COLOR_OK, parent);
-        parent.dispose();
+            default:
+                Logger.error("Code invalide :", c);
+                new ErrorDialog("Utilisateur non ajouté : " + c.getMessage(), owner);
+                break;
+        }
     }
 }
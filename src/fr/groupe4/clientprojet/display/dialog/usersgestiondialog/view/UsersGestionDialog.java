@@ -49,7 +49,7 @@ public class UsersGestionDialog extends DrawDialog {
         setModal(true);
         this.setBackground(Theme.FOND.getColor());
 
-        drawContent();
+        drawInScope();
         setVisible(true);
     }
 
@@ -12,7 +12,7 @@ import java.awt.*;
 public class CalendarPanel extends DrawPanel {
 
     public CalendarPanel() {
-        drawContent();
+        drawInScope();
     }
 
     @Override
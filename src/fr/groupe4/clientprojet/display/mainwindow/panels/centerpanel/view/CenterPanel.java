@@ -31,7 +31,7 @@ public class CenterPanel extends DrawPanel {
     public CenterPanel(String view) {
         this.view = view;
 
-        drawContent();
+        drawInScope();
     }
 
     /**
@@ -52,15 +52,15 @@ public class LeftPanel extends DrawPanel {
         buttons = new ArrayList<>();
         this.centerPanel = centerPanel;
         this.owner = owner;
-        Communication comm = Communication.builder().sleepUntilFinished().startNow().getProjectList().build();
-        projectList = (ProjectList) comm.getResult();
+        projectList = inScope(() ->
+                (ProjectList) Communication.builder().sleepUntilFinished().startNow().getProjectList().build().getResult());
 
 
         setLayout(new BorderLayout());
         setBackground(Color.WHITE);
         setBorder(new CompoundBorder(new MatteBorder(0, 0, 0, 2, Color.BLACK), new EmptyBorder(20, 10, 20, 10)));
 
-        drawContent();
+        drawInScope();
     }
 
     /**
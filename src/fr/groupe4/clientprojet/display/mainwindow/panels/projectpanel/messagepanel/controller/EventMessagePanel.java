@@ -1,10 +1,14 @@
 package fr.groupe4.clientprojet.display.mainwindow.panels.projectpanel.messagepanel.controller;
 
 import fr.groupe4.clientprojet.communication.Communication;
+import fr.groupe4.clientprojet.display.dialog.errordialog.view.ErrorDialog;
 import fr.groupe4.clientprojet.display.mainwindow.panels.projectpanel.messagepanel.enums.MessageButton;
 import fr.groupe4.clientprojet.display.mainwindow.panels.projectpanel.messagepanel.view.MessagePanel;
+import fr.groupe4.clientprojet.logger.Logger;
 import fr.groupe4.clientprojet.model.message.enums.MessageResource;
+import org.jetbrains.annotations.NotNull;
 
+import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
@@ -66,13 +70,41 @@ public class EventMessagePanel implements ActionListener {
                 }
             }
 
+            String text = res.toString();
+
+            // Le message apparaît tout de suite dans la liste, il est envoyé en arrière-plan : un refus le remet dans le champ
             Communication.builder().
-                    sendMessage(res.toString(), dest, source.getIdProject()).
-                    sleepUntilFinished().
-                    startNow().
-                    build();
-            source.refresh();
+                    sendMessage(text, dest, source.getIdProject()).
+                    enqueue().
+                    thenAccept(c -> SwingUtilities.invokeLater(() -> treatResponse(c, text)));
         }
         source.resetMessage();
     }
+
+    /**
+     * Réponse du serveur à l'envoi d'un message
+     *
+     * @param c    Communication terminée
+     * @param text Message envoyé
+     */
+    private void treatResponse(@NotNull Communication c, @NotNull String text) {
+        switch (c.getHTTPCode()) {
+            case HTTP_OK:
+                // Message envoyé
+                break;
+
+            case HTTP_FORBIDDEN:
+                // Pas les permissions d'envoyer un message
+                Logger.warning("Pas les permissions");
+                source.restoreMessage(text);
+                new ErrorDialog("Vous n'avez pas les permissions nécessaires", SwingUtilities.getWindowAncestor(source));
+                break;
+
+            default:
+                Logger.error("Code invalide :", c);
+                source.restoreMessage(text);
+                new ErrorDialog("Message non envoyé : " + c.getMessage(), SwingUtilities.getWindowAncestor(source));
+                break;
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package fr.groupe4.clientprojet.display.mainwindow.panels.projectpanel.messagepanel.view;
 
 import fr.groupe4.clientprojet.communication.CommunicationBuilder;
+import fr.groupe4.clientprojet.communication.CommunicationScope;
+import fr.groupe4.clientprojet.communication.CommunicationSubscription;
 import fr.groupe4.clientprojet.display.mainwindow.panels.projectpanel.messagepanel.controller.EventMessagePanel;
 import fr.groupe4.clientprojet.display.mainwindow.panels.projectpanel.messagepanel.enums.MessageButton;
 import fr.groupe4.clientprojet.display.view.RoundButton;
@@ -19,6 +21,7 @@ import javax.swing.border.CompoundBorder;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.MatteBorder;
 import java.awt.*;
+import java.beans.PropertyChangeEvent;
 import java.io.File;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -45,9 +48,13 @@ public class MessagePanel extends DrawPanel {
      */
     private final EventMessagePanel eventMessagePanel;
     /**
-     * L'instance de CommunicationBuidler pour récuperer la liste des messages
+     * L'abonnement à la liste des messages, actif tant que le panel est affiché
      */
-    private final CommunicationBuilder cBuilder;
+    private final CommunicationSubscription subscription;
+    /**
+     * Portée des requêtes de l'abonnement : un redessin du panel ne les annule pas, son retrait oui
+     */
+    private final CommunicationScope subscriptionScope = new CommunicationScope();
     private JScrollPane scrollPane;
 
     /**
@@ -56,11 +63,31 @@ public class MessagePanel extends DrawPanel {
      * @param cBuilder : L'instance de communicationBuilder pour récuperer la liste des messages
      */
     public MessagePanel(CommunicationBuilder cBuilder) {
-        this.cBuilder = cBuilder;
-        refresh();
+        subscription = cBuilder.scope(subscriptionScope).subscribe();
+        messageList = (MessageList) subscription.poll().join().getResult();
+        subscription.addPropertyChangeListener(this::messagesChanged);
         eventMessagePanel = new EventMessagePanel(this, MessageResource.MESSAGE_RESOURCE_PROJECT);
 
-        drawContent();
+        drawInScope();
+    }
+
+    /**
+     * Démarre l'abonnement aux messages quand le panel est affiché
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        subscription.start();
+    }
+
+    /**
+     * Arrête l'abonnement aux messages quand le panel n'est plus affiché
+     */
+    @Override
+    public void removeNotify() {
+        subscription.stop();
+        subscriptionScope.cancel();
+        super.removeNotify();
     }
 
     /**
@@ -192,6 +219,16 @@ public class MessagePanel extends DrawPanel {
         messageField.setText("");
     }
 
+    /**
+     * Remet un message non envoyé dans le textField, avant ce qui a été tapé depuis
+     *
+     * @param message Message refusé
+     */
+    public void restoreMessage(String message) {
+        String typed = messageField.getText();
+        messageField.setText(typed.isEmpty() ? message : message + "\n" + typed);
+    }
+
     /**
      * Modifie l'id du projet
      *
@@ -212,10 +249,24 @@ public class MessagePanel extends DrawPanel {
 
     /**
      * Rafraichi la liste des messages
-     * Redessine le panel
+     * Le panel est redessiné seulement si des messages ont changé
      */
     public void refresh() {
-        messageList = (MessageList) cBuilder.startNow().sleepUntilFinished().build().getResult();
-        redraw();
+        subscription.poll();
+    }
+
+    /**
+     * Nouvelle liste de messages reçue par l'abonnement
+     * Redessine le panel en gardant le message en cours d'écriture
+     *
+     * @param evt : L'event de l'abonnement
+     */
+    private void messagesChanged(PropertyChangeEvent evt) {
+        SwingUtilities.invokeLater(() -> {
+            String typedMessage = getMessage();
+            messageList = (MessageList) evt.getNewValue();
+            redraw();
+            messageField.setText(typedMessage);
+        });
     }
 }
@@ -33,9 +33,8 @@ public class ProjectPanel extends DrawPanel {
      * @param projectName : Le nom du projet
      */
     public ProjectPanel(String projectName) {
-        Communication comm = Communication.builder().getProjectList().sleepUntilFinished().startNow().build();
-
-        ProjectList list = (ProjectList) comm.getResult();
+        ProjectList list = inScope(() ->
+                (ProjectList) Communication.builder().getProjectList().sleepUntilFinished().startNow().build().getResult());
 
         assert list != null;
         for (Project p : list) {
@@ -46,7 +45,7 @@ public class ProjectPanel extends DrawPanel {
 
         addMouseListener(new RightClicMenuProjectListener(this));
 
-        drawContent();
+        drawInScope();
     }
 
     /**
@@ -44,9 +44,9 @@ public class UserPanel extends DrawPanel {
     public UserPanel() {
         setLayout(new GridLayout(2, 1));
         eventUserPanel = new EventUserPanel(this);
-        user = (User) Communication.builder().getUserInfos().startNow().sleepUntilFinished().build().getResult();
+        user = inScope(() -> (User) Communication.builder().getUserInfos().startNow().sleepUntilFinished().build().getResult());
 
-        drawContent();
+        drawInScope();
     }
 
     /**
@@ -6,6 +6,8 @@ import fr.groupe4.clientprojet.model.parameters.Parameters;
 import fr.groupe4.clientprojet.model.parameters.themes.Theme;
 import fr.groupe4.clientprojet.model.timeslot.TimeSlot;
 import fr.groupe4.clientprojet.model.timeslot.TimeSlotList;
+import fr.groupe4.clientprojet.utils.profiling.PaintEvent;
+import fr.groupe4.clientprojet.utils.profiling.Profiling;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
@@ -121,6 +123,9 @@ class CalendarComponentWeek extends GenericCalendarComponent {
      */
     @Override
     protected void paintComponent(Graphics g) {
+        PaintEvent event = new PaintEvent();
+        event.begin();
+
         for (JPanel panel : daysPanel) {
             // Suppression de ce qu'il y avait avant
             panel.removeAll();
@@ -233,5 +238,13 @@ class CalendarComponentWeek extends GenericCalendarComponent {
         for (JPanel jPanel : daysPanel) {
             jPanel.updateUI();
         }
+
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.component = Profiling.nameOf(this);
+            event.timeSlots = allTimeSlots.size();
+            event.commit();
+        }
     }
 }
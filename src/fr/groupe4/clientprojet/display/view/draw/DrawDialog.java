@@ -1,12 +1,26 @@
 package fr.groupe4.clientprojet.display.view.draw;
 
+import fr.groupe4.clientprojet.communication.CommunicationScope;
+import fr.groupe4.clientprojet.communication.CommunicationTrace;
+import fr.groupe4.clientprojet.utils.profiling.DrawEvent;
+import fr.groupe4.clientprojet.utils.profiling.Profiling;
+import org.jetbrains.annotations.NotNull;
+
 import javax.swing.*;
 import java.awt.*;
+import java.util.function.Supplier;
 
 /**
- * Classe abstraite héritant de JDialog qui rajoute 2 méthodes
+ * Classe abstraite héritant de JDialog qui rajoute 2 méthodes <br>
+ * Les requêtes lancées pendant le dessin du contenu sont rattachées à la portée du dialog :
+ * elles sont tracées ensemble, et annulées quand le dialog est redessiné ou fermé
  */
 public abstract class DrawDialog extends JDialog {
+    /**
+     * Portée des requêtes du dialog
+     */
+    @NotNull
+    private final CommunicationScope scope = new CommunicationScope();
 
     protected DrawDialog(Window owner) {
         super(owner);
@@ -18,13 +32,77 @@ public abstract class DrawDialog extends JDialog {
     protected abstract void drawContent();
 
     /**
-     * Redessine le panel
+     * Portée des requêtes du dialog, à passer aux requêtes lancées en dehors du dessin
+     *
+     * @return Portée
+     */
+    @NotNull
+    protected CommunicationScope getScope() {
+        return scope;
+    }
+
+    /**
+     * Redessine le panel <br>
+     * Les requêtes de l'ancien contenu sont annulées
      */
     public final void redraw() {
+        scope.cancel();
+
         removeAll();
         validate();
         revalidate();
         repaint();
-        drawContent();
+
+        drawInScope();
+    }
+
+    /**
+     * Dessine le contenu dans la portée du dialog, à appeler dans le constructeur pour le premier dessin
+     */
+    protected final void drawInScope() {
+        DrawEvent event = new DrawEvent();
+        event.begin();
+
+        try {
+            inScope(() -> {
+                drawContent();
+                return null;
+            });
+        } finally {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.view = Profiling.nameOf(this);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Exécute une action dans la portée du dialog, tracée sous son nom, par exemple les requêtes du constructeur
+     *
+     * @param action Action
+     * @param <T>    Type du résultat
+     * @return Résultat de l'action
+     */
+    protected final <T> T inScope(@NotNull Supplier<T> action) {
+        CommunicationScope previous = CommunicationScope.enter(scope);
+        CommunicationTrace previousTrace = CommunicationTrace.enter(new CommunicationTrace(getClass().getSimpleName()));
+
+        try {
+            return action.get();
+        } finally {
+            CommunicationTrace.exit(previousTrace);
+            CommunicationScope.exit(previous);
+        }
+    }
+
+    /**
+     * Annule les requêtes du dialog à sa fermeture
+     */
+    @Override
+    public void dispose() {
+        scope.cancel();
+        super.dispose();
     }
 }
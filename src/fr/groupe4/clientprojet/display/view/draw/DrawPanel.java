@@ -1,11 +1,25 @@
 package fr.groupe4.clientprojet.display.view.draw;
 
+import fr.groupe4.clientprojet.communication.CommunicationScope;
+import fr.groupe4.clientprojet.communication.CommunicationTrace;
+import fr.groupe4.clientprojet.utils.profiling.DrawEvent;
+import fr.groupe4.clientprojet.utils.profiling.Profiling;
+import org.jetbrains.annotations.NotNull;
+
 import javax.swing.*;
+import java.util.function.Supplier;
 
 /**
- * Classe abstraite héritant de JPanel qui rajoute 2 méthodes
+ * Classe abstraite héritant de JPanel qui rajoute 2 méthodes <br>
+ * Les requêtes lancées pendant le dessin du contenu sont rattachées à la portée du panel :
+ * elles sont tracées ensemble, et annulées quand le panel est redessiné ou retiré de la fenêtre
  */
 public abstract class DrawPanel extends JPanel {
+    /**
+     * Portée des requêtes du panel
+     */
+    @NotNull
+    private final CommunicationScope scope = new CommunicationScope();
 
     /**
      * Dessine le contenu
@@ -13,13 +27,77 @@ public abstract class DrawPanel extends JPanel {
     protected abstract void drawContent();
 
     /**
-     * Redessine le panel
+     * Portée des requêtes du panel, à passer aux requêtes lancées en dehors du dessin
+     *
+     * @return Portée
+     */
+    @NotNull
+    protected CommunicationScope getScope() {
+        return scope;
+    }
+
+    /**
+     * Redessine le panel <br>
+     * Les requêtes de l'ancien contenu sont annulées
      */
     public final void redraw() {
+        scope.cancel();
+
         removeAll();
         validate();
         revalidate();
         repaint();
-        drawContent();
+
+        drawInScope();
+    }
+
+    /**
+     * Dessine le contenu dans la portée du panel, à appeler dans le constructeur pour le premier dessin
+     */
+    protected final void drawInScope() {
+        DrawEvent event = new DrawEvent();
+        event.begin();
+
+        try {
+            inScope(() -> {
+                drawContent();
+                return null;
+            });
+        } finally {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.view = Profiling.nameOf(this);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Exécute une action dans la portée du panel, tracée sous son nom, par exemple les requêtes du constructeur
+     *
+     * @param action Action
+     * @param <T>    Type du résultat
+     * @return Résultat de l'action
+     */
+    protected final <T> T inScope(@NotNull Supplier<T> action) {
+        CommunicationScope previous = CommunicationScope.enter(scope);
+        CommunicationTrace previousTrace = CommunicationTrace.enter(new CommunicationTrace(getClass().getSimpleName()));
+
+        try {
+            return action.get();
+        } finally {
+            CommunicationTrace.exit(previousTrace);
+            CommunicationScope.exit(previous);
+        }
+    }
+
+    /**
+     * Annule les requêtes du panel quand il n'est plus affiché
+     */
+    @Override
+    public void removeNotify() {
+        scope.cancel();
+        super.removeNotify();
     }
 }
@@ -55,6 +55,15 @@ public class Message {
         this.content = content;
     }
 
+    /**
+     * Récupère l'id
+     *
+     * @return Id
+     */
+    public long getId() {
+        return id;
+    }
+
     /**
      * Récupère la date
      *
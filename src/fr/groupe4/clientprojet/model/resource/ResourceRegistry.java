@@ -0,0 +1,277 @@
+package fr.groupe4.clientprojet.model.resource;
+
+import fr.groupe4.clientprojet.communication.Communication;
+import fr.groupe4.clientprojet.communication.enums.HTTPCode;
+import fr.groupe4.clientprojet.logger.Logger;
+import fr.groupe4.clientprojet.model.resource.human.HumanResource;
+import fr.groupe4.clientprojet.model.resource.material.MaterialResource;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre des ressources connues, indexées par id <br>
+ * <br>
+ * Chaque ressource n'existe qu'en un seul exemplaire : toutes les listes et tous les messages
+ * qui font référence à une même ressource partagent la même instance. <br>
+ * Les ressources manquantes sont récupérées en une seule requête par lot de BATCH_SIZE, sans doublon. <br>
+ * <br>
+ * Exemple d'utilisation : <br><code>
+ * HashMap&lt;Long, HumanResource&gt; authors = ResourceRegistry.getHumanResources(ids); </code>
+ */
+public abstract class ResourceRegistry {
+    /**
+     * Nombre maximal d'ids demandés en une requête
+     */
+    private static final int BATCH_SIZE = 100;
+
+    /**
+     * Ressources humaines connues
+     */
+    @NotNull
+    private static final ConcurrentHashMap<Long, HumanResource> humanResources = new ConcurrentHashMap<>();
+
+    /**
+     * Ressources matérielles connues
+     */
+    @NotNull
+    private static final ConcurrentHashMap<Long, MaterialResource> materialResources = new ConcurrentHashMap<>();
+
+    /**
+     * Enregistre une ressource humaine <br>
+     * Si l'id est déjà connu, l'instance de référence prend les valeurs de la ressource décodée, plus récentes
+     *
+     * @param resource Ressource décodée
+     * @return Instance de référence pour cet id, qui peut être une instance enregistrée précédemment
+     */
+    @NotNull
+    public static HumanResource register(@NotNull HumanResource resource) {
+        HumanResource known = humanResources.putIfAbsent(resource.getResourceId(), resource);
+
+        if (known == null) {
+            return resource;
+        }
+
+        known.update(resource);
+        return known;
+    }
+
+    /**
+     * Enregistre une ressource matérielle <br>
+     * Si l'id est déjà connu, l'instance de référence prend les valeurs de la ressource décodée, plus récentes
+     *
+     * @param resource Ressource décodée
+     * @return Instance de référence pour cet id, qui peut être une instance enregistrée précédemment
+     */
+    @NotNull
+    public static MaterialResource register(@NotNull MaterialResource resource) {
+        MaterialResource known = materialResources.putIfAbsent(resource.getResourceId(), resource);
+
+        if (known == null) {
+            return resource;
+        }
+
+        known.update(resource);
+        return known;
+    }
+
+    /**
+     * Récupère une ressource humaine, depuis le serveur si elle n'est pas connue
+     *
+     * @param id Id de la ressource
+     * @return Ressource, null si le serveur ne l'a pas renvoyée
+     */
+    @Nullable
+    public static HumanResource getHumanResource(long id) {
+        return getHumanResources(List.of(id)).get(id);
+    }
+
+    /**
+     * Récupère des ressources humaines, en ne demandant au serveur que celles qui ne sont pas connues
+     *
+     * @param ids Ids des ressources, les doublons sont ignorés
+     * @return Ressources par id, sans les ressources que le serveur n'a pas renvoyées
+     */
+    @NotNull
+    public static HashMap<Long, HumanResource> getHumanResources(@NotNull Collection<Long> ids) {
+        LinkedHashSet<Long> missing = missing(ids, humanResources);
+
+        if (!missing.isEmpty()) {
+            ArrayList<Communication> batches = new ArrayList<>();
+
+            for (List<Long> batch : split(missing)) {
+                batches.add(Communication.builder().getHumanResources(batch).startNow().build());
+            }
+
+            if (waitFor(batches)) {
+                // Lot refusé par le serveur : on se rabat sur une requête par ressource encore inconnue.
+                // Sans réponse (annulation, time out, circuit ouvert, erreur serveur), on garde ce qui est connu
+                ArrayList<Communication> comms = new ArrayList<>();
+
+                for (long id : missing(ids, humanResources)) {
+                    comms.add(Communication.builder().getHumanResource(id).startNow().build());
+                }
+
+                waitFor(comms);
+            }
+        }
+
+        return collect(ids, humanResources, "Ressource humaine introuvable :");
+    }
+
+    /**
+     * Récupère une ressource matérielle, depuis le serveur si elle n'est pas connue
+     *
+     * @param id Id de la ressource
+     * @return Ressource, null si le serveur ne l'a pas renvoyée
+     */
+    @Nullable
+    public static MaterialResource getMaterialResource(long id) {
+        return getMaterialResources(List.of(id)).get(id);
+    }
+
+    /**
+     * Récupère des ressources matérielles, en ne demandant au serveur que celles qui ne sont pas connues
+     *
+     * @param ids Ids des ressources, les doublons sont ignorés
+     * @return Ressources par id, sans les ressources que le serveur n'a pas renvoyées
+     */
+    @NotNull
+    public static HashMap<Long, MaterialResource> getMaterialResources(@NotNull Collection<Long> ids) {
+        LinkedHashSet<Long> missing = missing(ids, materialResources);
+
+        if (!missing.isEmpty()) {
+            ArrayList<Communication> batches = new ArrayList<>();
+
+            for (List<Long> batch : split(missing)) {
+                batches.add(Communication.builder().getMaterialResources(batch).startNow().build());
+            }
+
+            if (waitFor(batches)) {
+                // Lot refusé par le serveur : on se rabat sur une requête par ressource encore inconnue.
+                // Sans réponse (annulation, time out, circuit ouvert, erreur serveur), on garde ce qui est connu
+                ArrayList<Communication> comms = new ArrayList<>();
+
+                for (long id : missing(ids, materialResources)) {
+                    comms.add(Communication.builder().getMaterialResource(id).startNow().build());
+                }
+
+                waitFor(comms);
+            }
+        }
+
+        return collect(ids, materialResources, "Ressource matérielle introuvable :");
+    }
+
+    /**
+     * Oublie toutes les ressources, par exemple au changement d'utilisateur
+     */
+    public static void clear() {
+        humanResources.clear();
+        materialResources.clear();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Liste les ids inconnus, sans doublon
+     *
+     * @param ids   Ids demandés
+     * @param known Ressources connues
+     * @return Ids à demander au serveur
+     */
+    @NotNull
+    private static LinkedHashSet<Long> missing(@NotNull Collection<Long> ids, @NotNull ConcurrentHashMap<Long, ?> known) {
+        LinkedHashSet<Long> missing = new LinkedHashSet<>();
+
+        for (long id : ids) {
+            if (!known.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+
+        return missing;
+    }
+
+    /**
+     * Découpe des ids en lots d'au plus BATCH_SIZE
+     *
+     * @param ids Ids
+     * @return Lots d'ids
+     */
+    @NotNull
+    private static ArrayList<List<Long>> split(@NotNull LinkedHashSet<Long> ids) {
+        ArrayList<List<Long>> batches = new ArrayList<>();
+        ArrayList<Long> batch = new ArrayList<>();
+
+        for (long id : ids) {
+            batch.add(id);
+
+            if (batch.size() == BATCH_SIZE) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+
+        return batches;
+    }
+
+    /**
+     * Attend la fin de communications lancées
+     *
+     * @param comms Communications
+     * @return Au moins une a été refusée par le serveur (4xx, hors token et limite de débit)
+     */
+    private static boolean waitFor(@NotNull ArrayList<Communication> comms) {
+        boolean refused = false;
+
+        for (Communication c : comms) {
+            if (!c.isFinished()) {
+                c.sleepUntilFinished();
+            }
+
+            HTTPCode code = c.getHTTPCode();
+            refused |= code.isClientError() && code != HTTPCode.HTTP_UNAUTHORIZED && code != HTTPCode.HTTP_TOO_MANY_REQUESTS;
+        }
+
+        return refused;
+    }
+
+    /**
+     * Récupère les ressources demandées dans le registre
+     *
+     * @param ids          Ids demandés
+     * @param known        Ressources connues
+     * @param errorMessage Message si une ressource est introuvable
+     * @param <T>          Type de ressource
+     * @return Ressources par id
+     */
+    @NotNull
+    private static <T> HashMap<Long, T> collect(@NotNull Collection<Long> ids,
+                                                @NotNull ConcurrentHashMap<Long, T> known,
+                                                @NotNull String errorMessage) {
+        HashMap<Long, T> result = new HashMap<>();
+
+        for (long id : ids) {
+            T resource = known.get(id);
+
+            if (resource == null) {
+                Logger.error(errorMessage, id);
+            } else {
+                result.put(id, resource);
+            }
+        }
+
+        return result;
+    }
+}
@@ -13,31 +13,31 @@ public class HumanResource extends Resource {
      * Prénom
      */
     @NotNull
-    private final String firstname;
+    private volatile String firstname;
 
     /**
      * Nom
      */
     @NotNull
-    private final String lastname;
+    private volatile String lastname;
 
     /**
      * Job
      */
     @NotNull
-    private final String job;
+    private volatile String job;
 
     /**
      * Rôle
      */
     @NotNull
-    private final HumanRole role;
+    private volatile HumanRole role;
 
     /**
      * Description
      */
     @NotNull
-    private final String description;
+    private volatile String description;
 
     /**
      * Constructeur
@@ -80,6 +80,20 @@ public class HumanResource extends Resource {
                 toCopy.description);
     }
 
+    /**
+     * Met à jour la ressource avec des données plus récentes du serveur <br>
+     * Les listes et messages qui partagent cette instance affichent les nouvelles valeurs
+     *
+     * @param fresh Ressource décodée de la dernière réponse, de même id
+     */
+    public void update(@NotNull HumanResource fresh) {
+        firstname = fresh.firstname;
+        lastname = fresh.lastname;
+        job = fresh.job;
+        role = fresh.role;
+        description = fresh.description;
+    }
+
     /**
      * Récupère le prénom
      *
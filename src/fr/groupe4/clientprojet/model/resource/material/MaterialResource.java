@@ -12,13 +12,13 @@ public class MaterialResource extends Resource {
      * Nom de la ressource
      */
     @NotNull
-    private final String name;
+    private volatile String name;
 
     /**
      * Description de la ressource
      */
     @NotNull
-    private final String description;
+    private volatile String description;
 
     /**
      * Constructeur
@@ -46,6 +46,17 @@ public class MaterialResource extends Resource {
                 materialResource.getDescription());
     }
 
+    /**
+     * Met à jour la ressource avec des données plus récentes du serveur <br>
+     * Les listes qui partagent cette instance affichent les nouvelles valeurs
+     *
+     * @param fresh Ressource décodée de la dernière réponse, de même id
+     */
+    public void update(@NotNull MaterialResource fresh) {
+        name = fresh.name;
+        description = fresh.description;
+    }
+
     /**
      * Récupération du nom
      *
@@ -6,6 +6,12 @@ import org.jetbrains.annotations.NotNull;
  * Classe abstraite qui permet de connaître le répertoire de l'éxécutable
  */
 public abstract class Location {
+    /**
+     * Propriété système qui remplace le répertoire data, par exemple pour un processus de test
+     */
+    @NotNull
+    public static final String DATA_PATH_PROPERTY = "clientprojet.data";
+
     /**
      * Renvoie le répertoire de l'exécutable java <br>
      * Renvoie "/" si non trouvé
@@ -22,13 +28,15 @@ public abstract class Location {
     }
 
     /**
-     * Renvoie le répertoire data
+     * Renvoie le répertoire data, celui de la propriété DATA_PATH_PROPERTY si elle est donnée
      *
      * @return Path vers data
      */
     @NotNull
     public static String getDataPath() {
-        return getPath() + "/data";
+        String path = System.getProperty(DATA_PATH_PROPERTY);
+
+        return path != null ? path : getPath() + "/data";
     }
 
     /**
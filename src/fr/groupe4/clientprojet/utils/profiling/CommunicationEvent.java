@@ -0,0 +1,59 @@
+package fr.groupe4.clientprojet.utils.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR : échange HTTP avec l'API, de l'envoi à la fin de la lecture de la réponse
+ *
+ * @see Profiling
+ */
+@Name("fr.groupe4.clientprojet.Communication")
+@Label("Communication")
+@Category({"Client projet", "Communication"})
+@Description("Échange HTTP avec l'API, de l'envoi à la fin de la lecture de la réponse")
+@StackTrace(false)
+public final class CommunicationEvent extends Event {
+    /**
+     * Type de communication
+     */
+    @Label("Type")
+    public String type;
+
+    /**
+     * URL appelée
+     */
+    @Label("URL")
+    public String url;
+
+    /**
+     * Code HTTP, négatif pour les codes custom (time out, annulation...)
+     */
+    @Label("Code HTTP")
+    public int status;
+
+    /**
+     * Octets envoyés
+     */
+    @Label("Octets envoyés")
+    @DataAmount
+    public long bytesSent;
+
+    /**
+     * Octets reçus, avant décompression
+     */
+    @Label("Octets reçus")
+    @DataAmount
+    public long bytesReceived;
+
+    /**
+     * Numéro de la tentative
+     */
+    @Label("Tentative")
+    public int attempt;
+}
@@ -0,0 +1,38 @@
+package fr.groupe4.clientprojet.utils.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR : traitement du contenu d'une réponse, requêtes filles comprises
+ *
+ * @see Profiling
+ */
+@Name("fr.groupe4.clientprojet.Decode")
+@Label("Traitement d'une réponse")
+@Category({"Client projet", "Communication"})
+@Description("Traitement du contenu d'une réponse en modèles, requêtes filles comprises")
+@StackTrace(false)
+public final class DecodeEvent extends Event {
+    /**
+     * Type de communication
+     */
+    @Label("Type")
+    public String type;
+
+    /**
+     * Éléments du résultat, 1 pour un objet seul
+     */
+    @Label("Éléments")
+    public int rows;
+
+    /**
+     * Contenu déjà décodé au fil de la lecture
+     */
+    @Label("Lu au fil de l'eau")
+    public boolean streamed;
+}
@@ -0,0 +1,26 @@
+package fr.groupe4.clientprojet.utils.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR : dessin du contenu d'une vue (DrawPanel, DrawDialog)
+ *
+ * @see Profiling
+ */
+@Name("fr.groupe4.clientprojet.Draw")
+@Label("Dessin d'une vue")
+@Category({"Client projet", "Affichage"})
+@Description("Redessin d'une vue : drawContent(), requêtes synchrones comprises")
+@StackTrace(false)
+public final class DrawEvent extends Event {
+    /**
+     * Classe de la vue
+     */
+    @Label("Vue")
+    public String view;
+}
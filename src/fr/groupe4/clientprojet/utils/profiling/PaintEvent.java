@@ -0,0 +1,32 @@
+package fr.groupe4.clientprojet.utils.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR : affichage d'un composant du calendrier
+ *
+ * @see Profiling
+ */
+@Name("fr.groupe4.clientprojet.Paint")
+@Label("Affichage du calendrier")
+@Category({"Client projet", "Affichage"})
+@Description("paintComponent() d'un composant du calendrier")
+@StackTrace(false)
+public final class PaintEvent extends Event {
+    /**
+     * Classe du composant
+     */
+    @Label("Composant")
+    public String component;
+
+    /**
+     * Créneaux affichés
+     */
+    @Label("Créneaux")
+    public int timeSlots;
+}
@@ -0,0 +1,130 @@
+package fr.groupe4.clientprojet.utils.profiling;
+
+import fr.groupe4.clientprojet.logger.Logger;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Classe abstraite qui gère l'enregistrement Java Flight Recorder de l'application <br>
+ * <br>
+ * Les événements de l'application (communications, traitement des réponses, dessin des vues, calendrier)
+ * sont enregistrés par tout enregistrement JFR, y compris celui lancé par -XX:StartFlightRecording.
+ * Sans enregistrement en cours, ils ne coûtent presque rien. <br>
+ * Cette classe lance un enregistrement depuis l'application : au démarrage avec -Dclientprojet.jfr=true,
+ * ou à la demande avec start(). Il est écrit dans le dossier des logs à l'arrêt, ou à la sortie de la JVM.
+ *
+ * @see CommunicationEvent
+ * @see DecodeEvent
+ * @see DrawEvent
+ * @see PaintEvent
+ */
+public abstract class Profiling {
+    /**
+     * Propriété système qui lance l'enregistrement au démarrage
+     */
+    private static final String PROPERTY = "clientprojet.jfr";
+
+    /**
+     * Configuration JFR : "profile", plus détaillée que "default"
+     */
+    private static final String CONFIGURATION = "profile";
+
+    /**
+     * Enregistrement en cours, null si aucun
+     */
+    @Nullable
+    private static Recording recording = null;
+
+    /**
+     * Lance l'enregistrement si la propriété système clientprojet.jfr est vraie
+     */
+    public static void init() {
+        if (Boolean.getBoolean(PROPERTY)) {
+            start();
+        }
+    }
+
+    /**
+     * Lance un enregistrement, s'il n'y en a pas déjà un
+     *
+     * @return Fichier de l'enregistrement, null si impossible
+     */
+    @Nullable
+    public static synchronized Path start() {
+        if (recording != null) {
+            return recording.getDestination();
+        }
+
+        Path file = Paths.get("logs", "fr-groupe4-clientprojet_"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd@HH-mm-ss")) + ".jfr");
+
+        try {
+            Files.createDirectories(file.getParent());
+
+            Recording newRecording = new Recording(Configuration.getConfiguration(CONFIGURATION));
+            newRecording.setName("clientprojet");
+            newRecording.setToDisk(true);
+            newRecording.setDestination(file);
+            newRecording.setDumpOnExit(true);
+            newRecording.start();
+
+            recording = newRecording;
+            Logger.info("Enregistrement JFR lancé :", file);
+
+            return file;
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            Logger.error("Enregistrement JFR impossible :", e);
+            return null;
+        }
+    }
+
+    /**
+     * Arrête l'enregistrement en cours et l'écrit dans son fichier
+     */
+    public static synchronized void stop() {
+        if (recording == null) {
+            return;
+        }
+
+        try {
+            recording.stop();
+            Logger.info("Enregistrement JFR écrit :", recording.getDestination());
+        } catch (IllegalStateException e) {
+            Logger.error("Arrêt de l'enregistrement JFR impossible :", e);
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * Enregistrement en cours ou non
+     *
+     * @return Enregistrement en cours
+     */
+    public static synchronized boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * Nom de classe à enregistrer dans un événement
+     *
+     * @param object Objet
+     * @return Nom simple, nom complet pour une classe anonyme
+     */
+    @NotNull
+    public static String nameOf(@NotNull Object object) {
+        String name = object.getClass().getSimpleName();
+        return name.isEmpty() ? object.getClass().getName() : name;
+    }
+}
@@ -0,0 +1,1478 @@
+package fr.groupe4.clientprojet.communication;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import fr.groupe4.clientprojet.communication.enums.CommunicationFormat;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.simple.JSONValue;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serveur local qui remplace l'API, pour tester et mesurer le client sans réseau <br>
+ * <br>
+ * Implémente tous les endpoints des types de communication (/auth, /project, /resource, /task, /timeslot,
+ * /message) avec les formes JSON que lisent JsonTreatment et JsonStreamTreatment, sur des données générées
+ * à partir d'une graine (ApiServerData). <br>
+ * Comme le client, il comprend : <br>
+ * - les requêtes en formulaire, JSON ou MessagePack, compressées ou non <br>
+ * - les réponses en MessagePack si l'en-tête Accept le demande, compressées en gzip si possible <br>
+ * - les tokens JWT signés (HS256), avec expiration : 401 pour un token de requête expiré ou invalide,
+ * 403 pour un token de renouvellement invalide <br>
+ * - les ETag et les réponses 304 <br>
+ * - le curseur "since" des listes de projets, tâches, créneaux et messages <br>
+ * - l'en-tête X-Correlation-Id, renvoyé tel quel <br>
+ * - l'en-tête Idempotency-Key des modifications : un renvoi reçoit la réponse du premier envoi traité, sans être
+ * réappliqué ; les refus d'authentification, requêtes illisibles et erreurs serveur ne sont pas gardés <br>
+ * <br>
+ * Les utilisateurs sont user1, user2... avec le mot de passe "password". user1 est sur tous les projets. <br>
+ * Lancement : <br><code>
+ * java -cp out:lib/* fr.groupe4.clientprojet.communication.ApiServer [--port 8080] [--seed 42]
+ * [--users 200] [--projects 100] [--tasks 2000] [--slots 20000] [--messages 20000] [--large]
+ * [--token-ttl 3600] [--latency 0] [--verbose] </code><br>
+ * --large génère un gros client : 2000 utilisateurs, 5000 projets, 50000 tâches, 300000 créneaux et messages.
+ * La durée de vie des tokens doit rester au-dessus de la marge de renouvellement du client (quelques minutes).
+ */
+public final class ApiServer {
+    /**
+     * Taille à partir de laquelle les réponses sont compressées
+     */
+    private static final int GZIP_THRESHOLD = 1024;
+
+    /**
+     * Durée de vie des tokens de renouvellement, en secondes
+     */
+    private static final long RENEW_TTL = 7 * 86400L;
+
+    /**
+     * Nombre de réponses gardées pour les renvois de modifications (Idempotency-Key)
+     */
+    private static final int MAX_REPLAYS = 10_000;
+
+    /**
+     * Données
+     */
+    @NotNull
+    private final ApiServerData data;
+
+    /**
+     * Serveur HTTP
+     */
+    @NotNull
+    private final HttpServer server;
+
+    /**
+     * Threads du serveur
+     */
+    @NotNull
+    private final ExecutorService executor;
+
+    /**
+     * Clé de signature des tokens, nouvelle à chaque lancement
+     */
+    @NotNull
+    private final byte[] secret;
+
+    /**
+     * Durée de vie des tokens de requête, en secondes
+     */
+    private final long tokenTtl;
+
+    /**
+     * Latence ajoutée à chaque réponse, en millisecondes
+     */
+    private final long latency;
+
+    /**
+     * Affiche chaque requête
+     */
+    private final boolean verbose;
+
+    /**
+     * Réponses des modifications par clé d'idempotence, les plus anciennes sont oubliées
+     */
+    @NotNull
+    private final LinkedHashMap<String, Replay> replays = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Replay> eldest) {
+            return size() > MAX_REPLAYS;
+        }
+    };
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur, le serveur n'est pas encore lancé
+     *
+     * @param port     Port, 0 pour un port libre
+     * @param data     Données
+     * @param tokenTtl Durée de vie des tokens de requête, en secondes
+     * @param latency  Latence ajoutée à chaque réponse, en millisecondes
+     * @param verbose  Affiche chaque requête
+     * @throws IOException Port indisponible
+     */
+    ApiServer(int port, @NotNull ApiServerData data, long tokenTtl, long latency, boolean verbose) throws IOException {
+        this.data = data;
+        this.tokenTtl = tokenTtl;
+        this.latency = latency;
+        this.verbose = verbose;
+        this.secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+
+        executor = Executors.newFixedThreadPool(Math.max(8, Runtime.getRuntime().availableProcessors() * 4), runnable -> {
+            Thread thread = new Thread(runnable, "api-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Sans TCP_NODELAY, les petites réponses attendent l'ACK retardé du client (environ 40 ms) ;
+        // l'option est lue une seule fois, à la création du premier serveur de la JVM
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        server = HttpServer.create(new InetSocketAddress(port), 256);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Lance le serveur en ligne de commande
+     *
+     * @param args Options, voir la description de la classe
+     * @throws IOException Port indisponible
+     */
+    public static void main(String[] args) throws IOException {
+        HashMap<String, String> options = new HashMap<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                System.err.println("Option inconnue : " + args[i]);
+                System.exit(1);
+            }
+
+            boolean flag = i + 1 >= args.length || args[i + 1].startsWith("--");
+            options.put(args[i].substring(2), flag ? "true" : args[++i]);
+        }
+
+        boolean large = options.containsKey("large");
+        Function<String, Integer> option = name -> Integer.parseInt(options.get(name));
+
+        long start = System.nanoTime();
+        ApiServerData data = new ApiServerData(
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                options.containsKey("users") ? option.apply("users") : large ? 2000 : 200,
+                options.containsKey("projects") ? option.apply("projects") : large ? 5000 : 100,
+                options.containsKey("tasks") ? option.apply("tasks") : large ? 50000 : 2000,
+                options.containsKey("slots") ? option.apply("slots") : large ? 300000 : 20000,
+                options.containsKey("messages") ? option.apply("messages") : large ? 300000 : 20000);
+
+        ApiServer server = new ApiServer(
+                Integer.parseInt(options.getOrDefault("port", "8080")),
+                data,
+                Long.parseLong(options.getOrDefault("token-ttl", "3600")),
+                Long.parseLong(options.getOrDefault("latency", "0")),
+                options.containsKey("verbose"));
+
+        server.start();
+
+        System.out.printf(Locale.ROOT, "Données générées en %d ms, serveur sur %s (user1 / %s)%n",
+                (System.nanoTime() - start) / 1_000_000, server.getUrl(), ApiServerData.PASSWORD);
+    }
+
+    /**
+     * Lance le serveur
+     */
+    void start() {
+        server.start();
+    }
+
+    /**
+     * Arrête le serveur
+     */
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * URL du serveur, à donner au client
+     *
+     * @return URL
+     */
+    @NotNull
+    String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Traite une requête HTTP
+     *
+     * @param exchange Échange HTTP
+     * @throws IOException Erreur d'écriture de la réponse
+     */
+    private void handle(@NotNull HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        String path = exchange.getRequestURI().getPath();
+        String correlationId = exchange.getRequestHeaders().getFirst("X-Correlation-Id");
+        String idempotencyKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+        Result result;
+
+        if (idempotencyKey != null && !isReadOnly(path)) {
+            // Renvoi d'une modification : même réponse, sans l'appliquer une deuxième fois
+            Replay replay;
+
+            synchronized (replays) {
+                replay = replays.computeIfAbsent(path + " " + idempotencyKey, key -> new Replay());
+            }
+
+            synchronized (replay) {
+                if (replay.result != null) {
+                    exchange.getRequestBody().readAllBytes();
+                    exchange.getResponseHeaders().add("Idempotent-Replayed", "true");
+                    result = replay.result;
+                } else {
+                    result = execute(path, exchange);
+
+                    if (result.applied) {
+                        replay.result = result;
+                    } else {
+                        // Refus d'authentification, requête illisible ou erreur serveur : le renvoi doit être traité
+                        synchronized (replays) {
+                            replays.remove(path + " " + idempotencyKey, replay);
+                        }
+                    }
+                }
+            }
+        } else {
+            result = execute(path, exchange);
+        }
+
+        int status = result.status;
+        Object content = result.content;
+        String message = result.message;
+
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        LinkedHashMap<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("status", status == 200 ? "success" : "error");
+        envelope.put("code", status == 200 ? "SUCCESS" : "ERROR");
+        envelope.put("message", message);
+        envelope.put("content", content);
+
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        boolean messagePack = accept != null && accept.contains(CommunicationFormat.FORMAT_MESSAGE_PACK.getContentType());
+        byte[] body = messagePack ? toMessagePack(envelope) : JSONValue.toJSONString(envelope).getBytes(StandardCharsets.UTF_8);
+
+        if (correlationId != null) {
+            exchange.getResponseHeaders().add("X-Correlation-Id", correlationId);
+        }
+
+        if (status == 200 && isReadOnly(path)) {
+            CRC32 checksum = new CRC32();
+            checksum.update(body);
+            String etag = "\"" + Long.toHexString(checksum.getValue()) + (messagePack ? "-m" : "-j") + "\"";
+
+            exchange.getResponseHeaders().add("ETag", etag);
+            exchange.getResponseHeaders().add("Vary", "Accept, Accept-Encoding");
+
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                log(correlationId, path, 304, 0, start);
+                return;
+            }
+        }
+
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+
+        if (acceptEncoding != null && acceptEncoding.contains("gzip") && body.length >= GZIP_THRESHOLD) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(body);
+            }
+
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+
+        exchange.getResponseHeaders().add("Content-Type", messagePack
+                ? CommunicationFormat.FORMAT_MESSAGE_PACK.getContentType()
+                : CommunicationFormat.FORMAT_JSON.getContentType() + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+
+        log(correlationId, path, status, body.length, start);
+    }
+
+    /**
+     * Lit et traite une requête
+     *
+     * @param path     Chemin
+     * @param exchange Échange HTTP
+     * @return Réponse
+     */
+    @NotNull
+    private Result execute(@NotNull String path, @NotNull HttpExchange exchange) {
+        try {
+            Map<String, Object> request = readRequest(exchange);
+            return new Result(200, route(path, request), "OK", true);
+        } catch (ApiException e) {
+            return new Result(e.status, new LinkedHashMap<String, Object>(), e.getMessage(), isApplied(e.status));
+        } catch (ApiRuntimeException e) {
+            int status = ((ApiException) e.getCause()).status;
+            return new Result(status, new LinkedHashMap<String, Object>(), e.getCause().getMessage(), isApplied(status));
+        } catch (IOException | ParseException | RuntimeException e) {
+            return new Result(400, new LinkedHashMap<String, Object>(), "Requête illisible : " + e, false);
+        }
+    }
+
+    /**
+     * Refus qui fait partie du traitement de la requête, à renvoyer tel quel pour la même clé d'idempotence
+     *
+     * @param status Code HTTP du refus
+     * @return Faux pour les refus d'authentification et les erreurs serveur, que le client peut renvoyer
+     */
+    private static boolean isApplied(int status) {
+        return status != 401 && status != 403 && status < 500;
+    }
+
+    /**
+     * Lit les données d'une requête, en formulaire, JSON ou MessagePack
+     *
+     * @param exchange Échange HTTP
+     * @return Données, valeurs en chaines (formulaire) ou en nombres (JSON, MessagePack)
+     * @throws IOException    Erreur de lecture
+     * @throws ParseException JSON invalide
+     */
+    @NotNull
+    private static Map<String, Object> readRequest(@NotNull HttpExchange exchange) throws IOException, ParseException {
+        InputStream in = exchange.getRequestBody();
+
+        if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            in = new GZIPInputStream(in);
+        }
+
+        byte[] raw = in.readAllBytes();
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        HashMap<String, Object> request = new HashMap<>();
+        Object tree = null;
+
+        if (CommunicationFormat.FORMAT_MESSAGE_PACK.matches(contentType)) {
+            try (MessagePackReader reader = new MessagePackReader(new ByteArrayInputStream(raw))) {
+                tree = reader.readValue();
+            }
+        } else if (CommunicationFormat.FORMAT_JSON.matches(contentType)) {
+            tree = new JSONParser().parse(new String(raw, StandardCharsets.UTF_8));
+        } else {
+            for (String pair : new String(raw, StandardCharsets.UTF_8).split("&")) {
+                int equals = pair.indexOf('=');
+
+                if (equals > 0) {
+                    request.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                            URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        if (tree instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) tree).entrySet()) {
+                request.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+        }
+
+        return request;
+    }
+
+    /**
+     * Encode une réponse en MessagePack
+     *
+     * @param envelope Réponse
+     * @return Corps
+     * @throws IOException Impossible en mémoire
+     */
+    @NotNull
+    private static byte[] toMessagePack(@NotNull Map<String, Object> envelope) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new MessagePackWriter(out).writeValue(envelope);
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Endpoint en lecture seule, qui peut répondre 304
+     *
+     * @param path Chemin
+     * @return Lecture seule
+     */
+    private static boolean isReadOnly(@NotNull String path) {
+        return path.endsWith("/get") || path.endsWith("/list") || path.endsWith("/alloclist") || path.equals("/auth/verify");
+    }
+
+    /**
+     * Affiche une requête traitée, en mode verbeux
+     *
+     * @param correlationId Identifiant de trace du client
+     * @param path          Chemin
+     * @param status        Code HTTP
+     * @param bytes         Octets envoyés
+     * @param start         Début du traitement, en nanosecondes
+     */
+    private void log(@Nullable String correlationId, @NotNull String path, int status, int bytes, long start) {
+        if (verbose) {
+            System.out.printf(Locale.ROOT, "%s %-20s %d %8d o %6.1f ms%n",
+                    correlationId != null ? correlationId : "-", path, status, bytes, (System.nanoTime() - start) / 1e6);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Traite une requête selon son endpoint
+     *
+     * @param path    Chemin
+     * @param request Données de la requête
+     * @return Contenu de la réponse
+     * @throws ApiException Requête refusée
+     */
+    @NotNull
+    private Object route(@NotNull String path, @NotNull Map<String, Object> request) throws ApiException {
+        switch (path) {
+            case "/auth/connect":
+                return connect(request);
+            case "/auth/renew":
+                return renew(request);
+            case "/auth/verify":
+                return verify(request);
+
+            case "/project/create":
+                return createProject(request);
+            case "/project/get":
+                return getProject(request);
+            case "/project/list":
+                return listProjects(request);
+            case "/project/alloc":
+                return allocate(request);
+            case "/project/unalloc":
+                return unallocate(request);
+            case "/project/alloclist":
+                return listAllocations(request);
+
+            case "/resource/h/get":
+                return getHumanResources(request);
+            case "/resource/h/list":
+                return listHumanResources(request);
+            case "/resource/m/create":
+                return createMaterialResource(request);
+            case "/resource/m/get":
+                return getMaterialResources(request);
+            case "/resource/m/list":
+                return listMaterialResources(request);
+
+            case "/task/create":
+                return createTask(request);
+            case "/task/list":
+                return listTasks(request);
+
+            case "/timeslot/create":
+                return createTimeSlot(request);
+            case "/timeslot/list":
+                return listTimeSlots(request);
+
+            case "/message/create":
+                return createMessage(request);
+            case "/message/list":
+                return listMessages(request);
+
+            default:
+                throw new ApiException(404, "Endpoint inconnu : " + path);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Connexion : tokens de requête et de renouvellement
+     *
+     * @param request Données
+     * @return Contenu
+     * @throws ApiException Identifiants invalides
+     */
+    @NotNull
+    private Object connect(@NotNull Map<String, Object> request) throws ApiException {
+        ApiServerData.Person user = data.read(() -> data.getUser(string(request, "username")));
+
+        if (user == null || !ApiServerData.PASSWORD.equals(request.get("passwd"))) {
+            throw new ApiException(401, "Identifiants invalides");
+        }
+
+        LinkedHashMap<String, Object> content = new LinkedHashMap<>();
+        content.put("requests-token", token(user, "request", tokenTtl));
+        content.put("renew-token", token(user, "renew", RENEW_TTL));
+
+        return content;
+    }
+
+    /**
+     * Renouvellement du token de requête
+     *
+     * @param request Données
+     * @return Contenu
+     * @throws ApiException Token de renouvellement invalide ou expiré
+     */
+    @NotNull
+    private Object renew(@NotNull Map<String, Object> request) throws ApiException {
+        ApiServerData.Person user = authenticate(request, "renew");
+
+        LinkedHashMap<String, Object> content = new LinkedHashMap<>();
+        content.put("requests-token", token(user, "request", tokenTtl));
+
+        return content;
+    }
+
+    /**
+     * Informations de l'utilisateur connecté
+     *
+     * @param request Données
+     * @return Contenu
+     * @throws ApiException Token invalide
+     */
+    @NotNull
+    private Object verify(@NotNull Map<String, Object> request) throws ApiException {
+        ApiServerData.Person user = authenticate(request, "request");
+
+        LinkedHashMap<String, Object> control = new LinkedHashMap<>();
+        control.put("ip", "127.0.0.1");
+        control.put("type", "request");
+
+        LinkedHashMap<String, Object> userContent = new LinkedHashMap<>();
+        userContent.put("id", user.id);
+        userContent.put("id_h_resource", user.id);
+        userContent.put("username", user.username);
+        userContent.put("email", user.username + "@example.com");
+
+        LinkedHashMap<String, Object> verified = new LinkedHashMap<>();
+        verified.put("control", control);
+        verified.put("user", userContent);
+
+        LinkedHashMap<String, Object> content = new LinkedHashMap<>();
+        content.put("data", verified);
+
+        return content;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Création d'un projet
+     *
+     * @param request Données
+     * @return Contenu, id du projet
+     * @throws ApiException Token ou données invalides
+     */
+    @NotNull
+    private Object createProject(@NotNull Map<String, Object> request) throws ApiException {
+        ApiServerData.Person user = authenticate(request, "request");
+        String name = string(request, "name");
+        String description = string(request, "description");
+        long deadline = number(request, "deadline");
+        String status = string(request, "status");
+
+        ApiServerData.Project project = data.write(() -> data.addProject(name, description, deadline, status, user.id));
+
+        return created(project.id);
+    }
+
+    /**
+     * Un projet
+     *
+     * @param request Données
+     * @return Contenu
+     * @throws ApiException Token invalide, projet inconnu
+     */
+    @NotNull
+    private Object getProject(@NotNull Map<String, Object> request) throws ApiException {
+        authenticate(request, "request");
+        ApiServerData.Project project = data.read(() -> data.getProject(number(request, "id")));
+
+        if (project == null) {
+            throw new ApiException(404, "Projet inconnu");
+        }
+
+        LinkedHashMap<String, Object> content = new LinkedHashMap<>();
+        content.put("project", project(project));
+
+        return content;
+    }
+
+    /**
+     * Liste des projets
+     *
+     * @param request Données
+     * @return Contenu
+     * @throws ApiException Token invalide
+     */
+    @NotNull
+    private Object listProjects(@NotNull Map<String, Object> request) throws ApiException {
+        authenticate(request, "request");
+        long since = since(request);
+
+        return data.read(() -> {
+            long from = checked(since);
+            return synced("projects", data.getProjects(from), ApiServer::project, since, from != since);
+        });
+    }
+
+    /**
+     * Allocation d'une ressource à un projet
+     *
+     * @param request Données
+     * @return Contenu, id de l'allocation
+     * @throws ApiException Token ou données invalides
+     */
+    @NotNull
+    private Object allocate(@NotNull Map<String, Object> request) throws ApiException {
+        ApiServerData.Person user = authenticate(request, "request");
+        long project = number(request, "project");
+        String type = resourceType(request);
+        long resource = number(request, "id");
+        long start = request.containsKey("start") ? number(request, "start") : System.currentTimeMillis() / 1000L;
+        long end = number(request, "end");
+
+        ApiServerData.Allocation allocation = data.write(() -> {
+            checkProject(project);
+            return data.allocate(project, type, resource, start, end, user.id);
+        });
+
+        return created(allocation.id);
+    }
+
+    /**
+     * Fin de l'allocation d'une ressource à un projet
+     *
+     * @param request Données
+     * @return Contenu
+     * @throws ApiException Token ou données invalides
+     */
+    @NotNull
+    private Object unallocate(@NotNull Map<String, Object> request) throws ApiException {
+        authenticate(request, "request");
+        long project = number(request, "project");
+        String type = resourceType(request);
+        long resource = number(request, "id");
+        long date = request.containsKey("date") ? number(request, "date") : System.currentTimeMillis() / 1000L;
+
+        int count = data.write(() -> data.unallocate(project, type, resource, date));
+
+        if (count == 0) {
+            throw new ApiException(404, "Allocation inconnue");
+        }
+
+        return new LinkedHashMap<String, Object>();
+    }
+
+    /**
+     * Ressources allouées à un projet à une date, les valeurs sont des chaines comme dans l'API
+     *
+     * @param request Données
+     * @return Contenu
+     * @throws ApiException Token invalide
+     */
+    @NotNull
+    private Object listAllocations(@NotNull Map<String, Object> request) throws ApiException {
+        authenticate(request, "request");
+        long project = number(request, "project");
+        long date = request.containsKey("date") ? number(request, "date") : System.currentTimeMillis() / 1000L;
+
+        return data.read(() -> {
+            ArrayList<Object> human = new ArrayList<>();
+            ArrayList<Object> material = new ArrayList<>();
+
+            for (ApiServerData.Allocation allocation : data.getAllocations(project, date)) {
+                LinkedHashMap<String, Object> element = new LinkedHashMap<>();
+                element.put("id", String.valueOf(allocation.id));
+                element.put("id_resource", String.valueOf(allocation.resource));
+                element.put("id_project", String.valueOf(allocation.project));
+                element.put("date_start", String.valueOf(allocation.start));
+                element.put("date_end", String.valueOf(allocation.end));
+                element.put("id_issuer", String.valueOf(allocation.issuer));
+                element.put("status", "ALLOCATED");
+
+                (allocation.type.equals("HUMAN") ? human : material).add(element);
+            }
+
+            LinkedHashMap<String, Object> content = new LinkedHashMap<>();
+            content.put("HUMAN", human);
+            content.put("MATERIAL", material);
+
+            return content;
+        });
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Une ressource humaine (id), ou plusieurs (ids séparés par des virgules)
+     *
+     * @param request Données
+     * @return Contenu
+     * @throws ApiException Token invalide, ressource inconnue
+     */
+    @NotNull
+    private Object getHumanResources(@NotNull Map<String, Object> request) throws ApiException {
+        authenticate(request, "request");
+
+        if (!request.containsKey("ids")) {
+            ApiServerData.Person person = data.read(() -> data.getPerson(number(request, "id")));
+
+            if (person == null) {
+                throw new ApiException(404, "Ressource humaine inconnue");
+            }
+
+            return person(person);
+        }
+
+        ArrayList<Object> resources = new ArrayList<>();
+
+        for (long id : ids(request)) {
+            ApiServerData.Person person = data.read(() -> data.getPerson(id));
+
+            if (person != null) {
+                resources.add(person(person));
+            }
+        }
+
+        LinkedHashMap<String, Object> content = new LinkedHashMap<>();
+        content.put("h_resources", resources);
+
+        return content;
+    }
+
+    /**
+     * Liste des ressources humaines
+     *
+     * @param request Données
+     * @return Contenu
+     * @throws ApiException Token invalide
+     */
+    @NotNull
+    private Object listHumanResources(@NotNull Map<String, Object> request) throws ApiException {
+        authenticate(request, "request");
+
+        LinkedHashMap<String, Object> content = new LinkedHashMap<>();
+        content.put("h_ressources", data.read(() -> wrapped(data.getPeople(), ApiServer::person)));
+
+        return content;
+    }
+
+    /**
+     * Création d'une ressource matérielle
+     *
+     * @param request Données
+     * @return Contenu, la ressource créée
+     * @throws ApiException Token ou données invalides
+     */
+    @NotNull
+    private Object createMaterialResource(@NotNull Map<String, Object> request) throws ApiException {
+        authenticate(request, "request");
+        String name = string(request, "name");
+        String description = request.containsKey("description") ? string(request, "description") : "";
+
+        ApiServerData.Material material = data.write(() -> data.addMaterial(name, description));
+
+        LinkedHashMap<String, Object> element = new LinkedHashMap<>();
+        element.put("m_resource", material(material));
+
+        ArrayList<Object> content = new ArrayList<>();
+        content.add(element);
+
+        return content;
+    }
+
+    /**
+     * Une ressource matérielle (id), ou plusieurs (ids séparés par des virgules)
+     *
+     * @param request Données
+     * @return Contenu
+     * @throws ApiException Token invalide, ressource inconnue
+     */
+    @NotNull
+    private Object getMaterialResources(@NotNull Map<String, Object> request) throws ApiException {
+        authenticate(request, "request");
+
+        if (!request.containsKey("ids")) {
+            ApiServerData.Material material = data.read(() -> data.getMaterial(number(request, "id")));
+
+            if (material == null) {
+                throw new ApiException(404, "Ressource matérielle inconnue");
+            }
+
+            return material(material);
+        }
+
+        ArrayList<Object> resources = new ArrayList<>();
+
+        for (long id : ids(request)) {
+            ApiServerData.Material material = data.read(() -> data.getMaterial(id));
+
+            if (material != null) {
+                resources.add(material(material));
+            }
+        }
+
+        LinkedHashMap<String, Object> content = new LinkedHashMap<>();
+        content.put("m_resources", resources);
+
+        return content;
+    }
+
+    /**
+     * Liste des ressources matérielles
+     *
+     * @param request Données
+     * @return Contenu
+     * @throws ApiException Token invalide
+     */
+    @NotNull
+    private Object listMaterialResources(@NotNull Map<String, Object> request) throws ApiException {
+        authenticate(request, "request");
+
+        LinkedHashMap<String, Object> content = new LinkedHashMap<>();
+        content.put("m_ressources", data.read(() -> wrapped(data.getMaterials(), ApiServer::material)));
+
+        return content;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Création d'une tâche
+     *
+     * @param request Données
+     * @return Contenu, id de la tâche
+     * @throws ApiException Token ou données invalides
+     */
+    @NotNull
+    private Object createTask(@NotNull Map<String, Object> request) throws ApiException {
+        authenticate(request, "request");
+        String name = string(request, "name");
+        String description = string(request, "description");
+        String status = string(request, "status");
+        long deadline = number(request, "deadline");
+        long project = number(request, "project");
+
+        ApiServerData.Task task = data.write(() -> {
+            checkProject(project);
+            return data.addTask(name, description, status, deadline, project);
+        });
+
+        return created(task.id);
+    }
+
+    /**
+     * Tâches d'un projet
+     *
+     * @param request Données
+     * @return Contenu
+     * @throws ApiException Token invalide
+     */
+    @NotNull
+    private Object listTasks(@NotNull Map<String, Object> request) throws ApiException {
+        authenticate(request, "request");
+        long project = number(request, "project");
+        long since = since(request);
+
+        return data.read(() -> {
+            long from = checked(since);
+            return synced("tasks", data.getTasks(project, from), ApiServer::task, since, from != since);
+        });
+    }
+
+    /**
+     * Création d'un créneau pour l'utilisateur connecté
+     *
+     * @param request Données
+     * @return Contenu, id du créneau
+     * @throws ApiException Token ou données invalides
+     */
+    @NotNull
+    private Object createTimeSlot(@NotNull Map<String, Object> request) throws ApiException {
+        ApiServerData.Person user = authenticate(request, "request");
+        long start = number(request, "start");
+        long end = number(request, "end");
+        long task = number(request, "task");
+        long room = number(request, "room");
+
+        if (end <= start) {
+            throw new ApiException(400, "Créneau vide");
+        }
+
+        ApiServerData.Slot slot = data.write(() -> {
+            if (data.getTask(task) == null) {
+                throw new ApiRuntimeException(new ApiException(404, "Tâche inconnue"));
+            }
+
+            return data.addSlot(start, end, task, room, user.id);
+        });
+
+        return created(slot.id);
+    }
+
+    /**
+     * Créneaux de l'utilisateur connecté qui recoupent une période
+     *
+     * @param request Données
+     * @return Contenu
+     * @throws ApiException Token invalide
+     */
+    @NotNull
+    private Object listTimeSlots(@NotNull Map<String, Object> request) throws ApiException {
+        ApiServerData.Person user = authenticate(request, "request");
+        long from = number(request, "from");
+        long to = number(request, "to");
+        long since = since(request);
+
+        return data.read(() -> {
+            long cursor = checked(since);
+            return synced("timeslots", data.getSlots(user.id, from, to, cursor), ApiServer::slot, since, cursor != since);
+        });
+    }
+
+    /**
+     * Envoi d'un message de l'utilisateur connecté
+     *
+     * @param request Données
+     * @return Contenu, id du message
+     * @throws ApiException Token ou données invalides
+     */
+    @NotNull
+    private Object createMessage(@NotNull Map<String, Object> request) throws ApiException {
+        ApiServerData.Person user = authenticate(request, "request");
+        String content = string(request, "content");
+        String destination = string(request, "destination");
+        long id = number(request, "id");
+
+        ApiServerData.Message message = data.write(() -> data.addMessage(user.id, destination, id, content));
+
+        return created(message.id);
+    }
+
+    /**
+     * Page d'une conversation <br>
+     * Une page ne se met pas à jour élément par élément : avec un curseur, elle est renvoyée entière
+     * si la conversation a changé, vide sinon
+     *
+     * @param request Données
+     * @return Contenu
+     * @throws ApiException Token invalide
+     */
+    @NotNull
+    private Object listMessages(@NotNull Map<String, Object> request) throws ApiException {
+        authenticate(request, "request");
+        String origin = string(request, "origin");
+        long id = number(request, "id");
+        int page = (int) number(request, "page");
+        long since = since(request);
+
+        return data.read(() -> {
+            long from = checked(since);
+            boolean changed = from < 0 || data.hasMessagesSince(origin, id, from);
+            List<ApiServerData.Message> messages = changed ? data.getMessages(origin, id, page) : new ArrayList<>();
+
+            return synced("messages", messages, ApiServer::message, since, since >= 0 && changed);
+        });
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Curseur utilisable, à appeler sous le verrou des données
+     *
+     * @param since Curseur reçu, -1 si aucun
+     * @return Curseur, -1 s'il est en avance sur les données (serveur relancé) : la liste doit être renvoyée entière
+     */
+    private long checked(long since) {
+        return since <= data.getVersion() ? since : -1;
+    }
+
+    /**
+     * Liste synchronisable : éléments, curseur, et avec un curseur reçu, identifiants supprimés
+     *
+     * @param name     Nom de la liste
+     * @param elements Éléments, tous ou modifiés depuis le curseur
+     * @param encoder  Encodage d'un élément
+     * @param since    Curseur reçu, -1 si aucun
+     * @param full     Liste entière malgré le curseur
+     * @param <T>      Type des éléments
+     * @return Contenu
+     */
+    @NotNull
+    private <T> Map<String, Object> synced(@NotNull String name,
+                                           @NotNull List<T> elements,
+                                           @NotNull Function<T, Map<String, Object>> encoder,
+                                           long since,
+                                           boolean full) {
+        LinkedHashMap<String, Object> content = new LinkedHashMap<>();
+        content.put(name, wrapped(elements, encoder));
+        content.put("cursor", String.valueOf(data.getVersion()));
+
+        if (since >= 0) {
+            // Pas de suppression dans l'API : la liste est toujours vide
+            content.put("deleted", new ArrayList<>());
+            content.put("full", full);
+        }
+
+        return content;
+    }
+
+    /**
+     * Liste d'éléments enveloppés par leur index : [{"0": {...}}, {"1": {...}}]
+     *
+     * @param elements Éléments
+     * @param encoder  Encodage d'un élément
+     * @param <T>      Type des éléments
+     * @return Liste
+     */
+    @NotNull
+    private static <T> List<Object> wrapped(@NotNull List<T> elements, @NotNull Function<T, Map<String, Object>> encoder) {
+        ArrayList<Object> list = new ArrayList<>(elements.size());
+
+        for (int i = 0; i < elements.size(); i++) {
+            LinkedHashMap<String, Object> element = new LinkedHashMap<>();
+            element.put(String.valueOf(i), encoder.apply(elements.get(i)));
+            list.add(element);
+        }
+
+        return list;
+    }
+
+    /**
+     * Contenu d'une création
+     *
+     * @param id Id de l'élément créé
+     * @return Contenu
+     */
+    @NotNull
+    private static Map<String, Object> created(long id) {
+        LinkedHashMap<String, Object> content = new LinkedHashMap<>();
+        content.put("id", id);
+
+        return content;
+    }
+
+    @NotNull
+    private static Map<String, Object> project(@NotNull ApiServerData.Project project) {
+        LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+        json.put("id", project.id);
+        json.put("name", project.name);
+        json.put("description", project.description);
+        json.put("deadline", project.deadline);
+        json.put("status", project.status);
+
+        return json;
+    }
+
+    @NotNull
+    private static Map<String, Object> person(@NotNull ApiServerData.Person person) {
+        LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+        json.put("id", person.id);
+        json.put("firstname", person.firstname);
+        json.put("lastname", person.lastname);
+        json.put("job", person.job);
+        json.put("role", person.role);
+        json.put("description", person.description);
+
+        return json;
+    }
+
+    @NotNull
+    private static Map<String, Object> material(@NotNull ApiServerData.Material material) {
+        LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+        json.put("id", material.id);
+        json.put("name", material.name);
+        json.put("description", material.description);
+
+        return json;
+    }
+
+    @NotNull
+    private static Map<String, Object> task(@NotNull ApiServerData.Task task) {
+        LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+        json.put("id", task.id);
+        json.put("name", task.name);
+        json.put("description", task.description);
+        json.put("status", task.status);
+        json.put("deadline", task.deadline);
+        json.put("project", task.project);
+
+        return json;
+    }
+
+    @NotNull
+    private static Map<String, Object> slot(@NotNull ApiServerData.Slot slot) {
+        LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+        json.put("id", slot.id);
+        json.put("start", slot.start);
+        json.put("end", slot.end);
+        json.put("task", slot.task);
+        json.put("room", slot.room);
+
+        return json;
+    }
+
+    @NotNull
+    private static Map<String, Object> message(@NotNull ApiServerData.Message message) {
+        LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+        json.put("id", message.id);
+        json.put("date", message.date);
+        json.put("sourceId", message.source);
+        json.put("destinationId", message.destinationId);
+        json.put("destination", message.destination);
+        json.put("content", message.content);
+
+        return json;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Crée un token JWT signé
+     *
+     * @param user Utilisateur
+     * @param type request ou renew
+     * @param ttl  Durée de vie en secondes
+     * @return Contenu {"value": token}
+     */
+    @NotNull
+    private Map<String, Object> token(@NotNull ApiServerData.Person user, @NotNull String type, long ttl) {
+        long now = System.currentTimeMillis() / 1000L;
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+        LinkedHashMap<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", user.id);
+        claims.put("typ", type);
+        claims.put("iat", now);
+        claims.put("exp", now + ttl);
+
+        String unsigned = encoder.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(JSONValue.toJSONString(claims).getBytes(StandardCharsets.UTF_8));
+
+        LinkedHashMap<String, Object> token = new LinkedHashMap<>();
+        token.put("value", unsigned + "." + encoder.encodeToString(sign(unsigned)));
+
+        return token;
+    }
+
+    /**
+     * Vérifie le token d'une requête
+     *
+     * @param request Données
+     * @param type    Type de token attendu : request ou renew
+     * @return Utilisateur du token
+     * @throws ApiException Token absent, invalide ou expiré : 401 pour un token de requête, 403 pour un renouvellement
+     */
+    @NotNull
+    private ApiServerData.Person authenticate(@NotNull Map<String, Object> request, @NotNull String type) throws ApiException {
+        int status = type.equals("renew") ? 403 : 401;
+        Object token = request.get("token");
+        String[] parts = token != null ? token.toString().split("\\.") : new String[0];
+
+        if (parts.length != 3) {
+            throw new ApiException(status, "Token absent");
+        }
+
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(parts[2]);
+
+            if (!MessageDigest.isEqual(signature, sign(parts[0] + "." + parts[1]))) {
+                throw new ApiException(status, "Token invalide");
+            }
+
+            Map<?, ?> claims = (Map<?, ?>) new JSONParser().parse(
+                    new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8));
+
+            if (!type.equals(claims.get("typ"))) {
+                throw new ApiException(status, "Mauvais type de token");
+            }
+
+            if ((long) claims.get("exp") < System.currentTimeMillis() / 1000L) {
+                throw new ApiException(status, "Token expiré");
+            }
+
+            long id = (long) claims.get("sub");
+            ApiServerData.Person user = data.read(() -> data.getPerson(id));
+
+            if (user == null) {
+                throw new ApiException(status, "Utilisateur inconnu");
+            }
+
+            return user;
+        } catch (ParseException | RuntimeException e) {
+            throw new ApiException(status, "Token illisible");
+        }
+    }
+
+    /**
+     * Signature HMAC-SHA256
+     *
+     * @param unsigned En-tête et contenu du token
+     * @return Signature
+     */
+    @NotNull
+    private byte[] sign(@NotNull String unsigned) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+
+            return mac.doFinal(unsigned.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            // HmacSHA256 est toujours disponible
+            throw new IllegalStateException(e);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Vérifie qu'un projet existe, pendant une modification
+     *
+     * @param project Id du projet
+     */
+    private void checkProject(long project) {
+        if (data.getProject(project) == null) {
+            throw new ApiRuntimeException(new ApiException(404, "Projet inconnu"));
+        }
+    }
+
+    /**
+     * Curseur reçu
+     *
+     * @param request Données
+     * @return Curseur, -1 si absent ou invalide
+     */
+    private static long since(@NotNull Map<String, Object> request) {
+        Object since = request.get("since");
+
+        try {
+            return since != null ? Long.parseLong(since.toString()) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Type de ressource d'une allocation
+     *
+     * @param request Données
+     * @return HUMAN ou MATERIAL
+     * @throws ApiException Type invalide
+     */
+    @NotNull
+    private static String resourceType(@NotNull Map<String, Object> request) throws ApiException {
+        String type = string(request, "type");
+
+        if (!type.equals("HUMAN") && !type.equals("MATERIAL")) {
+            throw new ApiException(400, "Type de ressource invalide : " + type);
+        }
+
+        return type;
+    }
+
+    /**
+     * Ids séparés par des virgules
+     *
+     * @param request Données
+     * @return Ids
+     * @throws ApiException Liste invalide
+     */
+    @NotNull
+    private static List<Long> ids(@NotNull Map<String, Object> request) throws ApiException {
+        ArrayList<Long> ids = new ArrayList<>();
+
+        try {
+            for (String id : string(request, "ids").split(",")) {
+                if (!id.isBlank()) {
+                    ids.add(Long.parseLong(id.trim()));
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Ids invalides");
+        }
+
+        return ids;
+    }
+
+    /**
+     * Donnée texte obligatoire
+     *
+     * @param request Données
+     * @param key     Nom
+     * @return Valeur
+     */
+    @NotNull
+    private static String string(@NotNull Map<String, Object> request, @NotNull String key) {
+        Object value = request.get(key);
+
+        if (value == null) {
+            throw new ApiRuntimeException(new ApiException(400, "Donnée manquante : " + key));
+        }
+
+        return value.toString();
+    }
+
+    /**
+     * Donnée numérique obligatoire, en nombre (JSON, MessagePack) ou en chaine (formulaire)
+     *
+     * @param request Données
+     * @param key     Nom
+     * @return Valeur
+     */
+    private static long number(@NotNull Map<String, Object> request, @NotNull String key) {
+        Object value = request.get(key);
+
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+
+        try {
+            return Long.parseLong(string(request, key));
+        } catch (NumberFormatException e) {
+            throw new ApiRuntimeException(new ApiException(400, "Nombre invalide : " + key));
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Réponse d'une requête, avant encodage
+     */
+    private static final class Result {
+        /**
+         * Code HTTP
+         */
+        private final int status;
+
+        /**
+         * Contenu
+         */
+        @NotNull
+        private final Object content;
+
+        /**
+         * Message
+         */
+        @NotNull
+        private final String message;
+
+        /**
+         * Requête traitée (succès ou refus métier), réponse à rejouer pour la même clé d'idempotence
+         */
+        private final boolean applied;
+
+        /**
+         * Constructeur
+         *
+         * @param status  Code HTTP
+         * @param content Contenu
+         * @param message Message
+         * @param applied Requête traitée, réponse à rejouer
+         */
+        private Result(int status, @NotNull Object content, @NotNull String message, boolean applied) {
+            this.status = status;
+            this.content = content;
+            this.message = message;
+            this.applied = applied;
+        }
+    }
+
+    /**
+     * Réponse d'une modification pour une clé d'idempotence, sert de verrou aux envois simultanés de la même clé
+     */
+    private static final class Replay {
+        /**
+         * Réponse du premier envoi traité, null tant qu'aucun ne l'est
+         */
+        @Nullable
+        private Result result;
+    }
+
+    /**
+     * Requête refusée, avec son code HTTP
+     */
+    private static class ApiException extends Exception {
+        /**
+         * Version
+         */
+        private static final long serialVersionUID = 283741590;
+
+        /**
+         * Code HTTP de la réponse
+         */
+        private final int status;
+
+        /**
+         * Constructeur
+         *
+         * @param status  Code HTTP
+         * @param message Message de la réponse
+         */
+        private ApiException(int status, @NotNull String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Requête refusée depuis un lambda ou une lecture de donnée, déballée par handle()
+     */
+    private static class ApiRuntimeException extends RuntimeException {
+        /**
+         * Version
+         */
+        private static final long serialVersionUID = 917305624;
+
+        /**
+         * Constructeur
+         *
+         * @param cause Refus
+         */
+        private ApiRuntimeException(@NotNull ApiException cause) {
+            super(cause);
+        }
+    }
+}
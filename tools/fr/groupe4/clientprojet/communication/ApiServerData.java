@@ -0,0 +1,907 @@
+package fr.groupe4.clientprojet.communication;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Données du serveur de remplacement de l'API, générées à partir d'une graine <br>
+ * <br>
+ * La même graine et les mêmes tailles donnent toujours les mêmes données. Les projets, les tâches
+ * et les messages sont répartis de façon inégale : quelques gros projets concentrent beaucoup de tâches
+ * et de messages, comme chez un gros client. <br>
+ * Chaque création reçoit un numéro de version croissant : le curseur "since" des listes
+ * est la dernière version connue du client.
+ *
+ * @see ApiServer
+ */
+final class ApiServerData {
+    /**
+     * Nombre de messages par page
+     */
+    static final int PAGE_SIZE = 50;
+
+    /**
+     * Mot de passe de tous les utilisateurs générés
+     */
+    static final String PASSWORD = "password";
+
+    /**
+     * Prénoms, pour générer les ressources humaines
+     */
+    private static final String[] FIRSTNAMES = {
+            "Alice", "Bruno", "Camille", "David", "Emma", "François", "Gabriel", "Hugo", "Inès", "Jules",
+            "Léa", "Louis", "Manon", "Nathan", "Océane", "Paul", "Quentin", "Romain", "Sarah", "Théo"
+    };
+
+    /**
+     * Noms, pour générer les ressources humaines
+     */
+    private static final String[] LASTNAMES = {
+            "Martin", "Bernard", "Thomas", "Petit", "Robert", "Richard", "Durand", "Dubois", "Moreau", "Laurent",
+            "Simon", "Michel", "Lefebvre", "Leroy", "Roux", "David", "Bertrand", "Morel", "Fournier", "Girard"
+    };
+
+    /**
+     * Métiers, pour générer les ressources humaines
+     */
+    private static final String[] JOBS = {
+            "Développeur", "Chef de projet", "Designer", "Testeur", "Administrateur", "Analyste", "Architecte"
+    };
+
+    /**
+     * Mots, pour générer les noms, descriptions et messages
+     */
+    private static final String[] WORDS = {
+            "refonte", "migration", "client", "serveur", "planning", "réunion", "livraison", "maquette", "base",
+            "données", "test", "recette", "sprint", "revue", "correction", "interface", "export", "import",
+            "sécurité", "performance", "documentation", "formation", "budget", "contrat", "support", "audit"
+    };
+
+    /**
+     * Statuts des projets et des tâches
+     */
+    private static final String[] STATUSES = {"ONGOING", "ONGOING", "ONGOING", "PENDING", "FINISHED", "CANCELED"};
+
+    /**
+     * Nombre de salles
+     */
+    private static final int ROOMS = 50;
+
+    /**
+     * Verrou des données : lectures en parallèle, créations une par une
+     */
+    @NotNull
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Dernière version attribuée
+     */
+    private long version = 0;
+
+    /**
+     * Projets par id, dans l'ordre de création
+     */
+    @NotNull
+    private final LinkedHashMap<Long, Project> projects = new LinkedHashMap<>();
+
+    /**
+     * Ressources humaines, l'id est l'index + 1
+     */
+    @NotNull
+    private final ArrayList<Person> people = new ArrayList<>();
+
+    /**
+     * Ressources humaines par nom d'utilisateur
+     */
+    @NotNull
+    private final HashMap<String, Person> usernames = new HashMap<>();
+
+    /**
+     * Ressources matérielles, l'id est l'index + 1
+     */
+    @NotNull
+    private final ArrayList<Material> materials = new ArrayList<>();
+
+    /**
+     * Allocations par projet
+     */
+    @NotNull
+    private final HashMap<Long, ArrayList<Allocation>> allocations = new HashMap<>();
+
+    /**
+     * Tâches par id
+     */
+    @NotNull
+    private final HashMap<Long, Task> tasks = new HashMap<>();
+
+    /**
+     * Tâches par projet, dans l'ordre de création
+     */
+    @NotNull
+    private final HashMap<Long, ArrayList<Task>> tasksByProject = new HashMap<>();
+
+    /**
+     * Créneaux par ressource humaine
+     */
+    @NotNull
+    private final HashMap<Long, ArrayList<Slot>> slotsByOwner = new HashMap<>();
+
+    /**
+     * Messages par conversation ("PROJECT:12"), du plus ancien au plus récent
+     */
+    @NotNull
+    private final HashMap<String, ArrayList<Message>> conversations = new HashMap<>();
+
+    /**
+     * Derniers ids attribués
+     */
+    private long lastProject = 0, lastAllocation = 0, lastTask = 0, lastSlot = 0, lastMessage = 0;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Génère les données
+     *
+     * @param seed     Graine
+     * @param users    Nombre de ressources humaines (utilisateurs user1, user2...)
+     * @param projects Nombre de projets
+     * @param tasks    Nombre de tâches
+     * @param slots    Nombre de créneaux
+     * @param messages Nombre de messages
+     */
+    ApiServerData(long seed, int users, int projects, int tasks, int slots, int messages) {
+        Random random = new Random(seed);
+        long now = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toEpochSecond();
+        int materialCount = Math.max(10, projects / 10);
+
+        for (int i = 1; i <= users; i++) {
+            String role = i % 20 == 1 ? "PROJECT_LEADER" : i % 20 == 2 ? "RESOURCE_MANAGER" : "COLLABORATOR";
+            Person person = new Person(i, pick(random, FIRSTNAMES), pick(random, LASTNAMES),
+                    pick(random, JOBS), role, sentence(random, 6), "user" + i);
+
+            people.add(person);
+            usernames.put(person.username, person);
+        }
+
+        for (int i = 1; i <= materialCount; i++) {
+            materials.add(new Material(i, "Matériel " + i, sentence(random, 4)));
+        }
+
+        for (int i = 0; i < projects; i++) {
+            long id = ++lastProject;
+            long deadline = random.nextInt(5) == 0 ? 0 : now + (random.nextInt(730) - 180) * 86400L;
+            Project project = new Project(id, "Projet " + capitalize(pick(random, WORDS)) + " " + id,
+                    sentence(random, 12), deadline, pick(random, STATUSES));
+
+            this.projects.put(id, project);
+
+            // L'utilisateur 1 est sur tous les projets, les autres sur quelques-uns
+            allocate(project.id, "HUMAN", 1, now - 365 * 86400L, now + 365 * 86400L, 1);
+
+            for (int j = 0, n = 2 + random.nextInt(10); j < n && users > 1; j++) {
+                allocate(project.id, "HUMAN", 2 + random.nextInt(users - 1),
+                        now - random.nextInt(365) * 86400L, now + random.nextInt(365) * 86400L, 1);
+            }
+
+            for (int j = 0, n = random.nextInt(4); j < n; j++) {
+                allocate(project.id, "MATERIAL", 1 + random.nextInt(materialCount),
+                        now - random.nextInt(365) * 86400L, now + random.nextInt(365) * 86400L, 1);
+            }
+        }
+
+        for (int i = 0; i < tasks && projects > 0; i++) {
+            long project = skewed(random, projects);
+            addTask("Tâche " + pick(random, WORDS) + " " + (i + 1), sentence(random, 10),
+                    pick(random, STATUSES), now + (random.nextInt(365) - 60) * 86400L, project, 0);
+        }
+
+        for (int i = 0; i < slots && users > 0 && lastTask > 0; i++) {
+            long start = now + (random.nextInt(361) - 180) * 86400L + (8 + random.nextInt(9)) * 3600L;
+            long end = start + (1 + random.nextInt(3)) * 3600L;
+            long owner = i % 4 == 0 ? 1 : 1 + random.nextInt(users);
+
+            addSlot(start, end, 1 + random.nextInt((int) lastTask), 1 + random.nextInt(ROOMS), owner, 0);
+        }
+
+        long date = now - 365 * 86400L;
+        long step = messages > 0 ? Math.max(1, 365 * 86400L / messages) : 1;
+
+        for (int i = 0; i < messages && users > 0; i++) {
+            boolean toProject = projects > 0 && random.nextInt(100) < 85;
+            long destinationId = toProject ? skewed(random, projects) : 1 + random.nextInt(users);
+            date += random.nextInt((int) Math.min(Integer.MAX_VALUE, step * 2)) + 1;
+
+            addMessage(date, 1 + random.nextInt(users), toProject ? "PROJECT" : "HUMANRESOURCE",
+                    destinationId, capitalize(sentence(random, 3 + random.nextInt(15))), 0);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Lecture des données, en parallèle avec les autres lectures
+     *
+     * @param reading Lecture
+     * @param <T>     Type du résultat
+     * @return Résultat
+     */
+    <T> T read(@NotNull Supplier<T> reading) {
+        lock.readLock().lock();
+
+        try {
+            return reading.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Modification des données, seule
+     *
+     * @param writing Modification
+     * @param <T>     Type du résultat
+     * @return Résultat
+     */
+    <T> T write(@NotNull Supplier<T> writing) {
+        lock.writeLock().lock();
+
+        try {
+            return writing.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Dernière version attribuée, sert de curseur
+     *
+     * @return Version
+     */
+    long getVersion() {
+        return version;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Ressource humaine d'un utilisateur
+     *
+     * @param username Nom d'utilisateur
+     * @return Ressource, null si inconnue
+     */
+    @Nullable
+    Person getUser(@NotNull String username) {
+        return usernames.get(username);
+    }
+
+    /**
+     * Ressource humaine par id
+     *
+     * @param id Id
+     * @return Ressource, null si inconnue
+     */
+    @Nullable
+    Person getPerson(long id) {
+        return id >= 1 && id <= people.size() ? people.get((int) id - 1) : null;
+    }
+
+    /**
+     * Toutes les ressources humaines
+     *
+     * @return Ressources, à ne pas modifier
+     */
+    @NotNull
+    List<Person> getPeople() {
+        return Collections.unmodifiableList(people);
+    }
+
+    /**
+     * Ressource matérielle par id
+     *
+     * @param id Id
+     * @return Ressource, null si inconnue
+     */
+    @Nullable
+    Material getMaterial(long id) {
+        return id >= 1 && id <= materials.size() ? materials.get((int) id - 1) : null;
+    }
+
+    /**
+     * Toutes les ressources matérielles
+     *
+     * @return Ressources, à ne pas modifier
+     */
+    @NotNull
+    List<Material> getMaterials() {
+        return Collections.unmodifiableList(materials);
+    }
+
+    /**
+     * Projet par id
+     *
+     * @param id Id
+     * @return Projet, null si inconnu
+     */
+    @Nullable
+    Project getProject(long id) {
+        return projects.get(id);
+    }
+
+    /**
+     * Projets modifiés depuis une version
+     *
+     * @param since Version connue du client, -1 pour tous
+     * @return Projets
+     */
+    @NotNull
+    List<Project> getProjects(long since) {
+        ArrayList<Project> result = new ArrayList<>();
+
+        for (Project project : projects.values()) {
+            if (project.version > since) {
+                result.add(project);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Allocations d'un projet en cours à une date
+     *
+     * @param project Id du projet
+     * @param date    Date en secondes
+     * @return Allocations
+     */
+    @NotNull
+    List<Allocation> getAllocations(long project, long date) {
+        ArrayList<Allocation> result = new ArrayList<>();
+
+        for (Allocation allocation : allocations.getOrDefault(project, new ArrayList<>())) {
+            if (allocation.start <= date && date <= allocation.end) {
+                result.add(allocation);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Tâche par id
+     *
+     * @param id Id
+     * @return Tâche, null si inconnue
+     */
+    @Nullable
+    Task getTask(long id) {
+        return tasks.get(id);
+    }
+
+    /**
+     * Tâches d'un projet modifiées depuis une version
+     *
+     * @param project Id du projet
+     * @param since   Version connue du client, -1 pour toutes
+     * @return Tâches
+     */
+    @NotNull
+    List<Task> getTasks(long project, long since) {
+        ArrayList<Task> result = new ArrayList<>();
+
+        for (Task task : tasksByProject.getOrDefault(project, new ArrayList<>())) {
+            if (task.version > since) {
+                result.add(task);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Créneaux d'une ressource humaine qui recoupent une période, modifiés depuis une version
+     *
+     * @param owner Id de la ressource humaine
+     * @param from  Début en secondes
+     * @param to    Fin en secondes
+     * @param since Version connue du client, -1 pour tous
+     * @return Créneaux
+     */
+    @NotNull
+    List<Slot> getSlots(long owner, long from, long to, long since) {
+        ArrayList<Slot> result = new ArrayList<>();
+
+        for (Slot slot : slotsByOwner.getOrDefault(owner, new ArrayList<>())) {
+            if (slot.end > from && slot.start < to && slot.version > since) {
+                result.add(slot);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Page d'une conversation : la page 0 contient les messages les plus récents
+     *
+     * @param destination   Type de destination
+     * @param destinationId Id de la destination
+     * @param page          Numéro de page
+     * @return Messages de la page, du plus ancien au plus récent
+     */
+    @NotNull
+    List<Message> getMessages(@NotNull String destination, long destinationId, int page) {
+        ArrayList<Message> conversation = conversations.getOrDefault(destination + ":" + destinationId, new ArrayList<>());
+        int end = conversation.size() - Math.max(0, page) * PAGE_SIZE;
+
+        return end <= 0 ? new ArrayList<>() : new ArrayList<>(conversation.subList(Math.max(0, end - PAGE_SIZE), end));
+    }
+
+    /**
+     * Une conversation a-t-elle changé depuis une version ?
+     *
+     * @param destination   Type de destination
+     * @param destinationId Id de la destination
+     * @param since         Version connue du client
+     * @return Nouveau message depuis la version
+     */
+    boolean hasMessagesSince(@NotNull String destination, long destinationId, long since) {
+        ArrayList<Message> conversation = conversations.get(destination + ":" + destinationId);
+
+        // Les messages sont ajoutés dans l'ordre des versions
+        return conversation != null && !conversation.isEmpty()
+                && conversation.get(conversation.size() - 1).version > since;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Crée un projet, son créateur y est alloué
+     *
+     * @param name        Nom
+     * @param description Description
+     * @param deadline    Date limite en secondes, 0 si aucune
+     * @param status      Statut
+     * @param creator     Id de la ressource humaine du créateur
+     * @return Projet
+     */
+    @NotNull
+    Project addProject(@NotNull String name, @NotNull String description, long deadline,
+                       @NotNull String status, long creator) {
+        long id = ++lastProject;
+        Project project = new Project(id, name, description, deadline, status);
+        project.version = ++version;
+        projects.put(id, project);
+
+        long now = System.currentTimeMillis() / 1000L;
+        allocate(id, "HUMAN", creator, now, now + 365 * 86400L, creator);
+
+        return project;
+    }
+
+    /**
+     * Alloue une ressource à un projet
+     *
+     * @param project  Id du projet
+     * @param type     HUMAN ou MATERIAL
+     * @param resource Id de la ressource
+     * @param start    Début en secondes
+     * @param end      Fin en secondes
+     * @param issuer   Id de la ressource humaine qui alloue
+     * @return Allocation
+     */
+    @NotNull
+    Allocation allocate(long project, @NotNull String type, long resource, long start, long end, long issuer) {
+        Allocation allocation = new Allocation(++lastAllocation, project, type, resource, start, end, issuer);
+        allocations.computeIfAbsent(project, key -> new ArrayList<>()).add(allocation);
+
+        return allocation;
+    }
+
+    /**
+     * Retire une ressource d'un projet à partir d'une date
+     *
+     * @param project  Id du projet
+     * @param type     HUMAN ou MATERIAL
+     * @param resource Id de la ressource
+     * @param date     Date de fin de l'allocation, en secondes
+     * @return Nombre d'allocations terminées
+     */
+    int unallocate(long project, @NotNull String type, long resource, long date) {
+        int count = 0;
+
+        for (Allocation allocation : allocations.getOrDefault(project, new ArrayList<>())) {
+            if (allocation.type.equals(type) && allocation.resource == resource && allocation.end > date) {
+                allocation.end = Math.max(allocation.start, date);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Crée une ressource matérielle
+     *
+     * @param name        Nom
+     * @param description Description
+     * @return Ressource
+     */
+    @NotNull
+    Material addMaterial(@NotNull String name, @NotNull String description) {
+        Material material = new Material(materials.size() + 1, name, description);
+        materials.add(material);
+
+        return material;
+    }
+
+    /**
+     * Crée une tâche
+     *
+     * @param name        Nom
+     * @param description Description
+     * @param status      Statut
+     * @param deadline    Date limite en secondes
+     * @param project     Id du projet
+     * @param version     Version, 0 pour les données générées
+     * @return Tâche
+     */
+    @NotNull
+    Task addTask(@NotNull String name, @NotNull String description, @NotNull String status,
+                 long deadline, long project, long version) {
+        Task task = new Task(++lastTask, name, description, status, deadline, project);
+        task.version = version;
+        tasks.put(task.id, task);
+        tasksByProject.computeIfAbsent(project, key -> new ArrayList<>()).add(task);
+
+        return task;
+    }
+
+    /**
+     * Crée une tâche, avec une nouvelle version
+     *
+     * @param name        Nom
+     * @param description Description
+     * @param status      Statut
+     * @param deadline    Date limite en secondes
+     * @param project     Id du projet
+     * @return Tâche
+     */
+    @NotNull
+    Task addTask(@NotNull String name, @NotNull String description, @NotNull String status,
+                 long deadline, long project) {
+        return addTask(name, description, status, deadline, project, ++version);
+    }
+
+    /**
+     * Crée un créneau
+     *
+     * @param start   Début en secondes
+     * @param end     Fin en secondes
+     * @param task    Id de la tâche
+     * @param room    Id de la salle
+     * @param owner   Id de la ressource humaine
+     * @param version Version, 0 pour les données générées
+     * @return Créneau
+     */
+    @NotNull
+    Slot addSlot(long start, long end, long task, long room, long owner, long version) {
+        Slot slot = new Slot(++lastSlot, start, end, task, room);
+        slot.version = version;
+        slotsByOwner.computeIfAbsent(owner, key -> new ArrayList<>()).add(slot);
+
+        return slot;
+    }
+
+    /**
+     * Crée un créneau, avec une nouvelle version
+     *
+     * @param start Début en secondes
+     * @param end   Fin en secondes
+     * @param task  Id de la tâche
+     * @param room  Id de la salle
+     * @param owner Id de la ressource humaine
+     * @return Créneau
+     */
+    @NotNull
+    Slot addSlot(long start, long end, long task, long room, long owner) {
+        return addSlot(start, end, task, room, owner, ++version);
+    }
+
+    /**
+     * Crée un message
+     *
+     * @param date          Date en secondes
+     * @param source        Id de la ressource humaine de l'auteur
+     * @param destination   Type de destination
+     * @param destinationId Id de la destination
+     * @param content       Contenu
+     * @param version       Version, 0 pour les données générées
+     * @return Message
+     */
+    @NotNull
+    Message addMessage(long date, long source, @NotNull String destination, long destinationId,
+                       @NotNull String content, long version) {
+        Message message = new Message(++lastMessage, date, source, destination, destinationId, content);
+        message.version = version;
+        conversations.computeIfAbsent(destination + ":" + destinationId, key -> new ArrayList<>()).add(message);
+
+        return message;
+    }
+
+    /**
+     * Crée un message, avec une nouvelle version
+     *
+     * @param source        Id de la ressource humaine de l'auteur
+     * @param destination   Type de destination
+     * @param destinationId Id de la destination
+     * @param content       Contenu
+     * @return Message
+     */
+    @NotNull
+    Message addMessage(long source, @NotNull String destination, long destinationId, @NotNull String content) {
+        return addMessage(System.currentTimeMillis() / 1000L, source, destination, destinationId, content, ++version);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Élément au hasard
+     *
+     * @param random Générateur
+     * @param values Valeurs
+     * @return Valeur
+     */
+    @NotNull
+    private static String pick(@NotNull Random random, @NotNull String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Id au hasard entre 1 et max, les petits ids sont beaucoup plus souvent tirés
+     *
+     * @param random Générateur
+     * @param max    Id maximal
+     * @return Id
+     */
+    private static long skewed(@NotNull Random random, int max) {
+        double x = random.nextDouble();
+        return 1 + (long) (x * x * x * max);
+    }
+
+    /**
+     * Phrase au hasard
+     *
+     * @param random Générateur
+     * @param words  Nombre de mots
+     * @return Phrase
+     */
+    @NotNull
+    private static String sentence(@NotNull Random random, int words) {
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+
+            builder.append(pick(random, WORDS));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Met la première lettre en majuscule
+     *
+     * @param text Texte
+     * @return Texte
+     */
+    @NotNull
+    private static String capitalize(@NotNull String text) {
+        return text.isEmpty() ? text : Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Projet
+     */
+    static final class Project {
+        final long id;
+        final String name, description, status;
+        final long deadline;
+        long version;
+
+        /**
+         * Constructeur
+         *
+         * @param id          Id
+         * @param name        Nom
+         * @param description Description
+         * @param deadline    Date limite en secondes
+         * @param status      Statut
+         */
+        private Project(long id, @NotNull String name, @NotNull String description, long deadline, @NotNull String status) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.deadline = deadline;
+            this.status = status;
+        }
+    }
+
+    /**
+     * Ressource humaine, et son compte utilisateur
+     */
+    static final class Person {
+        final long id;
+        final String firstname, lastname, job, role, description, username;
+
+        /**
+         * Constructeur
+         *
+         * @param id          Id, sert aussi d'id utilisateur
+         * @param firstname   Prénom
+         * @param lastname    Nom
+         * @param job         Métier
+         * @param role        Rôle
+         * @param description Description
+         * @param username    Nom d'utilisateur
+         */
+        private Person(long id, @NotNull String firstname, @NotNull String lastname, @NotNull String job,
+                       @NotNull String role, @NotNull String description, @NotNull String username) {
+            this.id = id;
+            this.firstname = firstname;
+            this.lastname = lastname;
+            this.job = job;
+            this.role = role;
+            this.description = description;
+            this.username = username;
+        }
+    }
+
+    /**
+     * Ressource matérielle
+     */
+    static final class Material {
+        final long id;
+        final String name, description;
+
+        /**
+         * Constructeur
+         *
+         * @param id          Id
+         * @param name        Nom
+         * @param description Description
+         */
+        private Material(long id, @NotNull String name, @NotNull String description) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+        }
+    }
+
+    /**
+     * Allocation d'une ressource à un projet
+     */
+    static final class Allocation {
+        final long id, project, resource, start, issuer;
+        final String type;
+        long end;
+
+        /**
+         * Constructeur
+         *
+         * @param id       Id
+         * @param project  Id du projet
+         * @param type     HUMAN ou MATERIAL
+         * @param resource Id de la ressource
+         * @param start    Début en secondes
+         * @param end      Fin en secondes
+         * @param issuer   Id de la ressource humaine qui alloue
+         */
+        private Allocation(long id, long project, @NotNull String type, long resource, long start, long end, long issuer) {
+            this.id = id;
+            this.project = project;
+            this.type = type;
+            this.resource = resource;
+            this.start = start;
+            this.end = end;
+            this.issuer = issuer;
+        }
+    }
+
+    /**
+     * Tâche
+     */
+    static final class Task {
+        final long id, deadline, project;
+        final String name, description, status;
+        long version;
+
+        /**
+         * Constructeur
+         *
+         * @param id          Id
+         * @param name        Nom
+         * @param description Description
+         * @param status      Statut
+         * @param deadline    Date limite en secondes
+         * @param project     Id du projet
+         */
+        private Task(long id, @NotNull String name, @NotNull String description, @NotNull String status,
+                     long deadline, long project) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.status = status;
+            this.deadline = deadline;
+            this.project = project;
+        }
+    }
+
+    /**
+     * Créneau
+     */
+    static final class Slot {
+        final long id, start, end, task, room;
+        long version;
+
+        /**
+         * Constructeur
+         *
+         * @param id    Id
+         * @param start Début en secondes
+         * @param end   Fin en secondes
+         * @param task  Id de la tâche
+         * @param room  Id de la salle
+         */
+        private Slot(long id, long start, long end, long task, long room) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.task = task;
+            this.room = room;
+        }
+    }
+
+    /**
+     * Message
+     */
+    static final class Message {
+        final long id, date, source, destinationId;
+        final String destination, content;
+        long version;
+
+        /**
+         * Constructeur
+         *
+         * @param id            Id
+         * @param date          Date en secondes
+         * @param source        Id de la ressource humaine de l'auteur
+         * @param destination   Type de destination
+         * @param destinationId Id de la destination
+         * @param content       Contenu
+         */
+        private Message(long id, long date, long source, @NotNull String destination, long destinationId,
+                        @NotNull String content) {
+            this.id = id;
+            this.date = date;
+            this.source = source;
+            this.destination = destination;
+            this.destinationId = destinationId;
+            this.content = content;
+        }
+    }
+}
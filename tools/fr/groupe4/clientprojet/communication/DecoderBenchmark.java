@@ -0,0 +1,316 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.CommunicationStatus;
+import fr.groupe4.clientprojet.model.resource.ResourceRegistry;
+import fr.groupe4.clientprojet.model.resource.human.HumanResource;
+import org.jetbrains.annotations.NotNull;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Compare le décodage par arbre json-simple (JsonTreatment) et les décodeurs typés (JsonStreamTreatment),
+ * sur du JSON et sur le même contenu en MessagePack <br>
+ * <br>
+ * Mesure le temps et les octets alloués par opération, sur des contenus générés, sans réseau. <br>
+ * Lancement : <br><code>
+ * java -cp out:lib/* fr.groupe4.clientprojet.communication.DecoderBenchmark [taille] [itérations] </code>
+ */
+public final class DecoderBenchmark {
+    /**
+     * Nombre d'auteurs de messages et de ressources allouées, enregistrés avant la mesure
+     */
+    private static final int RESOURCES = 20;
+
+    /**
+     * Résultat gardé pour que la JIT ne supprime pas le décodage
+     */
+    private static volatile Object sink;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private DecoderBenchmark() {
+    }
+
+    /**
+     * Lance la comparaison
+     *
+     * @param args Nombre d'éléments par contenu (500 par défaut), nombre d'itérations mesurées (2000 par défaut)
+     * @throws Exception Contenu invalide
+     */
+    public static void main(String[] args) throws Exception {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        for (int i = 1; i <= RESOURCES; i++) {
+            ResourceRegistry.register(new HumanResource(i, "Prénom " + i, "Nom " + i, "Métier", "COLLABORATOR", "Description"));
+        }
+
+        System.out.printf(Locale.ROOT, "%-34s %-12s %12s %14s%n", "contenu", "décodeur", "ns/op", "octets/op");
+
+        run("projects", projects(size), new CommunicationBuilder().getProjectList(), iterations);
+        run("tasks", tasks(size), new CommunicationBuilder().getTaskList(1), iterations);
+        run("timeslots", timeSlots(size), new CommunicationBuilder().getUserTimeSlotList(
+                LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31)), iterations);
+        run("messages", messages(size), new CommunicationBuilder().getProjectMessageList(0, 1), iterations);
+        run("alloc HUMAN", allocations(size), new CommunicationBuilder().listUsersFromProject(1), iterations);
+    }
+
+    /**
+     * Mesure les deux décodeurs sur un contenu
+     *
+     * @param name       Nom du contenu
+     * @param content    Contenu JSON
+     * @param builder    Requête correspondant au contenu, jamais envoyée
+     * @param iterations Nombre d'itérations mesurées
+     * @throws Exception Contenu invalide
+     */
+    private static void run(@NotNull String name,
+                            @NotNull String content,
+                            @NotNull CommunicationBuilder builder,
+                            int iterations) throws Exception {
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream messagePack = new ByteArrayOutputStream(data.length);
+        new MessagePackWriter(messagePack).writeValue(new JSONParser().parse(content));
+        byte[] packed = messagePack.toByteArray();
+        Communication comm = builder.build();
+        comm.status = CommunicationStatus.STATUS_SUCCESS;
+
+        if (!JsonStreamTreatment.isStreamed(comm.typeOfCommunication)) {
+            throw new IllegalStateException("Pas de décodeur typé pour " + comm.typeOfCommunication);
+        }
+
+        Decoding tree = DecoderBenchmark::decodeTree;
+        Decoding typed = DecoderBenchmark::decodeTyped;
+        Decoding typedMessagePack = DecoderBenchmark::decodeTypedMessagePack;
+
+        // Chauffe de la JIT
+        for (int i = 0; i < iterations; i++) {
+            tree.decode(comm, data);
+            typed.decode(comm, data);
+            typedMessagePack.decode(comm, packed);
+        }
+
+        String label = name + " (" + data.length / 1024 + " Kio)";
+        measure(label, "json-simple", tree, comm, data, iterations);
+        measure(label, "typé", typed, comm, data, iterations);
+
+        label = name + " (" + packed.length / 1024 + " Kio msgpack)";
+        measure(label, "typé", typedMessagePack, comm, packed, iterations);
+    }
+
+    /**
+     * Mesure un décodeur
+     *
+     * @param label      Nom du contenu
+     * @param decoder    Nom du décodeur
+     * @param decoding   Décodage à mesurer
+     * @param comm       Communication à remplir
+     * @param data       Contenu JSON
+     * @param iterations Nombre d'itérations
+     * @throws Exception Contenu invalide
+     */
+    private static void measure(@NotNull String label,
+                                @NotNull String decoder,
+                                @NotNull Decoding decoding,
+                                @NotNull Communication comm,
+                                @NotNull byte[] data,
+                                int iterations) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < iterations; i++) {
+            decoding.decode(comm, data);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf(Locale.ROOT, "%-34s %-12s %12d %14d%n",
+                label, decoder, elapsed / iterations, allocated / iterations);
+    }
+
+    /**
+     * Décodage actuel : arbre json-simple puis JsonTreatment
+     *
+     * @param comm Communication à remplir
+     * @param data Contenu JSON
+     * @throws IOException    Erreur de lecture
+     * @throws ParseException JSON invalide
+     */
+    private static void decodeTree(@NotNull Communication comm, @NotNull byte[] data) throws IOException, ParseException {
+        Object content = new JSONParser().parse(
+                new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8));
+
+        JsonTreatment.doSomethingWithData(comm, content);
+        sink = comm.communicationResult;
+    }
+
+    /**
+     * Décodage typé : lecture en flux puis JsonStreamTreatment
+     *
+     * @param comm Communication à remplir
+     * @param data Contenu JSON
+     * @throws IOException JSON invalide ou erreur de lecture
+     */
+    private static void decodeTyped(@NotNull Communication comm, @NotNull byte[] data) throws IOException {
+        try (JsonReader reader = new JsonReader(new ByteArrayInputStream(data))) {
+            Object content = JsonStreamTreatment.readContent(comm.typeOfCommunication, reader);
+
+            JsonStreamTreatment.doSomethingWithContent(comm, content);
+            sink = comm.communicationResult;
+        }
+    }
+
+    /**
+     * Décodage typé d'un contenu MessagePack
+     *
+     * @param comm Communication à remplir
+     * @param data Contenu MessagePack
+     * @throws IOException Contenu invalide ou erreur de lecture
+     */
+    private static void decodeTypedMessagePack(@NotNull Communication comm, @NotNull byte[] data) throws IOException {
+        try (MessagePackReader reader = new MessagePackReader(new ByteArrayInputStream(data))) {
+            Object content = JsonStreamTreatment.readContent(comm.typeOfCommunication, reader);
+
+            JsonStreamTreatment.doSomethingWithContent(comm, content);
+            sink = comm.communicationResult;
+        }
+    }
+
+    /**
+     * Un décodage à mesurer
+     */
+    @FunctionalInterface
+    private interface Decoding {
+        /**
+         * Décode un contenu dans une communication
+         *
+         * @param comm Communication à remplir
+         * @param data Contenu JSON
+         * @throws Exception Contenu invalide
+         */
+        void decode(@NotNull Communication comm, @NotNull byte[] data) throws Exception;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Génère une liste de projets
+     *
+     * @param size Nombre de projets
+     * @return Contenu JSON
+     */
+    @NotNull
+    private static String projects(int size) {
+        StringBuilder sb = new StringBuilder("{\"projects\":[");
+
+        for (int i = 0; i < size; i++) {
+            sb.append(i > 0 ? "," : "")
+                    .append("{\"").append(i).append("\":{\"id\":").append(i)
+                    .append(",\"name\":\"Projet ").append(i)
+                    .append("\",\"description\":\"Description du projet ").append(i)
+                    .append("\",\"deadline\":1700000000,\"status\":\"ONGOING\"}}");
+        }
+
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * Génère une liste de tâches
+     *
+     * @param size Nombre de tâches
+     * @return Contenu JSON
+     */
+    @NotNull
+    private static String tasks(int size) {
+        StringBuilder sb = new StringBuilder("{\"tasks\":[");
+
+        for (int i = 0; i < size; i++) {
+            sb.append(i > 0 ? "," : "")
+                    .append("{\"").append(i).append("\":{\"id\":").append(i)
+                    .append(",\"name\":\"Tâche ").append(i)
+                    .append("\",\"description\":\"Description de la tâche ").append(i)
+                    .append("\",\"status\":\"ONGOING\",\"deadline\":1700000000,\"project\":1}}");
+        }
+
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * Génère une liste de créneaux
+     *
+     * @param size Nombre de créneaux
+     * @return Contenu JSON
+     */
+    @NotNull
+    private static String timeSlots(int size) {
+        StringBuilder sb = new StringBuilder("{\"timeslots\":[");
+
+        for (int i = 0; i < size; i++) {
+            sb.append(i > 0 ? "," : "")
+                    .append("{\"").append(i).append("\":{\"id\":").append(i)
+                    .append(",\"start\":").append(1700000000 + i * 3600L)
+                    .append(",\"end\":").append(1700003600 + i * 3600L)
+                    .append(",\"task\":1,\"room\":1}}");
+        }
+
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * Génère une liste de messages, dont les auteurs sont déjà enregistrés
+     *
+     * @param size Nombre de messages
+     * @return Contenu JSON
+     */
+    @NotNull
+    private static String messages(int size) {
+        StringBuilder sb = new StringBuilder("{\"messages\":[");
+
+        for (int i = 0; i < size; i++) {
+            sb.append(i > 0 ? "," : "")
+                    .append("{\"").append(i).append("\":{\"id\":").append(i)
+                    .append(",\"date\":1700000000,\"sourceId\":").append(1 + i % RESOURCES)
+                    .append(",\"destinationId\":1,\"destination\":\"PROJECT\",\"content\":\"Message numéro ")
+                    .append(i).append("\"}}");
+        }
+
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * Génère une liste d'allocations de ressources humaines, déjà enregistrées
+     *
+     * @param size Nombre d'allocations
+     * @return Contenu JSON
+     */
+    @NotNull
+    private static String allocations(int size) {
+        StringBuilder sb = new StringBuilder("{\"HUMAN\":[");
+
+        for (int i = 0; i < size; i++) {
+            sb.append(i > 0 ? "," : "")
+                    .append("{\"id\":\"").append(i)
+                    .append("\",\"id_resource\":\"").append(1 + i % RESOURCES)
+                    .append("\",\"id_project\":\"1\",\"date_start\":\"1700000000\",\"date_end\":\"1800000000\"")
+                    .append(",\"id_issuer\":\"1\",\"status\":\"ALLOCATED\"}");
+        }
+
+        return sb.append("],\"MATERIAL\":[]}").toString();
+    }
+}
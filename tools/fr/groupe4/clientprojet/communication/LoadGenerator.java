@@ -0,0 +1,789 @@
+package fr.groupe4.clientprojet.communication;
+
+import fr.groupe4.clientprojet.communication.enums.CommunicationStatus;
+import fr.groupe4.clientprojet.communication.enums.CommunicationType;
+import fr.groupe4.clientprojet.communication.enums.HTTPCode;
+import fr.groupe4.clientprojet.model.parameters.Parameters;
+import fr.groupe4.clientprojet.model.project.Project;
+import fr.groupe4.clientprojet.model.task.Task;
+import fr.groupe4.clientprojet.utils.Location;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Générateur de charge sans interface : des sessions utilisateur scriptées, en appels de CommunicationBuilder <br>
+ * <br>
+ * Chaque session se connecte pendant la chauffe, puis enchaine jusqu'à la fin de la mesure les écrans de l'application :
+ * liste des projets, ouverture d'un projet (tâches, messages, ressources allouées), semaine de l'utilisateur,
+ * et parfois l'ajout d'un créneau. Un temps de réflexion aléatoire sépare les étapes. <br>
+ * <br>
+ * Chaque session est un processus client à part, comme un poste : son token, ses curseurs, ses caches, son registre
+ * des ressources et les limites de son ordonnanceur ne sont pas partagés. Les processus sont lancés avec la même JVM
+ * et le même classpath, chacun dans son propre dossier (logs, sortie console, résultat et répertoire data, donc
+ * stockage local et modifications en attente), sous un dossier temporaire affiché au lancement. <br>
+ * Le rapport donne, par type de communication, le débit, les percentiles de latence (de bout en bout,
+ * comme l'utilisateur la voit) et le taux d'erreurs des requêtes du script, mesurées par chaque session.
+ * La colonne local et les requêtes lancées par le client lui-même, comme les ressources humaines des auteurs
+ * de messages, viennent des métriques du client (CommunicationMetrics). La période de chauffe n'est pas comptée. <br>
+ * <br>
+ * Les listes sont complètes par défaut (--incremental pour les curseurs "since") et le cache est ignoré
+ * (--cache pour le garder), pour mesurer le travail du serveur. <br>
+ * Sans --url, un ApiServer est lancé dans le processus avec ses données par défaut. <br>
+ * Lancement : <br><code>
+ * java -cp out:lib/* fr.groupe4.clientprojet.communication.LoadGenerator [--url http://localhost:8080]
+ * [--sessions 20] [--duration 60] [--warmup 10] [--think 500] [--writes 0.2] [--users 200] [--cache]
+ * [--incremental] [--trace] [--json] </code>
+ */
+public final class LoadGenerator {
+    /**
+     * Mot de passe des utilisateurs, celui d'ApiServer
+     */
+    @NotNull
+    private static final String PASSWORD = ApiServerData.PASSWORD;
+
+    /**
+     * Fichier du résultat d'une session, dans son dossier
+     */
+    @NotNull
+    private static final String RESULT_FILE = "result.json";
+
+    /**
+     * Temps laissé aux sessions pour finir après la mesure, en secondes
+     */
+    private static final long SESSION_GRACE = 60;
+
+    /**
+     * Attente moyenne minimale entre deux tentatives de connexion, en millisecondes
+     */
+    private static final long LOGIN_RETRY = 500;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Constructeur privé, classe utilitaire
+     */
+    private LoadGenerator() {
+    }
+
+    /**
+     * Lance la mesure, ou une session si l'option --session est donnée (processus lancé par la mesure)
+     *
+     * @param args Options, voir la description de la classe
+     * @throws IOException          Serveur local ou session impossible à lancer
+     * @throws InterruptedException Mesure interrompue
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        HashMap<String, String> options = new HashMap<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                System.err.println("Option inconnue : " + args[i]);
+                System.exit(1);
+            }
+
+            boolean flag = i + 1 >= args.length || args[i + 1].startsWith("--");
+            options.put(args[i].substring(2), flag ? "true" : args[++i]);
+        }
+
+        if (options.containsKey("session")) {
+            session(options);
+        } else {
+            measure(options);
+        }
+    }
+
+    /**
+     * Lance les sessions, attend leur fin et affiche le rapport
+     *
+     * @param options Options de la ligne de commande
+     * @throws IOException          Serveur local ou session impossible à lancer
+     * @throws InterruptedException Mesure interrompue
+     */
+    private static void measure(@NotNull Map<String, String> options) throws IOException, InterruptedException {
+        int sessions = Integer.parseInt(options.getOrDefault("sessions", "20"));
+        long duration = Long.parseLong(options.getOrDefault("duration", "60"));
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "10"));
+        int users = Integer.parseInt(options.getOrDefault("users", "200"));
+
+        ApiServer server = null;
+        String url = options.get("url");
+
+        if (url == null) {
+            server = new ApiServer(0, new ApiServerData(42, users, 100, 2000, 20000, 20000), 3600, 0, false);
+            server.start();
+            url = server.getUrl();
+        }
+
+        Path directory = Files.createTempDirectory("load-generator-");
+        long measureStart = System.currentTimeMillis() + warmup * 1000L;
+        long measureEnd = measureStart + duration * 1000L;
+
+        System.out.printf(Locale.ROOT, "%d sessions sur %s, %d s de chauffe, %d s de mesure, dossiers dans %s%n",
+                sessions, url, warmup, duration, directory);
+
+        ArrayList<Process> processes = new ArrayList<>(sessions);
+
+        // Démarrage étalé sur la chauffe, pour ne pas connecter toutes les sessions au même instant
+        for (int i = 0; i < sessions; i++) {
+            Path sessionDirectory = Files.createDirectory(directory.resolve("session-" + (i + 1)));
+            List<String> command = sessionCommand(options, sessionDirectory, url, "user" + (1 + i % users),
+                    measureStart, measureEnd);
+
+            processes.add(new ProcessBuilder(command)
+                    .directory(sessionDirectory.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(sessionDirectory.resolve("console.log").toFile())
+                    .start());
+
+            Thread.sleep(warmup * 1000L / Math.max(1, sessions) / 2);
+        }
+
+        Thread.sleep(Math.max(0, measureStart - System.currentTimeMillis()));
+        System.out.println("Chauffe terminée, mesure en cours");
+
+        Report report = new Report();
+
+        for (int i = 0; i < sessions; i++) {
+            Process process = processes.get(i);
+            long remaining = measureEnd + SESSION_GRACE * 1000L - System.currentTimeMillis();
+
+            if (!process.waitFor(Math.max(0, remaining), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+            }
+
+            report.add(directory.resolve("session-" + (i + 1)).resolve(RESULT_FILE));
+        }
+
+        if (options.containsKey("json")) {
+            System.out.println(report.toJson(duration).toJSONString());
+        } else {
+            report.print(duration);
+        }
+
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    /**
+     * Ligne de commande d'une session : même JVM, même classpath en chemins absolus, répertoire data dans son dossier
+     *
+     * @param options      Options de la mesure
+     * @param directory    Dossier de la session
+     * @param url          URL du serveur
+     * @param username     Utilisateur de la session
+     * @param measureStart Début de la mesure, en millisecondes depuis l'epoch
+     * @param measureEnd   Fin de la mesure, en millisecondes depuis l'epoch
+     * @return Commande
+     */
+    @NotNull
+    private static List<String> sessionCommand(@NotNull Map<String, String> options,
+                                               @NotNull Path directory,
+                                               @NotNull String url,
+                                               @NotNull String username,
+                                               long measureStart,
+                                               long measureEnd) {
+        StringBuilder classpath = new StringBuilder();
+
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (classpath.length() > 0) {
+                classpath.append(File.pathSeparator);
+            }
+
+            classpath.append(new File(entry).getAbsolutePath());
+        }
+
+        ArrayList<String> command = new ArrayList<>(Arrays.asList(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xmx128m",
+                "-D" + Location.DATA_PATH_PROPERTY + "=" + directory.resolve("data").toAbsolutePath(),
+                "-cp", classpath.toString(),
+                LoadGenerator.class.getName(),
+                "--session", username,
+                "--url", url,
+                "--start", Long.toString(measureStart),
+                "--end", Long.toString(measureEnd),
+                "--think", options.getOrDefault("think", "500"),
+                "--writes", options.getOrDefault("writes", "0.2")));
+
+        for (String flag : new String[]{"cache", "incremental", "trace"}) {
+            if (options.containsKey(flag)) {
+                command.add("--" + flag);
+            }
+        }
+
+        return command;
+    }
+
+    /**
+     * Déroule une session dans ce processus et écrit son résultat dans le dossier courant
+     *
+     * @param options Options données par la mesure
+     * @throws IOException          Résultat impossible à écrire
+     * @throws InterruptedException Session interrompue
+     */
+    @SuppressWarnings("unchecked")
+    private static void session(@NotNull Map<String, String> options) throws IOException, InterruptedException {
+        Parameters.init();
+        Parameters.setServerUrl(options.get("url"));
+        Communication.setTracing(options.containsKey("trace"));
+
+        // Les instantanés sont pris ici, aux bornes de la mesure, et plus toutes les minutes
+        CommunicationMetrics.stop();
+
+        long measureStart = Long.parseLong(options.get("start"));
+        long measureEnd = Long.parseLong(options.get("end"));
+
+        Script script = new Script(
+                Long.parseLong(options.get("think")),
+                Double.parseDouble(options.get("writes")),
+                options.containsKey("cache"),
+                options.containsKey("incremental"),
+                toNanoTime(measureStart),
+                toNanoTime(measureEnd));
+
+        Thread thread = new Thread(() -> script.run(options.get("session")), "load-session");
+        thread.setDaemon(true);
+        thread.start();
+
+        Thread.sleep(Math.max(0, measureStart - System.currentTimeMillis()));
+        CommunicationMetrics.snapshot();
+        thread.join();
+
+        JSONObject result = script.toJson();
+        result.put("metrics", CommunicationMetrics.snapshot());
+        Files.write(Paths.get(RESULT_FILE), result.toJSONString().getBytes(StandardCharsets.UTF_8));
+
+        Communication.exit();
+    }
+
+    /**
+     * Convertit une date en temps de System.nanoTime()
+     *
+     * @param epochMillis Date en millisecondes depuis l'epoch
+     * @return Temps en nanosecondes
+     */
+    private static long toNanoTime(long epochMillis) {
+        return System.nanoTime() + (epochMillis - System.currentTimeMillis()) * 1_000_000;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Script d'une session utilisateur, avec ses mesures
+     */
+    private static final class Script {
+        /**
+         * Temps de réflexion moyen entre deux étapes, en millisecondes
+         */
+        private final long think;
+
+        /**
+         * Proportion des ouvertures de projet suivies de l'ajout d'un créneau
+         */
+        private final double writes;
+
+        /**
+         * Cache du client utilisé ou non
+         */
+        private final boolean cache;
+
+        /**
+         * Listes incrémentales ou complètes
+         */
+        private final boolean incremental;
+
+        /**
+         * Début de la mesure, en nanosecondes
+         */
+        private final long measureStart;
+
+        /**
+         * Fin de la mesure, en nanosecondes
+         */
+        private final long deadline;
+
+        /**
+         * Latences mesurées par type, en microsecondes
+         */
+        @NotNull
+        private final EnumMap<CommunicationType, ArrayList<Long>> latencies = new EnumMap<>(CommunicationType.class);
+
+        /**
+         * Erreurs mesurées par type, par code
+         */
+        @NotNull
+        private final EnumMap<CommunicationType, HashMap<String, Long>> errors = new EnumMap<>(CommunicationType.class);
+
+        /**
+         * Passages terminés sans erreur pendant la mesure
+         */
+        private long iterations = 0;
+
+        /**
+         * Passages interrompus par une erreur pendant la mesure
+         */
+        private long failures = 0;
+
+        /**
+         * Constructeur
+         *
+         * @param think        Temps de réflexion moyen entre deux étapes, en millisecondes
+         * @param writes       Proportion des ouvertures de projet suivies de l'ajout d'un créneau
+         * @param cache        Cache du client utilisé ou non
+         * @param incremental  Listes incrémentales ou complètes
+         * @param measureStart Début de la mesure, en nanosecondes
+         * @param deadline     Fin de la mesure, en nanosecondes
+         */
+        private Script(long think, double writes, boolean cache, boolean incremental, long measureStart, long deadline) {
+            this.think = think;
+            this.writes = writes;
+            this.cache = cache;
+            this.incremental = incremental;
+            this.measureStart = measureStart;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Déroule la session jusqu'à la fin de la mesure
+         *
+         * @param username Utilisateur de la session
+         */
+        private void run(@NotNull String username) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            while (System.nanoTime() < deadline && !send(Communication.builder().connect(username, PASSWORD)).isSuccessful()) {
+                pause(Math.max(think * 4, LOGIN_RETRY));
+            }
+
+            while (System.nanoTime() < deadline) {
+                boolean measured = System.nanoTime() >= measureStart;
+                boolean success = iteration(random);
+
+                if (measured && success) {
+                    iterations++;
+                } else if (measured) {
+                    failures++;
+                }
+            }
+        }
+
+        /**
+         * Un passage par les écrans de l'application
+         *
+         * @param random Générateur de la session
+         * @return Passage terminé sans erreur
+         */
+        private boolean iteration(@NotNull ThreadLocalRandom random) {
+            Communication projectList = send(Communication.builder().getProjectList());
+            List<?> projects = result(projectList);
+
+            if (projects == null) {
+                return false;
+            }
+
+            pause(think);
+
+            if (projects.isEmpty()) {
+                return true;
+            }
+
+            // Les premiers projets de la liste sont les plus ouverts
+            int index = (int) (Math.pow(random.nextDouble(), 2) * projects.size());
+            long project = ((Project) projects.get(index)).getId();
+
+            List<?> tasks = result(send(Communication.builder().getTaskList(project)));
+            boolean success = tasks != null
+                    && send(Communication.builder().getProjectMessageList(0, project)).isSuccessful()
+                    && send(Communication.builder().listUsersFromProject(project)).isSuccessful();
+
+            pause(think);
+
+            LocalDate monday = LocalDate.now().minusDays(LocalDate.now().getDayOfWeek().getValue() - 1);
+            success &= send(Communication.builder().getUserTimeSlotList(monday, monday.plusDays(7))).isSuccessful();
+
+            if (success && !tasks.isEmpty() && random.nextDouble() < writes) {
+                pause(think);
+
+                long task = ((Task) tasks.get(random.nextInt(tasks.size()))).getId();
+                LocalDateTime start = monday.atTime(8 + random.nextInt(10), 0).plusDays(random.nextInt(5));
+                success = send(Communication.builder().addTimeSlot(start, start.plusHours(1), task, 1 + random.nextInt(50)))
+                        .isSuccessful();
+            }
+
+            pause(think);
+
+            return success;
+        }
+
+        /**
+         * Envoie une communication, attend sa fin et la mesure si elle part pendant la mesure
+         *
+         * @param builder Builder non terminé avec URL
+         * @return Communication terminée
+         */
+        @NotNull
+        private Communication send(@NotNull CommunicationBuilder builder) {
+            if (!cache) {
+                builder.noCache();
+            }
+
+            long start = System.nanoTime();
+            Communication comm = builder.incremental(incremental).startNow().sleepUntilFinished().build();
+
+            if (start >= measureStart) {
+                CommunicationType type = comm.typeOfCommunication;
+                latencies.computeIfAbsent(type, t -> new ArrayList<>()).add(Math.max(1, (System.nanoTime() - start) / 1_000));
+
+                String error = error(comm);
+
+                if (error != null) {
+                    errors.computeIfAbsent(type, t -> new HashMap<>()).merge(error, 1L, Long::sum);
+                }
+            }
+
+            return comm;
+        }
+
+        /**
+         * Erreur d'une communication : code HTTP autre que 200 et 304, ou code API en erreur
+         *
+         * @param comm Communication terminée
+         * @return Code de l'erreur, null sans erreur
+         */
+        @Nullable
+        private static String error(@NotNull Communication comm) {
+            HTTPCode httpCode = comm.getHTTPCode();
+
+            if (httpCode != HTTPCode.HTTP_OK && httpCode != HTTPCode.HTTP_NOT_MODIFIED) {
+                return httpCode.name();
+            }
+
+            if (httpCode == HTTPCode.HTTP_OK && comm.getStatus() != CommunicationStatus.STATUS_SUCCESS) {
+                return comm.getCode().name();
+            }
+
+            return null;
+        }
+
+        /**
+         * Mesures de la session
+         *
+         * @return Passages, latences et erreurs par type
+         */
+        @NotNull
+        @SuppressWarnings("unchecked")
+        private JSONObject toJson() {
+            JSONObject types = new JSONObject();
+
+            for (Map.Entry<CommunicationType, ArrayList<Long>> entry : latencies.entrySet()) {
+                JSONObject type = new JSONObject();
+                JSONArray values = new JSONArray();
+                values.addAll(entry.getValue());
+
+                type.put("latencies", values);
+                type.put("errors", new JSONObject(errors.getOrDefault(entry.getKey(), new HashMap<>())));
+                types.put(entry.getKey().name(), type);
+            }
+
+            JSONObject json = new JSONObject();
+            json.put("iterations", iterations);
+            json.put("failures", failures);
+            json.put("types", types);
+
+            return json;
+        }
+
+        /**
+         * Liste renvoyée par une communication
+         *
+         * @param comm Communication terminée
+         * @return Liste, null en cas d'erreur
+         */
+        @Nullable
+        private static List<?> result(@NotNull Communication comm) {
+            return comm.isSuccessful() && comm.getResult() instanceof List ? (List<?>) comm.getResult() : null;
+        }
+
+        /**
+         * Temps de réflexion de l'utilisateur, exponentiel autour de la moyenne
+         *
+         * @param mean Moyenne, en millisecondes
+         */
+        private void pause(long mean) {
+            if (mean <= 0) {
+                return;
+            }
+
+            long millis = (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * mean);
+
+            try {
+                Thread.sleep(Math.min(millis, Math.max(0, (deadline - System.nanoTime()) / 1_000_000)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Résultats de toutes les sessions, réunis
+     */
+    private static final class Report {
+        /**
+         * Latences par type, en microsecondes
+         */
+        @NotNull
+        private final EnumMap<CommunicationType, ArrayList<Long>> latencies = new EnumMap<>(CommunicationType.class);
+
+        /**
+         * Erreurs par type, par code
+         */
+        @NotNull
+        private final EnumMap<CommunicationType, HashMap<String, Long>> errors = new EnumMap<>(CommunicationType.class);
+
+        /**
+         * Communications servies sans échange HTTP, par type, d'après les métriques du client
+         */
+        @NotNull
+        private final EnumMap<CommunicationType, Long> local = new EnumMap<>(CommunicationType.class);
+
+        /**
+         * Communications lancées, par type, d'après les métriques du client
+         */
+        @NotNull
+        private final EnumMap<CommunicationType, Long> requests = new EnumMap<>(CommunicationType.class);
+
+        /**
+         * Compteurs du token, d'après les métriques du client
+         */
+        @NotNull
+        private final HashMap<String, Long> token = new HashMap<>();
+
+        /**
+         * Passages terminés sans erreur
+         */
+        private long iterations = 0;
+
+        /**
+         * Passages interrompus par une erreur
+         */
+        private long failures = 0;
+
+        /**
+         * Sessions terminées avec un résultat
+         */
+        private int sessions = 0;
+
+        /**
+         * Sessions sans résultat
+         */
+        private int missing = 0;
+
+        /**
+         * Ajoute le résultat d'une session
+         *
+         * @param file Fichier du résultat
+         */
+        private void add(@NotNull Path file) {
+            JSONObject json;
+
+            try {
+                json = (JSONObject) new JSONParser().parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            } catch (IOException | ParseException | ClassCastException e) {
+                System.err.println("Session sans résultat, voir " + file.resolveSibling("console.log") + " : " + e);
+                missing++;
+                return;
+            }
+
+            sessions++;
+            iterations += (long) json.get("iterations");
+            failures += (long) json.get("failures");
+
+            JSONObject types = (JSONObject) json.get("types");
+
+            for (Object name : types.keySet()) {
+                CommunicationType type = CommunicationType.valueOf(name.toString());
+                JSONObject measures = (JSONObject) types.get(name);
+                JSONObject typeErrors = (JSONObject) measures.get("errors");
+                ArrayList<Long> typeLatencies = latencies.computeIfAbsent(type, t -> new ArrayList<>());
+
+                for (Object value : (JSONArray) measures.get("latencies")) {
+                    typeLatencies.add((long) value);
+                }
+
+                for (Object code : typeErrors.keySet()) {
+                    errors.computeIfAbsent(type, t -> new HashMap<>()).merge(code.toString(), (long) typeErrors.get(code), Long::sum);
+                }
+            }
+
+            JSONObject metrics = (JSONObject) json.get("metrics");
+
+            if (metrics == null) {
+                return;
+            }
+
+            JSONObject endpoints = (JSONObject) metrics.get("types");
+
+            for (Object name : endpoints.keySet()) {
+                CommunicationType type = CommunicationType.valueOf(name.toString());
+                JSONObject endpoint = (JSONObject) endpoints.get(name);
+
+                local.merge(type, (long) endpoint.get("local"), Long::sum);
+                requests.merge(type, (long) endpoint.get("requests"), Long::sum);
+            }
+
+            JSONObject tokenCounts = (JSONObject) metrics.get("token");
+
+            for (Object name : tokenCounts.keySet()) {
+                token.merge(name.toString(), (long) tokenCounts.get(name), Long::sum);
+            }
+        }
+
+        /**
+         * Affiche le rapport
+         *
+         * @param seconds Durée de la mesure, en secondes
+         */
+        private void print(long seconds) {
+            System.out.printf(Locale.ROOT, "%nSessions : %d passages terminés (%.1f/s), %d interrompus, %d session(s) sans résultat%n",
+                    iterations, (double) iterations / seconds, failures, missing);
+
+            if (latencies.isEmpty()) {
+                System.out.println("Aucune communication mesurée");
+                return;
+            }
+
+            System.out.printf(Locale.ROOT, "%-32s %8s %8s %7s %9s %9s %9s %9s %8s  %s%n",
+                    "type", "requêtes", "req/s", "local", "p50 ms", "p95 ms", "p99 ms", "max ms", "erreurs", "détail");
+
+            long total = 0;
+            long totalErrors = 0;
+
+            for (Map.Entry<CommunicationType, ArrayList<Long>> entry : latencies.entrySet()) {
+                long[] sorted = sorted(entry.getValue());
+                Map<String, Long> typeErrors = errors.getOrDefault(entry.getKey(), new HashMap<>());
+                long errorCount = typeErrors.values().stream().mapToLong(Long::longValue).sum();
+                total += sorted.length;
+                totalErrors += errorCount;
+
+                System.out.printf(Locale.ROOT, "%-32s %8d %8.1f %7d %9.1f %9.1f %9.1f %9.1f %7.2f%%  %s%n",
+                        entry.getKey(), sorted.length, sorted.length / (double) seconds,
+                        local.getOrDefault(entry.getKey(), 0L),
+                        percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), percentile(sorted, 100),
+                        100.0 * errorCount / sorted.length, typeErrors.isEmpty() ? "" : typeErrors);
+            }
+
+            System.out.printf(Locale.ROOT, "%-32s %8d %8.1f %7s %9s %9s %9s %9s %7.2f%%%n",
+                    "TOTAL", total, total / (double) seconds, "", "", "", "", "", total > 0 ? 100.0 * totalErrors / total : 0.0);
+
+            ArrayList<String> client = new ArrayList<>();
+
+            for (Map.Entry<CommunicationType, Long> entry : requests.entrySet()) {
+                if (!latencies.containsKey(entry.getKey()) && entry.getValue() > 0) {
+                    client.add(entry.getKey() + " " + entry.getValue());
+                }
+            }
+
+            if (!client.isEmpty()) {
+                System.out.println("Requêtes lancées par le client : " + String.join(", ", client));
+            }
+
+            System.out.println("Token : " + token);
+        }
+
+        /**
+         * Rapport en JSON
+         *
+         * @param seconds Durée de la mesure, en secondes
+         * @return Passages, puis par type : nombre, local, percentiles en millisecondes et erreurs
+         */
+        @NotNull
+        @SuppressWarnings("unchecked")
+        private JSONObject toJson(long seconds) {
+            JSONObject types = new JSONObject();
+
+            for (Map.Entry<CommunicationType, ArrayList<Long>> entry : latencies.entrySet()) {
+                long[] sorted = sorted(entry.getValue());
+                JSONObject type = new JSONObject();
+
+                type.put("count", (long) sorted.length);
+                type.put("local", local.getOrDefault(entry.getKey(), 0L));
+                type.put("p50", percentile(sorted, 50));
+                type.put("p95", percentile(sorted, 95));
+                type.put("p99", percentile(sorted, 99));
+                type.put("max", percentile(sorted, 100));
+                type.put("errors", new JSONObject(errors.getOrDefault(entry.getKey(), new HashMap<>())));
+                types.put(entry.getKey().name(), type);
+            }
+
+            JSONObject client = new JSONObject();
+
+            for (Map.Entry<CommunicationType, Long> entry : requests.entrySet()) {
+                if (!latencies.containsKey(entry.getKey()) && entry.getValue() > 0) {
+                    client.put(entry.getKey().name(), entry.getValue());
+                }
+            }
+
+            JSONObject json = new JSONObject();
+            json.put("seconds", seconds);
+            json.put("sessions", (long) sessions);
+            json.put("missing", (long) missing);
+            json.put("iterations", iterations);
+            json.put("failures", failures);
+            json.put("types", types);
+            json.put("client", client);
+            json.put("token", new JSONObject(token));
+
+            return json;
+        }
+
+        /**
+         * Latences triées
+         *
+         * @param values Latences, en microsecondes
+         * @return Latences triées
+         */
+        @NotNull
+        private static long[] sorted(@NotNull List<Long> values) {
+            long[] sorted = values.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        /**
+         * Percentile exact, au rang le plus proche
+         *
+         * @param sorted     Latences triées, en microsecondes, au moins une
+         * @param percentile Percentile, entre 0 et 100
+         * @return Latence en millisecondes
+         */
+        private static double percentile(@NotNull long[] sorted, int percentile) {
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1000.0;
+        }
+    }
+}